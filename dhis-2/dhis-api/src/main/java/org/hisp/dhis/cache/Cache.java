@@ -123,7 +123,7 @@ public interface Cache<V>
     void invalidateAll();
 
     /**
-     * Returns the type of the cache. IN_MEMORY or REDIS or NONE.
+     * Returns the type of the cache. IN_MEMORY or REDIS or HYBRID or NONE.
      *
      * @return
      */
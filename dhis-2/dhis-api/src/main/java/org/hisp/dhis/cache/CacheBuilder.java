@@ -29,6 +29,7 @@ package org.hisp.dhis.cache;
  */
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * A Builder class that helps in building Cache instances. Sensible defaults are
@@ -107,6 +108,26 @@ public interface CacheBuilder<V>
      */
     public CacheBuilder<V> forceInMemory();
 
+    /**
+     * Configure the cache instance to keep a bounded local inmemory copy of
+     * entries in front of the shared cache when running in a clustered
+     * environment. Entries are invalidated on all nodes when changed on any
+     * node. Ideally used for small, frequently read regions.
+     *
+     * @return The builder instance.
+     */
+    public CacheBuilder<V> withNearCache();
+
+    /**
+     * Configure the cache instance to notify the given listener with the key
+     * and value of entries which expire or are evicted. Only supported by local
+     * inmemory caches, other cache instances do not notify the listener.
+     *
+     * @param removalListener The removal listener
+     * @return The builder instance.
+     */
+    public CacheBuilder<V> withRemovalListener( BiConsumer<String, V> removalListener );
+
     /**
      * Configure the cache instance to disable caching.
      *
@@ -161,4 +182,10 @@ public interface CacheBuilder<V>
      * @return the defaultvalue value set in the builder
      */
     public V getDefaultValue();
+
+    /**
+     * Getter for removalListener
+     * @return the removalListener set in the builder, or null
+     */
+    public BiConsumer<String, V> getRemovalListener();
 }
@@ -32,5 +32,6 @@ public enum CacheType
 {
     NONE,
     IN_MEMORY,
-    REDIS;
+    REDIS,
+    HYBRID;
 }
@@ -35,9 +35,12 @@ import static org.springframework.util.Assert.hasText;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.cache2k.Cache2kBuilder;
+import org.cache2k.event.CacheEntryEvictedListener;
+import org.cache2k.event.CacheEntryExpiredListener;
 
 /**
  * Local cache implementation of {@link Cache}. This implementation is backed by
@@ -84,6 +87,17 @@ public class LocalCache<V> implements Cache<V>
             builder.entryCapacity( cacheBuilder.getMaximumSize() );
         }
 
+        if ( cacheBuilder.getRemovalListener() != null )
+        {
+            final BiConsumer<String, V> removalListener = cacheBuilder.getRemovalListener();
+
+            ((Cache2kBuilder<String, V>) builder)
+                .addListener( (CacheEntryExpiredListener<String, V>) ( cache, entry ) ->
+                    removalListener.accept( entry.getKey(), entry.getValue() ) )
+                .addListener( (CacheEntryEvictedListener<String, V>) ( cache, entry ) ->
+                    removalListener.accept( entry.getKey(), entry.getValue() ) );
+        }
+
         // Using unknown typed key for builder and casting it
         this.cache2kInstance = (org.cache2k.Cache<String, V>) builder.build();
         this.defaultValue = cacheBuilder.getDefaultValue();
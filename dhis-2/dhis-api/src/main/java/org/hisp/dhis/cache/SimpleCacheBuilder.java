@@ -29,6 +29,7 @@ package org.hisp.dhis.cache;
  */
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,6 +60,8 @@ public class SimpleCacheBuilder<V> implements CacheBuilder<V>
 
     private boolean disabled;
 
+    private BiConsumer<String, V> removalListener;
+
     public SimpleCacheBuilder()
     {
         // Applying sensible defaults explicitly
@@ -138,6 +141,12 @@ public class SimpleCacheBuilder<V> implements CacheBuilder<V>
         return this;
     }
 
+    public CacheBuilder<V> withRemovalListener( BiConsumer<String, V> removalListener )
+    {
+        this.removalListener = removalListener;
+        return this;
+    }
+
     /**
      * Creates and returns a {@link LocalCache}. If {@code maximumSize} is 0 or {@code disabled} is true then a
      * NoOpCache instance will be returned which does not cache anything.
@@ -200,8 +209,18 @@ public class SimpleCacheBuilder<V> implements CacheBuilder<V>
         return defaultValue;
     }
 
+    public BiConsumer<String, V> getRemovalListener()
+    {
+        return removalListener;
+    }
+
     public CacheBuilder<V> forceInMemory()
     {
         return this;
     }
+
+    public CacheBuilder<V> withNearCache()
+    {
+        return this;
+    }
 }
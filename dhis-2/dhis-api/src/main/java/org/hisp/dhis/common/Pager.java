@@ -50,6 +50,10 @@ public class Pager
 
     private String prevPage;
 
+    private String nextPageToken;
+
+    private boolean totalCounted = true;
+
     public Pager()
     {
 
@@ -178,4 +182,37 @@ public class Pager
     {
         this.prevPage = prevPage;
     }
+
+    /**
+     * Opaque token to request the next page with, instead of the page number.
+     *
+     * @return Token of the next page, null if not available
+     */
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public String getNextPageToken()
+    {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken( String nextPageToken )
+    {
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Whether the total was counted. If not, the total only tells whether
+     * there is a next page.
+     *
+     * @return true if the total was counted
+     */
+    public boolean isTotalCounted()
+    {
+        return totalCounted;
+    }
+
+    public void setTotalCounted( boolean totalCounted )
+    {
+        this.totalCounted = totalCounted;
+    }
 }
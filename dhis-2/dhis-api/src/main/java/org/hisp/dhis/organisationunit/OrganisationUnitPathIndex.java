@@ -0,0 +1,125 @@
+package org.hisp.dhis.organisationunit;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Index over the paths of a set of organisation units which tells whether an
+ * organisation unit is part of the hierarchy of the set, i.e. is one of the
+ * units or a descendant of one of them.
+ *
+ * Paths of units which are descendants of other units in the set are left out.
+ * The only candidate ancestor of a path is then the greatest indexed path which
+ * is not greater than it, which is looked up in logarithmic time. This relies
+ * on path separators sorting before the characters of UIDs.
+ */
+public class OrganisationUnitPathIndex
+{
+    private static final char PATH_SEP = '/';
+
+    private final NavigableSet<String> paths = new TreeSet<>();
+
+    // -------------------------------------------------------------------------
+    // Constructors
+    // -------------------------------------------------------------------------
+
+    public OrganisationUnitPathIndex( Collection<OrganisationUnit> organisationUnits )
+    {
+        if ( organisationUnits == null )
+        {
+            return;
+        }
+
+        NavigableSet<String> allPaths = organisationUnits.stream()
+            .filter( Objects::nonNull )
+            .map( OrganisationUnit::getPath )
+            .collect( Collectors.toCollection( TreeSet::new ) );
+
+        // Ancestors sort before their descendants, so descendants are skipped
+
+        for ( String path : allPaths )
+        {
+            if ( !contains( path ) )
+            {
+                paths.add( path );
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Logic
+    // -------------------------------------------------------------------------
+
+    /**
+     * Indicates whether the given organisation unit is one of the indexed units
+     * or a descendant of one of them.
+     *
+     * @param organisationUnit the organisation unit.
+     * @return true if the organisation unit is part of the indexed hierarchy.
+     */
+    public boolean contains( OrganisationUnit organisationUnit )
+    {
+        return organisationUnit != null && contains( organisationUnit.getPath() );
+    }
+
+    /**
+     * Indicates whether the given organisation unit path is the path of one of
+     * the indexed units or of a descendant of one of them.
+     *
+     * @param path the organisation unit path.
+     * @return true if the path is part of the indexed hierarchy.
+     */
+    public boolean contains( String path )
+    {
+        if ( path == null )
+        {
+            return false;
+        }
+
+        String ancestor = paths.floor( path );
+
+        return ancestor != null && path.startsWith( ancestor )
+            && (path.length() == ancestor.length() || path.charAt( ancestor.length() ) == PATH_SEP);
+    }
+
+    public boolean isEmpty()
+    {
+        return paths.isEmpty();
+    }
+
+    public int size()
+    {
+        return paths.size();
+    }
+}
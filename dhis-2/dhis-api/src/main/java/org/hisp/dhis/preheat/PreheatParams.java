@@ -69,6 +69,11 @@ public class PreheatParams
      */
     private Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects = new HashMap<>();
 
+    /**
+     * Fetch uniqueness data for the scanned classes concurrently (if preheat mode is REFERENCE).
+     */
+    private boolean parallel;
+
     public PreheatParams()
     {
     }
@@ -126,6 +131,17 @@ public class PreheatParams
         this.objects = objects;
     }
 
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    public PreheatParams setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+        return this;
+    }
+
     public PreheatParams addObject( IdentifiableObject object )
     {
         if ( object == null )
@@ -152,6 +168,7 @@ public class PreheatParams
             .add( "preheatIdentifier", preheatIdentifier )
             .add( "classes", classes )
             .add( "objects", objects )
+            .add( "parallel", parallel )
             .toString();
     }
 }
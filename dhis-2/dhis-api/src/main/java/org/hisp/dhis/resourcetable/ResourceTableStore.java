@@ -28,6 +28,7 @@ package org.hisp.dhis.resourcetable;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,6 +51,38 @@ public interface ResourceTableStore
      * @param resourceTable the resource table.
      */
     void generateResourceTable( ResourceTable<?> resourceTable );
+
+    /**
+     * Returns a fingerprint of the content of the given source tables of a
+     * resource table. Returns null if the resource table must be generated
+     * regardless of its source tables, which is the case if the resource
+     * table does not exist, has hooks or the DBMS does not support
+     * fingerprints.
+     *
+     * @param tableType the resource table type.
+     * @param sourceTables the names of the tables the resource table is
+     *        generated from.
+     * @return a fingerprint, or null.
+     */
+    String getSourceFingerprint( ResourceTableType tableType, Collection<String> sourceTables );
+
+    /**
+     * Returns the source table fingerprint which was saved for the last
+     * generation of the given resource table.
+     *
+     * @param tableType the resource table type.
+     * @return a fingerprint, or null if none is saved.
+     */
+    String getLastSourceFingerprint( ResourceTableType tableType );
+
+    /**
+     * Saves the source table fingerprint of the given resource table, or
+     * removes it if the fingerprint is null.
+     *
+     * @param tableType the resource table type.
+     * @param fingerprint the fingerprint, or null.
+     */
+    void saveLastSourceFingerprint( ResourceTableType tableType, String fingerprint );
     
     /**
      * Performs a batch update.
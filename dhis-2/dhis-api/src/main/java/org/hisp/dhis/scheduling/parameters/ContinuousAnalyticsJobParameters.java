@@ -69,6 +69,12 @@ public class ContinuousAnalyticsJobParameters
      */
     private Set<AnalyticsTableType> skipTableTypes = new HashSet<>();
 
+    /**
+     * Whether to merge changed data into the existing analytics table partitions
+     * instead of updating the latest analytics table partition.
+     */
+    private boolean deltaUpdate;
+
     public ContinuousAnalyticsJobParameters()
     {
     }
@@ -118,6 +124,18 @@ public class ContinuousAnalyticsJobParameters
         this.skipTableTypes = skipTableTypes;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isDeltaUpdate()
+    {
+        return deltaUpdate;
+    }
+
+    public void setDeltaUpdate( boolean deltaUpdate )
+    {
+        this.deltaUpdate = deltaUpdate;
+    }
+
     @Override
     public Optional<ErrorReport> validate()
     {
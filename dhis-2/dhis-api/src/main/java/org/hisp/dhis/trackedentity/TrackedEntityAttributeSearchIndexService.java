@@ -0,0 +1,60 @@
+package org.hisp.dhis.trackedentity;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+/**
+ * Maintains trigram indexes on the values of searchable tracked entity
+ * attributes, which allow tracked entity instance queries with like and
+ * regular expression filters to use an index instead of scanning all attribute
+ * values. Indexes are only maintained when enabled in the configuration.
+ */
+public interface TrackedEntityAttributeSearchIndexService
+{
+    /**
+     * Indicates whether trigram search indexes are enabled.
+     *
+     * @return true if search indexes are enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Indicates whether a trigram search index exists for the given attribute.
+     *
+     * @param attribute the {@link TrackedEntityAttribute}.
+     * @return true if a search index exists for the attribute.
+     */
+    boolean isIndexed( TrackedEntityAttribute attribute );
+
+    /**
+     * Creates search indexes for searchable text attributes which do not have
+     * one, and drops the search indexes of attributes which are no longer
+     * searchable.
+     */
+    void updateSearchIndexes();
+}
@@ -0,0 +1,115 @@
+package org.hisp.dhis.organisationunit;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class OrganisationUnitPathIndexTest
+{
+    private OrganisationUnit unitA;
+    private OrganisationUnit unitB;
+    private OrganisationUnit unitC;
+    private OrganisationUnit unitD;
+    private OrganisationUnit unitE;
+    private OrganisationUnit unitF;
+
+    @Before
+    public void before()
+    {
+        unitA = createOrganisationUnit( "a0000000001", null );
+        unitB = createOrganisationUnit( "b0000000001", unitA );
+        unitC = createOrganisationUnit( "b0000000001X", unitA );
+        unitD = createOrganisationUnit( "d0000000001", unitB );
+        unitE = createOrganisationUnit( "e0000000001", unitC );
+        unitF = createOrganisationUnit( "f0000000001", unitA );
+    }
+
+    @Test
+    public void testContainsDescendants()
+    {
+        OrganisationUnitPathIndex index = new OrganisationUnitPathIndex( Sets.newHashSet( unitB ) );
+
+        assertTrue( index.contains( unitB ) );
+        assertTrue( index.contains( unitD ) );
+        assertFalse( index.contains( unitA ) );
+        assertFalse( index.contains( unitC ) );
+        assertFalse( index.contains( unitE ) );
+        assertFalse( index.contains( unitF ) );
+    }
+
+    @Test
+    public void testSkipsDescendantsOfIndexedUnits()
+    {
+        OrganisationUnitPathIndex index = new OrganisationUnitPathIndex( Sets.newHashSet( unitD, unitA, unitC ) );
+
+        assertEquals( 1, index.size() );
+        assertTrue( index.contains( unitE ) );
+        assertTrue( index.contains( unitF ) );
+    }
+
+    @Test
+    public void testContainsSiblingsOfSimilarPaths()
+    {
+        OrganisationUnitPathIndex index = new OrganisationUnitPathIndex( Sets.newHashSet( unitB, unitE ) );
+
+        assertEquals( 2, index.size() );
+        assertTrue( index.contains( unitD ) );
+        assertTrue( index.contains( unitE ) );
+        assertFalse( index.contains( unitC ) );
+        assertFalse( index.contains( unitF ) );
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        OrganisationUnitPathIndex index = new OrganisationUnitPathIndex( Collections.emptySet() );
+
+        assertTrue( index.isEmpty() );
+        assertFalse( index.contains( unitA ) );
+        assertFalse( index.contains( (OrganisationUnit) null ) );
+        assertTrue( new OrganisationUnitPathIndex( null ).isEmpty() );
+    }
+
+    private OrganisationUnit createOrganisationUnit( String uid, OrganisationUnit parent )
+    {
+        OrganisationUnit unit = new OrganisationUnit( uid );
+        unit.setUid( uid );
+        unit.setParent( parent );
+        return unit;
+    }
+}
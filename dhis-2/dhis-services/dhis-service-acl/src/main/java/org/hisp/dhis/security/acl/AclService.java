@@ -32,6 +32,7 @@ import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.feedback.ErrorReport;
 import org.hisp.dhis.user.User;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -180,6 +181,28 @@ public interface AclService
      */
     boolean canManage( User user, IdentifiableObject object );
 
+    /**
+     * Returns the objects the user can read, see
+     * {@link #canRead(User, IdentifiableObject)}. The sharing state of the
+     * user is resolved once for all objects.
+     *
+     * @param user    User to check against
+     * @param objects Objects to check
+     * @return List of readable objects in iteration order
+     */
+    <T extends IdentifiableObject> List<T> filterReadable( User user, Collection<T> objects );
+
+    /**
+     * Returns the objects the user can read data or metadata of, see
+     * {@link #canDataOrMetadataRead(User, IdentifiableObject)}. The sharing
+     * state of the user is resolved once for all objects.
+     *
+     * @param user    User to check against
+     * @param objects Objects to check
+     * @return List of readable objects in iteration order
+     */
+    <T extends IdentifiableObject> List<T> filterDataOrMetadataReadable( User user, Collection<T> objects );
+
     /**
      * Can read an objects of this type.
      *
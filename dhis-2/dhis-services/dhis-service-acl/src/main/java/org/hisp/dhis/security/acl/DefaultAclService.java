@@ -46,6 +46,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.springframework.util.CollectionUtils.containsAny;
@@ -103,6 +104,13 @@ public class DefaultAclService implements AclService
     @Override
     public boolean canRead( User user, IdentifiableObject object )
     {
+        return canRead( new UserSharingContext( user ), object );
+    }
+
+    private boolean canRead( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) )
         {
             return true;
@@ -114,11 +122,11 @@ public class DefaultAclService implements AclService
         {
             if ( object instanceof CategoryOptionCombo )
             {
-                return checkOptionComboSharingPermission( user, object, Permission.READ );
+                return checkOptionComboSharingPermission( context, object, Permission.READ );
             }
 
             if ( !schema.isShareable() || object.getPublicAccess() == null || checkUser( user, object )
-                || checkSharingPermission( user, object, Permission.READ ) )
+                || checkSharingPermission( context, object, Permission.READ ) )
             {
                 return true;
             }
@@ -134,6 +142,13 @@ public class DefaultAclService implements AclService
     @Override
     public boolean canDataRead( User user, IdentifiableObject object )
     {
+        return canDataRead( new UserSharingContext( user ), object );
+    }
+
+    private boolean canDataRead( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) ) return true;
 
         Schema schema = schemaService.getSchema( object.getClass() );
@@ -142,12 +157,12 @@ public class DefaultAclService implements AclService
         {
             if ( object instanceof CategoryOptionCombo )
             {
-                return checkOptionComboSharingPermission( user, object, Permission.DATA_READ ) || checkOptionComboSharingPermission( user, object, Permission.DATA_WRITE );
+                return checkOptionComboSharingPermission( context, object, Permission.DATA_READ ) || checkOptionComboSharingPermission( context, object, Permission.DATA_WRITE );
             }
 
             if ( schema.isDataShareable() &&
-                ( checkSharingPermission( user, object, Permission.DATA_READ )
-                    || checkSharingPermission( user, object, Permission.DATA_WRITE )) )
+                ( checkSharingPermission( context, object, Permission.DATA_READ )
+                    || checkSharingPermission( context, object, Permission.DATA_WRITE )) )
             {
                 return true;
             }
@@ -158,15 +173,27 @@ public class DefaultAclService implements AclService
 
     @Override
     public boolean canDataOrMetadataRead( User user, IdentifiableObject object )
+    {
+        return canDataOrMetadataRead( new UserSharingContext( user ), object );
+    }
+
+    private boolean canDataOrMetadataRead( UserSharingContext context, IdentifiableObject object )
     {
         Schema schema = schemaService.getSchema( object.getClass() );
 
-        return schema.isDataShareable() ? canDataRead( user, object ) : canRead( user, object );
+        return schema.isDataShareable() ? canDataRead( context, object ) : canRead( context, object );
     }
 
     @Override
     public boolean canWrite( User user, IdentifiableObject object )
     {
+        return canWrite( new UserSharingContext( user ), object );
+    }
+
+    private boolean canWrite( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) )
         {
             return true;
@@ -186,10 +213,10 @@ public class DefaultAclService implements AclService
         {
             if ( object instanceof CategoryOptionCombo )
             {
-                return checkOptionComboSharingPermission( user, object, Permission.WRITE );
+                return checkOptionComboSharingPermission( context, object, Permission.WRITE );
             }
 
-            return writeCommonCheck(schema, user, object);
+            return writeCommonCheck( schema, context, object );
         }
         else if ( schema.isImplicitPrivateAuthority() && checkSharingAccess( user, object ) )
         {
@@ -202,6 +229,13 @@ public class DefaultAclService implements AclService
     @Override
     public boolean canDataWrite( User user, IdentifiableObject object )
     {
+        return canDataWrite( new UserSharingContext( user ), object );
+    }
+
+    private boolean canDataWrite( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) )
         {
             return true;
@@ -216,10 +250,10 @@ public class DefaultAclService implements AclService
         {
             if ( object instanceof CategoryOptionCombo )
             {
-                return checkOptionComboSharingPermission( user, object, Permission.DATA_WRITE );
+                return checkOptionComboSharingPermission( context, object, Permission.DATA_WRITE );
             }
 
-            if ( schema.isDataShareable() && checkSharingPermission( user, object, Permission.DATA_WRITE ) )
+            if ( schema.isDataShareable() && checkSharingPermission( context, object, Permission.DATA_WRITE ) )
             {
                 return true;
             }
@@ -231,6 +265,13 @@ public class DefaultAclService implements AclService
     @Override
     public boolean canUpdate( User user, IdentifiableObject object )
     {
+        return canUpdate( new UserSharingContext( user ), object );
+    }
+
+    private boolean canUpdate( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) )
         {
             return true;
@@ -249,10 +290,10 @@ public class DefaultAclService implements AclService
 
         if ( canAccess( user, anyAuthorities ) )
         {
-            return writeCommonCheck( schema, user, object );
+            return writeCommonCheck( schema, context, object );
         }
         else if ( schema.isImplicitPrivateAuthority() && checkSharingAccess( user, object )
-            && (checkUser( user, object ) || checkSharingPermission( user, object, Permission.WRITE )) )
+            && (checkUser( user, object ) || checkSharingPermission( context, object, Permission.WRITE )) )
         {
             return true;
         }
@@ -263,6 +304,13 @@ public class DefaultAclService implements AclService
     @Override
     public boolean canDelete( User user, IdentifiableObject object )
     {
+        return canDelete( new UserSharingContext( user ), object );
+    }
+
+    private boolean canDelete( UserSharingContext context, IdentifiableObject object )
+    {
+        User user = context.getUser();
+
         if ( readWriteCommonCheck( user, object ) )
         {
             return true;
@@ -287,12 +335,12 @@ public class DefaultAclService implements AclService
             }
 
             if ( checkSharingAccess( user, object ) &&
-                (checkUser( user, object ) || checkSharingPermission( user, object, Permission.WRITE )) )
+                (checkUser( user, object ) || checkSharingPermission( context, object, Permission.WRITE )) )
             {
                 return true;
             }
         }
-        else if ( schema.isImplicitPrivateAuthority() && ( checkUser( user, object ) || checkSharingPermission( user, object, Permission.WRITE ) ) )
+        else if ( schema.isImplicitPrivateAuthority() && ( checkUser( user, object ) || checkSharingPermission( context, object, Permission.WRITE ) ) )
         {
             return true;
         }
@@ -306,6 +354,26 @@ public class DefaultAclService implements AclService
         return canUpdate( user, object );
     }
 
+    @Override
+    public <T extends IdentifiableObject> List<T> filterReadable( User user, Collection<T> objects )
+    {
+        UserSharingContext context = new UserSharingContext( user );
+
+        return objects.stream()
+            .filter( object -> canRead( context, object ) )
+            .collect( Collectors.toList() );
+    }
+
+    @Override
+    public <T extends IdentifiableObject> List<T> filterDataOrMetadataReadable( User user, Collection<T> objects )
+    {
+        UserSharingContext context = new UserSharingContext( user );
+
+        return objects.stream()
+            .filter( object -> canDataOrMetadataRead( context, object ) )
+            .collect( Collectors.toList() );
+    }
+
     @Override
     public <T extends IdentifiableObject> boolean canRead( User user, Class<T> klass )
     {
@@ -400,17 +468,19 @@ public class DefaultAclService implements AclService
             return access;
         }
 
+        UserSharingContext context = new UserSharingContext( user );
+
         Access access = new Access();
-        access.setManage( canManage( user, object ) );
+        access.setManage( canUpdate( context, object ) );
         access.setExternalize( canMakeExternal( user, object.getClass() ) );
-        access.setWrite( canWrite( user, object ) );
-        access.setRead( canRead( user, object ) );
-        access.setUpdate( canUpdate( user, object ) );
-        access.setDelete( canDelete( user, object ) );
+        access.setWrite( canWrite( context, object ) );
+        access.setRead( canRead( context, object ) );
+        access.setUpdate( canUpdate( context, object ) );
+        access.setDelete( canDelete( context, object ) );
 
         if ( isDataShareable( object.getClass() ) )
         {
-            AccessData data = new AccessData( canDataRead( user, object ), canDataWrite( user, object ) );
+            AccessData data = new AccessData( canDataRead( context, object ), canDataWrite( context, object ) );
 
             access.setData( data );
         }
@@ -558,7 +628,7 @@ public class DefaultAclService implements AclService
         List<ErrorReport> errorReports = new ArrayList<>();
         Schema schema = schemaService.getSchema( object.getClass() );
 
-        if ( !schema.isImplicitPrivateAuthority() || checkUser( user, object ) || checkSharingPermission( user, object, Permission.WRITE ) )
+        if ( !schema.isImplicitPrivateAuthority() || checkUser( user, object ) || checkSharingPermission( new UserSharingContext( user ), object, Permission.WRITE ) )
         {
             return errorReports;
         }
@@ -637,12 +707,12 @@ public class DefaultAclService implements AclService
     /**
      * If the given user allowed to access the given object using the permissions given.
      *
-     * @param user       User to check against
+     * @param context    Sharing context of the user to check against
      * @param object     Object to check against
      * @param permission Permission to check against
      * @return true if user can access object, false otherwise
      */
-    private boolean checkSharingPermission( User user, IdentifiableObject object, Permission permission )
+    private boolean checkSharingPermission( UserSharingContext context, IdentifiableObject object, Permission permission )
     {
         if ( AccessStringHelper.isEnabled( object.getPublicAccess(), permission ) )
         {
@@ -654,7 +724,7 @@ public class DefaultAclService implements AclService
             // Check if user is allowed to read this object through group access
 
             if ( AccessStringHelper.isEnabled( userGroupAccess.getAccess(), permission )
-                    && userGroupAccess.userGroupContainsUser( user ) )
+                    && context.isMember( userGroupAccess ) )
             {
                 return true;
             }
@@ -665,7 +735,7 @@ public class DefaultAclService implements AclService
             // Check if user is allowed to read to this object through user access
 
             if ( AccessStringHelper.isEnabled( userAccess.getAccess(), permission )
-                    && user.equals( userAccess.getUser() ) )
+                    && context.getUser().equals( userAccess.getUser() ) )
             {
                 return true;
             }
@@ -674,7 +744,7 @@ public class DefaultAclService implements AclService
         return false;
     }
 
-    private boolean checkOptionComboSharingPermission( User user, IdentifiableObject object, Permission permission )
+    private boolean checkOptionComboSharingPermission( UserSharingContext context, IdentifiableObject object, Permission permission )
     {
         CategoryOptionCombo optionCombo = (CategoryOptionCombo) object;
 
@@ -687,7 +757,7 @@ public class DefaultAclService implements AclService
 
         for ( CategoryOption option : optionCombo.getCategoryOptions() )
         {
-            if ( checkSharingPermission( user, option, permission ) )
+            if ( checkSharingPermission( context, option, permission ) )
             {
                 accessibleOptions.add( option.getId() );
             }
@@ -706,14 +776,16 @@ public class DefaultAclService implements AclService
         return schemaService.getSchema( object.getClass() ) == null;
     }
 
-    private boolean writeCommonCheck( Schema schema, User user, IdentifiableObject object )
+    private boolean writeCommonCheck( Schema schema, UserSharingContext context, IdentifiableObject object )
     {
         if ( !schema.isShareable() )
         {
             return true;
         }
 
+        User user = context.getUser();
+
         return checkSharingAccess(user, object) &&
-            ( checkUser(user, object) || checkSharingPermission( user, object, Permission.WRITE ) );
+            ( checkUser(user, object) || checkSharingPermission( context, object, Permission.WRITE ) );
     }
 }
@@ -0,0 +1,101 @@
+package org.hisp.dhis.security.acl;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserGroupAccess;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sharing state of a user, compiled once and reused when evaluating the
+ * access of the user to many objects. Membership of a user group is resolved
+ * from the groups of the user, and only groups the user is not a member of
+ * are checked against their member list, once per group.
+ *
+ * Not thread-safe, a context is meant to be used for a single evaluation.
+ */
+final class UserSharingContext
+{
+    private final User user;
+
+    /**
+     * Membership of the user by user group UID, null until first used.
+     */
+    private Map<String, Boolean> groupMembership;
+
+    UserSharingContext( User user )
+    {
+        this.user = user;
+    }
+
+    User getUser()
+    {
+        return user;
+    }
+
+    /**
+     * Indicates whether the user is a member of the user group of the given
+     * user group access.
+     */
+    boolean isMember( UserGroupAccess userGroupAccess )
+    {
+        String userGroupUid = userGroupAccess.getUserGroupUid();
+
+        if ( user == null || userGroupUid == null )
+        {
+            return user != null && userGroupAccess.userGroupContainsUser( user );
+        }
+
+        return getGroupMembership().computeIfAbsent( userGroupUid, uid -> userGroupAccess.userGroupContainsUser( user ) );
+    }
+
+    private Map<String, Boolean> getGroupMembership()
+    {
+        if ( groupMembership == null )
+        {
+            groupMembership = new HashMap<>();
+
+            if ( user.getGroups() != null )
+            {
+                for ( UserGroup userGroup : user.getGroups() )
+                {
+                    if ( userGroup.getUid() != null )
+                    {
+                        groupMembership.put( userGroup.getUid(), Boolean.TRUE );
+                    }
+                }
+            }
+        }
+
+        return groupMembership;
+    }
+}
@@ -29,10 +29,13 @@ package org.hisp.dhis.resourcetable;
  */
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.hisp.dhis.resourcetable.ResourceTableType.*;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryCombo;
@@ -50,12 +53,15 @@ import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.resourcetable.table.*;
 import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 import lombok.extern.slf4j.Slf4j;
@@ -68,6 +74,35 @@ import lombok.extern.slf4j.Slf4j;
 public class DefaultResourceTableService
     implements ResourceTableService
 {
+    /**
+     * Tables which resource tables are generated from. Changes to rows of
+     * these tables lead to regeneration of the resource table, otherwise
+     * generation is skipped.
+     */
+    static final Map<ResourceTableType, List<String>> SOURCE_TABLES = ImmutableMap.<ResourceTableType, List<String>> builder()
+        .put( ORG_UNIT_STRUCTURE, ImmutableList.of( "organisationunit" ) )
+        .put( DATA_SET_ORG_UNIT_CATEGORY, ImmutableList.of( "dataset", "datasetsource", "organisationunit",
+            "categorycombo", "categorycombos_optioncombos", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+            "dataelementcategoryoption", "categoryoption_organisationunits" ) )
+        .put( CATEGORY_OPTION_COMBO_NAME, ImmutableList.of( "categorycombo", "categorycombos_categories",
+            "categorycombos_optioncombos", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+            "dataelementcategory", "categories_categoryoptions", "dataelementcategoryoption" ) )
+        .put( DATA_ELEMENT_GROUP_SET_STRUCTURE, ImmutableList.of( "dataelement", "dataelementgroup",
+            "dataelementgroupmembers", "dataelementgroupset", "dataelementgroupsetmembers" ) )
+        .put( INDICATOR_GROUP_SET_STRUCTURE, ImmutableList.of( "indicator", "indicatorgroup",
+            "indicatorgroupmembers", "indicatorgroupset", "indicatorgroupsetmembers" ) )
+        .put( ORG_UNIT_GROUP_SET_STRUCTURE, ImmutableList.of( "organisationunit", "orgunitgroup",
+            "orgunitgroupmembers", "orgunitgroupset", "orgunitgroupsetmembers" ) )
+        .put( CATEGORY_STRUCTURE, ImmutableList.of( "dataelementcategory", "categories_categoryoptions",
+            "dataelementcategoryoption", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+            "categoryoptiongroup", "categoryoptiongroupmembers", "categoryoptiongroupset", "categoryoptiongroupsetmembers" ) )
+        .put( DATA_ELEMENT_STRUCTURE, ImmutableList.of( "dataelement", "datasetelement", "dataset", "periodtype" ) )
+        .put( PERIOD_STRUCTURE, ImmutableList.of( "period", "periodtype" ) )
+        .put( DATE_PERIOD_STRUCTURE, ImmutableList.of() )
+        .put( DATA_ELEMENT_CATEGORY_OPTION_COMBO, ImmutableList.of( "dataelement", "categorycombos_optioncombos",
+            "categoryoptioncombo" ) )
+        .build();
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -121,7 +156,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateOrganisationUnitStructures()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitStructureResourceTable( 
+        generateResourceTable( ORG_UNIT_STRUCTURE, () -> new OrganisationUnitStructureResourceTable(
             null, organisationUnitService, organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
     
@@ -129,7 +164,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateDataSetOrganisationUnitCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new DataSetOrganisationUnitCategoryResourceTable( 
+        generateResourceTable( DATA_SET_ORG_UNIT_CATEGORY, () -> new DataSetOrganisationUnitCategoryResourceTable(
             idObjectManager.getAllNoAcl( DataSet.class ), categoryService.getDefaultCategoryOptionCombo() ) );
     }
     
@@ -137,7 +172,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateCategoryOptionComboNames()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboNameResourceTable( 
+        generateResourceTable( CATEGORY_OPTION_COMBO_NAME, () -> new CategoryOptionComboNameResourceTable(
             idObjectManager.getAllNoAcl( CategoryCombo.class ) ) );
     }
 
@@ -145,7 +180,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateDataElementGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementGroupSetResourceTable(
+        generateResourceTable( DATA_ELEMENT_GROUP_SET_STRUCTURE, () -> new DataElementGroupSetResourceTable(
             idObjectManager.getDataDimensionsNoAcl( DataElementGroupSet.class ) ) );
     }
 
@@ -153,7 +188,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateIndicatorGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new IndicatorGroupSetResourceTable(
+        generateResourceTable( INDICATOR_GROUP_SET_STRUCTURE, () -> new IndicatorGroupSetResourceTable(
             idObjectManager.getAllNoAcl( IndicatorGroupSet.class ) ) );
     }
 
@@ -161,7 +196,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateOrganisationUnitGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitGroupSetResourceTable(
+        generateResourceTable( ORG_UNIT_GROUP_SET_STRUCTURE, () -> new OrganisationUnitGroupSetResourceTable(
             idObjectManager.getDataDimensionsNoAcl( OrganisationUnitGroupSet.class ),
             statementBuilder.supportsPartialIndexes(), organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
@@ -170,7 +205,7 @@ public class DefaultResourceTableService
     @Transactional
     public void generateCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryResourceTable( 
+        generateResourceTable( CATEGORY_STRUCTURE, () -> new CategoryResourceTable(
             idObjectManager.getDataDimensionsNoAcl( Category.class ),
             idObjectManager.getDataDimensionsNoAcl( CategoryOptionGroupSet.class ) ) );
     }
@@ -179,28 +214,28 @@ public class DefaultResourceTableService
     @Transactional
     public void generateDataElementTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementResourceTable( 
+        generateResourceTable( DATA_ELEMENT_STRUCTURE, () -> new DataElementResourceTable(
             idObjectManager.getAllNoAcl( DataElement.class ) ) );
     }
 
     @Override
     public void generateDatePeriodTable()
     {
-        resourceTableStore.generateResourceTable( new DatePeriodResourceTable( null ) );
+        generateResourceTable( DATE_PERIOD_STRUCTURE, () -> new DatePeriodResourceTable( null ) );
     }
 
     @Override
     @Transactional
     public void generatePeriodTable()
     {
-        resourceTableStore.generateResourceTable( new PeriodResourceTable( periodService.getAllPeriods() ) );
+        generateResourceTable( PERIOD_STRUCTURE, () -> new PeriodResourceTable( periodService.getAllPeriods() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryOptionComboTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboResourceTable( null ) );            
+        generateResourceTable( DATA_ELEMENT_CATEGORY_OPTION_COMBO, () -> new CategoryOptionComboResourceTable( null ) );
     }
 
     @Override
@@ -221,6 +256,48 @@ public class DefaultResourceTableService
         }
     }
 
+    /**
+     * Generates the given resource table, unless the fingerprint of its source
+     * tables is unchanged since the last generation. The fingerprint is saved
+     * in the database so that it is kept across restarts. The resource table
+     * is supplied lazily so that no metadata is loaded when skipping.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @param resourceTable the supplier of the {@link ResourceTable}.
+     */
+    private void generateResourceTable( ResourceTableType tableType, Supplier<ResourceTable<?>> resourceTable )
+    {
+        String fingerprint = getSourceFingerprint( tableType );
+
+        if ( fingerprint != null && fingerprint.equals( resourceTableStore.getLastSourceFingerprint( tableType ) ) )
+        {
+            log.info( String.format( "Skipping resource table with unchanged source tables: '%s'", tableType.getTableName() ) );
+
+            return;
+        }
+
+        resourceTableStore.generateResourceTable( resourceTable.get() );
+
+        if ( fingerprint != null )
+        {
+            resourceTableStore.saveLastSourceFingerprint( tableType, fingerprint );
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the source tables of the given resource table
+     * including the calendar, which periods are based on, or null if the
+     * resource table must be generated.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     */
+    private String getSourceFingerprint( ResourceTableType tableType )
+    {
+        String fingerprint = resourceTableStore.getSourceFingerprint( tableType, SOURCE_TABLES.get( tableType ) );
+
+        return fingerprint != null ? ( PeriodType.getCalendar().name() + ";" + fingerprint ) : null;
+    }
+
     // -------------------------------------------------------------------------
     // SQL Views. Each view is created/dropped in separate transactions so that
     // process continues even if individual operations fail.
@@ -30,6 +30,8 @@ package org.hisp.dhis.resourcetable.jdbc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +42,7 @@ import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
+import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.system.util.Clock;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -191,6 +194,69 @@ public class JdbcResourceTableStore
         log.info( String.format( "Resource table '%s' update done: '%s'", resourceTable.getTableName(), clock.time() ) );
     }
 
+    @Override
+    public String getSourceFingerprint( ResourceTableType tableType, Collection<String> sourceTables )
+    {
+        if ( !dbmsManager.tableExists( tableType.getTableName() ) )
+        {
+            return null;
+        }
+
+        List<AnalyticsTableHook> hooks = analyticsTableHookService
+            .getByPhaseAndResourceTableType( AnalyticsTablePhase.RESOURCE_TABLE_POPULATED, tableType );
+
+        if ( !hooks.isEmpty() )
+        {
+            return null;
+        }
+
+        if ( sourceTables.isEmpty() )
+        {
+            return "";
+        }
+
+        List<String> fingerprints = new ArrayList<>();
+
+        for ( String table : sourceTables )
+        {
+            String sql = statementBuilder.getTableFingerprint( table );
+
+            if ( sql == null )
+            {
+                return null;
+            }
+
+            fingerprints.add( "(" + sql + ")" );
+        }
+
+        String sql = "select " + String.join( " || ',' || ", fingerprints );
+
+        log.debug( String.format( "Source fingerprint SQL: '%s'", sql ) );
+
+        return jdbcTemplate.queryForObject( sql, String.class );
+    }
+
+    @Override
+    public String getLastSourceFingerprint( ResourceTableType tableType )
+    {
+        List<String> fingerprints = jdbcTemplate.queryForList(
+            "select fingerprint from resourcetablefingerprint where tabletype = ?", String.class, tableType.name() );
+
+        return fingerprints.isEmpty() ? null : fingerprints.get( 0 );
+    }
+
+    @Override
+    public void saveLastSourceFingerprint( ResourceTableType tableType, String fingerprint )
+    {
+        jdbcTemplate.update( "delete from resourcetablefingerprint where tabletype = ?", tableType.name() );
+
+        if ( fingerprint != null )
+        {
+            jdbcTemplate.update( "insert into resourcetablefingerprint (tabletype, fingerprint) values (?, ?)",
+                tableType.name(), fingerprint );
+        }
+    }
+
     @Override
     public void batchUpdate( int columns, String tableName, List<Object[]> batchArgs )
     {
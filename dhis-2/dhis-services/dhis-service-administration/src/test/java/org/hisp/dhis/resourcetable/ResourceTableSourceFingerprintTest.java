@@ -0,0 +1,264 @@
+package org.hisp.dhis.resourcetable;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.category.Category;
+import org.hisp.dhis.category.CategoryOption;
+import org.hisp.dhis.category.CategoryOptionGroup;
+import org.hisp.dhis.category.CategoryOptionGroupSet;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementGroup;
+import org.hisp.dhis.dataelement.DataElementGroupSet;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dataset.DataSetService;
+import org.hisp.dhis.indicator.Indicator;
+import org.hisp.dhis.indicator.IndicatorGroup;
+import org.hisp.dhis.indicator.IndicatorGroupSet;
+import org.hisp.dhis.indicator.IndicatorType;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.period.PeriodType;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Verifies that a change in any source table of a resource table changes the
+ * fingerprint which resource table generation is skipped by.
+ */
+public class ResourceTableSourceFingerprintTest
+    extends IntegrationTestBase
+{
+    @Autowired
+    private ResourceTableStore resourceTableStore;
+
+    @Autowired
+    private ResourceTableService resourceTableService;
+
+    @Autowired
+    private IdentifiableObjectManager idObjectManager;
+
+    @Autowired
+    private DataSetService dataSetService;
+
+    @Autowired
+    private PeriodService periodService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void setUpTest()
+    {
+        PeriodType pt = new MonthlyPeriodType();
+
+        OrganisationUnit ouA = createOrganisationUnit( 'A' );
+        OrganisationUnit ouB = createOrganisationUnit( 'B', ouA );
+
+        idObjectManager.save( ouA );
+        idObjectManager.save( ouB );
+
+        OrganisationUnitGroup ougA = createOrganisationUnitGroup( 'A' );
+        ougA.addOrganisationUnit( ouA );
+        ougA.addOrganisationUnit( ouB );
+        idObjectManager.save( ougA );
+
+        OrganisationUnitGroupSet ougsA = createOrganisationUnitGroupSet( 'A' );
+        ougsA.addOrganisationUnitGroup( ougA );
+        idObjectManager.save( ougsA );
+
+        DataElement deA = createDataElement( 'A' );
+        idObjectManager.save( deA );
+
+        DataElementGroup degA = createDataElementGroup( 'A' );
+        degA.addDataElement( deA );
+        idObjectManager.save( degA );
+
+        DataElementGroupSet degsA = createDataElementGroupSet( 'A' );
+        degsA.addDataElementGroup( degA );
+        idObjectManager.save( degsA );
+
+        IndicatorType itA = createIndicatorType( 'A' );
+        idObjectManager.save( itA );
+
+        Indicator inA = createIndicator( 'A', itA );
+        idObjectManager.save( inA );
+
+        IndicatorGroup igA = createIndicatorGroup( 'A' );
+        igA.addIndicator( inA );
+        idObjectManager.save( igA );
+
+        IndicatorGroupSet igsA = createIndicatorGroupSet( 'A' );
+        igsA.addIndicatorGroup( igA );
+        idObjectManager.save( igsA );
+
+        CategoryOption coA = createCategoryOption( 'A' );
+        coA.addOrganisationUnit( ouA );
+        idObjectManager.save( coA );
+
+        Category caA = createCategory( 'A', coA );
+        idObjectManager.save( caA );
+
+        CategoryOptionGroup cogA = createCategoryOptionGroup( 'A', coA );
+        idObjectManager.save( cogA );
+
+        CategoryOptionGroupSet cogsA = createCategoryOptionGroupSet( 'A', cogA );
+        idObjectManager.save( cogsA );
+
+        DataSet dsA = createDataSet( 'A', pt );
+        dsA.addDataSetElement( deA );
+        dsA.addOrganisationUnit( ouA );
+        dataSetService.addDataSet( dsA );
+
+        periodService.addPeriod( createPeriod( "202001" ) );
+
+        generateResourceTables();
+    }
+
+    @Override
+    public boolean emptyDatabaseAfterTest()
+    {
+        return true;
+    }
+
+    @Test
+    public void testFingerprintUnchangedWithoutChanges()
+    {
+        for ( Map.Entry<ResourceTableType, List<String>> entry : DefaultResourceTableService.SOURCE_TABLES.entrySet() )
+        {
+            String fingerprint = getFingerprint( entry.getKey() );
+
+            assertNotNull( entry.getKey().name(), fingerprint );
+            assertEquals( entry.getKey().name(), fingerprint, getFingerprint( entry.getKey() ) );
+        }
+    }
+
+    @Test
+    public void testFingerprintChangesOnUpdateOfEachSourceTable()
+    {
+        for ( Map.Entry<ResourceTableType, List<String>> entry : DefaultResourceTableService.SOURCE_TABLES.entrySet() )
+        {
+            for ( String table : entry.getValue() )
+            {
+                String message = entry.getKey().name() + " / " + table;
+
+                assertTrue( message, jdbcTemplate.queryForObject( "select count(*) from " + table, Integer.class ) > 0 );
+
+                String before = getFingerprint( entry.getKey() );
+
+                touchRows( table );
+
+                assertNotEquals( message, before, getFingerprint( entry.getKey() ) );
+            }
+        }
+    }
+
+    @Test
+    public void testFingerprintChangesOnDeleteOfJoinTableRow()
+    {
+        String before = getFingerprint( ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE );
+
+        jdbcTemplate.update( "delete from orgunitgroupmembers where organisationunitid = " +
+            "(select organisationunitid from organisationunit where uid = '" + BASE_OU_UID + "B')" );
+
+        assertNotEquals( before, getFingerprint( ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE ) );
+    }
+
+    @Test
+    public void testLastFingerprintSavedOnGeneration()
+    {
+        // Fingerprints are only saved once the resource tables exist
+
+        generateResourceTables();
+
+        for ( ResourceTableType tableType : DefaultResourceTableService.SOURCE_TABLES.keySet() )
+        {
+            String fingerprint = resourceTableStore.getLastSourceFingerprint( tableType );
+
+            assertNotNull( tableType.name(), fingerprint );
+            assertTrue( tableType.name(), fingerprint.endsWith( getFingerprint( tableType ) ) );
+        }
+
+        resourceTableStore.saveLastSourceFingerprint( ResourceTableType.PERIOD_STRUCTURE, null );
+
+        assertNull( resourceTableStore.getLastSourceFingerprint( ResourceTableType.PERIOD_STRUCTURE ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void generateResourceTables()
+    {
+        resourceTableService.generateOrganisationUnitStructures();
+        resourceTableService.generateDataSetOrganisationUnitCategoryTable();
+        resourceTableService.generateCategoryOptionComboNames();
+        resourceTableService.generateDataElementGroupSetTable();
+        resourceTableService.generateIndicatorGroupSetTable();
+        resourceTableService.generateOrganisationUnitGroupSetTable();
+        resourceTableService.generateCategoryTable();
+        resourceTableService.generateDataElementTable();
+        resourceTableService.generatePeriodTable();
+        resourceTableService.generateDatePeriodTable();
+        resourceTableService.generateCategoryOptionComboTable();
+    }
+
+    private String getFingerprint( ResourceTableType tableType )
+    {
+        return resourceTableStore.getSourceFingerprint( tableType,
+            DefaultResourceTableService.SOURCE_TABLES.get( tableType ) );
+    }
+
+    /**
+     * Updates all rows of the given table without changing any value, which
+     * writes new row versions in a separate transaction.
+     */
+    private void touchRows( String table )
+    {
+        String column = jdbcTemplate.queryForObject( "select column_name from information_schema.columns " +
+            "where table_schema = current_schema() and table_name = ? order by ordinal_position limit 1",
+            String.class, table );
+
+        jdbcTemplate.update( "update " + table + " set " + column + " = " + column );
+    }
+}
@@ -29,11 +29,11 @@ package org.hisp.dhis.analytics;
  */
 
 import java.util.Map;
-import java.util.concurrent.Future;
 
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.common.ListMap;
+import org.springframework.util.concurrent.ListenableFuture;
 
 /**
  * Manager for queries for retrieval of analytics data.
@@ -47,6 +47,8 @@ public interface AnalyticsManager
      * as a mapping where the key is concatenated from the dimension options for
      * all dimensions separated by "-", and the value is the data value. This
      * method is invoked asynchronously. The value class can be Double or String.
+     * The returned future notifies callbacks on completion, so that callers can
+     * process queries in completion order.
      *
      * @param params the query to retrieve aggregated data for.
      * @param tableType the {@link AnalyticsTableType}.
@@ -54,7 +56,7 @@ public interface AnalyticsManager
      * @return a map.
      * @throws IllegalQueryException if query result set exceeds the max limit.
      */
-    Future<Map<String, Object>> getAggregatedDataValues( DataQueryParams params, AnalyticsTableType tableType, int maxLimit );
+    ListenableFuture<Map<String, Object>> getAggregatedDataValues( DataQueryParams params, AnalyticsTableType tableType, int maxLimit );
 
     /**
      * Inserts entries for the aggregation periods mapped to each data period
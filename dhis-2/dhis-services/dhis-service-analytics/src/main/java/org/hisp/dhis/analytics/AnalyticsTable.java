@@ -68,6 +68,12 @@ public class AnalyticsTable
      */
     private List<AnalyticsTablePartition> tablePartitions = new UniqueArrayList<>();
 
+    /**
+     * Start of the time range of changed data for a delta update, inclusive.
+     * Null if this table is not a delta table.
+     */
+    private Date deltaStartDate;
+
     // -------------------------------------------------------------------------
     // Constructors
     // -------------------------------------------------------------------------
@@ -111,6 +117,25 @@ public class AnalyticsTable
         return this;
     }
 
+    /**
+     * Sets the start date of changed data and thereby marks this table as a
+     * delta table, meaning that its partitions are merged into the existing
+     * partitions instead of replacing them.
+     *
+     * @param deltaStartDate the start date of changed data, inclusive.
+     * @return this analytics table.
+     */
+    public AnalyticsTable withDeltaStartDate( Date deltaStartDate )
+    {
+        this.deltaStartDate = deltaStartDate;
+        return this;
+    }
+
+    public boolean isDeltaTable()
+    {
+        return deltaStartDate != null;
+    }
+
     public String getBaseName()
     {
         return tableType.getTableName();
@@ -186,6 +211,11 @@ public class AnalyticsTable
         return tablePartitions;
     }
 
+    public Date getDeltaStartDate()
+    {
+        return deltaStartDate;
+    }
+
     // -------------------------------------------------------------------------
     // hashCode, equals, toString
     // -------------------------------------------------------------------------
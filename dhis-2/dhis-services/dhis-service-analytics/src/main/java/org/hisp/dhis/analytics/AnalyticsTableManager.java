@@ -103,6 +103,13 @@ public interface AnalyticsTableManager
      */
     Future<?> createIndexesAsync( ConcurrentLinkedQueue<AnalyticsIndex> indexes );
 
+    /**
+     * Creates the given index in the calling thread.
+     *
+     * @param index the analytics index.
+     */
+    void createIndex( AnalyticsIndex index );
+
     /**
      * Attempts to drop the analytics table with partitions and rename the temporary
      * table with partitions as replacement.
@@ -126,6 +133,15 @@ public interface AnalyticsTableManager
      */
     Future<?> populateTablesAsync( AnalyticsTableUpdateParams params, ConcurrentLinkedQueue<AnalyticsTablePartition> tablePartitions );
 
+    /**
+     * Copies and denormalizes rows from data value table into the given analytics
+     * table partition in the calling thread.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param partition the analytics table partition.
+     */
+    void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition );
+
     /**
      * Invokes analytics table SQL hooks for the table type.
      *
@@ -133,6 +149,13 @@ public interface AnalyticsTableManager
      */
     int invokeAnalyticsTableSqlHooks();
 
+    /**
+     * Indicates whether analytics table SQL hooks exist for the table type.
+     *
+     * @return true if analytics table SQL hooks exist.
+     */
+    boolean hasAnalyticsTableSqlHooks();
+
     /**
      * Drops the given {@link AnalyticsTable}.
      *
@@ -174,6 +197,16 @@ public interface AnalyticsTableManager
     Future<?> applyAggregationLevels( ConcurrentLinkedQueue<AnalyticsTablePartition> partitions,
         Collection<String> dataElements, int aggregationLevel );
 
+    /**
+     * Applies aggregation level logic to the given analytics table partition in
+     * the calling thread.
+     *
+     * @param partition the analytics table partition.
+     * @param dataElements the data element identifiers to apply aggregation levels for.
+     * @param aggregationLevel the aggregation level.
+     */
+    void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel );
+
     /**
      * Performs vacuum or optimization of the given table. The type of operation
      * performed is dependent on the underlying DBMS.
@@ -183,6 +216,14 @@ public interface AnalyticsTableManager
      */
     Future<?> vacuumTablesAsync( ConcurrentLinkedQueue<AnalyticsTablePartition> partitions );
 
+    /**
+     * Performs vacuum or optimization of the given analytics table partition in
+     * the calling thread.
+     *
+     * @param partition the analytics table partition.
+     */
+    void vacuumTable( AnalyticsTablePartition partition );
+
     /**
      * Returns a list of non-dynamic {@link AnalyticsTableColumn}.
      *
@@ -28,6 +28,8 @@ package org.hisp.dhis.analytics;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import java.util.List;
+
 /**
  * Service for analytics table generation and analysis.
  * 
@@ -46,8 +48,10 @@ public interface AnalyticsTableService
      * Rebuilds the analytics tables.
      * 
      * @param params the {@link AnalyticsTableUpdateParams}.
+     * @return the updated {@link AnalyticsTablePartition}, empty if no tables
+     *         were updated.
      */
-    void update( AnalyticsTableUpdateParams params );
+    List<AnalyticsTablePartition> update( AnalyticsTableUpdateParams params );
     
     /**
      * Drops main and temporary analytics tables.
@@ -61,6 +61,13 @@ public class AnalyticsTableUpdateParams
      */
     boolean skipResourceTables;
 
+    /**
+     * Indicates whether to merge data changed since the last update into the
+     * existing partitions instead of the "latest" partition, applies to table
+     * types which support it.
+     */
+    private boolean deltaUpdate;
+
     /**
      * Analytics table types to skip.
      */
@@ -106,6 +113,11 @@ public class AnalyticsTableUpdateParams
         return skipResourceTables;
     }
 
+    public boolean isDeltaUpdate()
+    {
+        return deltaUpdate && isLatestUpdate();
+    }
+
     public Set<AnalyticsTableType> getSkipTableTypes()
     {
         return skipTableTypes;
@@ -154,6 +166,7 @@ public class AnalyticsTableUpdateParams
         return MoreObjects.toStringHelper( this )
             .add( "last years", lastYears )
             .add( "skip resource tables", skipResourceTables )
+            .add( "delta update", deltaUpdate )
             .add( "skip table types", skipTableTypes )
             .add( "start time", DateUtils.getLongDateString( startTime ) )
             .toString();
@@ -196,6 +209,7 @@ public class AnalyticsTableUpdateParams
 
         params.lastYears = this.lastYears;
         params.skipResourceTables = this.skipResourceTables;
+        params.deltaUpdate = this.deltaUpdate;
         params.skipTableTypes = new HashSet<>( this.skipTableTypes );
         params.jobId = this.jobId;
         params.startTime = this.startTime;
@@ -249,6 +263,12 @@ public class AnalyticsTableUpdateParams
             return this;
         }
 
+        public Builder withDeltaUpdate( boolean deltaUpdate )
+        {
+            this.params.deltaUpdate = deltaUpdate;
+            return this;
+        }
+
         public Builder withSkipTableTypes( Set<AnalyticsTableType> skipTableTypes )
         {
             this.params.skipTableTypes = skipTableTypes;
@@ -34,15 +34,29 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.logging.LogFactory.getLog;
 import static org.hisp.dhis.commons.util.SystemUtils.isTestRun;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.commons.logging.Log;
 import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.Partitions;
+import org.hisp.dhis.analytics.table.PartitionUtils;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.CacheType;
 import org.hisp.dhis.common.Grid;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
@@ -51,6 +65,14 @@ import org.springframework.stereotype.Component;
  * This is just a wrapper class responsible for keeping and isolating all
  * caching definition related to the analytics caching, decoupling it from the
  * service layer.
+ * 
+ * Cached entries are indexed by the yearly analytics table partitions which the
+ * query reads, so that entries can be invalidated per partition when analytics
+ * tables are partially updated. The index is local to this instance. Keys are
+ * removed from the index when entries are invalidated, expire or are evicted.
+ * Entries of caches shared between instances, such as Redis, may be put by
+ * other instances and are not in the index, so those caches are not indexed
+ * and are cleared entirely instead.
  */
 @Component
 public class AnalyticsCache
@@ -67,8 +89,32 @@ public class AnalyticsCache
 
     private static final int MAX_CACHE_ENTRIES = 20000;
 
+    private static final int PRUNE_ENTRIES = MAX_CACHE_ENTRIES / 10;
+
     private static final String CACHE_REGION = "analyticsResponse";
 
+    /**
+     * Mapping of partition year to keys of entries reading the partition.
+     */
+    private final Map<Integer, Set<String>> partitionKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of entries for which partitions could not be determined, which are
+     * invalidated for any partition.
+     */
+    private final Set<String> unpartitionedKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Mapping of key to index entry of all indexed entries.
+     */
+    private final Map<String, IndexEntry> indexedKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Number of invalidations, used to detect invalidations which happen while
+     * an entry is being stored.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
     public AnalyticsCache( final CacheProvider cacheProvider, final Environment environment,
         final AnalyticsCacheSettings analyticsCacheSettings )
     {
@@ -128,15 +174,39 @@ public class AnalyticsCache
      */
     public void put( final DataQueryParams params, final Grid grid )
     {
-        if ( analyticsCacheSettings.isProgressiveCachingEnabled() )
+        final String key = params.getKey();
+
+        // Uses the progressive TTL or respects the fixed (predefined) caching TTL
+        final long ttlInSeconds = analyticsCacheSettings.isProgressiveCachingEnabled() ?
+            analyticsCacheSettings.progressiveExpirationTimeOrDefault( params.getLatestEndDate() ) :
+            analyticsCacheSettings.fixedExpirationTimeOrDefault();
+
+        if ( !isIndexed() )
         {
-            // Uses the progressive TTL
-            put( params.getKey(), grid, analyticsCacheSettings.progressiveExpirationTimeOrDefault( params.getLatestEndDate() ) );
+            put( key, grid, ttlInSeconds );
+
+            return;
         }
-        else
+
+        final long invalidation = invalidations.get();
+
+        if ( indexedKeys.size() >= MAX_CACHE_ENTRIES )
         {
-            // Respects the fixed (predefined) caching TTL
-            put( params.getKey(), grid, analyticsCacheSettings.fixedExpirationTimeOrDefault() );
+            pruneIndex();
+        }
+
+        // Index before storing so that concurrent invalidations see the key
+
+        final IndexEntry entry = indexPartitions( params, grid, ttlInSeconds );
+
+        put( key, grid, ttlInSeconds );
+
+        // Invalidations after indexing but before storing could miss the entry
+
+        if ( invalidations.get() != invalidation )
+        {
+            queryCache.invalidate( key );
+            unindex( key, entry );
         }
     }
 
@@ -153,15 +223,200 @@ public class AnalyticsCache
         queryCache.put( key, grid, ttlInSeconds );
     }
 
+    /**
+     * Removes the entries which read any of the given yearly partitions, and the
+     * entries for which partitions could not be determined. Removes all entries
+     * if the cache is not indexed.
+     * 
+     * @param years the years of the updated partitions.
+     */
+    public void invalidatePartitions( final Collection<Integer> years )
+    {
+        if ( !isIndexed() )
+        {
+            invalidateAll();
+
+            return;
+        }
+
+        invalidations.incrementAndGet();
+
+        int invalidated = invalidateKeys( unpartitionedKeys );
+
+        for ( Integer year : years )
+        {
+            final Set<String> keys = partitionKeys.get( year );
+
+            if ( keys != null )
+            {
+                invalidated += invalidateKeys( keys );
+            }
+        }
+
+        log.info( format( "Analytics cache invalidated %d entries for partitions: %s", invalidated, years ) );
+    }
+
     /**
      * Clean the current cache by removing all existing entries.
      */
     public void invalidateAll()
     {
+        invalidations.incrementAndGet();
         queryCache.invalidateAll();
+        partitionKeys.clear();
+        unpartitionedKeys.clear();
+        indexedKeys.clear();
         log.info( "Analytics cache cleared" );
     }
 
+    /**
+     * Indexes the key of the given DataQueryParams by the yearly partitions which
+     * the query reads.
+     * 
+     * @param params the DataQueryParams.
+     * @param grid the associated Grid.
+     * @param ttlInSeconds the time to live of the entry.
+     * @return the index entry.
+     */
+    private IndexEntry indexPartitions( final DataQueryParams params, final Grid grid, final long ttlInSeconds )
+    {
+        final String key = params.getKey();
+
+        final Partitions partitions = params.hasStartEndDate() ?
+            PartitionUtils.getPartitions( params.getStartDate(), params.getEndDate() ) :
+            PartitionUtils.getPartitions( params.getAllPeriods() );
+
+        final IndexEntry entry = new IndexEntry( partitions.getPartitions(), grid,
+            System.currentTimeMillis() + SECONDS.toMillis( ttlInSeconds ) );
+
+        final IndexEntry previous = indexedKeys.put( key, entry );
+
+        if ( previous != null )
+        {
+            unindexPartitions( key, previous );
+        }
+
+        if ( partitions.hasAny() )
+        {
+            partitions.getPartitions().forEach( year -> partitionKeys
+                .computeIfAbsent( year, y -> ConcurrentHashMap.newKeySet() ).add( key ) );
+        }
+        else
+        {
+            unpartitionedKeys.add( key );
+        }
+
+        return entry;
+    }
+
+    /**
+     * Removes the given key from the index if it is still indexed by the given
+     * index entry.
+     * 
+     * @param key the cache key.
+     * @param entry the index entry.
+     */
+    private void unindex( final String key, final IndexEntry entry )
+    {
+        if ( indexedKeys.remove( key, entry ) )
+        {
+            unindexPartitions( key, entry );
+        }
+    }
+
+    private void unindexPartitions( final String key, final IndexEntry entry )
+    {
+        entry.years.forEach( year -> partitionKeys.computeIfPresent( year, ( y, keys ) -> {
+            keys.remove( key );
+            return keys.isEmpty() ? null : keys;
+        } ) );
+
+        if ( entry.years.isEmpty() )
+        {
+            unpartitionedKeys.remove( key );
+        }
+    }
+
+    /**
+     * Removes the key of an expired or evicted entry from the index, unless the
+     * key has been indexed again for a more recent entry.
+     * 
+     * @param key the cache key.
+     * @param grid the removed Grid.
+     */
+    private void onRemoval( final String key, final Grid grid )
+    {
+        final IndexEntry entry = indexedKeys.get( key );
+
+        if ( entry != null && entry.grid.get() == grid )
+        {
+            unindex( key, entry );
+        }
+    }
+
+    /**
+     * Removes the keys of expired entries from the index. Caches which do not
+     * notify about removed entries leave those keys in the index. If the index
+     * is still full, the entries which expire first are invalidated.
+     */
+    private synchronized void pruneIndex()
+    {
+        if ( indexedKeys.size() < MAX_CACHE_ENTRIES )
+        {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+
+        indexedKeys.forEach( ( key, entry ) -> {
+            if ( entry.expiresAt <= now )
+            {
+                unindex( key, entry );
+            }
+        } );
+
+        if ( indexedKeys.size() >= MAX_CACHE_ENTRIES )
+        {
+            final List<String> keys = indexedKeys.entrySet().stream()
+                .sorted( Comparator.comparingLong( e -> e.getValue().expiresAt ) )
+                .limit( PRUNE_ENTRIES )
+                .map( Map.Entry::getKey )
+                .collect( Collectors.toList() );
+
+            invalidateKeys( keys );
+        }
+    }
+
+    private int invalidateKeys( final Collection<String> keys )
+    {
+        int invalidated = 0;
+
+        for ( String key : new ArrayList<>( keys ) )
+        {
+            queryCache.invalidate( key );
+
+            final IndexEntry entry = indexedKeys.get( key );
+
+            if ( entry != null )
+            {
+                unindex( key, entry );
+            }
+
+            invalidated++;
+        }
+
+        return invalidated;
+    }
+
+    /**
+     * Indicates whether entries are indexed by partition, which is the case
+     * only for caches local to this instance.
+     */
+    private boolean isIndexed()
+    {
+        return CacheType.IN_MEMORY == queryCache.getCacheType();
+    }
+
     public boolean isEnabled()
     {
         return analyticsCacheSettings.isCachingEnabled();
@@ -178,9 +433,29 @@ public class AnalyticsCache
 
         queryCache = cacheProvider.newCacheBuilder( Grid.class ).forRegion( CACHE_REGION )
             .expireAfterWrite( initialExpirationTime, SECONDS ).withMaximumSize( nonTestEnv ? MAX_CACHE_ENTRIES : 0 )
-            .build();
+            .withRemovalListener( this::onRemoval ).build();
 
         log.info( format( "Analytics server-side cache is enabled with expiration time (in seconds): %d",
             initialExpirationTime ) );
     }
+
+    /**
+     * Index entry of a cached entry. The Grid is weakly referenced to tell
+     * removals of the entry apart from removals of earlier entries of the key.
+     */
+    private static final class IndexEntry
+    {
+        private final Set<Integer> years;
+
+        private final WeakReference<Grid> grid;
+
+        private final long expiresAt;
+
+        IndexEntry( final Set<Integer> years, final Grid grid, final long expiresAt )
+        {
+            this.years = years != null ? years : Collections.emptySet();
+            this.grid = new WeakReference<>( grid );
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -31,6 +31,8 @@ package org.hisp.dhis.analytics.config;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.table.DefaultAnalyticsTableService;
 import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -38,6 +40,7 @@ import org.hisp.dhis.system.notification.Notifier;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * @author Luciano Fiandesio
@@ -45,6 +48,39 @@ import org.springframework.context.annotation.Configuration;
 @Configuration("analyticsServiceConfig")
 public class ServiceConfig
 {
+    /**
+     * Bounded executor for analytics partition queries, kept separate from the
+     * default async executor so that analytics load cannot starve other tasks.
+     */
+    @Bean( "analyticsQueryExecutor" )
+    public ThreadPoolTaskExecutor analyticsQueryExecutor( DhisConfigurationProvider config )
+    {
+        int poolSize = Integer.parseInt( config.getProperty( ConfigurationKey.ANALYTICS_QUERY_POOL_SIZE ) );
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize( poolSize );
+        executor.setMaxPoolSize( poolSize );
+        executor.setThreadNamePrefix( "analytics-query-" );
+        return executor;
+    }
+
+    /**
+     * Executor for resource table generation, shared by all runs. Sized so that
+     * all resource tables can be generated concurrently, the number of
+     * concurrent tables per run is limited by the generator. Idle threads are
+     * released between runs.
+     */
+    @Bean( "resourceTableExecutor" )
+    public ThreadPoolTaskExecutor resourceTableExecutor()
+    {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize( 10 );
+        executor.setMaxPoolSize( 10 );
+        executor.setAllowCoreThreadTimeOut( true );
+        executor.setThreadNamePrefix( "resource-table-" );
+        return executor;
+    }
+
     @Bean( "org.hisp.dhis.analytics.AnalyticsTableService" )
     public DefaultAnalyticsTableService analyticsTableService(
         @Qualifier( "org.hisp.dhis.analytics.AnalyticsTableManager" ) AnalyticsTableManager tableManager,
@@ -655,8 +655,6 @@ public class DefaultDataQueryService
      */
     private List<DimensionalItemObject> getCanReadItems( User user, DimensionalObject object )
     {
-        return object.getItems().stream()
-            .filter( o -> aclService.canDataOrMetadataRead( user, o ) )
-            .collect( Collectors.toList() );
+        return aclService.filterDataOrMetadataReadable( user, object.getItems() );
     }
 }
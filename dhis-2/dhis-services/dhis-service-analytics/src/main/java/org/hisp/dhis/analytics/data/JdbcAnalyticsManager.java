@@ -51,6 +51,8 @@ import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString
 import static org.hisp.dhis.commons.util.TextUtils.removeLastOr;
 import static org.hisp.dhis.util.DateUtils.getMediumDateString;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -58,7 +60,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.hisp.dhis.analytics.AggregationType;
@@ -81,6 +82,8 @@ import org.hisp.dhis.common.QueryRuntimeException;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.commons.util.SqlHelper;
 import org.hisp.dhis.commons.util.TextUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
@@ -89,11 +92,15 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -127,13 +134,32 @@ public class JdbcAnalyticsManager
 
     private final JdbcTemplate jdbcTemplate;
 
-    public JdbcAnalyticsManager( QueryPlanner queryPlanner, @Qualifier( "readOnlyJdbcTemplate" ) JdbcTemplate jdbcTemplate )
+    /**
+     * Number of rows fetched per round trip when streaming analytics query
+     * results.
+     */
+    private final int fetchSize;
+
+    /**
+     * Read-only transaction on the data source of the JDBC template. PostgreSQL
+     * only honors the fetch size with auto-commit disabled, otherwise the
+     * driver buffers the entire result set.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public JdbcAnalyticsManager( QueryPlanner queryPlanner, @Qualifier( "readOnlyJdbcTemplate" ) JdbcTemplate jdbcTemplate,
+        DhisConfigurationProvider config )
     {
         checkNotNull( queryPlanner );
         checkNotNull( jdbcTemplate );
+        checkNotNull( config );
 
         this.queryPlanner = queryPlanner;
         this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = Integer.parseInt( config.getProperty( ConfigurationKey.ANALYTICS_QUERY_FETCH_SIZE ) );
+        this.readOnlyTransactionTemplate = new TransactionTemplate(
+            new DataSourceTransactionManager( jdbcTemplate.getDataSource() ) );
+        this.readOnlyTransactionTemplate.setReadOnly( true );
     }
 
     // -------------------------------------------------------------------------
@@ -141,8 +167,8 @@ public class JdbcAnalyticsManager
     // -------------------------------------------------------------------------
 
     @Override
-    @Async
-    public Future<Map<String, Object>> getAggregatedDataValues( DataQueryParams params, AnalyticsTableType tableType, int maxLimit )
+    @Async( "analyticsQueryExecutor" )
+    public ListenableFuture<Map<String, Object>> getAggregatedDataValues( DataQueryParams params, AnalyticsTableType tableType, int maxLimit )
     {
         assertQuery( params );
 
@@ -655,53 +681,25 @@ public class JdbcAnalyticsManager
 
     /**
      * Retrieves data from the database based on the given query and SQL and puts
-     * into a value key and value mapping.
+     * into a value key and value mapping. Rows are streamed from the result set
+     * into the map as they are fetched, so the max limit is enforced before the
+     * remaining rows are read. The query runs in a read-only transaction so that
+     * the fetch size takes effect.
      */
     private Map<String, Object> getKeyValueMap( DataQueryParams params, String sql, int maxLimit )
     {
-        Map<String, Object> map = new HashMap<>();
-
         log.debug( String.format( "Analytics SQL: %s", sql ) );
 
-        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
-
-        int counter = 0;
-
-        while ( rowSet.next() )
-        {
-            boolean exceedsMaxLimit = maxLimit > 0 && ++counter > maxLimit;
-
-            if ( exceedsMaxLimit )
-            {
-                throwIllegalQueryEx( ErrorCode.E7128, maxLimit );
-            }
-
-            StringBuilder key = new StringBuilder();
-
-            for ( DimensionalObject dim : params.getDimensions() )
-            {
-                String value = dim.isFixed() ? dim.getDimensionName() : rowSet.getString( dim.getDimensionName() );
-
-                key.append( value ).append( DIMENSION_SEP );
-            }
-
-            key.deleteCharAt( key.length() - 1 );
-
-            if ( params.isDataType( TEXT ) )
-            {
-                String value = rowSet.getString( VALUE_ID );
+        KeyValueRowCallbackHandler handler = new KeyValueRowCallbackHandler( params, maxLimit );
 
-                map.put( key.toString(), value );
-            }
-            else // NUMERIC
-            {
-                Double value = rowSet.getDouble( VALUE_ID );
+        PreparedStatementSetter fetchSizeSetter = ps -> ps.setFetchSize( fetchSize );
 
-                map.put( key.toString(), value );
-            }
-        }
+        readOnlyTransactionTemplate.execute( status -> {
+            jdbcTemplate.query( sql, fetchSizeSetter, handler );
+            return null;
+        } );
 
-        return map;
+        return handler.getMap();
     }
 
     /**
@@ -740,4 +738,66 @@ public class JdbcAnalyticsManager
         Assert.isTrue( !( params.getAggregationType().isFirstOrLastPeriodAggregationType() && params.getPeriods().size() > 1 ),
             "Max one dimension period can be present per query for last period aggregation" );
     }
+
+    /**
+     * Row callback handler which builds the value key and value mapping for
+     * one analytics query row by row.
+     */
+    private static class KeyValueRowCallbackHandler
+        implements RowCallbackHandler
+    {
+        private final Map<String, Object> map = new HashMap<>();
+
+        private final List<DimensionalObject> dimensions;
+
+        private final boolean textValue;
+
+        private final int maxLimit;
+
+        private int counter = 0;
+
+        KeyValueRowCallbackHandler( DataQueryParams params, int maxLimit )
+        {
+            this.dimensions = params.getDimensions();
+            this.textValue = params.isDataType( TEXT );
+            this.maxLimit = maxLimit;
+        }
+
+        @Override
+        public void processRow( ResultSet rs )
+            throws SQLException
+        {
+            boolean exceedsMaxLimit = maxLimit > 0 && ++counter > maxLimit;
+
+            if ( exceedsMaxLimit )
+            {
+                throwIllegalQueryEx( ErrorCode.E7128, maxLimit );
+            }
+
+            StringBuilder key = new StringBuilder();
+
+            for ( DimensionalObject dim : dimensions )
+            {
+                String value = dim.isFixed() ? dim.getDimensionName() : rs.getString( dim.getDimensionName() );
+
+                key.append( value ).append( DIMENSION_SEP );
+            }
+
+            key.deleteCharAt( key.length() - 1 );
+
+            if ( textValue )
+            {
+                map.put( key.toString(), rs.getString( VALUE_ID ) );
+            }
+            else // NUMERIC
+            {
+                map.put( key.toString(), rs.getDouble( VALUE_ID ) );
+            }
+        }
+
+        public Map<String, Object> getMap()
+        {
+            return map;
+        }
+    }
 }
@@ -110,10 +110,14 @@ import static org.hisp.dhis.util.ObjectUtils.firstNonNull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -153,6 +157,7 @@ import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.util.Timer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -1122,57 +1127,148 @@ public class DataHandler
         timer.getSplitTime(
             "Planned analytics query, got: " + queryGroups.getLargestGroupSize() + " for optimal: " + optimalQueries );
 
-        Map<String, Object> map = new HashMap<>();
-
-        for ( List<DataQueryParams> queries : queryGroups.getSequentialQueries() )
-        {
-            executeQueries( tableType, maxLimit, map, queries );
-        }
+        Map<String, Object> map = executeQueries( tableType, maxLimit, optimalQueries,
+            queryGroups.getSequentialQueries() );
 
         timer.getTime( "Got analytics values" );
 
         return map;
     }
 
-    private void executeQueries( AnalyticsTableType tableType, int maxLimit, Map<String, Object> map,
-        List<DataQueryParams> queries )
+    /**
+     * Executes the given groups of queries. Queries are submitted in group
+     * order, but a query from the next group is started as soon as any query
+     * in flight completes instead of waiting for the whole previous group, or
+     * for queries submitted earlier, to complete. At most the given number of
+     * queries are in flight at any time for the current request. Queries in
+     * flight are cancelled if any query fails or the calling thread is
+     * interrupted.
+     *
+     * @param tableType the {@link AnalyticsTableType}.
+     * @param maxLimit the max number of records to retrieve.
+     * @param maxConcurrentQueries the max number of concurrent queries.
+     * @param queryGroups the groups of queries to execute.
+     * @return a mapping between a dimension key and aggregated values.
+     */
+    private Map<String, Object> executeQueries( AnalyticsTableType tableType, int maxLimit,
+        int maxConcurrentQueries, List<List<DataQueryParams>> queryGroups )
     {
+        Iterator<DataQueryParams> queries = queryGroups.stream()
+            .flatMap( List::stream )
+            .iterator();
+
         List<Future<Map<String, Object>>> futures = new ArrayList<>();
 
-        for ( DataQueryParams query : queries )
-        {
-            futures.add( analyticsManager.getAggregatedDataValues( query, tableType, maxLimit ) );
-        }
+        BlockingQueue<Future<Map<String, Object>>> completed = new LinkedBlockingQueue<>();
+
+        int inFlight = 0;
 
-        for ( Future<Map<String, Object>> future : futures )
+        try
         {
-            try
+            while ( queries.hasNext() || inFlight > 0 )
             {
-                Map<String, Object> taskValues = future.get();
-
-                if ( taskValues != null )
+                while ( queries.hasNext() && inFlight < maxConcurrentQueries )
                 {
-                    map.putAll( taskValues );
+                    ListenableFuture<Map<String, Object>> future = analyticsManager
+                        .getAggregatedDataValues( queries.next(), tableType, maxLimit );
+
+                    futures.add( future );
+                    inFlight++;
+
+                    future.addCallback( result -> completed.add( future ), ex -> completed.add( future ) );
                 }
+
+                getQueryResult( takeCompleted( completed ) );
+
+                inFlight--;
             }
-            catch ( Exception ex )
+        }
+        catch ( RuntimeException ex )
+        {
+            futures.forEach( future -> future.cancel( true ) );
+
+            throw ex;
+        }
+
+        return mergeQueryResults( futures.stream()
+            .map( this::getQueryResult )
+            .filter( Objects::nonNull )
+            .collect( Collectors.toList() ) );
+    }
+
+    /**
+     * Waits for the next completed query task.
+     *
+     * @param completed the queue of completed query tasks.
+     * @return the completed query task.
+     */
+    private Future<Map<String, Object>> takeCompleted( BlockingQueue<Future<Map<String, Object>>> completed )
+    {
+        try
+        {
+            return completed.take();
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException( "Interrupted while waiting for aggregation query task", ex );
+        }
+    }
+
+    /**
+     * Waits for the given query task and returns its result.
+     *
+     * @param future the query task.
+     * @return a mapping between a dimension key and aggregated values.
+     */
+    private Map<String, Object> getQueryResult( Future<Map<String, Object>> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( Exception ex )
+        {
+            log.error( getStackTrace( ex ) );
+            log.error( getStackTrace( ex.getCause() ) );
+
+            if ( ex instanceof InterruptedException )
             {
-                log.error( getStackTrace( ex ) );
-                log.error( getStackTrace( ex.getCause() ) );
+                Thread.currentThread().interrupt();
+            }
 
-                if ( ex.getCause() instanceof RuntimeException )
-                {
-                    throw (RuntimeException) ex.getCause(); // Throw the real exception instead of execution
-                    // exception
-                }
-                else
-                {
-                    throw new RuntimeException( "Error during execution of aggregation query task", ex );
-                }
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause(); // Throw the real exception instead of execution
+                // exception
+            }
+            else
+            {
+                throw new RuntimeException( "Error during execution of aggregation query task", ex );
             }
         }
     }
 
+    /**
+     * Merges the given query results into a single map sized up front to hold
+     * all entries. Results are merged in query submission order, so values of
+     * later queries take precedence for duplicate keys.
+     *
+     * @param results the list of query results.
+     * @return a mapping between a dimension key and aggregated values.
+     */
+    private Map<String, Object> mergeQueryResults( List<Map<String, Object>> results )
+    {
+        int size = results.stream().mapToInt( Map::size ).sum();
+
+        Map<String, Object> map = new HashMap<>( (int) (size / 0.75f) + 1 );
+
+        results.forEach( map::putAll );
+
+        return map;
+    }
+
     /**
      * Gets the number of available cores. Uses explicit number from system setting
      * if available. Detects number of cores from current server runtime if not.
@@ -104,8 +104,7 @@ public class DefaultAnalyticsDimensionService
 
         //TODO Filter org unit group sets
 
-        return dimensions.stream()
-            .filter( d -> aclService.canDataOrMetadataRead( user, d ) )
+        return aclService.filterDataOrMetadataReadable( user, dimensions ).stream()
             .sorted()
             .collect( Collectors.toList() );
     }
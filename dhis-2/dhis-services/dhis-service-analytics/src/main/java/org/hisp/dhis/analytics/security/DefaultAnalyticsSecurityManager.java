@@ -54,6 +54,7 @@ import org.hisp.dhis.dataapproval.DataApprovalLevel;
 import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitPathIndex;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.user.CurrentUserService;
@@ -129,13 +130,13 @@ public class DefaultAnalyticsSecurityManager
             return; // Allow if no
         }
 
-        Set<OrganisationUnit> viewOrgUnits = user.getDataViewOrganisationUnits();
+        OrganisationUnitPathIndex viewOrgUnits = new OrganisationUnitPathIndex( user.getDataViewOrganisationUnits() );
 
         for ( DimensionalItemObject object : queryOrgUnits )
         {
             OrganisationUnit queryOrgUnit = (OrganisationUnit) object;
 
-            boolean notDescendant = !queryOrgUnit.isDescendant( viewOrgUnits );
+            boolean notDescendant = !viewOrgUnits.contains( queryOrgUnit );
 
             if ( notDescendant )
             {
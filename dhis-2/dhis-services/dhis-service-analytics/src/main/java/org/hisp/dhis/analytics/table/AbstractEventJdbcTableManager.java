@@ -91,6 +91,11 @@ public abstract class AbstractEventJdbcTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel )
+    {
+    }
+
     @Override
     @Async
     public Future<?> vacuumTablesAsync( ConcurrentLinkedQueue<AnalyticsTablePartition> tables )
@@ -98,6 +103,11 @@ public abstract class AbstractEventJdbcTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void vacuumTable( AnalyticsTablePartition partition )
+    {
+    }
+
     /**
      * Returns the select clause, potentially with a cast statement, based on the
      * given value type.
@@ -200,20 +200,26 @@ public abstract class AbstractJdbcTableManager
                 break taskLoop;
             }
 
-            final String indexName = inx.getIndexName( getAnalyticsTableType() );
-            final String indexType = inx.hasType() ? " using " + inx.getType() : "";
-            final String indexColumns = StringUtils.join( inx.getColumns(), "," );
+            createIndex( inx );
+        }
 
-            final String sql = "create index " + indexName + " on " + inx.getTable() + indexType + " (" + indexColumns + ")";
+        return null;
+    }
+
+    @Override
+    public void createIndex( AnalyticsIndex index )
+    {
+        final String indexName = index.getIndexName( getAnalyticsTableType() );
+        final String indexType = index.hasType() ? " using " + index.getType() : "";
+        final String indexColumns = StringUtils.join( index.getColumns(), "," );
 
-            log.debug( "Create index: " + indexName + " SQL: " + sql );
+        final String sql = "create index " + indexName + " on " + index.getTable() + indexType + " (" + indexColumns + ")";
 
-            jdbcTemplate.execute( sql );
+        log.debug( "Create index: " + indexName + " SQL: " + sql );
 
-            log.debug( "Created index: " + indexName );
-        }
+        jdbcTemplate.execute( sql );
 
-        return null;
+        log.debug( "Created index: " + indexName );
     }
 
     @Override
@@ -291,6 +297,12 @@ public abstract class AbstractJdbcTableManager
         return hooks.size();
     }
 
+    @Override
+    public boolean hasAnalyticsTableSqlHooks()
+    {
+        return !tableHookService.getByPhaseAndAnalyticsTableType( AnalyticsTablePhase.ANALYTICS_TABLE_POPULATED, getAnalyticsTableType() ).isEmpty();
+    }
+
     // -------------------------------------------------------------------------
     // Abstract methods
     // -------------------------------------------------------------------------
@@ -303,14 +315,6 @@ public abstract class AbstractJdbcTableManager
      */
     protected abstract List<String> getPartitionChecks( AnalyticsTablePartition partition );
 
-    /**
-     * Populates the given analytics table.
-     *
-     * @param params the {@link AnalyticsTableUpdateParams}.
-     * @param partition the {@link AnalyticsTablePartition} to populate.
-     */
-    protected abstract void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition );
-
     /**
      * Indicates whether data was created or updated for the given time range since
      * last successful "latest" table partition update.
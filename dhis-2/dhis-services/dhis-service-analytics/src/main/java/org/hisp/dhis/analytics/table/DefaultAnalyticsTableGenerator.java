@@ -33,17 +33,24 @@ import static org.hisp.dhis.system.notification.NotificationLevel.ERROR;
 import static org.hisp.dhis.system.notification.NotificationLevel.INFO;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.hisp.dhis.analytics.AnalyticsTableGenerator;
+import org.hisp.dhis.analytics.AnalyticsTablePartition;
 import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.cache.AnalyticsCache;
 import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobConfiguration;
@@ -52,8 +59,11 @@ import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.util.Clock;
 import org.hisp.dhis.util.DateUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -74,21 +84,30 @@ public class DefaultAnalyticsTableGenerator
 
     private Notifier notifier;
 
+    private AnalyticsCache analyticsCache;
+
+    private Executor resourceTableExecutor;
+
     public DefaultAnalyticsTableGenerator( List<AnalyticsTableService> analyticsTableServices,
         ResourceTableService resourceTableService, MessageService messageService,
-        SystemSettingManager systemSettingManager, Notifier notifier )
+        SystemSettingManager systemSettingManager, Notifier notifier, AnalyticsCache analyticsCache,
+        @Qualifier( "resourceTableExecutor" ) Executor resourceTableExecutor )
     {
         checkNotNull( analyticsTableServices );
         checkNotNull( resourceTableService );
         checkNotNull( messageService );
         checkNotNull( systemSettingManager );
         checkNotNull( notifier );
+        checkNotNull( analyticsCache );
+        checkNotNull( resourceTableExecutor );
 
         this.analyticsTableServices = analyticsTableServices;
         this.resourceTableService = resourceTableService;
         this.messageService = messageService;
         this.systemSettingManager = systemSettingManager;
         this.notifier = notifier;
+        this.analyticsCache = analyticsCache;
+        this.resourceTableExecutor = resourceTableExecutor;
     }
 
     // -------------------------------------------------------------------------
@@ -107,6 +126,8 @@ public class DefaultAnalyticsTableGenerator
         final Set<AnalyticsTableType> availableTypes = analyticsTableServices.stream()
             .map( AnalyticsTableService::getAnalyticsTableType )
             .collect( Collectors.toSet() );
+        final List<AnalyticsTablePartition> updatedPartitions = new ArrayList<>();
+        boolean resourceTablesUpdated = false;
 
         params = AnalyticsTableUpdateParams.newBuilder( params )
             .withLastSuccessfulUpdate( lastSuccessfulUpdate )
@@ -124,6 +145,7 @@ public class DefaultAnalyticsTableGenerator
             {
                 notifier.notify( jobId, "Updating resource tables" );
                 generateResourceTables();
+                resourceTablesUpdated = true;
             }
 
             for ( AnalyticsTableService service : analyticsTableServices )
@@ -134,12 +156,14 @@ public class DefaultAnalyticsTableGenerator
                 {
                     notifier.notify( jobId, "Updating tables: " + tableType );
 
-                    service.update( params );
+                    updatedPartitions.addAll( service.update( params ) );
                 }
             }
 
             clock.logTime( "Analytics tables updated" );
 
+            invalidateAnalyticsCache( updatedPartitions, resourceTablesUpdated );
+
             notifier.notify( jobId, INFO, "Analytics tables updated: " + clock.time(), true );
         }
         catch ( Exception ex )
@@ -201,24 +225,106 @@ public class DefaultAnalyticsTableGenerator
     // Supportive methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Invalidates analytics cache entries which read the updated partitions.
+     * Invalidates all entries if resource tables were updated, or if any of the
+     * partitions is the latest partition or a table without partitions, as the
+     * data years of such tables are not known.
+     *
+     * @param partitions the updated {@link AnalyticsTablePartition}.
+     * @param resourceTablesUpdated whether resource tables were updated.
+     */
+    private void invalidateAnalyticsCache( List<AnalyticsTablePartition> partitions, boolean resourceTablesUpdated )
+    {
+        boolean allPartitions = resourceTablesUpdated || partitions.stream()
+            .anyMatch( partition -> partition.getYear() == null || partition.isLatestPartition() );
+
+        if ( allPartitions )
+        {
+            analyticsCache.invalidateAll();
+        }
+        else if ( !partitions.isEmpty() )
+        {
+            analyticsCache.invalidatePartitions( partitions.stream()
+                .map( AnalyticsTablePartition::getYear )
+                .collect( Collectors.toSet() ) );
+        }
+    }
+
+    /**
+     * Generates the resource tables concurrently, each in a separate
+     * transaction. The tables are split into one sequential lane per task on
+     * the shared resource table executor. The organisation unit group set
+     * table is generated after the organisation unit structure table, which it
+     * is populated from. SQL views are dropped before and created after, as
+     * they may depend on any resource table.
+     */
     private void generateResourceTables()
     {
         final Date startTime = new Date();
 
+        final List<Runnable> independentTables = Lists.newArrayList(
+            resourceTableService::generateDataSetOrganisationUnitCategoryTable,
+            resourceTableService::generateCategoryOptionComboNames,
+            resourceTableService::generateDataElementGroupSetTable,
+            resourceTableService::generateIndicatorGroupSetTable,
+            resourceTableService::generateCategoryTable,
+            resourceTableService::generateDataElementTable,
+            resourceTableService::generatePeriodTable,
+            resourceTableService::generateDatePeriodTable,
+            resourceTableService::generateCategoryOptionComboTable );
+
+        final int taskNo = Math.max( 1, Math.min( getProcessNo(), independentTables.size() + 1 ) );
+
+        log.info( String.format( "Resource table task number: %d", taskNo ) );
+
         resourceTableService.dropAllSqlViews();
-        resourceTableService.generateOrganisationUnitStructures();
-        resourceTableService.generateDataSetOrganisationUnitCategoryTable();
-        resourceTableService.generateCategoryOptionComboNames();
-        resourceTableService.generateDataElementGroupSetTable();
-        resourceTableService.generateIndicatorGroupSetTable();
-        resourceTableService.generateOrganisationUnitGroupSetTable();
-        resourceTableService.generateCategoryTable();
-        resourceTableService.generateDataElementTable();
-        resourceTableService.generatePeriodTable();
-        resourceTableService.generateDatePeriodTable();
-        resourceTableService.generateCategoryOptionComboTable();
+
+        try
+        {
+            List<CompletableFuture<Void>> lanes = new ArrayList<>();
+
+            lanes.add( CompletableFuture
+                .runAsync( resourceTableService::generateOrganisationUnitStructures, resourceTableExecutor )
+                .thenRunAsync( resourceTableService::generateOrganisationUnitGroupSetTable, resourceTableExecutor ) );
+
+            for ( int i = 0; i < independentTables.size(); i++ )
+            {
+                Runnable table = independentTables.get( i );
+
+                if ( lanes.size() < taskNo )
+                {
+                    lanes.add( CompletableFuture.runAsync( table, resourceTableExecutor ) );
+                }
+                else
+                {
+                    int lane = ( i + 1 ) % taskNo;
+
+                    lanes.set( lane, lanes.get( lane ).thenRunAsync( table, resourceTableExecutor ) );
+                }
+            }
+
+            CompletableFuture.allOf( lanes.toArray( new CompletableFuture[0] ) ).join();
+        }
+        catch ( CompletionException ex )
+        {
+            throw new RuntimeException( "Exception during resource table generation", ex.getCause() );
+        }
+
         resourceTableService.createAllSqlViews();
 
         systemSettingManager.saveSystemSetting( SettingKey.LAST_SUCCESSFUL_RESOURCE_TABLES_UPDATE, startTime );
     }
+
+    /**
+     * Gets the number of available cores. Uses explicit number from system
+     * setting if available. Detects number of cores from current server runtime
+     * if not.
+     */
+    private int getProcessNo()
+    {
+        Integer cores = (Integer) systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS );
+
+        return ( cores == null || cores == 0 ) ? SystemUtils.getCpuCores() : cores;
+    }
 }
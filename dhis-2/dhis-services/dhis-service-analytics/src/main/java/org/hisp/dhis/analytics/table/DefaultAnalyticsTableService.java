@@ -37,6 +37,7 @@ import org.hisp.dhis.analytics.AnalyticsTablePartition;
 import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.DeltaAnalyticsTableManager;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.commons.util.SystemUtils;
@@ -53,9 +54,15 @@ import com.google.common.collect.Lists;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
@@ -110,7 +117,7 @@ public class DefaultAnalyticsTableService
     }
 
     @Override
-    public void update( AnalyticsTableUpdateParams params )
+    public List<AnalyticsTablePartition> update( AnalyticsTableUpdateParams params )
     {
         JobConfiguration jobId = params.getJobId();
 
@@ -132,7 +139,7 @@ public class DefaultAnalyticsTableService
         if ( validState != null )
         {
             notifier.notify( jobId, validState );
-            return;
+            return Lists.newArrayList();
         }
 
         final List<AnalyticsTable> tables = tableManager.getAnalyticsTables( params );
@@ -141,7 +148,7 @@ public class DefaultAnalyticsTableService
         {
             clock.logTime( String.format( "Table update aborted, no table or partitions to be updated: '%s'", tableType.getTableName() ) );
             notifier.notify( jobId, "Table updated aborted, no table or partitions to be updated" );
-            return;
+            return Lists.newArrayList();
         }
 
         clock.logTime( String.format( "Table update start: %s, earliest: %s, parameters: %s",
@@ -161,39 +168,69 @@ public class DefaultAnalyticsTableService
         createTables( tables );
 
         clock.logTime( "Created analytics tables" );
-        notifier.notify( jobId, "Populating analytics tables" );
 
-        populateTables( params, tables );
+        final boolean deltaUpdate = tableManager instanceof DeltaAnalyticsTableManager &&
+            tables.stream().allMatch( AnalyticsTable::isDeltaTable );
 
-        clock.logTime( "Populated analytics tables" );
-        notifier.notify( jobId, "Invoking analytics table hooks" );
+        if ( tableManager.hasAnalyticsTableSqlHooks() )
+        {
+            notifier.notify( jobId, "Populating analytics tables" );
 
-        tableUpdates += tableManager.invokeAnalyticsTableSqlHooks();
+            populateTables( params, tables );
 
-        clock.logTime( "Invoked analytics table hooks" );
-        notifier.notify( jobId, "Applying aggregation levels" );
+            clock.logTime( "Populated analytics tables" );
+            notifier.notify( jobId, "Invoking analytics table hooks" );
 
-        tableUpdates += applyAggregationLevels( tables );
+            tableUpdates += tableManager.invokeAnalyticsTableSqlHooks();
 
-        clock.logTime( "Applied aggregation levels" );
+            clock.logTime( "Invoked analytics table hooks" );
+            notifier.notify( jobId, "Applying aggregation levels" );
 
-        if ( tableUpdates > 0 )
-        {
-            notifier.notify( jobId, "Vacuuming tables" );
-            vacuumTables( tables );
-            clock.logTime( "Tables vacuumed" );
+            tableUpdates += applyAggregationLevels( tables );
+
+            clock.logTime( "Applied aggregation levels" );
+
+            if ( tableUpdates > 0 )
+            {
+                notifier.notify( jobId, "Vacuuming tables" );
+                vacuumTables( tables );
+                clock.logTime( "Tables vacuumed" );
+            }
+
+            if ( !deltaUpdate )
+            {
+                notifier.notify( jobId, "Creating indexes" );
+
+                createIndexes( tables );
+
+                clock.logTime( "Created indexes" );
+                notifier.notify( jobId, "Analyzing analytics tables" );
+
+                analyzeTables( tables );
+
+                clock.logTime( "Analyzed tables" );
+            }
         }
+        else
+        {
+            notifier.notify( jobId, "Populating analytics tables" );
 
-        notifier.notify( jobId, "Creating indexes" );
+            processTablePipeline( params, tables, !deltaUpdate );
 
-        createIndexes( tables );
+            clock.logTime( "Populated, indexed and analyzed analytics tables" );
+        }
 
-        clock.logTime( "Created indexes" );
-        notifier.notify( jobId, "Analyzing analytics tables" );
+        if ( deltaUpdate )
+        {
+            notifier.notify( jobId, "Merging delta analytics tables" );
 
-        analyzeTables( tables );
+            mergeDeltaTables( params, tables );
+
+            clock.logTime( "Table update done: " + tableType.getTableName() );
+            notifier.notify( jobId, "Table update done" );
+            return PartitionUtils.getTablePartitions( tables );
+        }
 
-        clock.logTime( "Analyzed tables" );
         notifier.notify( jobId, "Removing updated and deleted data" );
 
         tableManager.removeUpdatedData( params, tables );
@@ -205,6 +242,8 @@ public class DefaultAnalyticsTableService
 
         clock.logTime( "Table update done: " + tableType.getTableName() );
         notifier.notify( jobId, "Table update done" );
+
+        return PartitionUtils.getTablePartitions( tables );
     }
 
     @Override
@@ -276,6 +315,140 @@ public class DefaultAnalyticsTableService
         ConcurrentUtils.waitForCompletion( futures );
     }
 
+    /**
+     * Populates, applies aggregation levels to, indexes and analyzes the given
+     * analytics tables as a pipeline. Each partition moves on to indexing as
+     * soon as it is populated, instead of waiting for all partitions to be
+     * populated. Population is bounded by the number of processes, while
+     * indexing and analyzing is bounded by half of that in order to leave
+     * database capacity for ongoing population. The table manager is invoked
+     * synchronously on the pipeline threads so that the pools bound the actual
+     * database work.
+     * <p>
+     * Only applicable when no analytics table hooks exist for the table type,
+     * as hooks must be invoked on fully populated tables before aggregation
+     * levels are applied.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param tables the list of {@link AnalyticsTable}.
+     * @param indexTables whether to create indexes and analyze the tables.
+     */
+    private void processTablePipeline( AnalyticsTableUpdateParams params, List<AnalyticsTable> tables, boolean indexTables )
+    {
+        final JobConfiguration jobId = params.getJobId();
+        final List<AnalyticsTablePartition> partitions = PartitionUtils.getTablePartitions( tables );
+        final Map<Integer, Collection<String>> aggregationLevels = getAggregationLevelDataElements();
+        final int processNo = getProcessNo();
+        final int populateTaskNo = Math.max( 1, Math.min( processNo, partitions.size() ) );
+        final int indexTaskNo = Math.max( 1, Math.min( processNo / 2, partitions.size() ) );
+
+        log.info( String.format( "Table pipeline populate task number: %d, index task number: %d", populateTaskNo, indexTaskNo ) );
+
+        ExecutorService populateExecutor = Executors.newFixedThreadPool( populateTaskNo );
+        ExecutorService indexExecutor = Executors.newFixedThreadPool( indexTaskNo );
+
+        try
+        {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+            for ( AnalyticsTablePartition partition : partitions )
+            {
+                CompletableFuture<Void> future = CompletableFuture
+                    .runAsync( () -> populateTable( jobId, params, partition, aggregationLevels ), populateExecutor )
+                    .thenRun( () -> notifier.notify( jobId, "Populated analytics table: " + partition.getTempTableName() ) );
+
+                if ( indexTables )
+                {
+                    future = future
+                        .thenRunAsync( () -> createIndexes( jobId, partition ), indexExecutor )
+                        .thenRun( () -> tableManager.analyzeTable( partition.getTempTableName() ) )
+                        .thenRun( () -> notifier.notify( jobId, "Indexed and analyzed analytics table: " + partition.getTempTableName() ) );
+                }
+
+                futures.add( future );
+            }
+
+            CompletableFuture.allOf( futures.toArray( new CompletableFuture[0] ) ).join();
+        }
+        catch ( CompletionException ex )
+        {
+            throw new RuntimeException( "Exception during analytics table pipeline", ex.getCause() );
+        }
+        finally
+        {
+            populateExecutor.shutdownNow();
+            indexExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Populates the given analytics table partition and applies aggregation
+     * levels, and vacuums the partition if aggregation levels were applied.
+     *
+     * @param jobId the {@link JobConfiguration}.
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param partition the {@link AnalyticsTablePartition}.
+     * @param aggregationLevels mapping of aggregation level to data element identifiers.
+     */
+    private void populateTable( JobConfiguration jobId, AnalyticsTableUpdateParams params, AnalyticsTablePartition partition,
+        Map<Integer, Collection<String>> aggregationLevels )
+    {
+        tableManager.populateTable( params, partition );
+
+        if ( aggregationLevels.isEmpty() )
+        {
+            return;
+        }
+
+        notifier.notify( jobId, "Applying aggregation levels: " + partition.getTempTableName() );
+
+        for ( Map.Entry<Integer, Collection<String>> entry : aggregationLevels.entrySet() )
+        {
+            tableManager.applyAggregationLevels( partition, entry.getValue(), entry.getKey() );
+        }
+
+        tableManager.vacuumTable( partition );
+    }
+
+    /**
+     * Creates indexes on the given analytics table partition.
+     *
+     * @param jobId the {@link JobConfiguration}.
+     * @param partition the {@link AnalyticsTablePartition}.
+     */
+    private void createIndexes( JobConfiguration jobId, AnalyticsTablePartition partition )
+    {
+        notifier.notify( jobId, "Creating indexes: " + partition.getTempTableName() );
+
+        getIndexes( partition ).forEach( tableManager::createIndex );
+    }
+
+    /**
+     * Returns a mapping of aggregation level to the identifiers of data elements
+     * with the aggregation level, ordered from the lowest to the highest level.
+     */
+    private Map<Integer, Collection<String>> getAggregationLevelDataElements()
+    {
+        Map<Integer, Collection<String>> aggregationLevels = new LinkedHashMap<>();
+
+        int maxLevels = organisationUnitService.getNumberOfOrganisationalLevels();
+
+        for ( int i = 0; i < maxLevels; i++ )
+        {
+            int level = maxLevels - i;
+
+            Collection<String> dataElements = IdentifiableObjectUtils.getUids(
+                dataElementService.getDataElementsByAggregationLevel( level ) );
+
+            if ( !dataElements.isEmpty() )
+            {
+                aggregationLevels.put( level, dataElements );
+            }
+        }
+
+        return aggregationLevels;
+    }
+
     /**
      * Applies aggregation levels to the given analytics tables.
      *
@@ -353,17 +526,7 @@ public class DefaultAnalyticsTableService
 
         for ( AnalyticsTablePartition partition : partitions )
         {
-            List<AnalyticsTableColumn> columns = partition.getMasterTable().getDimensionColumns();
-
-            for ( AnalyticsTableColumn col : columns )
-            {
-                if ( !col.isSkipIndex() )
-                {
-                    List<String> indexColumns = col.hasIndexColumns() ? col.getIndexColumns() : Lists.newArrayList( col.getName() );
-
-                    indexes.add( new AnalyticsIndex( partition.getTempTableName(), indexColumns, col.getIndexType() ) );
-                }
-            }
+            indexes.addAll( getIndexes( partition ) );
         }
 
         log.info( "No of analytics table indexes: " + indexes.size() );
@@ -378,6 +541,29 @@ public class DefaultAnalyticsTableService
         ConcurrentUtils.waitForCompletion( futures );
     }
 
+    /**
+     * Returns the indexes to create for the given analytics table partition.
+     *
+     * @param partition the {@link AnalyticsTablePartition}.
+     * @return a list of {@link AnalyticsIndex}.
+     */
+    private List<AnalyticsIndex> getIndexes( AnalyticsTablePartition partition )
+    {
+        List<AnalyticsIndex> indexes = new ArrayList<>();
+
+        for ( AnalyticsTableColumn col : partition.getMasterTable().getDimensionColumns() )
+        {
+            if ( !col.isSkipIndex() )
+            {
+                List<String> indexColumns = col.hasIndexColumns() ? col.getIndexColumns() : Lists.newArrayList( col.getName() );
+
+                indexes.add( new AnalyticsIndex( partition.getTempTableName(), indexColumns, col.getIndexType() ) );
+            }
+        }
+
+        return indexes;
+    }
+
     /**
      * Analyzes the given analytics tables.
      *
@@ -405,6 +591,20 @@ public class DefaultAnalyticsTableService
         resourceTableService.createAllSqlViews();
     }
 
+    /**
+     * Merges the given delta analytics tables into the existing analytics tables.
+     * Indexes are not created as the existing partitions are already indexed.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param tables the list of {@link AnalyticsTable}.
+     */
+    private void mergeDeltaTables( AnalyticsTableUpdateParams params, List<AnalyticsTable> tables )
+    {
+        DeltaAnalyticsTableManager deltaTableManager = (DeltaAnalyticsTableManager) tableManager;
+
+        tables.forEach( table -> deltaTableManager.mergeDeltaTable( params, table ) );
+    }
+
     /**
      * Gets the number of available cores. Uses explicit number from system
      * setting if available. Detects number of cores from current server runtime
@@ -43,6 +43,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -55,8 +56,10 @@ import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.ColumnDataType;
 import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.DeltaAnalyticsTableManager;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.analytics.util.AnalyticsUtils;
+import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryOptionGroupSet;
 import org.hisp.dhis.category.CategoryService;
@@ -71,6 +74,7 @@ import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -82,6 +86,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -106,6 +111,7 @@ import com.google.common.collect.Sets;
 @Service( "org.hisp.dhis.analytics.AnalyticsTableManager" )
 public class JdbcAnalyticsTableManager
     extends AbstractJdbcTableManager
+    implements DeltaAnalyticsTableManager
 {
     public JdbcAnalyticsTableManager( IdentifiableObjectManager idObjectManager,
         OrganisationUnitService organisationUnitService, CategoryService categoryService,
@@ -146,9 +152,20 @@ public class JdbcAnalyticsTableManager
     @Transactional
     public List<AnalyticsTable> getAnalyticsTables( AnalyticsTableUpdateParams params )
     {
-        AnalyticsTable table = params.isLatestUpdate() ?
-            getLatestAnalyticsTable( params, getDimensionColumns(), getValueColumns() ) :
-            getRegularAnalyticsTable( params, getDataYears( params ), getDimensionColumns(), getValueColumns() );
+        AnalyticsTable table;
+
+        if ( params.isDeltaUpdate() )
+        {
+            table = getDeltaAnalyticsTable( params );
+        }
+        else if ( params.isLatestUpdate() )
+        {
+            table = getLatestAnalyticsTable( params, getDimensionColumns(), getValueColumns() );
+        }
+        else
+        {
+            table = getRegularAnalyticsTable( params, getDataYears( params ), getDimensionColumns(), getValueColumns() );
+        }
 
         return table.hasPartitionTables() ? newArrayList( table ) : newArrayList();
     }
@@ -222,6 +239,45 @@ public class JdbcAnalyticsTableManager
         invokeTimeAndLog( sql, "Remove updated data values" );
     }
 
+    @Override
+    @Transactional
+    public void mergeDeltaTable( AnalyticsTableUpdateParams params, AnalyticsTable table )
+    {
+        final String columns = ListUtils.union( table.getDimensionColumns(), table.getValueColumns() ).stream()
+            .map( AnalyticsTableColumn::getName )
+            .collect( Collectors.joining( "," ) );
+
+        for ( AnalyticsTablePartition partition : table.getTablePartitions() )
+        {
+            // Removes from all partitions through the master table in order to
+            // also clear rows in a potential "latest" partition
+
+            String deleteSql =
+                "delete from " + quote( getAnalyticsTableType().getTableName() ) + " ax " +
+                "where ax.year = " + partition.getYear() + " " +
+                "and ax.id in (" +
+                    "select (de.uid || '-' || ps.iso || '-' || ou.uid || '-' || co.uid || '-' || ao.uid) as id " +
+                    "from datavalue dv " +
+                    "inner join dataelement de on dv.dataelementid=de.dataelementid " +
+                    "inner join _periodstructure ps on dv.periodid=ps.periodid " +
+                    "inner join organisationunit ou on dv.sourceid=ou.organisationunitid " +
+                    "inner join categoryoptioncombo co on dv.categoryoptioncomboid=co.categoryoptioncomboid " +
+                    "inner join categoryoptioncombo ao on dv.attributeoptioncomboid=ao.categoryoptioncomboid " +
+                    "where ps.year = " + partition.getYear() + " " +
+                    getDeltaClause( params, table ) + ")";
+
+            invokeTimeAndLog( deleteSql, String.format( "Remove changed data values from %s", partition.getTableName() ) );
+
+            String insertSql =
+                "insert into " + partition.getTableName() + " (" + columns + ") " +
+                "select " + columns + " from " + partition.getTempTableName();
+
+            invokeTimeAndLog( insertSql, String.format( "Merge changed data values into %s", partition.getTableName() ) );
+        }
+
+        dropTempTable( table );
+    }
+
     @Override
     protected List<String> getPartitionChecks( AnalyticsTablePartition partition )
     {
@@ -233,7 +289,7 @@ public class JdbcAnalyticsTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final String dbl = statementBuilder.getDoubleColumnType();
         final boolean skipDataTypeValidation = (Boolean) systemSettingManager.getSystemSetting( SettingKey.SKIP_DATA_TYPE_VALIDATION_IN_ANALYTICS_TABLE_EXPORT );
@@ -263,9 +319,7 @@ public class JdbcAnalyticsTableManager
         final String valTypes = TextUtils.getQuotedCommaDelimitedString( ObjectUtils.asStringList( valueTypes ) );
         final boolean respectStartEndDates = (Boolean) systemSettingManager.getSystemSetting( SettingKey.RESPECT_META_DATA_START_END_DATES_IN_ANALYTICS_TABLE_EXPORT );
         final String approvalClause = getApprovalJoinClause( partition.getYear() );
-        final String partitionClause = partition.isLatestPartition() ?
-            "and dv.lastupdated >= '" + getLongDateString( partition.getStartDate() ) + "' " :
-            "and ps.year = " + partition.getYear() + " ";
+        final String partitionClause = getPartitionClause( params, partition );
 
         String sql = "insert into " + partition.getTempTableName() + " (";
 
@@ -333,6 +387,47 @@ public class JdbcAnalyticsTableManager
         invokeTimeAndLog( sql, String.format( "Populate %s %s", tableName, valueTypes ) );
     }
 
+    /**
+     * Returns the clause which restricts data values to the given partition. For
+     * partitions of a delta table, only data changed within the delta time range
+     * is included.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param partition the {@link AnalyticsTablePartition}.
+     */
+    private String getPartitionClause( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    {
+        if ( partition.isLatestPartition() )
+        {
+            return "and dv.lastupdated >= '" + getLongDateString( partition.getStartDate() ) + "' ";
+        }
+
+        String sql = "and ps.year = " + partition.getYear() + " ";
+
+        if ( partition.getMasterTable().isDeltaTable() )
+        {
+            sql += getDeltaClause( params, partition.getMasterTable() );
+        }
+
+        return sql;
+    }
+
+    /**
+     * Returns the clause which restricts data values to those changed within the
+     * time range of the given delta table, from the delta start date, inclusive,
+     * to the start time of the update, exclusive. Used both when populating and
+     * when merging delta tables so that the same data values are replaced.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param table the delta {@link AnalyticsTable}.
+     */
+    private String getDeltaClause( AnalyticsTableUpdateParams params, AnalyticsTable table )
+    {
+        return
+            "and dv.lastupdated >= '" + getLongDateString( table.getDeltaStartDate() ) + "' " +
+            "and dv.lastupdated < '" + getLongDateString( params.getStartTime() ) + "' ";
+    }
+
     /**
      * Returns sub-query for approval level. First looks for approval level in
      * data element resource table which will indicate level 0 (highest) if approval
@@ -457,6 +552,74 @@ public class JdbcAnalyticsTableManager
             new AnalyticsTableColumn( quote( "textvalue" ), TEXT, "textvalue" ) );
     }
 
+    /**
+     * Creates a delta {@link AnalyticsTable} with a partition for each year with
+     * data values changed since the last successful analytics table update of any
+     * kind. Falls back to a "latest" analytics table if an existing partition is
+     * missing for any of the years, as changed data can then not be merged.
+     * <p>
+     * Deleted data values are found through their last updated timestamp, which
+     * requires them to be soft deleted. Data values which are removed from the
+     * database, such as when soft deleted data values are purged through
+     * maintenance or when data elements or organisation units are deleted, are
+     * not removed from the partitions until the next full update.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     */
+    private AnalyticsTable getDeltaAnalyticsTable( AnalyticsTableUpdateParams params )
+    {
+        Date lastFullTableUpdate = (Date) systemSettingManager.getSystemSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE );
+        Date lastLatestPartitionUpdate = (Date) systemSettingManager.getSystemSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE );
+
+        Assert.notNull( lastFullTableUpdate, "A full analytics table update process must be run prior to a delta update process" );
+
+        Date startDate = DateUtils.getLatest( lastLatestPartitionUpdate, lastFullTableUpdate );
+        Calendar calendar = PeriodType.getCalendar();
+
+        AnalyticsTable table = new AnalyticsTable( getAnalyticsTableType(), getDimensionColumns(), getValueColumns() )
+            .withDeltaStartDate( startDate );
+
+        for ( Integer year : getChangedDataYears( startDate, params.getStartTime() ) )
+        {
+            table.addPartitionTable( year, PartitionUtils.getStartDate( calendar, year ), PartitionUtils.getEndDate( calendar, year ) );
+        }
+
+        boolean partitionsExist = table.getTablePartitions().stream()
+            .allMatch( partition -> partitionManager.tableExists( partition.getTableName() ) );
+
+        if ( !partitionsExist )
+        {
+            log.info( "Analytics partition missing for changed data, performing latest partition update" );
+
+            return getLatestAnalyticsTable( params, getDimensionColumns(), getValueColumns() );
+        }
+
+        log.info( String.format( "Added delta analytics partitions: %s with start: '%s' and end: '%s'",
+            table.getTablePartitions(), getLongDateString( startDate ), getLongDateString( params.getStartTime() ) ) );
+
+        return table;
+    }
+
+    /**
+     * Returns the distinct years which contain data values changed within the
+     * given time range, including deleted data values.
+     *
+     * @param startDate the start date, inclusive.
+     * @param endDate the end date, exclusive.
+     * @return a list of data years.
+     */
+    private List<Integer> getChangedDataYears( Date startDate, Date endDate )
+    {
+        String sql =
+            "select distinct(ps.year) " +
+            "from datavalue dv " +
+            "inner join _periodstructure ps on dv.periodid=ps.periodid " +
+            "where dv.lastupdated >= '" + getLongDateString( startDate ) + "' " +
+            "and dv.lastupdated < '" + getLongDateString( endDate ) + "'";
+
+        return jdbcTemplate.queryForList( sql, Integer.class );
+    }
+
     /**
      * Returns the distinct years which contain data values, relative to the from date
      * in the given parameters, if it exists.
@@ -495,28 +658,34 @@ public class JdbcAnalyticsTableManager
                 break taskLoop;
             }
 
-            StringBuilder sql = new StringBuilder( "update " + partition.getTempTableName() + " set " );
+            applyAggregationLevels( partition, dataElements, aggregationLevel );
+        }
 
-            for ( int i = 0; i < aggregationLevel; i++ )
-            {
-                int level = i + 1;
+        return ConcurrentUtils.getImmediateFuture();
+    }
 
-                String column = quote( DataQueryParams.LEVEL_PREFIX + level );
+    @Override
+    public void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel )
+    {
+        StringBuilder sql = new StringBuilder( "update " + partition.getTempTableName() + " set " );
 
-                sql.append( column + " = null," );
-            }
+        for ( int i = 0; i < aggregationLevel; i++ )
+        {
+            int level = i + 1;
 
-            sql.deleteCharAt( sql.length() - ",".length() );
+            String column = quote( DataQueryParams.LEVEL_PREFIX + level );
 
-            sql.append( " where level > " + aggregationLevel );
-            sql.append( " and dx in (" + getQuotedCommaDelimitedString( dataElements ) + ")" );
+            sql.append( column + " = null," );
+        }
 
-            log.debug( "Aggregation level SQL: " + sql.toString() );
+        sql.deleteCharAt( sql.length() - ",".length() );
 
-            jdbcTemplate.execute( sql.toString() );
-        }
+        sql.append( " where level > " + aggregationLevel );
+        sql.append( " and dx in (" + getQuotedCommaDelimitedString( dataElements ) + ")" );
 
-        return ConcurrentUtils.getImmediateFuture();
+        log.debug( "Aggregation level SQL: " + sql.toString() );
+
+        jdbcTemplate.execute( sql.toString() );
     }
 
     @Override
@@ -533,16 +702,22 @@ public class JdbcAnalyticsTableManager
                 break taskLoop;
             }
 
-            final String sql = statementBuilder.getVacuum( partition.getTempTableName() );
-
-            log.debug( "Vacuum SQL: " + sql );
-
-            jdbcTemplate.execute( sql );
+            vacuumTable( partition );
         }
 
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void vacuumTable( AnalyticsTablePartition partition )
+    {
+        final String sql = statementBuilder.getVacuum( partition.getTempTableName() );
+
+        log.debug( "Vacuum SQL: " + sql );
+
+        jdbcTemplate.execute( sql );
+    }
+
     @Override
     public List<AnalyticsTableColumn> getFixedColumns()
     {
@@ -180,7 +180,7 @@ public class JdbcCompletenessTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final String tableName = partition.getTempTableName();
         final String partitionClause = partition.isLatestPartition() ?
@@ -311,6 +311,11 @@ public class JdbcCompletenessTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel )
+    {
+    }
+
     @Override
     @Async
     public Future<?> vacuumTablesAsync( ConcurrentLinkedQueue<AnalyticsTablePartition> partitions )
@@ -318,6 +323,11 @@ public class JdbcCompletenessTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void vacuumTable( AnalyticsTablePartition partition )
+    {
+    }
+
     @Override
     public List<AnalyticsTableColumn> getFixedColumns()
     {
@@ -137,7 +137,7 @@ public class JdbcCompletenessTargetTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final String tableName = partition.getTempTableName();
 
@@ -227,6 +227,11 @@ public class JdbcCompletenessTargetTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel )
+    {
+    }
+
     @Override
     @Async
     public Future<?> vacuumTablesAsync( ConcurrentLinkedQueue<AnalyticsTablePartition> partitions )
@@ -234,6 +239,11 @@ public class JdbcCompletenessTargetTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void vacuumTable( AnalyticsTablePartition partition )
+    {
+    }
+
     @Override
     public List<AnalyticsTableColumn> getFixedColumns()
     {
@@ -139,7 +139,7 @@ public class JdbcEnrollmentAnalyticsTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final Program program = partition.getMasterTable().getProgram();
 
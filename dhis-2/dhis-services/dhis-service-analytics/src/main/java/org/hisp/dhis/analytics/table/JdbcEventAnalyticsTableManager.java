@@ -292,7 +292,7 @@ public class JdbcEventAnalyticsTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final Program program = partition.getMasterTable().getProgram();
         final String start = DateUtils.getLongDateString( partition.getStartDate() );
@@ -130,7 +130,7 @@ public class JdbcOrgUnitTargetTableManager
     }
 
     @Override
-    protected void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
+    public void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition )
     {
         final String tableName = partition.getTempTableName();
 
@@ -193,6 +193,11 @@ public class JdbcOrgUnitTargetTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void applyAggregationLevels( AnalyticsTablePartition partition, Collection<String> dataElements, int aggregationLevel )
+    {
+    }
+
     @Override
     @Async
     public Future<?> vacuumTablesAsync( ConcurrentLinkedQueue<AnalyticsTablePartition> partitions )
@@ -200,6 +205,11 @@ public class JdbcOrgUnitTargetTableManager
         return ConcurrentUtils.getImmediateFuture();
     }
 
+    @Override
+    public void vacuumTable( AnalyticsTablePartition partition )
+    {
+    }
+
     @Override
     public List<AnalyticsTableColumn> getFixedColumns()
     {
@@ -56,6 +56,10 @@ import lombok.extern.slf4j.Slf4j;
  * update time is persisted using a system setting. A full analytics table update is performed
  * when the current time is after the next scheduled full update time. Otherwise, a partial
  * update of the latest analytics partition table is performed.
+ * <p>
+ * When {@link ContinuousAnalyticsJobParameters#isDeltaUpdate()} is enabled, data changed since
+ * the last update is merged into the existing yearly partitions instead, for table types which
+ * support it.
  *
  * @author Lars Helge Overland
  */
@@ -120,10 +124,11 @@ public class ContinuousAnalyticsTableJob
         }
         else
         {
-            log.info( "Performing latest analytics table partition update" );
+            log.info( String.format( "Performing latest analytics table partition update, delta update: %b", parameters.isDeltaUpdate() ) );
 
             AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
                 .withLatestPartition()
+                .withDeltaUpdate( parameters.isDeltaUpdate() )
                 .withSkipResourceTables( true )
                 .withSkipTableTypes( parameters.getSkipTableTypes() )
                 .withJobId( jobConfiguration )
@@ -0,0 +1,246 @@
+package org.hisp.dhis.analytics.cache;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.junit.MockitoJUnit.rule;
+
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheBuilder;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.CacheType;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.system.grid.ListGrid;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoRule;
+import org.springframework.core.env.Environment;
+
+import com.google.common.collect.Sets;
+
+public class AnalyticsCacheTest
+{
+    @Mock
+    private CacheProvider cacheProvider;
+
+    @Mock
+    private Environment environment;
+
+    @Mock
+    private AnalyticsCacheSettings analyticsCacheSettings;
+
+    @Mock
+    private Cache<Grid> queryCache;
+
+    @Rule
+    public MockitoRule mockitoRule = rule();
+
+    private CacheBuilder<Grid> cacheBuilder;
+
+    private AnalyticsCache analyticsCache;
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setUp()
+    {
+        cacheBuilder = mock( CacheBuilder.class, RETURNS_SELF );
+
+        when( cacheBuilder.build() ).thenReturn( queryCache );
+        when( cacheProvider.newCacheBuilder( Grid.class ) ).thenReturn( cacheBuilder );
+        when( environment.getActiveProfiles() ).thenReturn( new String[0] );
+        when( analyticsCacheSettings.fixedExpirationTimeOrDefault() ).thenReturn( 60L );
+        when( queryCache.getCacheType() ).thenReturn( CacheType.IN_MEMORY );
+
+        analyticsCache = new AnalyticsCache( cacheProvider, environment, analyticsCacheSettings );
+        analyticsCache.init();
+    }
+
+    @Test
+    public void testInvalidatePartitions()
+    {
+        DataQueryParams paramsA = getParams( "201905" );
+        DataQueryParams paramsB = getParams( "202003" );
+        DataQueryParams paramsC = getParams( "201912", "202001" );
+
+        analyticsCache.put( paramsA, new ListGrid() );
+        analyticsCache.put( paramsB, new ListGrid() );
+        analyticsCache.put( paramsC, new ListGrid() );
+
+        verify( queryCache, times( 3 ) ).put( anyString(), any( Grid.class ), anyLong() );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+
+        verify( queryCache, never() ).invalidate( paramsA.getKey() );
+        verify( queryCache ).invalidate( paramsB.getKey() );
+        verify( queryCache ).invalidate( paramsC.getKey() );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2019 ) );
+
+        verify( queryCache ).invalidate( paramsA.getKey() );
+    }
+
+    @Test
+    public void testInvalidatePartitionsSharedCache()
+    {
+        DataQueryParams params = getParams( "201905" );
+
+        when( queryCache.getCacheType() ).thenReturn( CacheType.REDIS );
+
+        analyticsCache.put( params, new ListGrid() );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+
+        verify( queryCache ).invalidateAll();
+        verify( queryCache, never() ).invalidate( anyString() );
+    }
+
+    @Test
+    public void testInvalidatePartitionsUnpartitioned()
+    {
+        DataQueryParams params = DataQueryParams.newBuilder().build();
+
+        analyticsCache.put( params, new ListGrid() );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+
+        verify( queryCache ).invalidate( params.getKey() );
+    }
+
+    @Test
+    public void testInvalidatePartitionsWhileStoring()
+    {
+        DataQueryParams params = getParams( "202003" );
+
+        doAnswer( invocation -> {
+            analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+            return null;
+        } ).when( queryCache ).put( anyString(), any( Grid.class ), anyLong() );
+
+        analyticsCache.put( params, new ListGrid() );
+
+        verify( queryCache, times( 2 ) ).invalidate( params.getKey() );
+    }
+
+    @Test
+    public void testRemovalUnindexesEntry()
+    {
+        DataQueryParams params = getParams( "202003" );
+        Grid grid = new ListGrid();
+
+        analyticsCache.put( params, grid );
+
+        getRemovalListener().accept( params.getKey(), grid );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+
+        verify( queryCache, never() ).invalidate( params.getKey() );
+    }
+
+    @Test
+    public void testRemovalOfReplacedEntryKeepsIndex()
+    {
+        DataQueryParams params = getParams( "202003" );
+        Grid gridA = new ListGrid();
+        Grid gridB = new ListGrid();
+
+        analyticsCache.put( params, gridA );
+        analyticsCache.put( params, gridB );
+
+        getRemovalListener().accept( params.getKey(), gridA );
+
+        analyticsCache.invalidatePartitions( Sets.newHashSet( 2020 ) );
+
+        verify( queryCache ).invalidate( params.getKey() );
+    }
+
+    @Test
+    public void testPutPrunesFullIndex()
+    {
+        DataQueryParams first = getParams( new Date( 0 ) );
+
+        when( analyticsCacheSettings.fixedExpirationTimeOrDefault() ).thenReturn( 1L, 60L );
+
+        analyticsCache.put( first, new ListGrid() );
+
+        for ( int i = 1; i <= 20000; i++ )
+        {
+            analyticsCache.put( getParams( new Date( i * 1000L ) ), new ListGrid() );
+        }
+
+        verify( queryCache, never() ).invalidateAll();
+        verify( queryCache, atLeastOnce() ).invalidate( first.getKey() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private BiConsumer<String, Grid> getRemovalListener()
+    {
+        ArgumentCaptor<BiConsumer<String, Grid>> captor = ArgumentCaptor.forClass( BiConsumer.class );
+
+        verify( cacheBuilder ).withRemovalListener( captor.capture() );
+
+        return captor.getValue();
+    }
+
+    private DataQueryParams getParams( Date date )
+    {
+        return DataQueryParams.newBuilder()
+            .withStartDate( date )
+            .withEndDate( date )
+            .build();
+    }
+
+    private DataQueryParams getParams( String... isoPeriods )
+    {
+        return DataQueryParams.newBuilder()
+            .withPeriods( Stream.of( isoPeriods )
+                .map( PeriodType::getPeriodFromIsoString )
+                .collect( Collectors.toList() ) )
+            .build();
+    }
+}
@@ -31,16 +31,21 @@ package org.hisp.dhis.analytics.data;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import org.hisp.dhis.DhisConvenienceTest;
 import org.hisp.dhis.analytics.*;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.ListMap;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.YearlyPeriodType;
 import org.junit.Before;
@@ -72,6 +77,12 @@ public class AnalyticsManagerTest
         @Mock
         private JdbcTemplate jdbcTemplate;
 
+        @Mock
+        private DataSource dataSource;
+
+        @Mock
+        private DhisConfigurationProvider config;
+
         @Rule
         public MockitoRule mockitoRule = MockitoJUnit.rule();
 
@@ -91,7 +102,10 @@ public class AnalyticsManagerTest
         @Before
         public void setUp()
         {
-            analyticsManager = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate );
+            when( config.getProperty( ConfigurationKey.ANALYTICS_QUERY_FETCH_SIZE ) ).thenReturn( "10000" );
+            when( jdbcTemplate.getDataSource() ).thenReturn( dataSource );
+
+            analyticsManager = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate, config );
         }
 
         @Test
@@ -135,13 +149,22 @@ public class AnalyticsManagerTest
         @Mock
         private JdbcTemplate jdbcTemplate;
 
+        @Mock
+        private DataSource dataSource;
+
+        @Mock
+        private DhisConfigurationProvider config;
+
         @Rule
         public MockitoRule mockitoRule = MockitoJUnit.rule();
 
         @Test
         public void testReplaceDataPeriodsWithAggregationPeriods()
         {
-            AnalyticsManager analyticsManager = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate );
+            when( config.getProperty( ConfigurationKey.ANALYTICS_QUERY_FETCH_SIZE ) ).thenReturn( "10000" );
+            when( jdbcTemplate.getDataSource() ).thenReturn( dataSource );
+
+            AnalyticsManager analyticsManager = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate, config );
             Period y2012 = createPeriod( "2012" );
 
             AnalyticsAggregationType aggregationType = new AnalyticsAggregationType(
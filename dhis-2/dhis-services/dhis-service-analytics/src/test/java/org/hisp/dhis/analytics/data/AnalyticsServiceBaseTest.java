@@ -77,7 +77,7 @@ public abstract class AnalyticsServiceBaseTest
     private AnalyticsSecurityManager securityManager;
 
     @Mock
-    private QueryPlanner queryPlanner;
+    protected QueryPlanner queryPlanner;
 
     @Mock
     private ExpressionService expressionService;
@@ -89,7 +89,7 @@ public abstract class AnalyticsServiceBaseTest
     private OrganisationUnitService organisationUnitService;
 
     @Mock
-    private SystemSettingManager systemSettingManager;
+    protected SystemSettingManager systemSettingManager;
 
     @Mock
     protected EventAnalyticsService eventAnalyticsService;
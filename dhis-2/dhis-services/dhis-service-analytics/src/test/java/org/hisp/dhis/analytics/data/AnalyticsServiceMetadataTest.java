@@ -45,9 +45,9 @@ import org.hisp.dhis.period.YearlyPeriodType;
 import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.scheduling.annotation.AsyncResult;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.hamcrest.CoreMatchers.allOf;
@@ -76,7 +76,7 @@ public class AnalyticsServiceMetadataTest extends AnalyticsServiceBaseTest
         Map<String, Object> aggregatedValues = new HashMap<>();
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
                 eq( AnalyticsTableType.DATA_VALUE ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( aggregatedValues ) );
+                .thenReturn( new AsyncResult<>( aggregatedValues ) );
     }
 
     @Test
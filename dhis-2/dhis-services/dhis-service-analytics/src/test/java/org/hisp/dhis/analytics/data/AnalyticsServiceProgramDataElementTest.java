@@ -43,7 +43,6 @@ import static org.mockito.Mockito.when;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsTableType;
@@ -60,6 +59,7 @@ import org.hisp.dhis.program.ProgramDataElementDimensionItem;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.annotation.AsyncResult;
 
 import com.google.common.collect.ImmutableList;
 
@@ -97,7 +97,7 @@ public class AnalyticsServiceProgramDataElementTest
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.DATA_VALUE ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( emptyData ) );
+                .thenReturn( new AsyncResult<>( emptyData ) );
 
         when( eventAnalyticsService.getAggregatedEventData( any( EventQueryParams.class ) ) )
             .thenReturn( new ListGrid() );
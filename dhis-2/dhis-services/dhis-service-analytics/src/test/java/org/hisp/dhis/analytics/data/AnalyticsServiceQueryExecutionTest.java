@@ -0,0 +1,97 @@
+package org.hisp.dhis.analytics.data;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.hisp.dhis.DhisConvenienceTest.createDataElement;
+import static org.hisp.dhis.DhisConvenienceTest.createOrganisationUnit;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryGroups;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryPlannerParams;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.YearlyPeriodType;
+import org.hisp.dhis.setting.SettingKey;
+import org.junit.Test;
+import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+public class AnalyticsServiceQueryExecutionTest
+    extends AnalyticsServiceBaseTest
+{
+    @Test( timeout = 10000 )
+    public void queryIsSubmittedWhenAnyQueryInFlightCompletes()
+    {
+        DataQueryParams params = DataQueryParams.newBuilder()
+            .withPeriod( new Period( YearlyPeriodType.getPeriodFromIsoString( "2017" ) ) )
+            .withDataElements( newArrayList( createDataElement( 'A', new CategoryCombo() ) ) )
+            .withOrganisationUnits( newArrayList( createOrganisationUnit( 'A' ) ) )
+            .withIgnoreLimit( true )
+            .build();
+
+        initMock( params );
+
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 2 );
+        when( queryPlanner.planQuery( any( DataQueryParams.class ), any( QueryPlannerParams.class ) ) ).thenReturn(
+            DataQueryGroups.newBuilder().withQueries( newArrayList( params, params, params ) ).build() );
+
+        SettableListenableFuture<Map<String, Object>> slowQuery = new SettableListenableFuture<>();
+
+        // The first query only completes once the third query is submitted,
+        // which requires the second query to be picked up before the first
+
+        when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
+            eq( AnalyticsTableType.DATA_VALUE ), eq( 0 ) ) )
+                .thenReturn( slowQuery )
+                .thenReturn( new AsyncResult<>( new HashMap<>() ) )
+                .thenAnswer( invocation -> {
+                    assertFalse( slowQuery.isDone() );
+                    slowQuery.set( new HashMap<>() );
+                    return new AsyncResult<>( new HashMap<>() );
+                } );
+
+        target.getAggregatedDataValueGrid( params );
+
+        verify( analyticsManager, times( 3 ) ).getAggregatedDataValues( any( DataQueryParams.class ),
+            eq( AnalyticsTableType.DATA_VALUE ), eq( 0 ) );
+        assertTrue( slowQuery.isDone() );
+    }
+}
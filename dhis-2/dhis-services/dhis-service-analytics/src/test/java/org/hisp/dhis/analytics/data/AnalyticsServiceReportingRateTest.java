@@ -45,7 +45,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import org.hisp.dhis.analytics.AnalyticsTableType;
@@ -64,6 +63,7 @@ import org.hisp.dhis.period.MonthlyPeriodType;
 import org.hisp.dhis.period.PeriodType;
 import org.joda.time.DateTime;
 import org.junit.Test;
+import org.springframework.scheduling.annotation.AsyncResult;
 
 /**
  * @author Luciano Fiandesio
@@ -107,14 +107,14 @@ public class AnalyticsServiceReportingRateTest
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( actualReports ) );
+                .thenReturn( new AsyncResult<>( actualReports ) );
 
         Map<String, Object> reportingRate = new HashMap<>();
         reportingRate.put( dataSetA.getUid() + "-" + ou.getUid(), expectedReports );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS_TARGET ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( reportingRate ) );
+                .thenReturn( new AsyncResult<>( reportingRate ) );
 
         Grid grid = target.getAggregatedDataValueGrid( params );
 
@@ -150,14 +150,14 @@ public class AnalyticsServiceReportingRateTest
         initMock( params );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
-            eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) ).thenReturn( CompletableFuture.completedFuture( null ) ); // NO
+            eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) ).thenReturn( new AsyncResult<>( null ) ); // NO
                                                                                                                         // VALUES
         Map<String, Object> reportingRate = new HashMap<>();
         reportingRate.put( dataSetA.getUid() + "-" + ou.getUid(), expectedReports );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS_TARGET ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( reportingRate ) );
+                .thenReturn( new AsyncResult<>( reportingRate ) );
 
         Grid grid = target.getAggregatedDataValueGrid( params );
 
@@ -191,11 +191,11 @@ public class AnalyticsServiceReportingRateTest
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( actualReports ) );
+                .thenReturn( new AsyncResult<>( actualReports ) );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS_TARGET ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( null ) ); // NO TARGET RETURNED
+                .thenReturn( new AsyncResult<>( null ) ); // NO TARGET RETURNED
 
         Grid grid = target.getAggregatedDataValueGrid( params );
 
@@ -240,11 +240,11 @@ public class AnalyticsServiceReportingRateTest
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS_TARGET ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( targets ) );
+                .thenReturn( new AsyncResult<>( targets ) );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( actuals ) );
+                .thenReturn( new AsyncResult<>( actuals ) );
 
         Grid grid = target.getAggregatedDataValueGrid( params );
         assertReportingRatesGrid( grid, dataSetA, "201902" );
@@ -287,11 +287,11 @@ public class AnalyticsServiceReportingRateTest
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS_TARGET ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( targets ) );
+                .thenReturn( new AsyncResult<>( targets ) );
 
         when( analyticsManager.getAggregatedDataValues( any( DataQueryParams.class ),
             eq( AnalyticsTableType.COMPLETENESS ), eq( 0 ) ) )
-                .thenReturn( CompletableFuture.completedFuture( actuals ) );
+                .thenReturn( new AsyncResult<>( actuals ) );
 
         Grid grid = target.getAggregatedDataValueGrid( params );
         assertReportingRatesGrid( grid, dataSetA, "201901" );
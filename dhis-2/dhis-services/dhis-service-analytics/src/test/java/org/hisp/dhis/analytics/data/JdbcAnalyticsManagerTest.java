@@ -33,14 +33,24 @@ import static org.hisp.dhis.DhisConvenienceTest.*;
 import static org.hisp.dhis.common.DimensionalObject.*;
 import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
 import org.hisp.dhis.analytics.*;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
@@ -50,11 +60,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 /**
  * @author Luciano Fiandesio
@@ -74,7 +86,13 @@ public class JdbcAnalyticsManagerTest
     private JdbcTemplate jdbcTemplate;
 
     @Mock
-    private SqlRowSet rowSet;
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DhisConfigurationProvider config;
 
     @Mock
     private NestedIndicatorCyclicDependencyInspector nestedIndicatorCyclicDependencyInspector;
@@ -86,16 +104,18 @@ public class JdbcAnalyticsManagerTest
 
     @Before
     public void setUp()
+        throws SQLException
     {
         QueryPlanner queryPlanner = new DefaultQueryPlanner(
             new DefaultQueryValidator( this.systemSettingManager, nestedIndicatorCyclicDependencyInspector ),
             partitionManager );
 
-        mockRowSet();
-
-        when( jdbcTemplate.queryForRowSet( sql.capture() ) ).thenReturn( rowSet );
+        when( config.getProperty( ConfigurationKey.ANALYTICS_QUERY_FETCH_SIZE ) ).thenReturn( "10000" );
+        when( jdbcTemplate.getDataSource() ).thenReturn( dataSource );
+        when( dataSource.getConnection() ).thenReturn( connection );
+        when( connection.getAutoCommit() ).thenReturn( true );
 
-        subject = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate );
+        subject = new JdbcAnalyticsManager( queryPlanner, jdbcTemplate, config );
     }
 
     @Test
@@ -138,10 +158,20 @@ public class JdbcAnalyticsManagerTest
         assertExpectedLastSql( "desc" );
     }
 
-    private void mockRowSet()
+    @Test
+    public void verifyQueryRunsInReadOnlyTransaction()
+        throws SQLException
     {
-        // Simulate no rows
-        when( rowSet.next() ).thenReturn( false );
+        DataQueryParams params = createParams( AggregationType.SUM );
+
+        subject.getAggregatedDataValues( params, AnalyticsTableType.DATA_VALUE, 20000 );
+
+        InOrder inOrder = inOrder( connection, jdbcTemplate );
+        inOrder.verify( connection ).setReadOnly( true );
+        inOrder.verify( connection ).setAutoCommit( false );
+        inOrder.verify( jdbcTemplate ).query( any( String.class ), any( PreparedStatementSetter.class ), any( RowCallbackHandler.class ) );
+        inOrder.verify( connection ).commit();
+        inOrder.verify( connection ).setAutoCommit( true );
     }
 
     private DataQueryParams createParams(AggregationType aggregationType) {
@@ -160,6 +190,8 @@ public class JdbcAnalyticsManagerTest
 
     private void assertExpectedSql(String sortOrder) {
 
+        verify( jdbcTemplate ).query( sql.capture(), any( PreparedStatementSetter.class ), any( RowCallbackHandler.class ) );
+
         String lastAggregationTypeSql = "(select \"year\",\"pestartdate\",\"peenddate\",\"level\",\"daysxvalue\","
             + "\"daysno\",\"value\",\"textvalue\",\"dx\",cast('201501' as text) as \"pe\",\"ou\","
             + "row_number() over (partition by dx, ou, co, ao order by peenddate " + sortOrder + ", pestartdate "
@@ -172,6 +204,8 @@ public class JdbcAnalyticsManagerTest
 
     private void assertExpectedLastSql(String sortOrder) {
 
+        verify( jdbcTemplate ).query( sql.capture(), any( PreparedStatementSetter.class ), any( RowCallbackHandler.class ) );
+
         String lastAggregationTypeSql = "(select \"year\",\"pestartdate\",\"peenddate\",\"level\",\"daysxvalue\","
             + "\"daysno\",\"value\",\"textvalue\",\"dx\",cast('201501' as text) as \"pe\",\"ou\","
             + "row_number() over (partition by dx, ou, co, ao order by peenddate " + sortOrder + ", pestartdate "
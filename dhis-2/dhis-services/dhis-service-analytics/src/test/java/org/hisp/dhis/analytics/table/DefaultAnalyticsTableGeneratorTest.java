@@ -0,0 +1,209 @@
+package org.hisp.dhis.analytics.table;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.message.MessageService;
+import org.hisp.dhis.resourcetable.ResourceTableService;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.notification.Notifier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class DefaultAnalyticsTableGeneratorTest
+{
+    @Mock
+    private ResourceTableService resourceTableService;
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private SystemSettingManager systemSettingManager;
+
+    @Mock
+    private Notifier notifier;
+
+    @Mock
+    private AnalyticsCache analyticsCache;
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    private final JobConfiguration jobId = new JobConfiguration( "resourceTables", JobType.RESOURCE_TABLE, null, false );
+
+    private ExecutorService executor;
+
+    private DefaultAnalyticsTableGenerator subject;
+
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newFixedThreadPool( 10 );
+
+        subject = new DefaultAnalyticsTableGenerator( new ArrayList<>(), resourceTableService, messageService,
+            systemSettingManager, notifier, analyticsCache, executor );
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGenerateOrganisationUnitStructureBeforeGroupSetTable()
+    {
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 4 );
+
+        ConcurrentLinkedQueue<String> generated = new ConcurrentLinkedQueue<>();
+
+        doAnswer( invocation -> {
+            Thread.sleep( 200 );
+            generated.add( "orgUnitStructure" );
+            return null;
+        } ).when( resourceTableService ).generateOrganisationUnitStructures();
+
+        doAnswer( invocation -> generated.add( "orgUnitGroupSet" ) )
+            .when( resourceTableService ).generateOrganisationUnitGroupSetTable();
+
+        subject.generateResourceTables( jobId );
+
+        List<String> order = new ArrayList<>( generated );
+
+        assertEquals( 2, order.size() );
+        assertEquals( "orgUnitStructure", order.get( 0 ) );
+        assertEquals( "orgUnitGroupSet", order.get( 1 ) );
+    }
+
+    @Test
+    public void testGenerateAllResourceTablesBetweenSqlViews()
+    {
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 4 );
+
+        subject.generateResourceTables( jobId );
+
+        InOrder inOrder = inOrder( resourceTableService, systemSettingManager );
+
+        inOrder.verify( resourceTableService ).dropAllSqlViews();
+        inOrder.verify( resourceTableService ).generateOrganisationUnitStructures();
+        inOrder.verify( resourceTableService ).generateOrganisationUnitGroupSetTable();
+        inOrder.verify( resourceTableService ).createAllSqlViews();
+        inOrder.verify( systemSettingManager ).saveSystemSetting( eq( SettingKey.LAST_SUCCESSFUL_RESOURCE_TABLES_UPDATE ), any() );
+
+        verify( resourceTableService ).generateDataSetOrganisationUnitCategoryTable();
+        verify( resourceTableService ).generateCategoryOptionComboNames();
+        verify( resourceTableService ).generateDataElementGroupSetTable();
+        verify( resourceTableService ).generateIndicatorGroupSetTable();
+        verify( resourceTableService ).generateCategoryTable();
+        verify( resourceTableService ).generateDataElementTable();
+        verify( resourceTableService ).generatePeriodTable();
+        verify( resourceTableService ).generateDatePeriodTable();
+        verify( resourceTableService ).generateCategoryOptionComboTable();
+    }
+
+    @Test
+    public void testGenerateResourceTablesConcurrently()
+    {
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 2 );
+
+        CountDownLatch latch = new CountDownLatch( 2 );
+        ConcurrentLinkedQueue<Boolean> concurrent = new ConcurrentLinkedQueue<>();
+
+        doAnswer( invocation -> {
+            latch.countDown();
+            concurrent.add( latch.await( 10, TimeUnit.SECONDS ) );
+            return null;
+        } ).when( resourceTableService ).generateOrganisationUnitStructures();
+
+        doAnswer( invocation -> {
+            latch.countDown();
+            concurrent.add( latch.await( 10, TimeUnit.SECONDS ) );
+            return null;
+        } ).when( resourceTableService ).generateDataSetOrganisationUnitCategoryTable();
+
+        subject.generateResourceTables( jobId );
+
+        assertEquals( 2, concurrent.size() );
+        assertTrue( concurrent.stream().allMatch( Boolean::booleanValue ) );
+    }
+
+    @Test
+    public void testFailedOrganisationUnitStructureSkipsGroupSetTable()
+    {
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 4 );
+
+        doThrow( new IllegalStateException( "Failed" ) ).when( resourceTableService ).generateOrganisationUnitStructures();
+
+        try
+        {
+            subject.generateResourceTables( jobId );
+
+            fail( "Expected resource table generation to fail" );
+        }
+        catch ( RuntimeException ex )
+        {
+            assertEquals( IllegalStateException.class, ex.getCause().getClass() );
+        }
+
+        verify( resourceTableService, never() ).generateOrganisationUnitGroupSetTable();
+        verify( resourceTableService, never() ).createAllSqlViews();
+        verify( messageService ).sendSystemErrorNotification( anyString(), any( RuntimeException.class ) );
+    }
+}
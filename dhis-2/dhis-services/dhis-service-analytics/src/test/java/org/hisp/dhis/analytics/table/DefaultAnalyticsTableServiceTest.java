@@ -0,0 +1,223 @@
+package org.hisp.dhis.analytics.table;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.hisp.dhis.analytics.ColumnDataType.CHARACTER_11;
+import static org.hisp.dhis.analytics.ColumnDataType.DOUBLE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.hisp.dhis.analytics.AnalyticsTable;
+import org.hisp.dhis.analytics.AnalyticsTableColumn;
+import org.hisp.dhis.analytics.AnalyticsTableManager;
+import org.hisp.dhis.analytics.AnalyticsTablePartition;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.DeltaAnalyticsTableManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.resourcetable.ResourceTableService;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.notification.Notifier;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.google.common.collect.Lists;
+
+public class DefaultAnalyticsTableServiceTest
+{
+    @Mock
+    private AnalyticsTableManager tableManager;
+
+    @Mock
+    private OrganisationUnitService organisationUnitService;
+
+    @Mock
+    private DataElementService dataElementService;
+
+    @Mock
+    private ResourceTableService resourceTableService;
+
+    @Mock
+    private Notifier notifier;
+
+    @Mock
+    private SystemSettingManager systemSettingManager;
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    private AnalyticsTableUpdateParams params;
+
+    private AnalyticsTable table;
+
+    private DataElement dataElement;
+
+    @Before
+    public void setUp()
+    {
+        params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( new DateTime( 2019, 3, 1, 10, 0 ).toDate() )
+            .build();
+
+        table = new AnalyticsTable( AnalyticsTableType.DATA_VALUE,
+            Lists.newArrayList(
+                new AnalyticsTableColumn( "\"dx\"", CHARACTER_11, "de.uid" ),
+                new AnalyticsTableColumn( "\"ou\"", CHARACTER_11, "ou.uid" ) ),
+            Lists.newArrayList( new AnalyticsTableColumn( "\"value\"", DOUBLE, "value" ) ) );
+
+        table.addPartitionTable( 2018, new DateTime( 2018, 1, 1, 0, 0 ).toDate(), new DateTime( 2018, 12, 31, 0, 0 ).toDate() );
+        table.addPartitionTable( 2019, new DateTime( 2019, 1, 1, 0, 0 ).toDate(), new DateTime( 2019, 12, 31, 0, 0 ).toDate() );
+
+        dataElement = new DataElement( "DataElementA" );
+        dataElement.setUid( "deabcdefghA" );
+
+        when( systemSettingManager.getSystemSetting( SettingKey.DATABASE_SERVER_CPUS ) ).thenReturn( 4 );
+        when( organisationUnitService.getNumberOfOrganisationalLevels() ).thenReturn( 2 );
+        when( dataElementService.getDataElementsByAggregationLevel( 1 ) ).thenReturn( Lists.newArrayList() );
+        when( dataElementService.getDataElementsByAggregationLevel( 2 ) ).thenReturn( Lists.newArrayList( dataElement ) );
+    }
+
+    @Test
+    public void testUpdatePipeline()
+    {
+        when( tableManager.getAnalyticsTables( params ) ).thenReturn( Lists.newArrayList( table ) );
+
+        getSubject( tableManager ).update( params );
+
+        for ( AnalyticsTablePartition partition : table.getTablePartitions() )
+        {
+            String tempTableName = partition.getTempTableName();
+
+            InOrder inOrder = inOrder( tableManager );
+            inOrder.verify( tableManager ).populateTable( params, partition );
+            inOrder.verify( tableManager ).applyAggregationLevels( partition, Lists.newArrayList( dataElement.getUid() ), 2 );
+            inOrder.verify( tableManager ).vacuumTable( partition );
+            inOrder.verify( tableManager, times( 2 ) ).createIndex( argThat( index -> index.getTable().equals( tempTableName ) ) );
+            inOrder.verify( tableManager ).analyzeTable( tempTableName );
+
+            verify( notifier ).notify( any(), eq( "Applying aggregation levels: " + tempTableName ) );
+            verify( notifier ).notify( any(), eq( "Creating indexes: " + tempTableName ) );
+        }
+
+        verify( tableManager, never() ).populateTablesAsync( any(), any() );
+        verify( tableManager, never() ).applyAggregationLevels( any( ConcurrentLinkedQueue.class ), anyCollection(), anyInt() );
+        verify( tableManager, never() ).vacuumTablesAsync( any() );
+        verify( tableManager, never() ).createIndexesAsync( any() );
+        verify( tableManager ).swapTable( params, table );
+    }
+
+    @Test
+    public void testUpdatePipelineWithoutAggregationLevels()
+    {
+        when( dataElementService.getDataElementsByAggregationLevel( 2 ) ).thenReturn( Lists.newArrayList() );
+        when( tableManager.getAnalyticsTables( params ) ).thenReturn( Lists.newArrayList( table ) );
+
+        getSubject( tableManager ).update( params );
+
+        for ( AnalyticsTablePartition partition : table.getTablePartitions() )
+        {
+            verify( tableManager ).populateTable( params, partition );
+            verify( tableManager ).analyzeTable( partition.getTempTableName() );
+        }
+
+        verify( tableManager, never() ).applyAggregationLevels( any( AnalyticsTablePartition.class ), anyCollection(), anyInt() );
+        verify( tableManager, never() ).vacuumTable( any() );
+        verify( tableManager, times( 4 ) ).createIndex( any() );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void testUpdatePipelineFailure()
+    {
+        when( tableManager.getAnalyticsTables( params ) ).thenReturn( Lists.newArrayList( table ) );
+        doThrow( new IllegalStateException() ).when( tableManager ).populateTable( params, table.getTablePartitions().get( 1 ) );
+
+        try
+        {
+            getSubject( tableManager ).update( params );
+        }
+        finally
+        {
+            verify( tableManager, never() ).swapTable( any(), any() );
+        }
+    }
+
+    @Test
+    public void testDeltaUpdate()
+    {
+        DeltaAnalyticsTableManager deltaTableManager = mock( DeltaAnalyticsTableManager.class );
+
+        table.withDeltaStartDate( new Date() );
+
+        when( deltaTableManager.getAnalyticsTables( params ) ).thenReturn( Lists.newArrayList( table ) );
+
+        List<AnalyticsTablePartition> partitions = getSubject( deltaTableManager ).update( params );
+
+        for ( AnalyticsTablePartition partition : table.getTablePartitions() )
+        {
+            verify( deltaTableManager ).populateTable( params, partition );
+        }
+
+        verify( deltaTableManager ).mergeDeltaTable( params, table );
+        verify( deltaTableManager, never() ).createIndex( any() );
+        verify( deltaTableManager, never() ).swapTable( any(), any() );
+        verify( deltaTableManager, never() ).removeUpdatedData( any(), any() );
+
+        assertEquals( table.getTablePartitions(), partitions );
+    }
+
+    private DefaultAnalyticsTableService getSubject( AnalyticsTableManager manager )
+    {
+        return new DefaultAnalyticsTableService( manager, organisationUnitService, dataElementService,
+            resourceTableService, notifier, systemSettingManager );
+    }
+}
@@ -29,24 +29,60 @@ package org.hisp.dhis.audit;
  */
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 
+import javax.annotation.PreDestroy;
+import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.TextMessage;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Base class for audit consumers. Consumed audits are buffered and persisted
+ * in batches, either when a full batch is buffered or at the latest after
+ * {@link #FLUSH_DELAY} milliseconds.
+ * <p>
+ * Consumers listen with individual acknowledgement, see
+ * {@code ArtemisConfig#jmsAuditListenerContainerFactory}. A message is
+ * acknowledged only after the batch holding its audit is persisted, so that
+ * buffered audits are not acknowledged to the broker before they are
+ * stored. Messages which can not be de-serialized, and messages which are
+ * not persisted as the database audit is disabled, are acknowledged right
+ * away.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Slf4j
 public abstract class AbstractAuditConsumer
-    implements AuditConsumer
+    implements AuditConsumer, MeterBinder
 {
+    private static final long FLUSH_DELAY = 1_000;
+
+    private final BlockingQueue<PendingAudit> auditQueue = new LinkedBlockingQueue<>();
+
+    private volatile Timer batchTimer;
+
     protected AuditService auditService;
     protected ObjectMapper objectMapper;
 
     protected boolean isAuditLogEnabled;
     protected boolean isAuditDatabaseEnabled;
 
+    protected int batchSize;
+
+    protected abstract AuditScope getAuditScope();
+
     protected void _consume( TextMessage message )
     {
         try
@@ -67,7 +103,16 @@ public abstract class AbstractAuditConsumer
 
             if ( isAuditDatabaseEnabled )
             {
-                auditService.addAudit( audit );
+                auditQueue.add( new PendingAudit( audit, message ) );
+
+                if ( auditQueue.size() >= batchSize )
+                {
+                    saveBatch();
+                }
+            }
+            else
+            {
+                acknowledge( message );
             }
         }
         catch ( IOException e )
@@ -75,10 +120,135 @@ public abstract class AbstractAuditConsumer
             log.error(
                 "An error occurred de-serializing the message payload. The message can not be de-serialized to an Audit object.",
                 e );
+
+            acknowledge( message );
         }
         catch ( Exception e )
         {
-            log.error( "An error occurred persisting an Audit message of type 'TRACKER'", e );
+            log.error( String.format( "An error occurred persisting an Audit message of type '%s'", getAuditScope() ), e );
+
+            acknowledge( message );
+        }
+    }
+
+    /**
+     * Persists all buffered audits.
+     */
+    @PreDestroy
+    @Scheduled( fixedDelay = FLUSH_DELAY )
+    public void flush()
+    {
+        while ( saveBatch() > 0 )
+        {
+            // continue until the buffer is drained
+        }
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        Tags tags = Tags.of( "scope", getAuditScope().name().toLowerCase() );
+
+        Gauge.builder( "audit.consumer.queue.size", auditQueue, BlockingQueue::size )
+            .tags( tags )
+            .description( "Number of consumed audits waiting to be persisted" )
+            .register( registry );
+
+        batchTimer = Timer.builder( "audit.consumer.batch" )
+            .tags( tags )
+            .description( "Time spent persisting a batch of audits" )
+            .register( registry );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Persists at most one batch of buffered audits and acknowledges their
+     * messages afterwards. If the batch insert fails, the audits of the batch
+     * are persisted one by one so that a single invalid audit does not discard
+     * the entire batch.
+     *
+     * @return the number of audits taken from the buffer.
+     */
+    private int saveBatch()
+    {
+        List<PendingAudit> pendingAudits = new ArrayList<>( batchSize );
+
+        if ( auditQueue.drainTo( pendingAudits, batchSize ) == 0 )
+        {
+            return 0;
+        }
+
+        List<Audit> audits = new ArrayList<>( pendingAudits.size() );
+        pendingAudits.forEach( pendingAudit -> audits.add( pendingAudit.audit ) );
+
+        long start = System.nanoTime();
+
+        try
+        {
+            auditService.addAudits( audits );
+        }
+        catch ( Exception ex )
+        {
+            log.warn( String.format( "Batch insert of %d audits of type '%s' failed, persisting audits one by one",
+                audits.size(), getAuditScope() ), ex );
+
+            audits.forEach( this::save );
+        }
+        finally
+        {
+            Timer timer = batchTimer;
+
+            if ( timer != null )
+            {
+                timer.record( System.nanoTime() - start, TimeUnit.NANOSECONDS );
+            }
+        }
+
+        pendingAudits.forEach( pendingAudit -> acknowledge( pendingAudit.message ) );
+
+        return pendingAudits.size();
+    }
+
+    private void save( Audit audit )
+    {
+        try
+        {
+            auditService.addAudit( audit );
+        }
+        catch ( Exception ex )
+        {
+            log.error( String.format( "An error occurred persisting an Audit message of type '%s'", getAuditScope() ), ex );
+        }
+    }
+
+    private void acknowledge( Message message )
+    {
+        try
+        {
+            message.acknowledge();
+        }
+        catch ( JMSException ex )
+        {
+            log.error( String.format( "An error occurred acknowledging an Audit message of type '%s'", getAuditScope() ), ex );
+        }
+    }
+
+    /**
+     * A buffered audit with the message it was consumed from.
+     */
+    private static final class PendingAudit
+    {
+        private final Audit audit;
+
+        private final Message message;
+
+        private PendingAudit( Audit audit, Message message )
+        {
+            this.audit = audit;
+            this.message = message;
         }
     }
 }
@@ -0,0 +1,189 @@
+package org.hisp.dhis.audit.consumers;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.TextMessage;
+
+import org.hisp.dhis.audit.Audit;
+import org.hisp.dhis.audit.AuditService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class AggregateAuditConsumerTest
+{
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private DhisConfigurationProvider dhisConfig;
+
+    @Mock
+    private TextMessage message;
+
+    private AggregateAuditConsumer consumer;
+
+    @Before
+    public void setUp()
+        throws JMSException
+    {
+        when( dhisConfig.isEnabled( ConfigurationKey.AUDIT_DATABASE ) ).thenReturn( true );
+        when( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE ) ).thenReturn( "2" );
+        when( message.getText() ).thenReturn( "{\"auditType\":\"CREATE\",\"auditScope\":\"AGGREGATE\"," +
+            "\"createdBy\":\"admin\",\"uid\":\"a1234567890\"}" );
+
+        consumer = new AggregateAuditConsumer( auditService, new ObjectMapper(), dhisConfig );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testPersistFullBatch()
+    {
+        consumer.consume( message );
+
+        verify( auditService, never() ).addAudits( anyList() );
+
+        consumer.consume( message );
+
+        ArgumentCaptor<List<Audit>> audits = ArgumentCaptor.forClass( List.class );
+        verify( auditService ).addAudits( audits.capture() );
+
+        assertEquals( 2, audits.getValue().size() );
+        assertEquals( "a1234567890", audits.getValue().get( 0 ).getUid() );
+        verify( auditService, never() ).addAudit( any() );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testFlushPartialBatch()
+    {
+        consumer.consume( message );
+        consumer.consume( message );
+        consumer.consume( message );
+
+        verify( auditService, times( 1 ) ).addAudits( anyList() );
+
+        consumer.flush();
+
+        ArgumentCaptor<List<Audit>> audits = ArgumentCaptor.forClass( List.class );
+        verify( auditService, times( 2 ) ).addAudits( audits.capture() );
+
+        assertEquals( 1, audits.getValue().size() );
+
+        consumer.flush();
+
+        verify( auditService, times( 2 ) ).addAudits( anyList() );
+    }
+
+    @Test
+    public void testPersistAuditsOneByOneWhenBatchFails()
+    {
+        doThrow( new IllegalStateException( "Batch failed" ) ).when( auditService ).addAudits( anyList() );
+        doThrow( new IllegalStateException( "Audit failed" ) ).doReturn( 1L ).when( auditService ).addAudit( any() );
+
+        consumer.consume( message );
+        consumer.consume( message );
+
+        verify( auditService ).addAudits( anyList() );
+        verify( auditService, times( 2 ) ).addAudit( any() );
+
+        consumer.flush();
+
+        verify( auditService ).addAudits( anyList() );
+    }
+
+    @Test
+    public void testAcknowledgeMessagesAfterBatchIsPersisted()
+        throws JMSException
+    {
+        consumer.consume( message );
+
+        verify( message, never() ).acknowledge();
+
+        consumer.flush();
+
+        InOrder inOrder = inOrder( auditService, message );
+        inOrder.verify( auditService ).addAudits( anyList() );
+        inOrder.verify( message ).acknowledge();
+    }
+
+    @Test
+    public void testAcknowledgeMessagesAfterAuditsArePersistedOneByOne()
+        throws JMSException
+    {
+        doThrow( new IllegalStateException( "Batch failed" ) ).when( auditService ).addAudits( anyList() );
+
+        consumer.consume( message );
+        consumer.consume( message );
+
+        InOrder inOrder = inOrder( auditService, message );
+        inOrder.verify( auditService, times( 2 ) ).addAudit( any() );
+        inOrder.verify( message, times( 2 ) ).acknowledge();
+    }
+
+    @Test
+    public void testAcknowledgeInvalidMessage()
+        throws JMSException
+    {
+        when( message.getText() ).thenReturn( "{invalid" );
+
+        consumer.consume( message );
+
+        verify( message ).acknowledge();
+
+        consumer.flush();
+
+        verify( auditService, never() ).addAudits( anyList() );
+    }
+}
@@ -0,0 +1,90 @@
+package org.hisp.dhis.benchmark;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hisp.dhis.UnitTestConfig;
+import org.hisp.dhis.system.startup.StartupRoutineExecutor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Utility for benchmarks which require an application context. The context
+ * is backed by an in-memory H2 database, similar to integration tests.
+ */
+public class BenchmarkContext
+{
+    /**
+     * Unique characters for creating fixtures through the convenience methods
+     * which take a unique character.
+     */
+    public static final List<Character> UNIQUE_CHARS = getUniqueChars();
+
+    private BenchmarkContext()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    /**
+     * Starts an application context backed by an in-memory H2 database and
+     * executes the startup routines for testing.
+     *
+     * @return the started application context.
+     */
+    public static AnnotationConfigApplicationContext start()
+        throws Exception
+    {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles( "test-h2" );
+        context.register( UnitTestConfig.class );
+        context.refresh();
+
+        context.getBean( StartupRoutineExecutor.class ).executeForTesting();
+
+        return context;
+    }
+
+    private static List<Character> getUniqueChars()
+    {
+        List<Character> chars = new ArrayList<>();
+
+        for ( char c = 'A'; c <= 'Z'; c++ )
+        {
+            chars.add( c );
+        }
+
+        for ( char c = 'a'; c <= 'z'; c++ )
+        {
+            chars.add( c );
+        }
+
+        return chars;
+    }
+}
@@ -0,0 +1,136 @@
+package org.hisp.dhis.benchmark.analytics;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.hisp.dhis.DhisConvenienceTest.createDataElement;
+import static org.hisp.dhis.DhisConvenienceTest.createOrganisationUnit;
+import static org.hisp.dhis.DhisConvenienceTest.createPeriod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryGroups;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryPlanner;
+import org.hisp.dhis.analytics.QueryPlannerParams;
+import org.hisp.dhis.benchmark.BenchmarkContext;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Benchmarks partitioning and grouping of analytics queries by the
+ * {@link QueryPlanner}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class QueryPlannerBenchmark
+{
+    @Param( { "4", "8" } )
+    private int optimalQueries;
+
+    private AnnotationConfigApplicationContext context;
+
+    private QueryPlanner queryPlanner;
+
+    private DataQueryParams params;
+
+    private QueryPlannerParams plannerParams;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        context = BenchmarkContext.start();
+        queryPlanner = context.getBean( QueryPlanner.class );
+
+        List<Character> chars = BenchmarkContext.UNIQUE_CHARS.subList( 0, 20 );
+
+        List<DataElement> dataElements = chars.stream()
+            .map( c -> createDataElement( c ) )
+            .collect( Collectors.toList() );
+
+        List<OrganisationUnit> orgUnits = chars.stream()
+            .map( c -> createOrganisationUnit( c ) )
+            .collect( Collectors.toList() );
+
+        List<Period> periods = new ArrayList<>();
+
+        for ( int year = 2015; year <= 2020; year++ )
+        {
+            periods.add( createPeriod( year + "Q1" ) );
+            periods.add( createPeriod( year + "Q3" ) );
+            periods.add( createPeriod( year + "03" ) );
+            periods.add( createPeriod( year + "09" ) );
+        }
+
+        params = DataQueryParams.newBuilder()
+            .withDataElements( dataElements )
+            .withOrganisationUnits( orgUnits )
+            .withPeriods( periods )
+            .build();
+
+        plannerParams = QueryPlannerParams.newBuilder()
+            .withOptimalQueries( optimalQueries )
+            .withTableType( AnalyticsTableType.DATA_VALUE )
+            .build();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    public DataQueryGroups planQuery()
+    {
+        return queryPlanner.planQuery( params, plannerParams );
+    }
+}
@@ -0,0 +1,170 @@
+package org.hisp.dhis.benchmark.datavalueset;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.DhisConvenienceTest;
+import org.hisp.dhis.benchmark.BenchmarkContext;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.dxf2.common.ImportOptions;
+import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
+import org.hisp.dhis.dxf2.importsummary.ImportSummary;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Benchmarks the data value set import loop with a JSON payload. The first
+ * invocation creates the data values, subsequent invocations update them.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class DataValueSetImportBenchmark
+    extends DhisConvenienceTest
+{
+    private static final int DATA_ELEMENTS = 20;
+
+    private static final int ORG_UNITS = 50;
+
+    @Param( { "1", "12" } )
+    private int periods;
+
+    private AnnotationConfigApplicationContext context;
+
+    private DataValueSetService dataValueSetService;
+
+    private ImportOptions importOptions;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        context = BenchmarkContext.start();
+        dataValueSetService = context.getBean( DataValueSetService.class );
+
+        DataElementService dataElementService = context.getBean( DataElementService.class );
+        OrganisationUnitService organisationUnitService = context.getBean( OrganisationUnitService.class );
+        userService = context.getBean( UserService.class );
+
+        List<DataElement> dataElements = new ArrayList<>();
+        List<OrganisationUnit> orgUnits = new ArrayList<>();
+
+        for ( char c : BenchmarkContext.UNIQUE_CHARS.subList( 0, DATA_ELEMENTS ) )
+        {
+            DataElement dataElement = createDataElement( c );
+            dataElementService.addDataElement( dataElement );
+            dataElements.add( dataElement );
+        }
+
+        OrganisationUnit root = createOrganisationUnit( 'Z' );
+        organisationUnitService.addOrganisationUnit( root );
+
+        for ( char c : BenchmarkContext.UNIQUE_CHARS )
+        {
+            if ( c != 'Z' && orgUnits.size() < ORG_UNITS )
+            {
+                OrganisationUnit orgUnit = createOrganisationUnit( c, root );
+                organisationUnitService.addOrganisationUnit( orgUnit );
+                orgUnits.add( orgUnit );
+            }
+        }
+
+        User user = createAndInjectAdminUser();
+        user.getOrganisationUnits().add( root );
+        userService.updateUser( user );
+
+        importOptions = ImportOptions.getDefaultImportOptions();
+        payload = getPayload( dataElements, orgUnits );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        clearSecurityContext();
+        context.close();
+    }
+
+    @Benchmark
+    public ImportSummary saveDataValueSetJson()
+    {
+        return dataValueSetService.saveDataValueSetJson( new ByteArrayInputStream( payload ), importOptions );
+    }
+
+    private byte[] getPayload( List<DataElement> dataElements, List<OrganisationUnit> orgUnits )
+    {
+        StringBuilder json = new StringBuilder( "{\"dataValues\":[" );
+
+        for ( int month = 1; month <= periods; month++ )
+        {
+            String period = String.format( "2020%02d", month );
+
+            for ( DataElement dataElement : dataElements )
+            {
+                for ( OrganisationUnit orgUnit : orgUnits )
+                {
+                    json.append( "{\"dataElement\":\"" ).append( dataElement.getUid() )
+                        .append( "\",\"period\":\"" ).append( period )
+                        .append( "\",\"orgUnit\":\"" ).append( orgUnit.getUid() )
+                        .append( "\",\"value\":\"" ).append( month * 10 )
+                        .append( "\"}," );
+                }
+            }
+        }
+
+        json.setLength( json.length() - 1 );
+
+        return json.append( "]}" ).toString().getBytes( StandardCharsets.UTF_8 );
+    }
+}
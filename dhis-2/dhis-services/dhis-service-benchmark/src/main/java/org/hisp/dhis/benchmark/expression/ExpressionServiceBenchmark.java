@@ -0,0 +1,99 @@
+package org.hisp.dhis.benchmark.expression;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.benchmark.BenchmarkContext;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.expression.ExpressionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.hisp.dhis.expression.ParseType.INDICATOR_EXPRESSION;
+
+/**
+ * Benchmarks parsing of indicator expressions by the {@link ExpressionService}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ExpressionServiceBenchmark
+{
+    private static final String ITEM_EXPRESSION =
+        "#{deabcdefghA.coabcdefghA} + #{deabcdefghB} * 2 - #{deabcdefghC.coabcdefghB} / " +
+        "( #{deabcdefghD} + #{deabcdefghE.coabcdefghA} ) + #{deabcdefghF}";
+
+    private static final String CONSTANT_EXPRESSION =
+        "( 12 + 7.5 ) * 3 / ( 4 - 1.25 ) + 100 - 2 * ( 5 + 6 )";
+
+    private AnnotationConfigApplicationContext context;
+
+    private ExpressionService expressionService;
+
+    @Setup
+    public void setUp()
+        throws Exception
+    {
+        context = BenchmarkContext.start();
+        expressionService = context.getBean( ExpressionService.class );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    public Set<DimensionalItemId> getExpressionDimensionalItemIds()
+    {
+        return expressionService.getExpressionDimensionalItemIds( ITEM_EXPRESSION, INDICATOR_EXPRESSION );
+    }
+
+    @Benchmark
+    public Object getConstantExpressionValue()
+    {
+        return expressionService.getExpressionValue( CONSTANT_EXPRESSION, INDICATOR_EXPRESSION );
+    }
+}
@@ -29,6 +29,7 @@ package org.hisp.dhis.config;
  */
 
 import org.hisp.dhis.common.DeliveryChannel;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.i18n.ui.resourcebundle.DefaultResourceBundleManager;
 import org.hisp.dhis.i18n.ui.resourcebundle.ResourceBundleManager;
@@ -42,9 +43,11 @@ import org.hisp.dhis.sms.config.SmsMessageSender;
 import org.hisp.dhis.user.UserSettingService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.*;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @author Luciano Fiandesio
@@ -52,7 +55,12 @@ import java.util.*;
 @Configuration( "coreServiceConfig" )
 public class ServiceConfig
 {
-    @Bean( "taskScheduler" )
+    /**
+     * Also named "taskExecutor" so that it stays the default executor for
+     * {@code @Async} methods, as more than one {@link
+     * org.springframework.core.task.TaskExecutor} bean is defined.
+     */
+    @Bean( { "taskScheduler", "taskExecutor" } )
     public ThreadPoolTaskScheduler threadPoolTaskScheduler()
     {
         ThreadPoolTaskScheduler threadPoolTaskScheduler = new ThreadPoolTaskScheduler();
@@ -60,6 +68,27 @@ public class ServiceConfig
         return threadPoolTaskScheduler;
     }
 
+    /**
+     * Bounded executor for import work which is split across threads, such as
+     * fetching metadata preheat data. Uses the number of CPU cores minus one if
+     * there are more than two cores. Tasks run on the submitting thread when
+     * the queue is full.
+     */
+    @Bean( "importExecutor" )
+    public ThreadPoolTaskExecutor importExecutor()
+    {
+        int cores = SystemUtils.getCpuCores();
+        int poolSize = cores > 2 ? cores - 1 : cores;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize( poolSize );
+        executor.setMaxPoolSize( poolSize );
+        executor.setQueueCapacity( 1000 );
+        executor.setRejectedExecutionHandler( new ThreadPoolExecutor.CallerRunsPolicy() );
+        executor.setThreadNamePrefix( "import-" );
+        return executor;
+    }
+
     @Bean( "org.hisp.dhis.setting.StyleManager" )
     public StyleManager styleManager( SystemSettingManager systemSettingManager, UserSettingService userSettingService,
         I18nManager i18nManager )
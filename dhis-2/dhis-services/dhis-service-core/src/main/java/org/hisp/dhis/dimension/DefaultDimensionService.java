@@ -142,11 +142,7 @@ public class DefaultDimensionService
     @Override
     public <T extends IdentifiableObject> List<T> getCanReadObjects( User user, List<T> objects )
     {
-        List<T> list = new ArrayList<>( objects );
-
-        list.removeIf( object -> !aclService.canRead( user, object ) );
-
-        return list;
+        return aclService.filterReadable( user, objects );
     }
 
     @Override
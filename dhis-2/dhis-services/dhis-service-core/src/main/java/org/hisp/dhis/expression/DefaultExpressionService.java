@@ -29,10 +29,23 @@ package org.hisp.dhis.expression;
  */
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import lombok.extern.slf4j.Slf4j;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.antlr.Parser;
 import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.DimensionService;
 import org.hisp.dhis.common.DimensionalItemId;
@@ -59,6 +72,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnitGroupService;
 import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
 import org.hisp.dhis.parser.expression.ExpressionItem;
 import org.hisp.dhis.parser.expression.ExpressionItemMethod;
+import org.hisp.dhis.parser.expression.antlr.ExpressionBaseListener;
 import org.hisp.dhis.parser.expression.function.VectorAvg;
 import org.hisp.dhis.parser.expression.function.VectorCount;
 import org.hisp.dhis.parser.expression.function.VectorMax;
@@ -75,6 +89,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -82,6 +99,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -121,7 +139,7 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 @Slf4j
 @Service( "org.hisp.dhis.expression.ExpressionService" )
 public class DefaultExpressionService
-    implements ExpressionService
+    implements ExpressionService, PostCommitUpdateEventListener, PostCommitDeleteEventListener
 {
     // -------------------------------------------------------------------------
     // Dependencies
@@ -182,6 +200,25 @@ public class DefaultExpressionService
             .put( SIMPLE_TEST, COMMON_EXPRESSION_ITEMS )
             .build();
 
+    private static final Set<Class<?>> PARSE_TREE_CLASSES = ImmutableSet.of( Expression.class, Indicator.class,
+        Constant.class );
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    /**
+     * Parse trees by expression. A parse tree depends only on the expression
+     * text, and is read-only when visited, so it can be shared by concurrent
+     * evaluations of the same expression. All entries are invalidated when
+     * expressions, indicators or constants are updated or deleted.
+     */
+    private final Cache<ParseTree> parseTreeCache = new SimpleCacheBuilder<ParseTree>()
+        .forRegion( "expressionParseTree" )
+        .expireAfterAccess( 1, TimeUnit.HOURS )
+        .withMaximumSize( 20000 )
+        .forceInMemory()
+        .build();
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -206,6 +243,58 @@ public class DefaultExpressionService
         this.dimensionService = dimensionService;
     }
 
+    @PostConstruct
+    public void init()
+    {
+        EventListenerRegistry registry = emf.unwrap( SessionFactoryImpl.class )
+            .getServiceRegistry().getService( EventListenerRegistry.class );
+
+        registry.getEventListenerGroup( EventType.POST_COMMIT_UPDATE ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COMMIT_DELETE ).appendListener( this );
+    }
+
+    // -------------------------------------------------------------------------
+    // Parse tree cache invalidation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void onPostUpdate( PostUpdateEvent event )
+    {
+        invalidateParseTrees( event.getEntity() );
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed( PostUpdateEvent event )
+    {
+    }
+
+    @Override
+    public void onPostDelete( PostDeleteEvent event )
+    {
+        invalidateParseTrees( event.getEntity() );
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed( PostDeleteEvent event )
+    {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding( EntityPersister persister )
+    {
+        return PARSE_TREE_CLASSES.contains( persister.getMappedClass() );
+    }
+
+    private void invalidateParseTrees( Object entity )
+    {
+        if ( entity != null && PARSE_TREE_CLASSES.stream().anyMatch( c -> c.isInstance( entity ) ) )
+        {
+            parseTreeCache.invalidateAll();
+
+            log.debug( "Expression parse tree cache cleared" );
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Expression CRUD operations
     // -------------------------------------------------------------------------
@@ -638,7 +727,7 @@ public class DefaultExpressionService
     {
         try
         {
-            Object result = Parser.visit( expression, visitor );
+            Object result = visitor.visit( getParseTree( expression ) );
 
             switch( dataType )
             {
@@ -669,6 +758,47 @@ public class DefaultExpressionService
         return DOUBLE_VALUE_IF_NULL;
     }
 
+    /**
+     * Returns the parse tree of an expression, parsing the expression only if
+     * it is not already cached.
+     *
+     * @param expression the expression.
+     * @return the parse tree.
+     * @throws ParserException if the expression can not be parsed.
+     */
+    ParseTree getParseTree( String expression )
+    {
+        return parseTreeCache.get( expression, this::parse ).orElse( null );
+    }
+
+    private ParseTree parse( String expression )
+    {
+        ParseTreeCollector collector = new ParseTreeCollector();
+
+        Parser.listen( expression, collector );
+
+        return collector.parseTree;
+    }
+
+    /**
+     * Collects the parse tree of an expression, which is the first rule
+     * context entered when walking the tree.
+     */
+    private static class ParseTreeCollector
+        extends ExpressionBaseListener
+    {
+        private ParseTree parseTree;
+
+        @Override
+        public void enterEveryRule( ParserRuleContext ctx )
+        {
+            if ( parseTree == null )
+            {
+                parseTree = ctx;
+            }
+        }
+    }
+
     /**
      * Regenerates an expression from the parse tree, with values
      * substituted for constants and orgUnitCounts.
@@ -29,7 +29,6 @@ package org.hisp.dhis.organisationunit;
  */
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.hisp.dhis.commons.util.TextUtils.joinHyphen;
 
 import java.awt.geom.Point2D;
 import java.util.*;
@@ -74,9 +73,9 @@ public class DefaultOrganisationUnitService
 {
     private static final String LEVEL_PREFIX = "Level ";
 
-    private static Cache<Boolean> IN_USER_ORG_UNIT_HIERARCHY_CACHE;
+    private static Cache<OrganisationUnitPathIndex> USER_ORG_UNIT_HIERARCHY_CACHE;
 
-    private static Cache<Boolean> IN_USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE;
+    private static Cache<OrganisationUnitPathIndex> USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE;
 
     // -------------------------------------------------------------------------
     // Dependencies
@@ -133,11 +132,11 @@ public class DefaultOrganisationUnitService
     @PostConstruct
     public void init()
     {
-        IN_USER_ORG_UNIT_HIERARCHY_CACHE = cacheProvider.newCacheBuilder( Boolean.class )
+        USER_ORG_UNIT_HIERARCHY_CACHE = cacheProvider.newCacheBuilder( OrganisationUnitPathIndex.class )
             .forRegion( "inUserOuHierarchy" ).expireAfterWrite( 3, TimeUnit.HOURS ).withInitialCapacity( 1000 )
             .forceInMemory().withMaximumSize( SystemUtils.isTestRun( env.getActiveProfiles() ) ? 0 : 20000 ).build();
 
-        IN_USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE = cacheProvider.newCacheBuilder( Boolean.class )
+        USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE = cacheProvider.newCacheBuilder( OrganisationUnitPathIndex.class )
             .forRegion( "inUserSearchOuHierarchy" ).expireAfterWrite( 3, TimeUnit.HOURS ).withInitialCapacity( 1000 )
             .forceInMemory().withMaximumSize( SystemUtils.isTestRun( env.getActiveProfiles() ) ? 0 : 20000 ).build();
     }
@@ -466,10 +465,14 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
+        if ( user == null )
+        {
+            return false;
+        }
 
-        return IN_USER_ORG_UNIT_HIERARCHY_CACHE.get( cacheKey, ou -> isInUserHierarchy( user, organisationUnit ) )
-            .orElse( false );
+        return USER_ORG_UNIT_HIERARCHY_CACHE
+            .get( user.getUsername(), username -> new OrganisationUnitPathIndex( user.getOrganisationUnits() ) )
+            .map( index -> index.contains( organisationUnit ) ).orElse( false );
     }
 
     @Override
@@ -502,10 +505,14 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserSearchHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
+        if ( user == null )
+        {
+            return false;
+        }
 
-        return IN_USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE
-            .get( cacheKey, ou -> isInUserSearchHierarchy( user, organisationUnit ) ).orElse( false );
+        return USER_ORG_UNIT_SEARCH_HIERARCHY_CACHE
+            .get( user.getUsername(), username -> new OrganisationUnitPathIndex( user.getTeiSearchOrganisationUnitsWithFallback() ) )
+            .map( index -> index.contains( organisationUnit ) ).orElse( false );
     }
 
     @Override
@@ -45,6 +45,7 @@ import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.commons.timer.SystemTimer;
 import org.hisp.dhis.commons.timer.Timer;
+import org.hisp.dhis.commons.util.ConcurrentUtils;
 import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.dataset.DataSetElement;
 import org.hisp.dhis.period.Period;
@@ -67,8 +68,10 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserCredentials;
 import org.hisp.dhis.user.UserGroup;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -79,6 +82,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -110,10 +114,12 @@ public class DefaultPreheatService implements PreheatService
 
     private final SchemaToDataFetcher schemaToDataFetcher;
 
+    private final ThreadPoolTaskExecutor importExecutor;
+
     public DefaultPreheatService( SchemaService schemaService, QueryService queryService,
         IdentifiableObjectManager manager, CurrentUserService currentUserService, PeriodStore periodStore,
         PeriodService periodService, AttributeService attributeService, MergeService mergeService,
-        SchemaToDataFetcher schemaToDataFetcher )
+        SchemaToDataFetcher schemaToDataFetcher, @Qualifier( "importExecutor" ) ThreadPoolTaskExecutor importExecutor )
     {
         checkNotNull( schemaService );
         checkNotNull( queryService );
@@ -123,6 +129,7 @@ public class DefaultPreheatService implements PreheatService
         checkNotNull( periodService );
         checkNotNull( attributeService );
         checkNotNull( mergeService );
+        checkNotNull( importExecutor );
 
         this.schemaService = schemaService;
         this.queryService = queryService;
@@ -133,6 +140,7 @@ public class DefaultPreheatService implements PreheatService
         this.attributeService = attributeService;
         this.mergeService = mergeService;
         this.schemaToDataFetcher = schemaToDataFetcher;
+        this.importExecutor = importExecutor;
     }
 
     @Override
@@ -188,6 +196,11 @@ public class DefaultPreheatService implements PreheatService
         }
         else if ( PreheatMode.REFERENCE == params.getPreheatMode() )
         {
+            // uniqueness data is fetched in separate sessions while references are loaded into the current one
+
+            Map<Class<? extends IdentifiableObject>, Future<List<? extends IdentifiableObject>>> uniqueFetches =
+                params.isParallel() ? fetchUniqueObjects( klasses ) : new HashMap<>();
+
             Map<PreheatIdentifier, Map<Class<? extends IdentifiableObject>, Set<String>>> references = collectReferences( params.getObjects() );
 
             Map<Class<? extends IdentifiableObject>, Set<String>> uidMap = references.get( PreheatIdentifier.UID );
@@ -235,8 +248,10 @@ public class DefaultPreheatService implements PreheatService
 
             for ( Class<? extends IdentifiableObject> klass : klasses )
             {
-                List<? extends IdentifiableObject> objects = schemaToDataFetcher
-                    .fetch( schemaService.getDynamicSchema( klass ) );
+                List<? extends IdentifiableObject> objects = uniqueFetches.containsKey( klass )
+                    ? ConcurrentUtils.getResult( uniqueFetches.get( klass ) )
+                    : schemaToDataFetcher.fetch( schemaService.getDynamicSchema( klass ) );
+
                 if ( !objects.isEmpty() )
                 {
                     uniqueCollectionMap.put( klass, new ArrayList<>( objects ) );
@@ -299,6 +314,36 @@ public class DefaultPreheatService implements PreheatService
         return preheat;
     }
 
+    /**
+     * Starts fetching the uniqueness data of the given classes on the import
+     * executor, each class in its own read-only session. Classes which can not
+     * be fetched detached are left out and fetched in the current session.
+     */
+    @SuppressWarnings( "unchecked" )
+    private Map<Class<? extends IdentifiableObject>, Future<List<? extends IdentifiableObject>>> fetchUniqueObjects(
+        Set<Class<? extends IdentifiableObject>> klasses )
+    {
+        Map<Class<? extends IdentifiableObject>, Future<List<? extends IdentifiableObject>>> uniqueFetches = new HashMap<>();
+
+        List<Schema> schemas = klasses.stream()
+            .map( schemaService::getDynamicSchema )
+            .filter( schemaToDataFetcher::isDetachedFetchSupported )
+            .collect( Collectors.toList() );
+
+        if ( schemas.size() < 2 )
+        {
+            return uniqueFetches;
+        }
+
+        for ( Schema schema : schemas )
+        {
+            uniqueFetches.put( (Class<? extends IdentifiableObject>) schema.getKlass(),
+                importExecutor.submit( () -> schemaToDataFetcher.fetchDetached( schema ) ) );
+        }
+
+        return uniqueFetches;
+    }
+
     private void handleSecurity( Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects, PreheatIdentifier identifier, Preheat preheat )
     {
         objects.forEach( ( klass, list ) -> list.forEach( object ->
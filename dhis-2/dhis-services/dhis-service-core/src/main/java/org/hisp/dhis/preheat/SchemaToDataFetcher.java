@@ -40,6 +40,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.schema.Property;
@@ -79,11 +80,54 @@ public class SchemaToDataFetcher
             return Collections.emptyList();
         }
 
-        return mapUniqueFields(schema);
+        return mapUniqueFields( schema, sessionFactory.getCurrentSession() );
+    }
+
+    /**
+     * Same as {@link #fetch(Schema)}, but executes the query in a new read-only session
+     * which is closed afterwards. This allows fetching from threads other than the one
+     * bound to the current session. Only supported for schemas where
+     * {@link #isDetachedFetchSupported(Schema)} is true.
+     *
+     * @param schema a {@link Schema}
+     * @return a List of objects corresponding to the "klass" of the given Schema
+     */
+    public List<? extends IdentifiableObject> fetchDetached( Schema schema )
+    {
+        if ( schema == null )
+        {
+            return Collections.emptyList();
+        }
+
+        Session session = sessionFactory.openSession();
+
+        try
+        {
+            session.setDefaultReadOnly( true );
+
+            return mapUniqueFields( schema, session );
+        }
+        finally
+        {
+            session.close();
+        }
+    }
+
+    /**
+     * Checks whether the unique fields of the given Schema can be fetched in a detached
+     * session, which is the case if all unique properties are simple values. Entities
+     * would not be usable once the session is closed.
+     *
+     * @param schema a {@link Schema}
+     * @return true if {@link #fetchDetached(Schema)} can be used for the Schema
+     */
+    public boolean isDetachedFetchSupported( Schema schema )
+    {
+        return schema != null && schema.getUniqueProperties().stream().allMatch( Property::isSimple );
     }
 
     @SuppressWarnings("unchecked")
-    private List<? extends IdentifiableObject> mapUniqueFields( Schema schema )
+    private List<? extends IdentifiableObject> mapUniqueFields( Schema schema, Session session )
     {
         List<Property> uniqueProperties = schema.getUniqueProperties();
 
@@ -93,7 +137,7 @@ public class SchemaToDataFetcher
         {
             final String fields = extractUniqueFields( uniqueProperties );
 
-            objects = sessionFactory.getCurrentSession()
+            objects = session
                 .createQuery( "SELECT " + fields + " from " + schema.getKlass().getSimpleName() )
                 .setReadOnly( true )
                 .getResultList();
@@ -120,6 +120,11 @@ public class CriteriaQueryEngine<T extends IdentifiableObject>
             criteria.addOrder( getHibernateOrder( order ) );
         }
 
+        if ( query.getKeyset() != null )
+        {
+            criteria.add( query.getKeyset().getHibernateCriterion( query.getOrders() ) );
+        }
+
         return criteria.add( Subqueries.propertyIn( "id", detachedCriteria ) ).list();
     }
 
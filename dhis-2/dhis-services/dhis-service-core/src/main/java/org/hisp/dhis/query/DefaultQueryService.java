@@ -104,6 +104,7 @@ public class DefaultQueryService
         cloned.clearOrders();
         cloned.setFirstResult( 0 );
         cloned.setMaxResults( Integer.MAX_VALUE );
+        cloned.setKeyset( null );
 
         return countObjects( cloned );
     }
@@ -129,6 +130,7 @@ public class DefaultQueryService
         {
             query.setFirstResult( pagination.getFirstResult() );
             query.setMaxResults( pagination.getSize() );
+            query.setKeyset( pagination.getKeyset() );
         }
 
         return query;
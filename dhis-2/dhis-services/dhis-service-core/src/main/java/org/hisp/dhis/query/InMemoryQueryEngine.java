@@ -79,6 +79,12 @@ public class InMemoryQueryEngine<T extends IdentifiableObject>
         List<T> list = runQuery( query );
         list = runSorter( query, list );
 
+        if ( query.getKeyset() != null )
+        {
+            list = list.stream().filter( object -> query.getKeyset().isBefore( query.getOrders(), object ) )
+                .collect( Collectors.toList() );
+        }
+
         return PagerUtils.pageCollection( list, query.getFirstResult(), query.getMaxResults() );
     }
 
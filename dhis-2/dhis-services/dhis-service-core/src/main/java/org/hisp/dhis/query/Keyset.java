@@ -0,0 +1,338 @@
+package org.hisp.dhis.query;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.SimpleExpression;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.schema.Property;
+import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.system.util.ReflectionUtils;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Position of an object in a result ordered by at most one required text
+ * property followed by the UID, used for keyset (cursor based) paging. The
+ * next page holds the objects ordered after the position, and is queried with
+ * a range predicate on the ordered properties instead of an offset, so deep
+ * pages are as cheap as the first one.
+ *
+ * Keysets are passed to and from the API as opaque, URL safe page tokens.
+ */
+public class Keyset
+{
+    private static final String ID = "id";
+
+    private static final String DESCENDING = "-";
+
+    private static final String TOKEN_SEP = "\n";
+
+    /**
+     * Ordered property name, prefixed with {@link #DESCENDING} for descending
+     * order, or "id" if ordered by UID only.
+     */
+    private final String property;
+
+    private final String uid;
+
+    /**
+     * Value of the ordered property, null if ordered by UID only.
+     */
+    private final String value;
+
+    private Keyset( String property, String uid, String value )
+    {
+        this.property = property;
+        this.uid = uid;
+        this.value = value;
+    }
+
+    // -------------------------------------------------------------------------
+    // Factory methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the orders to use for keyset paging for the given orders, which
+     * is the given orders (or the default order if empty) with the UID added
+     * as the last order. Returns null if the orders do not support keyset
+     * paging.
+     *
+     * @param schema the schema of the queried objects.
+     * @param orders the requested orders.
+     * @return the orders for keyset paging, or null if not supported.
+     */
+    public static List<Order> getOrders( Schema schema, List<Order> orders )
+    {
+        if ( !schema.havePersistedProperty( ID ) )
+        {
+            return null;
+        }
+
+        Property idProperty = schema.getPersistedProperty( ID );
+        List<Order> keysetOrders = new ArrayList<>( orders );
+
+        if ( keysetOrders.isEmpty() && schema.havePersistedProperty( "name" ) )
+        {
+            keysetOrders.add( Order.iasc( schema.getPersistedProperty( "name" ) ) );
+        }
+
+        if ( !keysetOrders.isEmpty() && isIdOrder( keysetOrders.get( keysetOrders.size() - 1 ) ) )
+        {
+            keysetOrders.remove( keysetOrders.size() - 1 );
+        }
+
+        if ( keysetOrders.size() > 1 || (keysetOrders.size() == 1 && !isSupported( keysetOrders.get( 0 ) )) )
+        {
+            return null;
+        }
+
+        keysetOrders.add( Order.asc( idProperty ) );
+
+        return keysetOrders;
+    }
+
+    /**
+     * Creates the keyset of the given object, which is the last object of a
+     * page ordered by the given orders.
+     *
+     * @param orders the orders, as returned by {@link #getOrders(Schema, List)}.
+     * @param object the last object of the page.
+     * @return the keyset, or null if the object has no value for the ordered
+     *         property.
+     */
+    public static Keyset of( List<Order> orders, IdentifiableObject object )
+    {
+        Order order = getValueOrder( orders );
+
+        if ( order == null )
+        {
+            return new Keyset( ID, object.getUid(), null );
+        }
+
+        Object value = ReflectionUtils.invokeMethod( object, order.getProperty().getGetterMethod() );
+
+        if ( value == null )
+        {
+            return null;
+        }
+
+        return new Keyset( getPropertyKey( order ), object.getUid(), value.toString() );
+    }
+
+    /**
+     * Parses a page token created by {@link #toToken()}.
+     *
+     * @param token the page token.
+     * @return the keyset.
+     * @throws IllegalQueryException if the token is invalid.
+     */
+    public static Keyset fromToken( String token )
+    {
+        String[] parts;
+
+        try
+        {
+            parts = new String( Base64.getUrlDecoder().decode( token ), StandardCharsets.UTF_8 ).split( TOKEN_SEP, 3 );
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            throw new IllegalQueryException( "Page token is invalid: " + token );
+        }
+
+        if ( parts.length == 2 && ID.equals( parts[0] ) )
+        {
+            return new Keyset( ID, parts[1], null );
+        }
+        else if ( parts.length == 3 && !ID.equals( parts[0] ) )
+        {
+            return new Keyset( parts[0], parts[1], parts[2] );
+        }
+
+        throw new IllegalQueryException( "Page token is invalid: " + token );
+    }
+
+    // -------------------------------------------------------------------------
+    // Logic
+    // -------------------------------------------------------------------------
+
+    public String toToken()
+    {
+        String token = value == null ? property + TOKEN_SEP + uid : property + TOKEN_SEP + uid + TOKEN_SEP + value;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( token.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Returns the criterion matching the objects ordered after this keyset.
+     *
+     * @param orders the orders of the query.
+     * @return the Hibernate criterion.
+     * @throws IllegalQueryException if the orders do not match this keyset.
+     */
+    public Criterion getHibernateCriterion( List<Order> orders )
+    {
+        Order order = validate( orders );
+        String idFieldName = getFieldName( orders.get( orders.size() - 1 ).getProperty() );
+
+        if ( order == null )
+        {
+            return Restrictions.gt( idFieldName, uid );
+        }
+
+        String fieldName = getFieldName( order.getProperty() );
+        SimpleExpression range = order.isAscending() ? Restrictions.gt( fieldName, value ) : Restrictions.lt( fieldName, value );
+        SimpleExpression equal = Restrictions.eq( fieldName, value );
+
+        if ( order.isIgnoreCase() )
+        {
+            range.ignoreCase();
+            equal.ignoreCase();
+        }
+
+        return Restrictions.or( range, Restrictions.and( equal, Restrictions.gt( idFieldName, uid ) ) );
+    }
+
+    /**
+     * Indicates whether the given object is ordered after this keyset, using
+     * the same comparison as {@link Order#compare(Object, Object)}.
+     *
+     * @param orders the orders of the query.
+     * @param object the object.
+     * @return true if the object is ordered after this keyset.
+     * @throws IllegalQueryException if the orders do not match this keyset.
+     */
+    public boolean isBefore( List<Order> orders, Object object )
+    {
+        Order order = validate( orders );
+
+        if ( order != null )
+        {
+            Object objectValue = ReflectionUtils.invokeMethod( object, order.getProperty().getGetterMethod() );
+
+            if ( objectValue == null )
+            {
+                return order.isAscending(); // null values are greater than other values
+            }
+
+            String value1 = order.isIgnoreCase() ? objectValue.toString().toLowerCase() : objectValue.toString();
+            String value2 = order.isIgnoreCase() ? value.toLowerCase() : value;
+            int result = order.isAscending() ? value1.compareTo( value2 ) : value2.compareTo( value1 );
+
+            if ( result != 0 )
+            {
+                return result > 0;
+            }
+        }
+
+        String objectUid = ((IdentifiableObject) object).getUid();
+
+        return objectUid != null && objectUid.compareTo( uid ) > 0;
+    }
+
+    public String getUid()
+    {
+        return uid;
+    }
+
+    public String getValue()
+    {
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return MoreObjects.toStringHelper( this )
+            .add( "property", property )
+            .add( "uid", uid )
+            .add( "value", value )
+            .toString();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Checks that the orders are keyset orders matching this keyset, and
+     * returns the order on the property, or null if ordered by UID only.
+     */
+    private Order validate( List<Order> orders )
+    {
+        if ( orders.isEmpty() || orders.size() > 2 || !isIdOrder( orders.get( orders.size() - 1 ) ) )
+        {
+            throw new IllegalQueryException( "Page token requires ordering by a single required text property" );
+        }
+
+        Order order = getValueOrder( orders );
+
+        if ( order == null ? !ID.equals( property ) : !getPropertyKey( order ).equals( property ) )
+        {
+            throw new IllegalQueryException( "Page token does not match the order of the query" );
+        }
+
+        return order;
+    }
+
+    private static Order getValueOrder( List<Order> orders )
+    {
+        return orders.size() > 1 ? orders.get( 0 ) : null;
+    }
+
+    private static String getPropertyKey( Order order )
+    {
+        return order.isAscending() ? order.getProperty().getName() : DESCENDING + order.getProperty().getName();
+    }
+
+    private static boolean isIdOrder( Order order )
+    {
+        return order.isAscending() && ID.equals( order.getProperty().getName() );
+    }
+
+    private static boolean isSupported( Order order )
+    {
+        Property property = order.getProperty();
+
+        return property != null && property.isPersisted() && property.isSimple() && property.isRequired()
+            && String.class.equals( property.getKlass() ) && !ID.equals( property.getName() );
+    }
+
+    private static String getFieldName( Property property )
+    {
+        return property.getFieldName() != null ? property.getFieldName() : property.getName();
+    }
+}
@@ -41,6 +41,8 @@ public class Pagination
 
     private boolean hasPagination = false;
 
+    private Keyset keyset;
+
     public Pagination( int firstResult, int size )
     {
         assert ( size > 0 );
@@ -49,6 +51,16 @@ public class Pagination
         this.hasPagination = true;
     }
 
+    /**
+     * This constructor can be used for keyset pagination, returning the page
+     * of objects ordered after the given keyset
+     */
+    public Pagination( Keyset keyset, int size )
+    {
+        this( 0, size );
+        this.keyset = keyset;
+    }
+
     /**
      * This constructor can be used to signal that there is no pagination data
      */
@@ -71,4 +83,9 @@ public class Pagination
     {
         return hasPagination;
     }
+
+    public Keyset getKeyset()
+    {
+        return keyset;
+    }
 }
@@ -56,6 +56,8 @@ public class Query extends Criteria
 
     private Integer maxResults = Integer.MAX_VALUE;
 
+    private Keyset keyset;
+
     private Junction.Type rootJunctionType = Junction.Type.AND;
 
     private boolean plannedQuery;
@@ -82,6 +84,7 @@ public class Query extends Criteria
         clone.addOrders( query.getOrders() );
         clone.setFirstResult( query.getFirstResult() );
         clone.setMaxResults( query.getMaxResults() );
+        clone.setKeyset( query.getKeyset() );
         clone.add( query.getCriterions() );
         clone.setObjects( query.getObjects() );
 
@@ -191,6 +194,20 @@ public class Query extends Criteria
         return this;
     }
 
+    /**
+     * Keyset to page from, the query then returns the objects ordered after it.
+     */
+    public Keyset getKeyset()
+    {
+        return keyset;
+    }
+
+    public Query setKeyset( Keyset keyset )
+    {
+        this.keyset = keyset;
+        return this;
+    }
+
     public Junction.Type getRootJunctionType()
     {
         return rootJunctionType;
@@ -306,6 +323,7 @@ public class Query extends Criteria
         return MoreObjects.toStringHelper( this )
             .add( "firstResult", firstResult )
             .add( "maxResults", maxResults )
+            .add( "keyset", keyset )
             .add( "orders", orders )
             .add( "criterions", criterions )
             .toString();
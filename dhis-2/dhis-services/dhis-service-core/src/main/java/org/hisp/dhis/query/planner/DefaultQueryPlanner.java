@@ -93,6 +93,14 @@ public class DefaultQueryPlanner implements QueryPlanner
 
         Query pQuery = getQuery( npQuery, persistedOnly ).setUser( query.getUser() ).setPlannedQuery( true );
 
+        // keyset paging follows the orders, so it is done in the database if the orders are persisted
+
+        if ( !pQuery.getOrders().isEmpty() )
+        {
+            pQuery.setKeyset( npQuery.getKeyset() );
+            npQuery.setKeyset( null );
+        }
+
         // if there are any non persisted criterions left, we leave the paging to the in-memory engine
         if ( !npQuery.getCriterions().isEmpty() )
         {
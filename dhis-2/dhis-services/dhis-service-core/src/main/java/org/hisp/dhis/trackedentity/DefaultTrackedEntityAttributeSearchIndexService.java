@@ -0,0 +1,264 @@
+package org.hisp.dhis.trackedentity;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains one partial GIN index with the pg_trgm operator class on the lower
+ * case attribute value per searchable attribute, which matches the lower case
+ * like and regular expression filters of tracked entity instance queries.
+ * Indexes are created and dropped concurrently, so that values can be written
+ * while indexes are maintained.
+ */
+@Slf4j
+@Service( "org.hisp.dhis.trackedentity.TrackedEntityAttributeSearchIndexService" )
+public class DefaultTrackedEntityAttributeSearchIndexService
+    implements TrackedEntityAttributeSearchIndexService
+{
+    private static final String INDEX_PREFIX = "in_teav_trgm_";
+
+    private final DhisConfigurationProvider config;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CacheProvider cacheProvider;
+
+    private final Environment env;
+
+    /**
+     * Cache for whether an attribute is indexed, keyed by attribute identifier.
+     * Expires in order to pick up indexes maintained by other instances.
+     */
+    private Cache<Boolean> indexedCache;
+
+    public DefaultTrackedEntityAttributeSearchIndexService( DhisConfigurationProvider config,
+        JdbcTemplate jdbcTemplate, CacheProvider cacheProvider, Environment env )
+    {
+        checkNotNull( config );
+        checkNotNull( jdbcTemplate );
+        checkNotNull( cacheProvider );
+        checkNotNull( env );
+
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheProvider = cacheProvider;
+        this.env = env;
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        indexedCache = cacheProvider.newCacheBuilder( Boolean.class ).forRegion( "trackedEntityAttributeSearchIndex" )
+            .expireAfterWrite( 10, TimeUnit.MINUTES ).withInitialCapacity( 100 ).forceInMemory()
+            .withMaximumSize( SystemUtils.isTestRun( env.getActiveProfiles() ) ? 0 : 10000 ).build();
+    }
+
+    // -------------------------------------------------------------------------
+    // TrackedEntityAttributeSearchIndexService implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public boolean isEnabled()
+    {
+        return config.isEnabled( ConfigurationKey.TRACKER_SEARCH_TRIGRAM_INDEX );
+    }
+
+    @Override
+    public boolean isIndexed( TrackedEntityAttribute attribute )
+    {
+        if ( !isEnabled() || attribute == null )
+        {
+            return false;
+        }
+
+        String key = String.valueOf( attribute.getId() );
+
+        return indexedCache.get( key, k -> getValidIndexes().containsKey( attribute.getId() ) ).orElse( false );
+    }
+
+    @Override
+    public void updateSearchIndexes()
+    {
+        if ( !isEnabled() )
+        {
+            log.info( "Tracked entity attribute search indexes are not enabled" );
+            return;
+        }
+
+        try
+        {
+            jdbcTemplate.execute( "create extension if not exists pg_trgm" );
+        }
+        catch ( Exception ex )
+        {
+            log.warn( "Extension pg_trgm could not be created, search indexes are not maintained", ex );
+            return;
+        }
+
+        Set<Long> searchableAttributes = getSearchableAttributes();
+        Map<Long, Boolean> indexes = getIndexes();
+
+        for ( Long attribute : searchableAttributes )
+        {
+            Boolean valid = indexes.get( attribute );
+
+            if ( Boolean.FALSE.equals( valid ) )
+            {
+                dropIndex( attribute );
+            }
+
+            if ( !Boolean.TRUE.equals( valid ) )
+            {
+                createIndex( attribute );
+            }
+        }
+
+        for ( Long attribute : indexes.keySet() )
+        {
+            if ( !searchableAttributes.contains( attribute ) )
+            {
+                dropIndex( attribute );
+            }
+        }
+
+        indexedCache.invalidateAll();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the identifiers of non-confidential text attributes which are
+     * searchable for a program or a tracked entity type.
+     */
+    private Set<Long> getSearchableAttributes()
+    {
+        String sql = "select tea.trackedentityattributeid from trackedentityattribute tea " +
+            "where tea.valuetype in (" + getQuotedCommaDelimitedString( ValueType.TEXT_TYPES.stream()
+                .map( ValueType::name ).collect( Collectors.toList() ) ) + ") " +
+            "and (tea.confidential is null or tea.confidential = false) " +
+            "and (exists (select 1 from program_attributes pa " +
+            "where pa.trackedentityattributeid = tea.trackedentityattributeid and pa.searchable = true) " +
+            "or exists (select 1 from trackedentitytypeattribute teta " +
+            "where teta.trackedentityattributeid = tea.trackedentityattributeid and teta.searchable = true))";
+
+        return new HashSet<>( jdbcTemplate.queryForList( sql, Long.class ) );
+    }
+
+    /**
+     * Returns the search indexes as a map of attribute identifier to whether
+     * the index is valid. An index is invalid if a concurrent build failed.
+     */
+    private Map<Long, Boolean> getIndexes()
+    {
+        String sql = "select c.relname as indexname, i.indisvalid as valid from pg_index i " +
+            "inner join pg_class c on i.indexrelid = c.oid " +
+            "where c.relname like '" + INDEX_PREFIX.replace( "_", "\\_" ) + "%'";
+
+        Map<Long, Boolean> indexes = new HashMap<>();
+
+        jdbcTemplate.query( sql, rs -> {
+            String indexName = rs.getString( "indexname" );
+
+            try
+            {
+                indexes.put( Long.parseLong( indexName.substring( INDEX_PREFIX.length() ) ), rs.getBoolean( "valid" ) );
+            }
+            catch ( NumberFormatException ex )
+            {
+                log.debug( "Ignoring index not maintained as search index: " + indexName );
+            }
+        } );
+
+        return indexes;
+    }
+
+    private Map<Long, Boolean> getValidIndexes()
+    {
+        return getIndexes().entrySet().stream()
+            .filter( Map.Entry::getValue )
+            .collect( Collectors.toMap( Map.Entry::getKey, Map.Entry::getValue ) );
+    }
+
+    private void createIndex( Long attribute )
+    {
+        String sql = "create index concurrently if not exists " + INDEX_PREFIX + attribute +
+            " on trackedentityattributevalue using gin (lower(value) gin_trgm_ops) " +
+            "where trackedentityattributeid = " + attribute;
+
+        try
+        {
+            jdbcTemplate.execute( sql );
+
+            log.info( "Created search index for tracked entity attribute: " + attribute );
+        }
+        catch ( Exception ex )
+        {
+            log.warn( "Failed to create search index for tracked entity attribute: " + attribute, ex );
+        }
+    }
+
+    private void dropIndex( Long attribute )
+    {
+        try
+        {
+            jdbcTemplate.execute( "drop index concurrently if exists " + INDEX_PREFIX + attribute );
+
+            log.info( "Dropped search index for tracked entity attribute: " + attribute );
+        }
+        catch ( Exception ex )
+        {
+            log.warn( "Failed to drop search index for tracked entity attribute: " + attribute, ex );
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package org.hisp.dhis.datasource;
+package org.hisp.dhis.trackedentity;
 
 /*
  * Copyright (c) 2004-2020, University of Oslo
@@ -28,62 +28,39 @@ package org.hisp.dhis.datasource;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import static com.google.common.base.Preconditions.checkNotNull;
 
-import javax.sql.DataSource;
-
-import org.springframework.jdbc.datasource.AbstractDataSource;
-
-import com.google.common.collect.Iterators;
+import org.hisp.dhis.scheduling.AbstractJob;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.springframework.stereotype.Component;
 
 /**
- * Data source implementation which routes to the configured target data sources
- * in a circular fashion.
- * 
- * @author Lars Helge Overland
+ * Job which creates and drops the search indexes of tracked entity attributes
+ * according to which attributes are searchable.
  */
-public class CircularRoutingDataSource
-    extends AbstractDataSource
+@Component( "trackerSearchIndexJob" )
+public class TrackedEntityAttributeSearchIndexJob
+    extends AbstractJob
 {
-    private Iterator<DataSource> dataSourceIterator;
+    private final TrackedEntityAttributeSearchIndexService searchIndexService;
 
-    public CircularRoutingDataSource()
+    public TrackedEntityAttributeSearchIndexJob( TrackedEntityAttributeSearchIndexService searchIndexService )
     {
-    }
-    
-    public CircularRoutingDataSource( List<DataSource> targetDataSources )
-    {
-        this.dataSourceIterator = Iterators.cycle( Collections.synchronizedList( targetDataSources ) );
-    }
-        
-    // -------------------------------------------------------------------------
-    // AbstractDataSource implementation
-    // -------------------------------------------------------------------------
+        checkNotNull( searchIndexService );
 
-    @Override
-    public Connection getConnection()
-        throws SQLException
-    {
-        return getDataSource().getConnection();
+        this.searchIndexService = searchIndexService;
     }
 
     @Override
-    public Connection getConnection( String username, String password )
-        throws SQLException
+    public JobType getJobType()
     {
-        return getDataSource().getConnection( username, password );
+        return JobType.TRACKER_SEARCH_INDEX;
     }
 
-    // -------------------------------------------------------------------------
-    // Private methods
-    // -------------------------------------------------------------------------
-
-    private synchronized DataSource getDataSource()
+    @Override
+    public void execute( JobConfiguration jobConfiguration )
     {
-        return dataSourceIterator.next();
+        searchIndexService.updateSearchIndexes();
     }
 }
@@ -80,6 +80,8 @@ import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitStore;
 import org.hisp.dhis.security.acl.AclService;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeSearchIndexService;
 import org.hisp.dhis.trackedentity.TrackedEntityInstance;
 import org.hisp.dhis.trackedentity.TrackedEntityInstanceQueryParams;
 import org.hisp.dhis.trackedentity.TrackedEntityInstanceStore;
@@ -113,19 +115,24 @@ public class HibernateTrackedEntityInstanceStore
 
     private final StatementBuilder statementBuilder;
 
+    private final TrackedEntityAttributeSearchIndexService searchIndexService;
+
     private final static String SELECT_TEI = "select tei from";
     
     public HibernateTrackedEntityInstanceStore( SessionFactory sessionFactory, JdbcTemplate jdbcTemplate,
         ApplicationEventPublisher publisher, CurrentUserService currentUserService,
-        AclService aclService, OrganisationUnitStore organisationUnitStore, StatementBuilder statementBuilder )
+        AclService aclService, OrganisationUnitStore organisationUnitStore, StatementBuilder statementBuilder,
+        TrackedEntityAttributeSearchIndexService searchIndexService )
     {
         super( sessionFactory, jdbcTemplate, publisher, TrackedEntityInstance.class, currentUserService, aclService, false );
 
         checkNotNull( statementBuilder );
         checkNotNull( organisationUnitStore );
+        checkNotNull( searchIndexService );
 
         this.statementBuilder = statementBuilder;
         this.organisationUnitStore = organisationUnitStore;
+        this.searchIndexService = searchIndexService;
     }
 
     // -------------------------------------------------------------------------
@@ -296,7 +303,11 @@ public class HibernateTrackedEntityInstanceStore
                     hql += hlp.whereAnd()
                         + " exists (from TrackedEntityAttributeValue teav where teav.entityInstance=tei";
 
-                    hql += " and teav.attribute.uid='" + queryItem.getItemId() + "'";
+                    // Constant identifier matches the predicate of the partial search index
+
+                    hql += addConditionally( isSearchIndexed( queryItem ),
+                        " and teav.attribute.id=" + queryItem.getItem().getId(),
+                        " and teav.attribute.uid='" + queryItem.getItemId() + "'" );
 
                     hql += addConditionally( queryItem.isNumeric(),
                         " and teav.plainValue " + queryFilter.getSqlOperator() + encodedFilter + ")",
@@ -649,8 +660,18 @@ public class HibernateTrackedEntityInstanceStore
                 for ( QueryItem item : params.getAttributesAndFilters() )
                 {
                     final String col = statementBuilder.columnQuote( item.getItemId() );
+                    final String pattern = " '" + start + StringUtils.lowerCase( query ) + end + "'";
 
-                    sql += col + ".value " + regexp + " '" + start + StringUtils.lowerCase( query ) + end + "' or ";
+                    if ( isSearchIndexed( item ) )
+                    {
+                        sql += "tei.trackedentityinstanceid in (select trackedentityinstanceid from trackedentityattributevalue "
+                            + "where trackedentityattributeid = " + item.getItem().getId()
+                            + " and lower(value) " + regexp + pattern + ") or ";
+                    }
+                    else
+                    {
+                        sql += col + ".value " + regexp + pattern + " or ";
+                    }
                 }
 
                 sql = removeLastOr( sql ) + ") and ";
@@ -908,6 +929,16 @@ public class HibernateTrackedEntityInstanceStore
         return (trackedEntityInstance == null || trackedEntityInstance.isDeleted()) ? null : trackedEntityInstance;
     }
 
+    /**
+     * Indicates whether the item is a non-numeric attribute with a trigram
+     * search index on its lower case values.
+     */
+    private boolean isSearchIndexed( QueryItem item )
+    {
+        return !item.isNumeric() && item.getItem() instanceof TrackedEntityAttribute
+            && searchIndexService.isIndexed( (TrackedEntityAttribute) item.getItem() );
+    }
+
     private boolean isOrgUnit( QueryItem item )
     {
         return item.getValueType().isOrganisationUnit();
@@ -114,6 +114,7 @@ public class DefaultUserSettingService
         userSettingCache = cacheProvider.newCacheBuilder( SerializableOptional.class )
             .forRegion( "userSetting" )
             .expireAfterWrite( 12, TimeUnit.HOURS )
+            .withNearCache()
             .withMaximumSize( SystemUtils.isTestRun( env.getActiveProfiles() ) ? 0 : 10000 ).build();
     }
 
@@ -43,12 +43,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import java.util.*;
 
 import com.google.common.collect.ImmutableMap;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.apache.commons.math3.util.Precision;
 import org.hamcrest.collection.IsIterableContainingInAnyOrder;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
 import org.hisp.dhis.category.*;
 import org.hisp.dhis.common.*;
 import org.hisp.dhis.constant.Constant;
@@ -873,6 +878,54 @@ public class ExpressionService2Test
         assertNull( value );
     }
 
+    @Test( expected = IllegalStateException.class )
+    public void testGetExpressionValueWithDuplicateItemIdentifiers()
+    {
+        DataElement deDuplicate = createDataElement( 'X' );
+        deDuplicate.setUid( deA.getUid() );
+
+        Map<DimensionalItemObject, Double> valueMap = new HashMap<>();
+        valueMap.put( deA, 1d );
+        valueMap.put( deDuplicate, 2d );
+
+        target.getExpressionValue( "#{" + deA.getUid() + "}", INDICATOR_EXPRESSION, valueMap, constantMap(), null,
+            null, NEVER_SKIP );
+    }
+
+    @Test
+    public void testParseTreeCacheHit()
+    {
+        ParseTree parseTree = target.getParseTree( expressionA );
+
+        assertSame( parseTree, target.getParseTree( expressionA ) );
+        assertNotSame( parseTree, target.getParseTree( expressionB ) );
+    }
+
+    @Test
+    public void testParseTreeCacheEvictedOnExpressionChange()
+    {
+        ParseTree parseTree = target.getParseTree( expressionA );
+
+        target.onPostUpdate( new PostUpdateEvent( deA, null, null, null, null, null, null ) );
+
+        assertSame( parseTree, target.getParseTree( expressionA ) );
+
+        target.onPostUpdate( new PostUpdateEvent( new Expression( expressionA, "A" ), null, null, null, null,
+            null, null ) );
+
+        assertNotSame( parseTree, target.getParseTree( expressionA ) );
+    }
+
+    @Test
+    public void testParseTreeCacheEvictedOnConstantChange()
+    {
+        ParseTree parseTree = target.getParseTree( expressionA );
+
+        target.onPostDelete( new PostDeleteEvent( constantA, null, null, null, null ) );
+
+        assertNotSame( parseTree, target.getParseTree( expressionA ) );
+    }
+
     private Map<String, Constant> constantMap()
     {
         Map<String, Constant> constantMap = new HashMap<>();
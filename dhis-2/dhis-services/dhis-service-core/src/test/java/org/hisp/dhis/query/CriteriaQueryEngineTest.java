@@ -335,6 +335,42 @@ public class CriteriaQueryEngineTest
         assertEquals( "deabcdefghF", objects.get( 5 ).getUid() );
     }
 
+    @Test
+    public void keysetPagingNameDesc()
+    {
+        Schema schema = schemaService.getDynamicSchema( DataElement.class );
+        List<Order> orders = Keyset.getOrders( schema, Lists.newArrayList( Order.desc( schema.getProperty( "name" ) ) ) );
+
+        assertNotNull( orders );
+        assertEquals( 2, orders.size() );
+
+        List<String> uids = Lists.newArrayList();
+        Keyset keyset = null;
+
+        for ( int page = 0; page < 3; page++ )
+        {
+            Query query = Query.from( schema );
+            query.addOrders( orders );
+            query.setMaxResults( 2 );
+            query.setKeyset( keyset );
+            List<? extends IdentifiableObject> objects = queryEngine.query( query );
+
+            assertEquals( 2, objects.size() );
+            objects.forEach( object -> uids.add( object.getUid() ) );
+
+            keyset = Keyset.fromToken( Keyset.of( orders, objects.get( 1 ) ).toToken() );
+        }
+
+        assertEquals( Lists.newArrayList( "deabcdefghF", "deabcdefghE", "deabcdefghD",
+            "deabcdefghC", "deabcdefghB", "deabcdefghA" ), uids );
+
+        Query query = Query.from( schema );
+        query.addOrders( orders );
+        query.setKeyset( keyset );
+
+        assertTrue( queryEngine.query( query ).isEmpty() );
+    }
+
     @Test
     public void sortCreatedDesc()
     {
@@ -28,6 +28,7 @@ package org.hisp.dhis.security.acl;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.hisp.dhis.DhisSpringTest;
 import org.hisp.dhis.category.CategoryOption;
@@ -428,6 +429,40 @@ public class AclServiceTest
         assertTrue( aclService.canUpdate( user2, dataElement ) );
     }
 
+    @Test
+    public void testFilterReadableDataElements()
+    {
+        User user1 = createUser( "user1", "F_DATAELEMENT_PRIVATE_ADD" );
+        User user2 = createUser( "user2", "F_DATAELEMENT_PRIVATE_ADD" );
+
+        DataElement dataElementA = createDataElement( 'A' );
+        dataElementA.setUser( user1 );
+        manager.save( dataElementA );
+
+        DataElement dataElementB = createDataElement( 'B' );
+        dataElementB.setUser( user1 );
+        manager.save( dataElementB );
+
+        DataElement dataElementC = createDataElement( 'C' );
+        dataElementC.setUser( user1 );
+        manager.save( dataElementC );
+
+        UserGroup userGroup = createUserGroup( 'A', new HashSet<>() );
+        userGroup.getMembers().add( user2 );
+        manager.save( userGroup );
+
+        dataElementB.getUserGroupAccesses().add( new UserGroupAccess( userGroup, "r-------" ) );
+        manager.update( dataElementB );
+
+        dataElementC.setPublicAccess( AccessStringHelper.READ );
+        manager.update( dataElementC );
+
+        List<DataElement> dataElements = Lists.newArrayList( dataElementA, dataElementB, dataElementC );
+
+        assertEquals( Lists.newArrayList( dataElementB, dataElementC ), aclService.filterReadable( user2, dataElements ) );
+        assertEquals( dataElements, aclService.filterReadable( user1, dataElements ) );
+    }
+
     @Test
     public void testCategoryOptionSharingPrivateRW()
     {
@@ -36,28 +36,46 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.hibernate.SessionFactory;
 import org.hisp.dhis.DhisSpringTest;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.OrganisationUnitSelectionMode;
+import org.hisp.dhis.common.QueryFilter;
 import org.hisp.dhis.common.QueryItem;
 import org.hisp.dhis.common.QueryOperator;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dbms.DbmsManager;
+import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.organisationunit.OrganisationUnitStore;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramInstanceService;
+import org.hisp.dhis.security.acl.AclService;
+import org.hisp.dhis.trackedentity.hibernate.HibernateTrackedEntityInstanceStore;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValueService;
+import org.hisp.dhis.user.CurrentUserService;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 /**
  * @author Lars Helge Overland
  */
@@ -86,6 +104,27 @@ public class TrackedEntityInstanceStoreTest
     @Autowired
     private ProgramInstanceService programInstanceService;
 
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private AclService aclService;
+
+    @Autowired
+    private OrganisationUnitStore organisationUnitStore;
+
+    @Autowired
+    private StatementBuilder statementBuilder;
+
     private TrackedEntityInstance teiA;
 
     private TrackedEntityInstance teiB;
@@ -333,4 +372,97 @@ public class TrackedEntityInstanceStoreTest
         assertThat( grid.get( 0 ).get( atC.getUid() ), is( "OrganisationUnitC" ) );
 
     }
+
+    @Test
+    public void testQueryWithSearchIndexReturnsSameInstances()
+    {
+        TrackedEntityType trackedEntityTypeA = createTrackedEntityType( 'A' );
+        trackedEntityTypeService.addTrackedEntityType( trackedEntityTypeA );
+
+        for ( TrackedEntityInstance tei : Lists.newArrayList( teiA, teiB, teiC, teiD, teiE, teiF ) )
+        {
+            tei.setTrackedEntityType( trackedEntityTypeA );
+            teiStore.save( tei );
+        }
+
+        // Lower case values, as regular expressions are case sensitive in H2
+
+        attributeValueService.addTrackedEntityAttributeValue( new TrackedEntityAttributeValue( atA, teiA, "male" ) );
+        attributeValueService.addTrackedEntityAttributeValue( new TrackedEntityAttributeValue( atA, teiB, "female" ) );
+        attributeValueService.addTrackedEntityAttributeValue( new TrackedEntityAttributeValue( atA, teiC, "unknown" ) );
+        attributeValueService.addTrackedEntityAttributeValue( new TrackedEntityAttributeValue( atB, teiD, "male nurse" ) );
+        attributeValueService.addTrackedEntityAttributeValue( new TrackedEntityAttributeValue( atB, teiE, "doctor" ) );
+
+        dbmsManager.flushSession();
+
+        TrackedEntityInstanceStore indexedStore = getStore( true );
+        TrackedEntityInstanceStore notIndexedStore = getStore( false );
+
+        // Filters in HQL
+
+        TrackedEntityInstanceQueryParams params = new TrackedEntityInstanceQueryParams()
+            .addFilter( new QueryItem( atA, QueryOperator.LIKE, "Male", ValueType.TEXT, AggregationType.NONE, null ) );
+
+        List<TrackedEntityInstance> teis = notIndexedStore.getTrackedEntityInstances( params );
+
+        assertEquals( 2, teis.size() );
+        assertTrue( teis.contains( teiA ) );
+        assertTrue( teis.contains( teiB ) );
+        assertEquals( Sets.newHashSet( teis ), Sets.newHashSet( indexedStore.getTrackedEntityInstances( params ) ) );
+
+        // Free text query in SQL
+
+        params = getQueryParams( trackedEntityTypeA, QueryOperator.LIKE, "male" );
+
+        Set<String> uids = getGridUids( notIndexedStore, params );
+
+        assertEquals( Sets.newHashSet( teiA.getUid(), teiB.getUid(), teiD.getUid() ), uids );
+        assertEquals( uids, getGridUids( indexedStore, getQueryParams( trackedEntityTypeA, QueryOperator.LIKE, "male" ) ) );
+
+        params = getQueryParams( trackedEntityTypeA, QueryOperator.LIKE, "nurse male" );
+
+        uids = getGridUids( notIndexedStore, params );
+
+        assertEquals( Sets.newHashSet( teiD.getUid() ), uids );
+        assertEquals( uids, getGridUids( indexedStore,
+            getQueryParams( trackedEntityTypeA, QueryOperator.LIKE, "nurse male" ) ) );
+    }
+
+    /**
+     * Returns a store for which the search index service reports all
+     * attributes as indexed or not indexed.
+     */
+    private TrackedEntityInstanceStore getStore( boolean indexed )
+    {
+        TrackedEntityAttributeSearchIndexService searchIndexService = mock(
+            TrackedEntityAttributeSearchIndexService.class );
+
+        when( searchIndexService.isEnabled() ).thenReturn( indexed );
+        when( searchIndexService.isIndexed( any() ) ).thenReturn( indexed );
+
+        return new HibernateTrackedEntityInstanceStore( sessionFactory, jdbcTemplate, publisher,
+            currentUserService, aclService, organisationUnitStore, statementBuilder, searchIndexService );
+    }
+
+    private TrackedEntityInstanceQueryParams getQueryParams( TrackedEntityType trackedEntityType,
+        QueryOperator operator, String query )
+    {
+        TrackedEntityInstanceQueryParams params = new TrackedEntityInstanceQueryParams()
+            .setTrackedEntityType( trackedEntityType )
+            .setOrganisationUnitMode( OrganisationUnitSelectionMode.ALL )
+            .setQuery( new QueryFilter( operator, query ) );
+
+        params.setAttributes( Lists.newArrayList(
+            new QueryItem( atA, null, ValueType.TEXT, AggregationType.NONE, null ),
+            new QueryItem( atB, null, ValueType.TEXT, AggregationType.NONE, null ) ) );
+
+        return params;
+    }
+
+    private Set<String> getGridUids( TrackedEntityInstanceStore store, TrackedEntityInstanceQueryParams params )
+    {
+        return store.getTrackedEntityInstancesGrid( params ).stream()
+            .map( row -> row.get( TrackedEntityInstanceQueryParams.TRACKED_ENTITY_INSTANCE_ID ) )
+            .collect( Collectors.toSet() );
+    }
 }
@@ -33,7 +33,9 @@ import org.hisp.dhis.datavalue.DataExportParams;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * @author Lars Helge Overland
@@ -66,4 +68,16 @@ public interface DataValueSetStore
      */
     void writeDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page );
+
+    /**
+     * Looks up the persisted counterparts of the given data values, including
+     * soft deleted ones, using a single query. The returned data values hold
+     * the value, stored by, comment, follow-up and deleted properties.
+     *
+     * @param dataValues the data values to look up.
+     * @return a mapping from the given data value to its persisted counterpart,
+     *         data values which do not exist are not included.
+     */
+    Map<org.hisp.dhis.datavalue.DataValue, org.hisp.dhis.datavalue.DataValue> getExistingDataValues(
+        Collection<org.hisp.dhis.datavalue.DataValue> dataValues );
 }
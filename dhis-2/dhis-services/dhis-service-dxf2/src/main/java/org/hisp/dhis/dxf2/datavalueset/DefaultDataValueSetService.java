@@ -115,8 +115,10 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -141,6 +143,8 @@ public class DefaultDataValueSetService
     private static final String ERROR_OBJECT_NEEDED_TO_COMPLETE = "Must be provided to complete data set";
     private static final int CACHE_MISS_THRESHOLD = 250;
 
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final IdentifiableObjectManager identifiableObjectManager;
 
     private final CategoryService categoryService;
@@ -665,7 +669,7 @@ public class DefaultDataValueSetService
         try
         {
             in = StreamUtils.wrapAndCheckCompressionFormat( in );
-            DataValueSet dataValueSet = jsonMapper.readValue( in, DataValueSet.class );
+            DataValueSet dataValueSet = new StreamingJsonDataValueSet( jsonMapper.getFactory().createParser( in ), jsonMapper );
             return saveDataValueSet( importOptions, id, dataValueSet );
         }
         catch ( Exception ex )
@@ -938,11 +942,11 @@ public class DefaultDataValueSetService
         BatchHandler<DataValue> dataValueBatchHandler = batchHandlerFactory.createBatchHandler( DataValueBatchHandler.class ).init();
         BatchHandler<DataValueAudit> auditBatchHandler = skipAudit ? null : batchHandlerFactory.createBatchHandler( DataValueAuditBatchHandler.class ).init();
 
-        int importCount = 0;
-        int updateCount = 0;
-        int deleteCount = 0;
+        ImportCount importCount = new ImportCount();
         int totalCount = 0;
 
+        List<PendingDataValue> pendingValues = new ArrayList<>( IMPORT_CHUNK_SIZE );
+
         // ---------------------------------------------------------------------
         // Data values
         // ---------------------------------------------------------------------
@@ -1293,11 +1297,80 @@ public class DefaultDataValueSetService
             internalValue.setFollowup( dataValue.getFollowup() );
             internalValue.setDeleted( BooleanUtils.isTrue( dataValue.getDeleted() ) );
 
+            pendingValues.add( new PendingDataValue( internalValue, dataElement, storedBy, actualDataValue ) );
+
+            if ( pendingValues.size() >= IMPORT_CHUNK_SIZE )
+            {
+                saveDataValues( pendingValues, strategy, dryRun, skipExistingCheck, skipAudit,
+                    dataValueBatchHandler, auditBatchHandler, importCount );
+
+                pendingValues.clear();
+            }
+        }
+
+        saveDataValues( pendingValues, strategy, dryRun, skipExistingCheck, skipAudit,
+            dataValueBatchHandler, auditBatchHandler, importCount );
+
+        dataValueBatchHandler.flush();
+
+        if ( !skipAudit )
+        {
+            auditBatchHandler.flush();
+        }
+
+        int importedCount = importCount.getImported();
+        int updateCount = importCount.getUpdated();
+        int deleteCount = importCount.getDeleted();
+
+        int ignores = totalCount - importedCount - updateCount - deleteCount;
+
+        summary.setImportCount( new ImportCount( importedCount, updateCount, ignores, deleteCount ) );
+        summary.setStatus( summary.getConflicts().isEmpty() ? ImportStatus.SUCCESS : ImportStatus.WARNING );
+        summary.setDescription( "Import process completed successfully" );
+
+        clock.logTime( "Data value import done, total: " + totalCount + ", import: " + importedCount + ", update: " + updateCount + ", delete: " + deleteCount );
+        notifier.notify( id, notificationLevel, "Import done", true ).addJobSummary( id, notificationLevel, summary, ImportSummary.class );
+
+        dataValueSet.close();
+
+        return summary;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Saves, updates or deletes the given validated data values. Existing data
+     * values for the whole chunk are looked up with a single query instead of
+     * one query per data value.
+     */
+    private void saveDataValues( List<PendingDataValue> pendingValues, ImportStrategy strategy, boolean dryRun,
+        boolean skipExistingCheck, boolean skipAudit, BatchHandler<DataValue> dataValueBatchHandler,
+        BatchHandler<DataValueAudit> auditBatchHandler, ImportCount importCount )
+    {
+        if ( pendingValues.isEmpty() )
+        {
+            return;
+        }
+
+        Map<DataValue, DataValue> existingValues = !skipExistingCheck ?
+            dataValueSetStore.getExistingDataValues( pendingValues.stream()
+                .map( PendingDataValue::getInternalValue )
+                .collect( Collectors.toList() ) ) : new HashMap<>();
+
+        for ( PendingDataValue pendingValue : pendingValues )
+        {
+            final DataValue internalValue = pendingValue.getInternalValue();
+            final DataElement dataElement = pendingValue.getDataElement();
+            final String storedBy = pendingValue.getStoredBy();
+            final DataValue actualDataValue = pendingValue.getActualDataValue();
+
             // -----------------------------------------------------------------
             // Save, update or delete data value
             // -----------------------------------------------------------------
 
-            DataValue existingValue = !skipExistingCheck ? dataValueBatchHandler.findObject( internalValue ) : null;
+            DataValue existingValue = existingValues.get( internalValue );
 
             // -----------------------------------------------------------------
             // Check soft deleted data values on update and import
@@ -1315,11 +1388,11 @@ public class DefaultDataValueSetService
 
                         auditType = AuditType.DELETE;
 
-                        deleteCount++;
+                        importCount.incrementDeleted();
                     }
                     else
                     {
-                        updateCount++;
+                        importCount.incrementUpdated();
                     }
 
                     if ( !dryRun )
@@ -1348,7 +1421,7 @@ public class DefaultDataValueSetService
                 {
                     internalValue.setDeleted( true );
 
-                    deleteCount++;
+                    importCount.incrementDeleted();
 
                     if ( !dryRun )
                     {
@@ -1378,7 +1451,7 @@ public class DefaultDataValueSetService
                     {
                         if ( existingValue != null && existingValue.isDeleted() )
                         {
-                            importCount++;
+                            importCount.incrementImported();
 
                             if ( !dryRun )
                             {
@@ -1414,39 +1487,15 @@ public class DefaultDataValueSetService
 
                             if ( dryRun || added )
                             {
-                                importCount++;
+                                importCount.incrementImported();
                             }
                         }
                     }
                 }
             }
         }
-
-        dataValueBatchHandler.flush();
-
-        if ( !skipAudit )
-        {
-            auditBatchHandler.flush();
-        }
-
-        int ignores = totalCount - importCount - updateCount - deleteCount;
-
-        summary.setImportCount( new ImportCount( importCount, updateCount, ignores, deleteCount ) );
-        summary.setStatus( summary.getConflicts().isEmpty() ? ImportStatus.SUCCESS : ImportStatus.WARNING );
-        summary.setDescription( "Import process completed successfully" );
-
-        clock.logTime( "Data value import done, total: " + totalCount + ", import: " + importCount + ", update: " + updateCount + ", delete: " + deleteCount );
-        notifier.notify( id, notificationLevel, "Import done", true ).addJobSummary( id, notificationLevel, summary, ImportSummary.class );
-
-        dataValueSet.close();
-
-        return summary;
     }
 
-    // -------------------------------------------------------------------------
-    // Supportive methods
-    // -------------------------------------------------------------------------
-
     private void handleComplete( DataSet dataSet, Date completeDate, Period period, OrganisationUnit orgUnit,
         CategoryOptionCombo attributeOptionCombo, String currentUserName, ImportSummary summary )
     {
@@ -1501,4 +1550,46 @@ public class DefaultDataValueSetService
     {
         return dataSet.isLocked( user, period, null ) && (skipLockExceptionCheck || lockExceptionStore.getCount( dataSet, period, organisationUnit ) == 0L);
     }
+
+    /**
+     * A data value which passed validation and awaits to be saved.
+     */
+    private static class PendingDataValue
+    {
+        private final DataValue internalValue;
+
+        private final DataElement dataElement;
+
+        private final String storedBy;
+
+        private final DataValue actualDataValue;
+
+        PendingDataValue( DataValue internalValue, DataElement dataElement, String storedBy, DataValue actualDataValue )
+        {
+            this.internalValue = internalValue;
+            this.dataElement = dataElement;
+            this.storedBy = storedBy;
+            this.actualDataValue = actualDataValue;
+        }
+
+        DataValue getInternalValue()
+        {
+            return internalValue;
+        }
+
+        DataElement getDataElement()
+        {
+            return dataElement;
+        }
+
+        String getStoredBy()
+        {
+            return storedBy;
+        }
+
+        DataValue getActualDataValue()
+        {
+            return actualDataValue;
+        }
+    }
 }
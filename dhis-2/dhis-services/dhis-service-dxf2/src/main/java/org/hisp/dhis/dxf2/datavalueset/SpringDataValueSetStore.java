@@ -38,7 +38,10 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.common.IdScheme;
@@ -218,10 +221,89 @@ public class SpringDataValueSetStore
         dataValueSet.close();
     }
 
+    @Override
+    public Map<org.hisp.dhis.datavalue.DataValue, org.hisp.dhis.datavalue.DataValue> getExistingDataValues(
+        Collection<org.hisp.dhis.datavalue.DataValue> dataValues )
+    {
+        final Map<org.hisp.dhis.datavalue.DataValue, org.hisp.dhis.datavalue.DataValue> existingValues = new HashMap<>();
+
+        if ( dataValues.isEmpty() )
+        {
+            return existingValues;
+        }
+
+        final Map<String, org.hisp.dhis.datavalue.DataValue> keyMap = new HashMap<>();
+
+        final StringBuilder keys = new StringBuilder();
+
+        for ( org.hisp.dhis.datavalue.DataValue dataValue : dataValues )
+        {
+            String key = getDataValueKey( dataValue.getDataElement().getId(), dataValue.getPeriod().getId(),
+                dataValue.getSource().getId(), dataValue.getCategoryOptionCombo().getId(),
+                dataValue.getAttributeOptionCombo().getId() );
+
+            if ( keyMap.put( key, dataValue ) == null )
+            {
+                keys.append( "(" ).append( key.replace( "-", "," ) ).append( ")," );
+            }
+        }
+
+        keys.deleteCharAt( keys.length() - 1 );
+
+        // Join on the list of requested keys so that only the requested data
+        // values are read through the primary key index
+
+        final String sql =
+            "select dv.dataelementid, dv.periodid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid, " +
+            "dv.value, dv.storedby, dv.comment, dv.followup, dv.deleted " +
+            "from datavalue dv " +
+            "inner join (values " + keys + ") " +
+            "as k (dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid) " +
+            "on dv.dataelementid = k.dataelementid " +
+            "and dv.periodid = k.periodid " +
+            "and dv.sourceid = k.sourceid " +
+            "and dv.categoryoptioncomboid = k.categoryoptioncomboid " +
+            "and dv.attributeoptioncomboid = k.attributeoptioncomboid";
+
+        jdbcTemplate.query( sql, new RowCallbackHandler()
+        {
+            @Override
+            public void processRow( ResultSet rs ) throws SQLException
+            {
+                org.hisp.dhis.datavalue.DataValue dataValue = keyMap.get( getDataValueKey( rs.getLong( "dataelementid" ),
+                    rs.getLong( "periodid" ), rs.getLong( "sourceid" ), rs.getLong( "categoryoptioncomboid" ),
+                    rs.getLong( "attributeoptioncomboid" ) ) );
+
+                if ( dataValue == null )
+                {
+                    return;
+                }
+
+                org.hisp.dhis.datavalue.DataValue existingValue = new org.hisp.dhis.datavalue.DataValue();
+
+                existingValue.setValue( rs.getString( "value" ) );
+                existingValue.setStoredBy( rs.getString( "storedby" ) );
+                existingValue.setComment( rs.getString( "comment" ) );
+                existingValue.setFollowup( rs.getBoolean( "followup" ) );
+                existingValue.setDeleted( rs.getBoolean( "deleted" ) );
+
+                existingValues.put( dataValue, existingValue );
+            }
+        } );
+
+        return existingValues;
+    }
+
     //--------------------------------------------------------------------------
     // Supportive methods
     //--------------------------------------------------------------------------
 
+    private static String getDataValueKey( long dataElementId, long periodId, long orgUnitId,
+        long categoryOptionComboId, long attributeOptionComboId )
+    {
+        return dataElementId + "-" + periodId + "-" + orgUnitId + "-" + categoryOptionComboId + "-" + attributeOptionComboId;
+    }
+
     private String getDataValueSql( DataExportParams params )
     {
         Preconditions.checkArgument( !params.getAllDataElements().isEmpty() );
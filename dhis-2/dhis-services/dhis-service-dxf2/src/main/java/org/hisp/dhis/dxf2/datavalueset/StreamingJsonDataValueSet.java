@@ -30,22 +30,50 @@ package org.hisp.dhis.dxf2.datavalueset;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
 import org.hisp.dhis.dxf2.datavalue.DataValue;
 import org.hisp.dhis.dxf2.datavalue.StreamingJsonDataValue;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Set;
 
 /**
+ * When reading, data values are parsed one at a time from the underlying
+ * stream. Data value set properties must appear before the data values array,
+ * as they are applied while the data values are read. Properties after the
+ * data values array are rejected.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 public class StreamingJsonDataValueSet extends DataValueSet
 {
+    private static final String FIELD_STRATEGY = "strategy";
+    private static final String FIELD_ATTRIBUTE_CATEGORY_OPTIONS = "attributeCategoryOptions";
+    private static final String FIELD_DATAVALUES = "dataValues";
+
+    /**
+     * Data value set properties which apply to the data values.
+     */
+    private static final Set<String> HEADER_FIELDS = ImmutableSet.of( FIELD_IDSCHEME, FIELD_DATAELEMENTIDSCHEME,
+        FIELD_ORGUNITIDSCHEME, FIELD_CATEGORYOPTCOMBOIDSCHEME, FIELD_DATASETIDSCHEME, FIELD_DRYRUN, FIELD_STRATEGY,
+        FIELD_DATASET, FIELD_COMPLETEDATE, FIELD_PERIOD, FIELD_ORGUNIT, FIELD_ATTRIBUTE_OPTION_COMBO,
+        FIELD_ATTRIBUTE_CATEGORY_OPTIONS );
+
     private JsonGenerator generator;
 
     private boolean startedArray;
 
+    private JsonParser parser;
+
+    private ObjectMapper mapper;
+
+    private boolean inArray;
+
     public StreamingJsonDataValueSet( OutputStream out )
     {
         try
@@ -63,6 +91,73 @@ public class StreamingJsonDataValueSet extends DataValueSet
         }
     }
 
+    public StreamingJsonDataValueSet( JsonParser parser, ObjectMapper mapper )
+    {
+        this.parser = parser;
+        this.mapper = mapper;
+
+        try
+        {
+            if ( parser.nextToken() != JsonToken.START_OBJECT )
+            {
+                throw new IllegalArgumentException( "Data value set must be a JSON object" );
+            }
+
+            inArray = readProperties( false );
+        }
+        catch ( IOException ex )
+        {
+            throw new RuntimeException( "Failed to read JSON data value set", ex );
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Getters
+    //--------------------------------------------------------------------------
+
+    @Override
+    public boolean hasNextDataValue()
+    {
+        if ( !inArray )
+        {
+            return false;
+        }
+
+        try
+        {
+            if ( parser.nextToken() == JsonToken.START_OBJECT )
+            {
+                return true;
+            }
+
+            inArray = false;
+            readProperties( true );
+
+            return false;
+        }
+        catch ( IOException ex )
+        {
+            throw new RuntimeException( "Failed to read JSON data value", ex );
+        }
+    }
+
+    @Override
+    public DataValue getNextDataValue()
+    {
+        try
+        {
+            return mapper.readValue( parser, DataValue.class );
+        }
+        catch ( IOException ex )
+        {
+            throw new RuntimeException( "Failed to read JSON data value", ex );
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Setters
+    //--------------------------------------------------------------------------
+
     @Override
     public void setDataElementIdScheme( String dataElementIdScheme )
     {
@@ -138,6 +233,17 @@ public class StreamingJsonDataValueSet extends DataValueSet
     @Override
     public void close()
     {
+        if ( parser != null )
+        {
+            try
+            {
+                parser.close();
+            }
+            catch ( IOException ignored )
+            {
+            }
+        }
+
         if ( generator == null )
         {
             return;
@@ -182,4 +288,99 @@ public class StreamingJsonDataValueSet extends DataValueSet
         {
         }
     }
+
+    /**
+     * Reads data value set properties until the start of the data values array
+     * or the end of the data value set object.
+     *
+     * @param afterDataValues whether the properties follow the data values
+     *        array, in which case known properties are rejected.
+     * @return true if positioned at the start of the data values array.
+     * @throws IllegalArgumentException if a known property follows the data
+     *         values array.
+     */
+    private boolean readProperties( boolean afterDataValues )
+        throws IOException
+    {
+        while ( parser.nextToken() == JsonToken.FIELD_NAME )
+        {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if ( afterDataValues && ( FIELD_DATAVALUES.equals( fieldName ) || HEADER_FIELDS.contains( fieldName ) ) )
+            {
+                throw new IllegalArgumentException( String.format(
+                    "Data value set property '%s' must appear before the data values array", fieldName ) );
+            }
+
+            if ( FIELD_DATAVALUES.equals( fieldName ) && token == JsonToken.START_ARRAY )
+            {
+                return true;
+            }
+
+            if ( token == JsonToken.START_ARRAY && FIELD_ATTRIBUTE_CATEGORY_OPTIONS.equals( fieldName ) )
+            {
+                attributeCategoryOptions = new ArrayList<>();
+
+                while ( parser.nextToken() != JsonToken.END_ARRAY )
+                {
+                    attributeCategoryOptions.add( parser.getValueAsString() );
+                }
+
+                continue;
+            }
+
+            if ( token.isStructStart() )
+            {
+                parser.skipChildren();
+                continue;
+            }
+
+            String value = parser.getValueAsString();
+
+            switch ( fieldName )
+            {
+            case FIELD_IDSCHEME:
+                idScheme = value;
+                break;
+            case FIELD_DATAELEMENTIDSCHEME:
+                dataElementIdScheme = value;
+                break;
+            case FIELD_ORGUNITIDSCHEME:
+                orgUnitIdScheme = value;
+                break;
+            case FIELD_CATEGORYOPTCOMBOIDSCHEME:
+                categoryOptionComboIdScheme = value;
+                break;
+            case FIELD_DATASETIDSCHEME:
+                dataSetIdScheme = value;
+                break;
+            case FIELD_DRYRUN:
+                dryRun = token == JsonToken.VALUE_NULL ? null : parser.getValueAsBoolean();
+                break;
+            case FIELD_STRATEGY:
+                strategy = value;
+                break;
+            case FIELD_DATASET:
+                dataSet = value;
+                break;
+            case FIELD_COMPLETEDATE:
+                completeDate = value;
+                break;
+            case FIELD_PERIOD:
+                period = value;
+                break;
+            case FIELD_ORGUNIT:
+                orgUnit = value;
+                break;
+            case FIELD_ATTRIBUTE_OPTION_COMBO:
+                attributeOptionCombo = value;
+                break;
+            default:
+                break;
+            }
+        }
+
+        return false;
+    }
 }
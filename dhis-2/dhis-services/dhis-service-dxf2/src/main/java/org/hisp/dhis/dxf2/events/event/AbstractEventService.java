@@ -34,10 +34,13 @@ import static org.hisp.dhis.util.DateUtils.getMediumDateString;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.collections4.CollectionUtils;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.category.CategoryOption;
@@ -156,6 +159,11 @@ public abstract class AbstractEventService implements EventService
 
     private static final int FLUSH_FREQUENCY = 100;
 
+    /**
+     * Number of streamed events for which ownership is resolved at a time.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
     // -------------------------------------------------------------------------
     // Caches
     // -------------------------------------------------------------------------
@@ -278,6 +286,70 @@ public abstract class AbstractEventService implements EventService
         return events;
     }
 
+    @Transactional( readOnly = true )
+    @Override
+    public EventPageCursor streamEvents( EventSearchParams params, Consumer<Event> consumer )
+    {
+        validate( params );
+
+        List<OrganisationUnit> organisationUnits = getOrganisationUnits( params );
+
+        User user = currentUserService.getCurrentUser();
+
+        params.handleCurrentUserSelectionMode( user );
+
+        Map<String, Program> programs = new HashMap<>();
+        List<Event> batch = new ArrayList<>( STREAM_BATCH_SIZE );
+
+        EventPageCursor cursor = eventStore.streamEvents( params, organisationUnits, event -> {
+            batch.add( event );
+
+            if ( batch.size() == STREAM_BATCH_SIZE )
+            {
+                acceptAccessibleEvents( user, batch, programs, consumer );
+            }
+        } );
+
+        acceptAccessibleEvents( user, batch, programs, consumer );
+
+        return cursor;
+    }
+
+    /**
+     * Passes the events of the batch which the user has ownership access to on
+     * to the consumer, and clears the batch. The tracked entity instances of
+     * the batch are loaded with a single query and evicted from the session
+     * afterwards, so that the session does not grow with the number of
+     * streamed events.
+     */
+    private void acceptAccessibleEvents( User user, List<Event> batch, Map<String, Program> programs,
+        Consumer<Event> consumer )
+    {
+        Set<String> teiUids = batch.stream()
+            .map( Event::getTrackedEntityInstance )
+            .filter( Objects::nonNull )
+            .collect( Collectors.toSet() );
+
+        Map<String, TrackedEntityInstance> trackedEntityInstances = teiUids.isEmpty() ? new HashMap<>() :
+            manager.getByUid( TrackedEntityInstance.class, teiUids ).stream()
+                .collect( Collectors.toMap( TrackedEntityInstance::getUid, Function.identity() ) );
+
+        for ( Event event : batch )
+        {
+            Program program = programs.computeIfAbsent( event.getProgram(), programService::getProgram );
+
+            if ( trackerOwnershipAccessManager.hasAccess( user,
+                trackedEntityInstances.get( event.getTrackedEntityInstance() ), program ) )
+            {
+                consumer.accept( event );
+            }
+        }
+
+        trackedEntityInstances.values().forEach( manager::evict );
+
+        batch.clear();
+    }
+
     @Transactional( readOnly = true )
     @Override
     public Grid getEventsGrid( EventSearchParams params )
@@ -899,6 +971,16 @@ public abstract class AbstractEventService implements EventService
             violation = "Duration is not valid: " + params.getLastUpdatedDuration();
         }
 
+        if ( params.isKeysetPaging() && params.getPage() != null )
+        {
+            violation = "Page and keyset paging cannot be specified simultaneously";
+        }
+
+        if ( params.isKeysetPaging() && ( CollectionUtils.isNotEmpty( params.getOrders() ) || CollectionUtils.isNotEmpty( params.getGridOrders() ) ) )
+        {
+            violation = "Order cannot be specified with keyset paging, as events are ordered by last updated";
+        }
+
         if ( violation != null )
         {
             log.warn( "Validation failed: " + violation );
@@ -0,0 +1,159 @@
+package org.hisp.dhis.dxf2.events.event;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.hisp.dhis.common.IllegalQueryException;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Position of an event in the keyset ordering of events, which is last updated
+ * descending followed by identifier descending. The next page of events is
+ * read from the events which are ordered after the cursor, as opposed to
+ * skipping a number of rows with an offset.
+ *
+ * The cursor is exchanged with clients in its encoded, opaque form.
+ */
+public final class EventPageCursor
+{
+    private static final String SEPARATOR = ",";
+
+    private final Timestamp lastUpdated;
+
+    private final long id;
+
+    private EventPageCursor( Timestamp lastUpdated, long id )
+    {
+        this.lastUpdated = lastUpdated;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor.
+     *
+     * @param lastUpdated the last updated timestamp of the event, including
+     *        the fractional seconds as stored in the database.
+     * @param id the identifier of the event.
+     * @return an {@link EventPageCursor}.
+     */
+    public static EventPageCursor of( Timestamp lastUpdated, long id )
+    {
+        return new EventPageCursor( lastUpdated, id );
+    }
+
+    /**
+     * Decodes a cursor which was encoded with {@link #encode()}.
+     *
+     * @param cursor the encoded cursor.
+     * @return an {@link EventPageCursor}.
+     * @throws IllegalQueryException if the cursor is not valid.
+     */
+    public static EventPageCursor decode( String cursor )
+    {
+        try
+        {
+            String[] parts = new String( Base64.getUrlDecoder().decode( cursor ), StandardCharsets.UTF_8 )
+                .split( SEPARATOR );
+
+            if ( parts.length != 3 )
+            {
+                throw new IllegalQueryException( "Page cursor is not valid: `" + cursor + "`" );
+            }
+
+            Timestamp lastUpdated = new Timestamp( Long.parseLong( parts[0] ) );
+            lastUpdated.setNanos( Integer.parseInt( parts[1] ) );
+
+            return new EventPageCursor( lastUpdated, Long.parseLong( parts[2] ) );
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            throw new IllegalQueryException( "Page cursor is not valid: `" + cursor + "`" );
+        }
+    }
+
+    /**
+     * Encodes this cursor into a URL safe string.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode()
+    {
+        String cursor = lastUpdated.getTime() + SEPARATOR + lastUpdated.getNanos() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( cursor.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    public Timestamp getLastUpdated()
+    {
+        return lastUpdated;
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        EventPageCursor other = (EventPageCursor) o;
+
+        return id == other.id && lastUpdated.equals( other.lastUpdated );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( lastUpdated, id );
+    }
+
+    @Override
+    public String toString()
+    {
+        return MoreObjects.toStringHelper( this )
+            .add( "lastUpdated", lastUpdated )
+            .add( "id", id )
+            .toString();
+    }
+}
@@ -168,6 +168,17 @@ public class EventSearchParams
      */
     private Date skipChangedBefore;
 
+    /**
+     * Indicates whether pages are read by keyset, ordered by last updated and
+     * identifier, instead of by offset.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Position after which the page is read when keyset paging.
+     */
+    private EventPageCursor pageCursor;
+
     // -------------------------------------------------------------------------
     // Constructors
     // -------------------------------------------------------------------------
@@ -542,6 +553,33 @@ public class EventSearchParams
         return this;
     }
 
+    public boolean isKeysetPaging()
+    {
+        return keysetPaging;
+    }
+
+    public EventSearchParams setKeysetPaging( boolean keysetPaging )
+    {
+        this.keysetPaging = keysetPaging;
+        return this;
+    }
+
+    public EventPageCursor getPageCursor()
+    {
+        return pageCursor;
+    }
+
+    public EventSearchParams setPageCursor( EventPageCursor pageCursor )
+    {
+        this.pageCursor = pageCursor;
+        return this;
+    }
+
+    public boolean hasPageCursor()
+    {
+        return keysetPaging && pageCursor != null;
+    }
+
     public boolean isIncludeAttributes()
     {
         return includeAttributes;
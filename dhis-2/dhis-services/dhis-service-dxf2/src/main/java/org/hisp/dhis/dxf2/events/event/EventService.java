@@ -34,6 +34,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.dxf2.common.ImportOptions;
@@ -54,6 +55,20 @@ public interface EventService
 
     Events getEvents( EventSearchParams params );
 
+    /**
+     * Reads the events matching the given parameters and passes each event to
+     * the given consumer as it is read from the database, so that exports are
+     * not limited by the number of events which fit in memory. Reads a single
+     * page of events when keyset paging, of the default page size if no page
+     * size is given.
+     *
+     * @param params the {@link EventSearchParams}.
+     * @param consumer the consumer of events.
+     * @return the {@link EventPageCursor} of the last event read if a full page
+     *         of events was read when keyset paging, otherwise null.
+     */
+    EventPageCursor streamEvents( EventSearchParams params, Consumer<Event> consumer );
+
     EventRows getEventRows( EventSearchParams params );
 
     Grid getEventsGrid( EventSearchParams params );
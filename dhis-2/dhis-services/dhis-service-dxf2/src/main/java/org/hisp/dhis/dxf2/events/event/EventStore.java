@@ -34,6 +34,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.program.ProgramStageInstance;
 import org.hisp.dhis.user.User;
@@ -59,13 +60,28 @@ public interface EventStore
      *
      * @param programStageInstances a List of {@see ProgramStageInstance}
      *
-     * @return a list of saved program stage instances
+     * @return a list of the program stage instances for which a row was updated
      */
     List<ProgramStageInstance> updateEvents(List<ProgramStageInstance> programStageInstances );
 
     List<Event> getEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
         Map<String, Set<String>> psdesWithSkipSyncTrue );
 
+    /**
+     * Reads events through a server-side cursor and passes each event to the
+     * given consumer as soon as it has been read, without holding the result
+     * in memory. Must be invoked within a transaction in order for the JDBC
+     * driver to use a cursor.
+     *
+     * @param params the {@link EventSearchParams}.
+     * @param organisationUnits the organisation units to read events for.
+     * @param consumer the consumer of events.
+     * @return the {@link EventPageCursor} of the last event read if a full page
+     *         of events was read when keyset paging, otherwise null.
+     */
+    EventPageCursor streamEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Consumer<Event> consumer );
+
     List<Map<String, String>> getEventsGrid( EventSearchParams params, List<OrganisationUnit> organisationUnits );
 
     List<EventRow> getEventRows( EventSearchParams params, List<OrganisationUnit> organisationUnits );
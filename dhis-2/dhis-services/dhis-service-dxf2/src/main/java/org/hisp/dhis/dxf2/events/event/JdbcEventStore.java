@@ -79,16 +79,21 @@ import org.springframework.core.env.Environment;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.rowset.ResultSetWrappingSqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -96,6 +101,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -169,6 +175,12 @@ public class JdbcEventStore implements EventStore
 
     private static final String DOT_NAME = ".name)";
 
+    /**
+     * Number of rows fetched per round trip when streaming events, which makes
+     * the JDBC driver read the result set through a server-side cursor.
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private static final Map<String, String> QUERY_PARAM_COL_MAP = ImmutableMap.<String, String> builder()
         .put( "event", "psi_uid" ).put( "program", "p_uid" ).put( "programStage", "ps_uid" )
         .put( "enrollment", "pi_uid" ).put( "enrollmentStatus", "pi_status" ).put( "orgUnit", "ou_uid" )
@@ -309,8 +321,7 @@ public class JdbcEventStore implements EventStore
 
         while ( rowSet.next() )
         {
-            if ( rowSet.getString( "psi_uid" ) == null
-                || ( params.getCategoryOptionCombo() == null && !isSuper( user ) && !userHasAccess( rowSet ) ) )
+            if ( isSkippedRow( rowSet, params, user ) )
             {
                 continue;
             }
@@ -321,167 +332,314 @@ public class JdbcEventStore implements EventStore
 
             if ( !eventUidToEventMap.containsKey( psiUid ) )
             {
-                validateIdentifiersPresence( rowSet, params.getIdSchemes(), true );
-
-                event = new Event();
+                event = mapEvent( rowSet, params, user );
                 eventUidToEventMap.put( psiUid, event );
 
-                if ( !params.isSkipEventId() )
-                {
-                    event.setUid( psiUid );
-                    event.setEvent( psiUid );
-                }
+                events.add( event );
+            }
+            else
+            {
+                event = eventUidToEventMap.get( psiUid );
+                addAttributeCategoryOptions( event, rowSet );
+            }
 
-                event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
-                event.setStatus( EventStatus.valueOf( rowSet.getString( "psi_status" ) ) );
+            addDataValues( event, rowSet, params, psdesWithSkipSyncTrue );
+            addNote( event, rowSet, notes );
+        }
 
-                event.setProgram( rowSet.getString( "p_identifier" ) );
-                event.setProgramStage( rowSet.getString( "ps_identifier" ) );
-                event.setOrgUnit( rowSet.getString( "ou_identifier" ) );
-                event.setDeleted( rowSet.getBoolean( "psi_deleted" ) );
+        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
+        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
 
-                ProgramType programType = ProgramType.fromValue( rowSet.getString( "p_type" ) );
+        if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+        {
+            CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
 
-                if ( programType != ProgramType.WITHOUT_REGISTRATION )
-                {
-                    event.setEnrollment( rowSet.getString( "pi_uid" ) );
-                    event.setEnrollmentStatus( EnrollmentStatus
-                        .fromProgramStatus( ProgramStatus.valueOf( rowSet.getString( "pi_status" ) ) ) );
-                    event.setFollowup( rowSet.getBoolean( "pi_followup" ) );
-                }
+            List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
+                .collect( Collectors.toList() );
+            populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+            convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+        }
 
-                if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
-                {
-                    event.setOptionSize( rowSet.getInt( "option_size" ) );
-                }
+        if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+        {
+            return events.stream().filter( this::hasAllAttributeCategoryOptions )
+                .collect( Collectors.toList() );
+        }
 
-                event.setAttributeOptionCombo( rowSet.getString( "coc_identifier" ) );
-                event.setAttributeCategoryOptions( rowSet.getString( "deco_uid" ) );
-                event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+        return events;
+    }
 
-                event.setStoredBy( rowSet.getString( "psi_storedby" ) );
-                event.setOrgUnitName( rowSet.getString( "ou_name" ) );
-                event.setDueDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_duedate" ) ) );
-                event.setEventDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_executiondate" ) ) );
-                event.setCreated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_created" ) ) );
-                event.setCreatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_createdbyuserinfo" ), jsonMapper ) );
-                event.setLastUpdated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_lastupdated" ) ) );
-                event.setLastUpdatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_lastupdatedbyuserinfo" ), jsonMapper ) );
+    @Override
+    public EventPageCursor streamEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Consumer<Event> consumer )
+    {
+        User user = currentUserService.getCurrentUser();
 
-                event.setCompletedBy( rowSet.getString( "psi_completedby" ) );
-                event.setCompletedDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_completeddate" ) ) );
+        setAccessiblePrograms( user, params );
 
-                if ( rowSet.getObject( "psi_geometry" ) != null )
-                {
-                    try
-                    {
-                        Geometry geom = new WKTReader().read( rowSet.getString( "psi_geometry" ) );
+        String sql = buildSql( params, organisationUnits, user );
 
-                        event.setGeometry( geom );
-                    }
-                    catch ( ParseException e )
-                    {
-                        log.error( "Unable to read geometry for event '" + event.getUid() + "': ", e );
-                    }
-                }
+        log.debug( "Event stream SQL: " + sql );
 
-                if ( rowSet.getObject( "user_assigned" ) != null )
-                {
-                    event.setAssignedUser( rowSet.getString( "user_assigned" ) );
-                    event.setAssignedUserUsername( rowSet.getString( "user_assigned_username" ) );
-                    event.setAssignedUserDisplayName( rowSet.getString( "user_assigned_name" ) );
-                }
+        return jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY );
+            statement.setFetchSize( STREAM_FETCH_SIZE );
+            return statement;
+        }, (ResultSetExtractor<EventPageCursor>) resultSet -> streamEvents(
+            new ResultSetWrappingSqlRowSet( resultSet ), params, user, consumer ) );
+    }
 
-                events.add( event );
-            }
-            else
-            {
-                event = eventUidToEventMap.get( psiUid );
-                String attributeCategoryCombination = event.getAttributeCategoryOptions();
-                String currentAttributeCategoryCombination = rowSet.getString( "deco_uid" );
+    /**
+     * Reads events from the given row set, which must be ordered so that all
+     * rows of an event are adjacent, and passes each event to the consumer as
+     * soon as its last row has been read.
+     *
+     * @return the cursor of the last row read if a full page of events was read
+     *         when keyset paging, otherwise null.
+     */
+    private EventPageCursor streamEvents( SqlRowSet rowSet, EventSearchParams params, User user,
+        Consumer<Event> consumer )
+    {
+        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
+        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+        boolean convertDataElementIdentifiers = dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID;
+        boolean filterOptions = params.getCategoryOptionCombo() == null && !isSuper( user );
+        CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
 
-                if ( !attributeCategoryCombination.contains( currentAttributeCategoryCombination ) )
-                {
-                    event.setAttributeCategoryOptions(
-                        attributeCategoryCombination + ";" + currentAttributeCategoryCombination );
-                }
+        Consumer<Event> eventConsumer = event -> {
+            if ( convertDataElementIdentifiers )
+            {
+                List<Collection<DataValue>> dataValuesList = Collections.singletonList( event.getDataValues() );
+                populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+                convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
             }
 
-            if ( !org.springframework.util.StringUtils.isEmpty( rowSet.getString( "psi_eventdatavalues" ) ) )
+            if ( !filterOptions || hasAllAttributeCategoryOptions( event ) )
             {
-                Set<EventDataValue> eventDataValues = convertEventDataValueJsonIntoSet(
-                    rowSet.getString( "psi_eventdatavalues" ) );
+                consumer.accept( event );
+            }
+        };
 
-                for ( EventDataValue dv : eventDataValues )
-                {
-                    DataValue dataValue = convertEventDataValueIntoDtoDataValue( dv );
+        EventPageCursor cursor = null;
+        int eventCount = 0;
+        String currentUid = null;
+        Event event = null;
+        Set<String> notes = new HashSet<>();
 
-                    if ( params.isSynchronizationQuery() )
-                    {
-                        if ( psdesWithSkipSyncTrue.containsKey( rowSet.getString( "ps_uid" ) ) && psdesWithSkipSyncTrue
-                            .get( rowSet.getString( "ps_uid" ) ).contains( dv.getDataElement() ) )
-                        {
-                            dataValue.setSkipSynchronization( true );
-                        }
-                        else
-                        {
-                            dataValue.setSkipSynchronization( false );
-                        }
-                    }
+        while ( rowSet.next() )
+        {
+            long psiId = rowSet.getLong( "psi_id" );
 
-                    event.getDataValues().add( dataValue );
-                }
+            if ( cursor == null || cursor.getId() != psiId )
+            {
+                eventCount++;
             }
 
-            if ( rowSet.getString( "psinote_value" ) != null && !notes.contains( rowSet.getString( "psinote_id" ) ) )
+            cursor = EventPageCursor.of( rowSet.getTimestamp( "psi_lastupdated" ), psiId );
+
+            if ( isSkippedRow( rowSet, params, user ) )
             {
-                Note note = new Note();
-                note.setNote( rowSet.getString( "psinote_uid" ) );
-                note.setValue( rowSet.getString( "psinote_value" ) );
-                note.setStoredDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psinote_storeddate" ) ) );
-                note.setStoredBy( rowSet.getString( "psinote_storedby" ) );
+                continue;
+            }
 
-                if ( rowSet.getObject( "usernote_id" ) != null )
-                {
+            String psiUid = rowSet.getString( "psi_uid" );
 
-                    note.setLastUpdatedBy(
-                        UserInfoSnapshot.of(
-                            rowSet.getLong( "usernote_id" ),
-                            rowSet.getString( "usernote_code" ),
-                            rowSet.getString( "usernote_uid" ),
-                            rowSet.getString( "usernote_username" ),
-                            rowSet.getString( "userinfo_firstname" ),
-                            rowSet.getString( "userinfo_surname" ) ) );
+            if ( !psiUid.equals( currentUid ) )
+            {
+                if ( event != null )
+                {
+                    eventConsumer.accept( event );
                 }
 
-                note.setLastUpdated( rowSet.getDate( "psinote_lastupdated" ) );
-
-                event.getNotes().add( note );
-                notes.add( rowSet.getString( "psinote_id" ) );
+                event = mapEvent( rowSet, params, user );
+                currentUid = psiUid;
+                notes.clear();
+            }
+            else
+            {
+                addAttributeCategoryOptions( event, rowSet );
             }
+
+            addDataValues( event, rowSet, params, Collections.emptyMap() );
+            addNote( event, rowSet, notes );
         }
 
-        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
-        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+        if ( event != null )
+        {
+            eventConsumer.accept( event );
+        }
 
-        if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+        return params.isKeysetPaging() && eventCount >= params.getPageSizeWithDefault() ? cursor : null;
+    }
+
+    private boolean isSkippedRow( SqlRowSet rowSet, EventSearchParams params, User user )
+    {
+        return rowSet.getString( "psi_uid" ) == null
+            || ( params.getCategoryOptionCombo() == null && !isSuper( user ) && !userHasAccess( rowSet ) );
+    }
+
+    /**
+     * Creates an event from the event columns of the current row.
+     */
+    private Event mapEvent( SqlRowSet rowSet, EventSearchParams params, User user )
+    {
+        validateIdentifiersPresence( rowSet, params.getIdSchemes(), true );
+
+        String psiUid = rowSet.getString( "psi_uid" );
+
+        Event event = new Event();
+
+        if ( !params.isSkipEventId() )
         {
-            CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
+            event.setUid( psiUid );
+            event.setEvent( psiUid );
+        }
 
-            List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
-                .collect( Collectors.toList() );
-            populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
-            convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+        event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+        event.setStatus( EventStatus.valueOf( rowSet.getString( "psi_status" ) ) );
+
+        event.setProgram( rowSet.getString( "p_identifier" ) );
+        event.setProgramStage( rowSet.getString( "ps_identifier" ) );
+        event.setOrgUnit( rowSet.getString( "ou_identifier" ) );
+        event.setDeleted( rowSet.getBoolean( "psi_deleted" ) );
+
+        ProgramType programType = ProgramType.fromValue( rowSet.getString( "p_type" ) );
+
+        if ( programType != ProgramType.WITHOUT_REGISTRATION )
+        {
+            event.setEnrollment( rowSet.getString( "pi_uid" ) );
+            event.setEnrollmentStatus( EnrollmentStatus
+                .fromProgramStatus( ProgramStatus.valueOf( rowSet.getString( "pi_status" ) ) ) );
+            event.setFollowup( rowSet.getBoolean( "pi_followup" ) );
         }
 
         if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
         {
-            return events.stream().filter( ev -> ev.getAttributeCategoryOptions() != null
-                && splitToArray( ev.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == ev.getOptionSize() )
-                .collect( Collectors.toList() );
+            event.setOptionSize( rowSet.getInt( "option_size" ) );
         }
 
-        return events;
+        event.setAttributeOptionCombo( rowSet.getString( "coc_identifier" ) );
+        event.setAttributeCategoryOptions( rowSet.getString( "deco_uid" ) );
+        event.setTrackedEntityInstance( rowSet.getString( "tei_uid" ) );
+
+        event.setStoredBy( rowSet.getString( "psi_storedby" ) );
+        event.setOrgUnitName( rowSet.getString( "ou_name" ) );
+        event.setDueDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_duedate" ) ) );
+        event.setEventDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_executiondate" ) ) );
+        event.setCreated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_created" ) ) );
+        event.setCreatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_createdbyuserinfo" ), jsonMapper ) );
+        event.setLastUpdated( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_lastupdated" ) ) );
+        event.setLastUpdatedByUserInfo( jsonToUserInfo( rowSet.getString( "psi_lastupdatedbyuserinfo" ), jsonMapper ) );
+
+        event.setCompletedBy( rowSet.getString( "psi_completedby" ) );
+        event.setCompletedDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psi_completeddate" ) ) );
+
+        if ( rowSet.getObject( "psi_geometry" ) != null )
+        {
+            try
+            {
+                Geometry geom = new WKTReader().read( rowSet.getString( "psi_geometry" ) );
+
+                event.setGeometry( geom );
+            }
+            catch ( ParseException e )
+            {
+                log.error( "Unable to read geometry for event '" + event.getUid() + "': ", e );
+            }
+        }
+
+        if ( rowSet.getObject( "user_assigned" ) != null )
+        {
+            event.setAssignedUser( rowSet.getString( "user_assigned" ) );
+            event.setAssignedUserUsername( rowSet.getString( "user_assigned_username" ) );
+            event.setAssignedUserDisplayName( rowSet.getString( "user_assigned_name" ) );
+        }
+
+        return event;
+    }
+
+    private void addAttributeCategoryOptions( Event event, SqlRowSet rowSet )
+    {
+        String attributeCategoryCombination = event.getAttributeCategoryOptions();
+        String currentAttributeCategoryCombination = rowSet.getString( "deco_uid" );
+
+        if ( !attributeCategoryCombination.contains( currentAttributeCategoryCombination ) )
+        {
+            event.setAttributeCategoryOptions(
+                attributeCategoryCombination + ";" + currentAttributeCategoryCombination );
+        }
+    }
+
+    private void addDataValues( Event event, SqlRowSet rowSet, EventSearchParams params,
+        Map<String, Set<String>> psdesWithSkipSyncTrue )
+    {
+        if ( !org.springframework.util.StringUtils.isEmpty( rowSet.getString( "psi_eventdatavalues" ) ) )
+        {
+            Set<EventDataValue> eventDataValues = convertEventDataValueJsonIntoSet(
+                rowSet.getString( "psi_eventdatavalues" ) );
+
+            for ( EventDataValue dv : eventDataValues )
+            {
+                DataValue dataValue = convertEventDataValueIntoDtoDataValue( dv );
+
+                if ( params.isSynchronizationQuery() )
+                {
+                    if ( psdesWithSkipSyncTrue.containsKey( rowSet.getString( "ps_uid" ) ) && psdesWithSkipSyncTrue
+                        .get( rowSet.getString( "ps_uid" ) ).contains( dv.getDataElement() ) )
+                    {
+                        dataValue.setSkipSynchronization( true );
+                    }
+                    else
+                    {
+                        dataValue.setSkipSynchronization( false );
+                    }
+                }
+
+                event.getDataValues().add( dataValue );
+            }
+        }
+    }
+
+    private void addNote( Event event, SqlRowSet rowSet, Set<String> notes )
+    {
+        if ( rowSet.getString( "psinote_value" ) != null && !notes.contains( rowSet.getString( "psinote_id" ) ) )
+        {
+            Note note = new Note();
+            note.setNote( rowSet.getString( "psinote_uid" ) );
+            note.setValue( rowSet.getString( "psinote_value" ) );
+            note.setStoredDate( DateUtils.getIso8601NoTz( rowSet.getDate( "psinote_storeddate" ) ) );
+            note.setStoredBy( rowSet.getString( "psinote_storedby" ) );
+
+            if ( rowSet.getObject( "usernote_id" ) != null )
+            {
+
+                note.setLastUpdatedBy(
+                    UserInfoSnapshot.of(
+                        rowSet.getLong( "usernote_id" ),
+                        rowSet.getString( "usernote_code" ),
+                        rowSet.getString( "usernote_uid" ),
+                        rowSet.getString( "usernote_username" ),
+                        rowSet.getString( "userinfo_firstname" ),
+                        rowSet.getString( "userinfo_surname" ) ) );
+            }
+
+            note.setLastUpdated( rowSet.getDate( "psinote_lastupdated" ) );
+
+            event.getNotes().add( note );
+            notes.add( rowSet.getString( "psinote_id" ) );
+        }
+    }
+
+    /**
+     * Indicates whether the event has all attribute category options of its
+     * attribute option combination, i.e. whether the user has access to all of
+     * them.
+     */
+    private boolean hasAllAttributeCategoryOptions( Event event )
+    {
+        return event.getAttributeCategoryOptions() != null
+            && splitToArray( event.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == event.getOptionSize();
     }
 
     public List<ProgramStageInstance> saveEvents(List<ProgramStageInstance> events )
@@ -500,9 +658,13 @@ public class JdbcEventStore implements EventStore
     @Override
     public List<ProgramStageInstance> updateEvents(List<ProgramStageInstance> programStageInstances )
     {
+        final List<ProgramStageInstance> batch = sort( programStageInstances );
+
+        final int[][] updateCounts;
+
         try
         {
-            jdbcTemplate.batchUpdate( UPDATE_EVENT_SQL, sort( programStageInstances) , programStageInstances.size(),
+            updateCounts = jdbcTemplate.batchUpdate( UPDATE_EVENT_SQL, batch, batch.size(),
                 ( ps, programStageInstance ) -> {
                     try
                     {
@@ -521,7 +683,37 @@ public class JdbcEventStore implements EventStore
             throw e;
         }
 
-        return programStageInstances;
+        return getUpdatedEvents( batch, updateCounts );
+    }
+
+    /**
+     * Returns the events of the batch for which the update counts of the batch
+     * update show that a row was updated.
+     *
+     * @param batch the list of {@see ProgramStageInstance} in statement order
+     * @param updateCounts the update counts per statement batch
+     * @return the list of updated {@see ProgramStageInstance}
+     */
+    private List<ProgramStageInstance> getUpdatedEvents( List<ProgramStageInstance> batch, int[][] updateCounts )
+    {
+        final List<ProgramStageInstance> updated = new ArrayList<>();
+
+        int idx = 0;
+
+        for ( int[] counts : updateCounts )
+        {
+            for ( int count : counts )
+            {
+                if ( count > 0 || count == Statement.SUCCESS_NO_INFO )
+                {
+                    updated.add( batch.get( idx ) );
+                }
+
+                idx++;
+            }
+        }
+
+        return updated;
     }
 
     @Override
@@ -860,11 +1052,18 @@ public class JdbcEventStore implements EventStore
     {
         StringBuilder sqlBuilder = new StringBuilder().append( "select * from (" );
 
-        sqlBuilder.append( getEventSelectQuery( params, organisationUnits, user ) );
+        if ( params.isKeysetPaging() )
+        {
+            sqlBuilder.append( getKeysetPageQuery( params, organisationUnits, user ) );
+        }
+        else
+        {
+            sqlBuilder.append( getEventSelectQuery( params, organisationUnits, user ) );
 
-        sqlBuilder.append( getOrderQuery( params ) );
+            sqlBuilder.append( getOrderQuery( params ) );
 
-        sqlBuilder.append( getEventPagingQuery( params ) );
+            sqlBuilder.append( getEventPagingQuery( params ) );
+        }
 
         sqlBuilder.append( ") as event left join (" );
 
@@ -884,6 +1083,25 @@ public class JdbcEventStore implements EventStore
         return sqlBuilder.toString();
     }
 
+    /**
+     * Returns the event query restricted to the page of events following the
+     * page cursor. The limit is applied to distinct events, as the event query
+     * returns a row for each category option of the attribute option combo of
+     * an event.
+     */
+    private String getKeysetPageQuery( EventSearchParams params, List<OrganisationUnit> organisationUnits, User user )
+    {
+        String eventSelectQuery = getEventSelectQuery( params, organisationUnits, user );
+
+        return "select * from (" + eventSelectQuery + ") as pageevent "
+            + "where pageevent.psi_id in ("
+            + "select psi_id from (" + eventSelectQuery + ") as pagekey "
+            + "group by psi_id, psi_lastupdated "
+            + "order by psi_lastupdated desc, psi_id desc "
+            + "limit " + params.getPageSizeWithDefault() + ") "
+            + getOrderQuery( params );
+    }
+
     private String getEventSelectQuery( EventSearchParams params, List<OrganisationUnit> organisationUnits, User user )
     {
         List<Long> orgUnitIds = getIdentifiers( organisationUnits );
@@ -1324,6 +1542,14 @@ public class JdbcEventStore implements EventStore
             sqlBuilder.append( hlp.whereAnd() ).append( " (au.uid is not null) " );
         }
 
+        if ( params.hasPageCursor() )
+        {
+            EventPageCursor cursor = params.getPageCursor();
+
+            sqlBuilder.append( hlp.whereAnd() ).append( " (psi.lastupdated, psi.programstageinstanceid) < ('" )
+                .append( cursor.getLastUpdated() ).append( "', " ).append( cursor.getId() ).append( ") " );
+        }
+
         return sqlBuilder.toString();
     }
 
@@ -1452,6 +1678,11 @@ public class JdbcEventStore implements EventStore
 
     private String getOrderQuery( EventSearchParams params )
     {
+        if ( params.isKeysetPaging() )
+        {
+            return "order by psi_lastupdated desc, psi_id desc ";
+        }
+
         ArrayList<String> orderFields = new ArrayList<String>();
 
         if ( params.getGridOrders() != null )
@@ -1489,13 +1720,15 @@ public class JdbcEventStore implements EventStore
             }
         }
 
+        // Identifier is the tie-breaker which keeps the rows of an event adjacent
+
         if ( !orderFields.isEmpty() )
         {
-            return "order by " + StringUtils.join( orderFields, ',' ) + " ";
+            return "order by " + StringUtils.join( orderFields, ',' ) + ", psi_id desc ";
         }
         else
         {
-            return "order by psi_lastupdated desc ";
+            return "order by psi_lastupdated desc, psi_id desc ";
         }
     }
 
@@ -1679,7 +1912,7 @@ public class JdbcEventStore implements EventStore
 
         ps.setLong( 1, programStageInstance.getProgramInstance().getId() );
         ps.setLong( 2, programStageInstance.getProgramStage().getId() );
-        ps.setTimestamp( 3, new Timestamp( programStageInstance.getDueDate().getTime() ) );
+        ps.setTimestamp( 3, JdbcEventSupport.toTimestamp( programStageInstance.getDueDate() ) );
         if ( programStageInstance.getExecutionDate() != null )
         {
             ps.setTimestamp( 4, new Timestamp( programStageInstance.getExecutionDate().getTime() ) );
@@ -1780,6 +2013,13 @@ public class JdbcEventStore implements EventStore
             }
         }
 
+        deUids.removeAll( dataElementUidToIdentifierCache.keySet() );
+
+        if ( deUids.isEmpty() )
+        {
+            return;
+        }
+
         if ( !idScheme.isAttribute() )
         {
             List<DataElement> dataElements = manager.get( DataElement.class, deUids );
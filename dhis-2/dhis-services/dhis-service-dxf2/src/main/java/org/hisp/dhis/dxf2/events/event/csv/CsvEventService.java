@@ -29,11 +29,13 @@ package org.hisp.dhis.dxf2.events.event.csv;
  */
 
 import com.vividsolutions.jts.io.ParseException;
+import org.hisp.dhis.dxf2.events.event.Event;
 import org.hisp.dhis.dxf2.events.event.Events;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.function.Consumer;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -42,6 +44,17 @@ public interface CsvEventService
 {
     void writeEvents( OutputStream outputStream, Events events, boolean withHeader ) throws IOException;
 
+    /**
+     * Writes events to the output stream one at a time as the producer passes
+     * them to its consumer, without collecting the events in memory.
+     *
+     * @param outputStream the output stream.
+     * @param withHeader whether to write a header row.
+     * @param eventProducer the producer which passes events to the given consumer.
+     */
+    void writeEvents( OutputStream outputStream, boolean withHeader, Consumer<Consumer<Event>> eventProducer )
+        throws IOException;
+
     Events readEvents( InputStream inputStream, boolean skipFirst )
         throws IOException, ParseException;
 }
@@ -42,4 +42,10 @@ public enum FlushMode
      * Let the importer decide the flushing.
      */
     AUTO,
+
+    /**
+     * Let the importer decide the flushing, fetch uniqueness data concurrently
+     * and write types which no other imported type references in JDBC batches.
+     */
+    BATCH,
 }
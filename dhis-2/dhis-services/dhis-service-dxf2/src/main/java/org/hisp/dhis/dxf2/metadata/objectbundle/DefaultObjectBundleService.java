@@ -32,13 +32,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.cache.HibernateCacheManager;
 import org.hisp.dhis.common.BaseIdentifiableObject;
+import org.hisp.dhis.common.EmbeddedObject;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
@@ -53,6 +56,9 @@ import org.hisp.dhis.preheat.PreheatParams;
 import org.hisp.dhis.preheat.PreheatService;
 import org.hisp.dhis.schema.MergeParams;
 import org.hisp.dhis.schema.MergeService;
+import org.hisp.dhis.schema.Property;
+import org.hisp.dhis.schema.PropertyType;
+import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.user.CurrentUserService;
@@ -70,6 +76,11 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class DefaultObjectBundleService implements ObjectBundleService
 {
+    /**
+     * JDBC batch size used for creating objects of leaf types in {@link FlushMode#BATCH}.
+     */
+    private static final int BATCH_SIZE = 500;
+
     private final CurrentUserService currentUserService;
 
     private final PreheatService preheatService;
@@ -151,6 +162,8 @@ public class DefaultObjectBundleService implements ObjectBundleService
         }
 
         List<Class<? extends IdentifiableObject>> klasses = getSortedClasses( bundle );
+        Set<Class<? extends IdentifiableObject>> batchKlasses = FlushMode.BATCH == bundle.getFlushMode()
+            ? getLeafClasses( klasses ) : new HashSet<>();
         Session session = sessionFactory.getCurrentSession();
 
         objectBundleHooks.forEach( hook -> hook.preCommit( bundle ) );
@@ -165,14 +178,14 @@ public class DefaultObjectBundleService implements ObjectBundleService
             if ( bundle.getImportMode().isCreateAndUpdate() )
             {
                 TypeReport typeReport = new TypeReport( klass );
-                typeReport.merge( handleCreates( session, klass, nonPersistedObjects, bundle ) );
+                typeReport.merge( handleCreates( session, klass, nonPersistedObjects, bundle, batchKlasses.contains( klass ) ) );
                 typeReport.merge( handleUpdates( session, klass, persistedObjects, bundle ) );
 
                 typeReports.put( klass, typeReport );
             }
             else if ( bundle.getImportMode().isCreate() )
             {
-                typeReports.put( klass, handleCreates( session, klass, nonPersistedObjects, bundle ) );
+                typeReports.put( klass, handleCreates( session, klass, nonPersistedObjects, bundle, batchKlasses.contains( klass ) ) );
             }
             else if ( bundle.getImportMode().isUpdate() )
             {
@@ -185,7 +198,7 @@ public class DefaultObjectBundleService implements ObjectBundleService
 
             objectBundleHooks.forEach( hook -> hook.postTypeImport( klass, persistedObjects, bundle ) );
 
-            if ( FlushMode.AUTO == bundle.getFlushMode() )
+            if ( FlushMode.AUTO == bundle.getFlushMode() || FlushMode.BATCH == bundle.getFlushMode() )
             {
                 session.flush();
             }
@@ -207,7 +220,7 @@ public class DefaultObjectBundleService implements ObjectBundleService
     // Utility Methods
     //-----------------------------------------------------------------------------------
 
-    private TypeReport handleCreates( Session session, Class<? extends IdentifiableObject> klass, List<IdentifiableObject> objects, ObjectBundle bundle )
+    private TypeReport handleCreates( Session session, Class<? extends IdentifiableObject> klass, List<IdentifiableObject> objects, ObjectBundle bundle, boolean batch )
     {
         TypeReport typeReport = new TypeReport( klass );
 
@@ -229,42 +242,59 @@ public class DefaultObjectBundleService implements ObjectBundleService
 
         session.flush();
 
-        for ( IdentifiableObject object : objects )
-        {
-            ObjectReport objectReport = new ObjectReport( object, bundle );
-            objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
-            typeReport.addObjectReport( objectReport );
+        // objects of leaf types are not referenced by other imported types and are written in JDBC batches
 
-            preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+        final Integer jdbcBatchSize = session.getJdbcBatchSize();
+        int count = 0;
 
-            if ( bundle.getOverrideUser() != null )
+        if ( batch )
+        {
+            session.setJdbcBatchSize( BATCH_SIZE );
+        }
+
+        try
+        {
+            for ( IdentifiableObject object : objects )
             {
-                ((BaseIdentifiableObject) object).setUser( bundle.getOverrideUser() );
+                ObjectReport objectReport = new ObjectReport( object, bundle );
+                objectReport.setDisplayName( IdentifiableObjectUtils.getDisplayName( object ) );
+                typeReport.addObjectReport( objectReport );
 
-                if ( object instanceof User )
+                preheatService.connectReferences( object, bundle.getPreheat(), bundle.getPreheatIdentifier() );
+
+                if ( bundle.getOverrideUser() != null )
                 {
-                    ((User) object).getUserCredentials().setUser( bundle.getOverrideUser() );
+                    ((BaseIdentifiableObject) object).setUser( bundle.getOverrideUser() );
+
+                    if ( object instanceof User )
+                    {
+                        ((User) object).getUserCredentials().setUser( bundle.getOverrideUser() );
+                    }
                 }
-            }
 
-            session.save( object );
+                session.save( object );
 
-            bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object );
+                bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object );
 
-            if ( log.isDebugEnabled() )
-            {
-                String msg = "(" + bundle.getUsername() + ") Created object '"
-                    + bundle.getPreheatIdentifier().getIdentifiersWithName( object ) + "'";
-                log.debug( msg );
-            }
+                if ( log.isDebugEnabled() )
+                {
+                    String msg = "(" + bundle.getUsername() + ") Created object '"
+                        + bundle.getPreheatIdentifier().getIdentifiersWithName( object ) + "'";
+                    log.debug( msg );
+                }
 
-            if ( FlushMode.OBJECT == bundle.getFlushMode() )
-            {
-                session.flush();
+                if ( FlushMode.OBJECT == bundle.getFlushMode() || (batch && ++count % BATCH_SIZE == 0) )
+                {
+                    session.flush();
+                }
             }
-        }
 
-        session.flush();
+            session.flush();
+        }
+        finally
+        {
+            session.setJdbcBatchSize( jdbcBatchSize );
+        }
 
         objects.forEach( object -> objectBundleHooks.forEach( hook -> hook.postCreate( object, bundle )) );
 
@@ -398,6 +428,57 @@ public class DefaultObjectBundleService implements ObjectBundleService
         return typeReport;
     }
 
+    /**
+     * Builds the dependency graph of the given classes from the references of
+     * their schemas, and returns the leaf classes, which are the classes no
+     * imported class (including the class itself) references. References held
+     * by embedded objects count as references of the owning class.
+     */
+    private Set<Class<? extends IdentifiableObject>> getLeafClasses( List<Class<? extends IdentifiableObject>> klasses )
+    {
+        Map<Class<? extends IdentifiableObject>, Set<Class<?>>> dependencies = new HashMap<>();
+        klasses.forEach( klass -> dependencies.put( klass, getReferencedClasses( schemaService.getDynamicSchema( klass ), new HashSet<>() ) ) );
+
+        Set<Class<? extends IdentifiableObject>> leafKlasses = new HashSet<>( klasses );
+
+        dependencies.values().forEach( references -> leafKlasses.removeIf( klass -> references.stream()
+            .anyMatch( reference -> reference.isAssignableFrom( klass ) ) ) );
+
+        return leafKlasses;
+    }
+
+    private Set<Class<?>> getReferencedClasses( Schema schema, Set<Class<?>> visited )
+    {
+        Set<Class<?>> references = new HashSet<>();
+
+        if ( schema == null || !visited.add( schema.getKlass() ) )
+        {
+            return references;
+        }
+
+        for ( Property property : schema.getProperties() )
+        {
+            if ( !property.isPersisted() || !property.isOwner() )
+            {
+                continue;
+            }
+
+            Class<?> klass = property.isCollection() ? property.getItemKlass() : property.getKlass();
+            PropertyType propertyType = property.isCollection() ? property.getItemPropertyType() : property.getPropertyType();
+
+            if ( PropertyType.REFERENCE == propertyType )
+            {
+                references.add( klass );
+            }
+            else if ( PropertyType.COMPLEX == propertyType && klass != null && EmbeddedObject.class.isAssignableFrom( klass ) )
+            {
+                references.addAll( getReferencedClasses( schemaService.getDynamicSchema( klass ), visited ) );
+            }
+        }
+
+        return references;
+    }
+
     @SuppressWarnings( "unchecked" )
     private List<Class<? extends IdentifiableObject>> getSortedClasses( ObjectBundle bundle )
     {
@@ -319,6 +319,7 @@ public class ObjectBundleParams
         PreheatParams params = new PreheatParams();
         params.setPreheatIdentifier( preheatIdentifier );
         params.setPreheatMode( preheatMode );
+        params.setParallel( FlushMode.BATCH == flushMode );
 
         return params;
     }
@@ -52,6 +52,7 @@ import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueAudit;
+import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.importsummary.ImportStatus;
 import org.hisp.dhis.dxf2.importsummary.ImportSummary;
@@ -86,6 +87,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -133,6 +135,12 @@ public class DataValueSetServiceTest
     @Autowired
     private UserService _userService;
 
+    @Autowired
+    private DataValueService dataValueService;
+
+    @Autowired
+    private DataValueSetStore dataValueSetStore;
+
     private Attribute attribute;
 
     private CategoryOptionCombo ocDef;
@@ -963,7 +971,10 @@ public class DataValueSetServiceTest
     public void testImportDataValuesUpdatedAudit()
         throws Exception
     {
-        mockDataValueBatchHandler.withFindSelf( true );
+        addExistingDataValues(
+            createDataValue( deA, peA, ouA, ocDef, ocDef, "1" ),
+            createDataValue( deA, peA, ouB, ocDef, ocDef, "2" ),
+            createDataValue( deA, peB, ouA, ocDef, ocDef, "3" ) );
 
         in = new ClassPathResource( "datavalueset/dataValueSetA.xml" ).getInputStream();
 
@@ -990,7 +1001,10 @@ public class DataValueSetServiceTest
     public void testImportDataValuesUpdatedSkipAudit()
         throws Exception
     {
-        mockDataValueBatchHandler.withFindSelf( true );
+        addExistingDataValues(
+            createDataValue( deA, peA, ouA, ocDef, ocDef, "1" ),
+            createDataValue( deA, peA, ouB, ocDef, ocDef, "2" ),
+            createDataValue( deA, peB, ouA, ocDef, ocDef, "3" ) );
 
         in = new ClassPathResource( "datavalueset/dataValueSetA.xml" ).getInputStream();
 
@@ -1031,6 +1045,113 @@ public class DataValueSetServiceTest
         assertEquals( 1, dataValues.size() );
     }
 
+    @Test
+    public void testImportDataValuesExistingImportCount()
+    {
+        addExistingDataValues(
+            createDataValue( deA, peA, ouA, ocDef, ocDef, "1" ),
+            createDataValue( deA, peA, ouB, ocDef, ocDef, "2" ),
+            createDataValue( deA, peB, ouA, ocDef, ocDef, "3", true ) );
+
+        String importData =
+            "<dataValueSet xmlns=\"http://dhis2.org/schema/dxf/2.0\">\n" +
+                "  <dataValue dataElement=\"f7n9E0hX8qk\" period=\"201201\" orgUnit=\"DiszpKrYNg8\" value=\"10001\" />\n" +
+                "  <dataValue dataElement=\"f7n9E0hX8qk\" period=\"201201\" orgUnit=\"BdfsJfj87js\" value=\"10002\" deleted=\"true\" />\n" +
+                "  <dataValue dataElement=\"f7n9E0hX8qk\" period=\"201202\" orgUnit=\"DiszpKrYNg8\" value=\"10003\" />\n" +
+                "  <dataValue dataElement=\"f7n9E0hX8qk\" period=\"201202\" orgUnit=\"BdfsJfj87js\" value=\"10004\" />\n" +
+                "</dataValueSet>\n";
+
+        in = new ByteArrayInputStream( importData.getBytes( StandardCharsets.UTF_8 ) );
+
+        ImportSummary summary = dataValueSetService.saveDataValueSet( in );
+
+        assertEquals( summary.getConflicts().toString(), 0, summary.getConflicts().size() );
+        assertEquals( 2, summary.getImportCount().getImported() );
+        assertEquals( 1, summary.getImportCount().getUpdated() );
+        assertEquals( 1, summary.getImportCount().getDeleted() );
+        assertEquals( 0, summary.getImportCount().getIgnored() );
+
+        List<DataValue> inserts = mockDataValueBatchHandler.getInserts();
+        List<DataValue> updates = mockDataValueBatchHandler.getUpdates();
+
+        assertEquals( 1, inserts.size() );
+        assertTrue( inserts.contains( new DataValue( deA, peB, ouB, ocDef, ocDef ) ) );
+        assertEquals( 3, updates.size() );
+        assertTrue( updates.contains( new DataValue( deA, peA, ouA, ocDef, ocDef ) ) );
+        assertTrue( updates.contains( new DataValue( deA, peA, ouB, ocDef, ocDef ) ) );
+        assertTrue( updates.contains( new DataValue( deA, peB, ouA, ocDef, ocDef ) ) );
+    }
+
+    @Test
+    public void testImportDataValuesExistingAcrossChunks()
+    {
+        Period first = createMonthlyPeriod( getDate( 2000, 1, 1 ) );
+        Period last = createMonthlyPeriod( getDate( 2010, 12, 1 ) );
+        periodService.addPeriod( first );
+        periodService.addPeriod( last );
+
+        addExistingDataValues(
+            createDataValue( deA, first, ouA, ocDef, ocDef, "1" ),
+            createDataValue( deD, last, ouB, ocDef, ocDef, "2" ) );
+
+        StringBuilder importData = new StringBuilder(
+            "<dataValueSet xmlns=\"http://dhis2.org/schema/dxf/2.0\" idScheme=\"code\">\n" );
+
+        int count = 0;
+
+        for ( int year = 2000; year <= 2010; year++ )
+        {
+            for ( int month = 1; month <= 12; month++ )
+            {
+                for ( String dataElement : Lists.newArrayList( "DE_A", "DE_B", "DE_C", "DE_D" ) )
+                {
+                    for ( String orgUnit : Lists.newArrayList( "OU_A", "OU_B" ) )
+                    {
+                        importData.append( String.format( "  <dataValue dataElement=\"%s\" period=\"%d%02d\" orgUnit=\"%s\" value=\"%d\" />\n",
+                            dataElement, year, month, orgUnit, ++count ) );
+                    }
+                }
+            }
+        }
+
+        importData.append( "</dataValueSet>\n" );
+
+        in = new ByteArrayInputStream( importData.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+        ImportSummary summary = dataValueSetService.saveDataValueSet( in );
+
+        assertEquals( summary.getConflicts().toString(), 0, summary.getConflicts().size() );
+        assertEquals( count - 2, summary.getImportCount().getImported() );
+        assertEquals( 2, summary.getImportCount().getUpdated() );
+
+        List<DataValue> updates = mockDataValueBatchHandler.getUpdates();
+
+        assertEquals( 2, updates.size() );
+        assertTrue( updates.contains( new DataValue( deA, first, ouA, ocDef, ocDef ) ) );
+        assertTrue( updates.contains( new DataValue( deD, last, ouB, ocDef, ocDef ) ) );
+    }
+
+    @Test
+    public void testGetExistingDataValuesMatchesFullKey()
+    {
+        addExistingDataValues(
+            createDataValue( deA, peA, ouA, ocDef, ocDef, "1" ),
+            createDataValue( deA, peB, ouB, ocDef, ocDef, "2" ),
+            createDataValue( deB, peA, ouA, ocDef, ocDef, "3" ),
+            createDataValue( deB, peB, ouB, ocDef, ocDef, "4", true ) );
+
+        Map<DataValue, DataValue> existingValues = dataValueSetStore.getExistingDataValues( Lists.newArrayList(
+            new DataValue( deA, peA, ouA, ocDef, ocDef ),
+            new DataValue( deB, peB, ouB, ocDef, ocDef ),
+            new DataValue( deA, peA, ouB, ocDef, ocDef ),
+            new DataValue( deA, peA, ouA, ocDef, ocDef ) ) );
+
+        assertEquals( 2, existingValues.size() );
+        assertEquals( "1", existingValues.get( new DataValue( deA, peA, ouA, ocDef, ocDef ) ).getValue() );
+        assertEquals( "4", existingValues.get( new DataValue( deB, peB, ouB, ocDef, ocDef ) ).getValue() );
+        assertTrue( existingValues.get( new DataValue( deB, peB, ouB, ocDef, ocDef ) ).isDeleted() );
+    }
+
     @Test
     public void testImportDataValuesWithDataSetAllowsPeriods()
         throws Exception
@@ -1267,6 +1388,16 @@ public class DataValueSetServiceTest
         assertTrue( dataValues.contains( new DataValue( deC, peB, ouB, ocDef, ocDef ) ) );
     }
 
+    private void addExistingDataValues( DataValue... dataValues )
+    {
+        for ( DataValue dataValue : dataValues )
+        {
+            dataValueService.addDataValue( dataValue );
+        }
+
+        dbmsManager.flushSession();
+    }
+
     private Period createMonthlyPeriod( Date monthStart )
     {
         Date monthEnd = DateUtils.addDays( DateUtils.addMonths( monthStart, 1 ), -1 );
@@ -0,0 +1,114 @@
+package org.hisp.dhis.dxf2.datavalueset;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.hisp.dhis.dxf2.datavalue.DataValue;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StreamingJsonDataValueSetTest
+{
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testReadDataValueSet()
+        throws IOException
+    {
+        String json = "{\"dataSet\":\"dsA\",\"period\":\"202001\",\"orgUnit\":\"ouA\",\"dryRun\":true," +
+            "\"attributeCategoryOptions\":[\"coA\",\"coB\"],\"unknown\":{\"a\":[1,2]}," +
+            "\"dataValues\":[{\"dataElement\":\"deA\",\"value\":\"1\"},{\"dataElement\":\"deB\",\"value\":\"2\"}]," +
+            "\"unknownAfter\":[1]}";
+
+        DataValueSet dataValueSet = getDataValueSet( json );
+
+        assertEquals( "dsA", dataValueSet.getDataSet() );
+        assertEquals( "202001", dataValueSet.getPeriod() );
+        assertEquals( "ouA", dataValueSet.getOrgUnit() );
+        assertTrue( dataValueSet.getDryRun() );
+        assertEquals( 2, dataValueSet.getAttributeCategoryOptions().size() );
+
+        assertTrue( dataValueSet.hasNextDataValue() );
+        DataValue dataValue = dataValueSet.getNextDataValue();
+        assertEquals( "deA", dataValue.getDataElement() );
+        assertEquals( "1", dataValue.getValue() );
+
+        assertTrue( dataValueSet.hasNextDataValue() );
+        dataValue = dataValueSet.getNextDataValue();
+        assertEquals( "deB", dataValue.getDataElement() );
+        assertEquals( "2", dataValue.getValue() );
+
+        assertFalse( dataValueSet.hasNextDataValue() );
+
+        dataValueSet.close();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectPropertyAfterDataValues()
+        throws IOException
+    {
+        String json = "{\"dataSet\":\"dsA\"," +
+            "\"dataValues\":[{\"dataElement\":\"deA\",\"value\":\"1\"}]," +
+            "\"orgUnit\":\"ouA\"}";
+
+        DataValueSet dataValueSet = getDataValueSet( json );
+
+        assertTrue( dataValueSet.hasNextDataValue() );
+        dataValueSet.getNextDataValue();
+
+        dataValueSet.hasNextDataValue();
+    }
+
+    @Test
+    public void testReadDataValueSetWithoutDataValues()
+        throws IOException
+    {
+        DataValueSet dataValueSet = getDataValueSet( "{\"dataSet\":\"dsA\"}" );
+
+        assertEquals( "dsA", dataValueSet.getDataSet() );
+        assertFalse( dataValueSet.hasNextDataValue() );
+
+        dataValueSet.close();
+    }
+
+    private DataValueSet getDataValueSet( String json )
+        throws IOException
+    {
+        return new StreamingJsonDataValueSet( mapper.getFactory().createParser(
+            new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) ) ), mapper );
+    }
+}
@@ -36,6 +36,7 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -44,9 +45,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 import javax.sql.DataSource;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -100,6 +105,56 @@ public class JdbcEventStoreTest
         verify( rowSet, times( 4 ) ).getString( "psi_eventdatavalues" );
     }
 
+    @Test
+    public void verifyKeysetPagingReadsEventsAfterCursor()
+    {
+        Timestamp lastUpdated = Timestamp.valueOf( "2020-05-01 10:15:30.123456" );
+
+        EventSearchParams eventSearchParams = new EventSearchParams().setPageSize( 10 ).setKeysetPaging( true )
+            .setPageCursor( EventPageCursor.of( lastUpdated, 42L ) );
+
+        subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString(
+            "(psi.lastupdated, psi.programstageinstanceid) < ('2020-05-01 10:15:30.123456', 42)" ) );
+        assertThat( sql.getValue(), containsString( "order by psi_lastupdated desc, psi_id desc" ) );
+        assertThat( sql.getValue(), containsString( "limit 10)" ) );
+        assertThat( sql.getValue(), not( containsString( "offset" ) ) );
+    }
+
+    @Test
+    public void verifyKeysetPagingLimitsDistinctEvents()
+    {
+        EventSearchParams eventSearchParams = new EventSearchParams().setPageSize( 10 ).setKeysetPaging( true );
+
+        subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString( "where pageevent.psi_id in (select psi_id from (" ) );
+        assertThat( sql.getValue(), containsString(
+            "group by psi_id, psi_lastupdated order by psi_lastupdated desc, psi_id desc limit 10)" ) );
+    }
+
+    @Test
+    public void verifyKeysetPagingWithoutPageSizeUsesDefaultLimit()
+    {
+        EventSearchParams eventSearchParams = new EventSearchParams().setKeysetPaging( true )
+            .setPageCursor( EventPageCursor.of( Timestamp.valueOf( "2020-05-01 10:15:30" ), 42L ) );
+
+        subject.getEvents( eventSearchParams, new ArrayList<>(), new HashMap<>() );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString( "limit " + EventSearchParams.DEFAULT_PAGE_SIZE + ")" ) );
+        assertThat( sql.getValue(), not( containsString( "offset" ) ) );
+    }
+
     private void mockRowSet()
     {
         // Simulate 3 rows
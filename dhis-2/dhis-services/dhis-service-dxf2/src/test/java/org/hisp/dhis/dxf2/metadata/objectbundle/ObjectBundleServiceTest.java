@@ -45,6 +45,8 @@ import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetElement;
 import org.hisp.dhis.dataset.Section;
 import org.hisp.dhis.dxf2.metadata.AtomicMode;
+import org.hisp.dhis.dxf2.metadata.FlushMode;
+import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleCommitReport;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.ErrorReport;
@@ -544,6 +546,41 @@ public class ObjectBundleServiceTest
         assertEquals( "PdWlltZnVZe", user.getOrganisationUnit().getUid() );
     }
 
+    @Test
+    public void testCreateSimpleMetadataBatchUID() throws IOException
+    {
+        Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> metadata = renderService.fromMetadata(
+            new ClassPathResource( "dxf2/simple_metadata.json" ).getInputStream(), RenderFormat.JSON );
+
+        ObjectBundleParams params = new ObjectBundleParams();
+        params.setObjectBundleMode( ObjectBundleMode.COMMIT );
+        params.setImportStrategy( ImportStrategy.CREATE );
+        params.setFlushMode( FlushMode.BATCH );
+        params.setObjects( metadata );
+
+        ObjectBundle bundle = objectBundleService.create( params );
+        assertTrue( objectBundleValidationService.validate( bundle ).getErrorReports().isEmpty() );
+        ObjectBundleCommitReport commitReport = objectBundleService.commit( bundle );
+
+        List<OrganisationUnit> organisationUnits = manager.getAll( OrganisationUnit.class );
+        List<DataElement> dataElements = manager.getAll( DataElement.class );
+        List<DataSet> dataSets = manager.getAll( DataSet.class );
+        List<User> users = manager.getAll( User.class );
+
+        assertEquals( metadata.get( DataElement.class ).size(), dataElements.size() );
+        assertEquals( dataElements.size(), commitReport.getObjectReports( DataElement.class ).size() );
+        assertEquals( organisationUnits.size(), commitReport.getObjectReports( OrganisationUnit.class ).size() );
+        assertEquals( dataSets.size(), commitReport.getObjectReports( DataSet.class ).size() );
+
+        DataSet dataSet = dataSets.get( 0 );
+        User user = users.get( 0 );
+
+        assertEquals( 1, dataSet.getSources().size() );
+        assertEquals( 2, dataSet.getDataSetElements().size() );
+        assertEquals( "admin", user.getUserCredentials().getUsername() );
+        assertEquals( "PdWlltZnVZe", user.getOrganisationUnit().getUid() );
+    }
+
     @Test
     public void testCreateDataSetsWithUgaUID() throws IOException
     {
@@ -30,6 +30,7 @@ package org.hisp.dhis.fieldfilter;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import lombok.extern.slf4j.Slf4j;
@@ -71,6 +72,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -179,13 +181,35 @@ public class DefaultFieldFilterService implements FieldFilterService
     @Override
     public CollectionNode toCollectionNode( Class<?> wrapper, FieldFilterParams params )
     {
-        String fields = params.getFields() == null ? "" : Joiner.on( "," ).join( params.getFields() );
-
         Schema rootSchema = schemaService.getDynamicSchema( wrapper );
 
         CollectionNode collectionNode = new CollectionNode( rootSchema.getCollectionName() );
         collectionNode.setNamespace( rootSchema.getNamespace() );
 
+        getNodes( wrapper, params ).forEachRemaining( collectionNode::addChild );
+
+        return collectionNode;
+    }
+
+    @Override
+    public CollectionNode toStreamingCollectionNode( Class<?> wrapper, FieldFilterParams params )
+    {
+        Schema rootSchema = schemaService.getDynamicSchema( wrapper );
+
+        CollectionNode collectionNode = new StreamingCollectionNode( rootSchema.getCollectionName(), this, wrapper, params );
+        collectionNode.setNamespace( rootSchema.getNamespace() );
+
+        return collectionNode;
+    }
+
+    /**
+     * Returns the nodes of the objects of the given params, each node is built
+     * when it is reached by the iterator.
+     */
+    Iterator<AbstractNode> getNodes( Class<?> wrapper, FieldFilterParams params )
+    {
+        String fields = params.getFields() == null ? "" : Joiner.on( "," ).join( params.getFields() );
+
         List<?> objects = params.getObjects();
 
         if ( params.getSkipSharing() )
@@ -198,7 +222,7 @@ public class DefaultFieldFilterService implements FieldFilterService
 
         if ( params.getObjects().isEmpty() )
         {
-            return collectionNode;
+            return Collections.emptyIterator();
         }
 
         FieldMap fieldMap = new FieldMap();
@@ -223,16 +247,9 @@ public class DefaultFieldFilterService implements FieldFilterService
             params.setUser( currentUserService.getCurrentUser() );
         }
 
-        objects.forEach( object -> {
-            AbstractNode node = buildNode( finalFieldMap, wrapper, object, params.getUser(), params.getDefaults() );
-
-            if ( node != null )
-            {
-                collectionNode.addChild( node );
-            }
-        } );
-
-        return collectionNode;
+        return Iterators.filter( Iterators.transform( objects.iterator(),
+            object -> buildNode( finalFieldMap, wrapper, object, params.getUser(), params.getDefaults() ) ),
+            Objects::nonNull );
     }
 
     private AbstractNode buildNode( FieldMap fieldMap, Class<?> klass, Object object, User user, Defaults defaults )
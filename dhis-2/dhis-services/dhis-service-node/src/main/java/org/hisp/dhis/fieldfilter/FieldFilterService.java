@@ -51,4 +51,11 @@ public interface FieldFilterService
      * Perform inclusion/exclusion on a list of objects.
      */
     CollectionNode toCollectionNode( Class<?> wrapper, FieldFilterParams params );
+
+    /**
+     * Perform inclusion/exclusion on a list of objects. When written to JSON,
+     * the children of the returned collection are built and written one object
+     * at a time, otherwise they are built when first accessed.
+     */
+    CollectionNode toStreamingCollectionNode( Class<?> wrapper, FieldFilterParams params );
 }
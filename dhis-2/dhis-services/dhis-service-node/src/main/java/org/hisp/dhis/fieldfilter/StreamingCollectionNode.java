@@ -0,0 +1,135 @@
+package org.hisp.dhis.fieldfilter;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.node.AbstractNode;
+import org.hisp.dhis.node.Node;
+import org.hisp.dhis.node.StreamingNode;
+import org.hisp.dhis.node.config.Config;
+import org.hisp.dhis.node.types.CollectionNode;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Collection node of field filtered objects which builds the node of each
+ * object while it is serialized, using the same rules as
+ * {@link DefaultFieldFilterService#toCollectionNode(Class, FieldFilterParams)}.
+ * All children are built when they are accessed otherwise.
+ */
+final class StreamingCollectionNode extends CollectionNode implements StreamingNode
+{
+    private final DefaultFieldFilterService fieldFilterService;
+
+    private final Class<?> wrapper;
+
+    private final FieldFilterParams params;
+
+    private boolean childrenBuilt;
+
+    StreamingCollectionNode( String name, DefaultFieldFilterService fieldFilterService, Class<?> wrapper,
+        FieldFilterParams params )
+    {
+        super( name );
+        this.fieldFilterService = fieldFilterService;
+        this.wrapper = wrapper;
+        this.params = params;
+    }
+
+    @Override
+    public boolean isStreamable( Config config )
+    {
+        return !childrenBuilt && config.getInclusionStrategy().include( Collections.emptyList() );
+    }
+
+    @Override
+    public Iterator<Node> getStreamingChildren()
+    {
+        Iterator<AbstractNode> nodes = fieldFilterService.getNodes( wrapper, params );
+
+        return new Iterator<Node>()
+        {
+            private Node current;
+
+            @Override
+            public boolean hasNext()
+            {
+                boolean hasNext = nodes.hasNext();
+
+                if ( !hasNext )
+                {
+                    detach();
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public Node next()
+            {
+                detach();
+                current = addChild( nodes.next() );
+                return current;
+            }
+
+            private void detach()
+            {
+                if ( current != null )
+                {
+                    removeChild( current );
+                    current = null;
+                }
+            }
+        };
+    }
+
+    @Override
+    public List<Node> getUnorderedChildren()
+    {
+        buildChildren();
+        return super.getUnorderedChildren();
+    }
+
+    @Override
+    public List<Node> getChildren()
+    {
+        buildChildren();
+        return super.getChildren();
+    }
+
+    private void buildChildren()
+    {
+        if ( !childrenBuilt )
+        {
+            childrenBuilt = true;
+            fieldFilterService.getNodes( wrapper, params ).forEachRemaining( this::addChild );
+        }
+    }
+}
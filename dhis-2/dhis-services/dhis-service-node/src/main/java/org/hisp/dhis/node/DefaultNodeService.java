@@ -112,7 +112,10 @@ public class DefaultNodeService implements NodeService
         }
         catch ( Exception e )
         {
-            e.printStackTrace();
+            // Nodes may be built while serializing, fail the request as the
+            // output is incomplete
+
+            throw new IllegalStateException( "Failed to serialize nodes", e );
         }
     }
 
@@ -56,6 +56,8 @@ public interface NodeService
      * @param rootNode     RootNode to write
      * @param contentType  NodeSerializer contentType
      * @param outputStream Write to this outputStream
+     * @throws IllegalStateException if the nodes could not be serialized, in
+     *         which case the output is incomplete
      */
     void serialize( RootNode rootNode, String contentType, OutputStream outputStream );
 
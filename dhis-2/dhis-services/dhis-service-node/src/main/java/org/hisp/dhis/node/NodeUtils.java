@@ -93,12 +93,22 @@ public final class NodeUtils
         pagerNode.setMetadata( true );
 
         pagerNode.addChild( new SimpleNode( "page", pager.getPage() ) );
-        pagerNode.addChild( new SimpleNode( "pageCount", pager.getPageCount() ) );
-        pagerNode.addChild( new SimpleNode( "total", pager.getTotal() ) );
+
+        if ( pager.isTotalCounted() )
+        {
+            pagerNode.addChild( new SimpleNode( "pageCount", pager.getPageCount() ) );
+            pagerNode.addChild( new SimpleNode( "total", pager.getTotal() ) );
+        }
+
         pagerNode.addChild( new SimpleNode( "pageSize", pager.getPageSize() ) );
         pagerNode.addChild( new SimpleNode( "nextPage", pager.getNextPage() ) );
         pagerNode.addChild( new SimpleNode( "prevPage", pager.getPrevPage() ) );
 
+        if ( pager.getNextPageToken() != null )
+        {
+            pagerNode.addChild( new SimpleNode( "nextPageToken", pager.getNextPageToken() ) );
+        }
+
         return pagerNode;
     }
 
@@ -33,6 +33,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
 import com.vividsolutions.jts.geom.Geometry;
 import org.hisp.dhis.node.AbstractNodeSerializer;
+import org.hisp.dhis.node.Node;
+import org.hisp.dhis.node.StreamingNode;
 import org.hisp.dhis.node.types.CollectionNode;
 import org.hisp.dhis.node.types.ComplexNode;
 import org.hisp.dhis.node.types.RootNode;
@@ -44,6 +46,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.OutputStream;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -61,6 +64,8 @@ public class Jackson2JsonNodeSerializer extends AbstractNodeSerializer
 
     private JsonGenerator generator = null;
 
+    private boolean streaming = false;
+
     public Jackson2JsonNodeSerializer( ObjectMapper jsonMapper )
     {
         this.jsonMapper = jsonMapper;
@@ -75,7 +80,10 @@ public class Jackson2JsonNodeSerializer extends AbstractNodeSerializer
     @Override
     protected void flushStream() throws Exception
     {
-        generator.flush();
+        if ( !streaming )
+        {
+            generator.flush();
+        }
     }
 
     @Override
@@ -161,6 +169,42 @@ public class Jackson2JsonNodeSerializer extends AbstractNodeSerializer
         generator.writeEndObject();
     }
 
+    /**
+     * Writes the children of streaming collection nodes while they are built.
+     * The stream is not flushed while the children are written, so that the
+     * output is only sent when the generator buffer is full and a failure to
+     * build a child is less likely to follow a committed response.
+     */
+    @Override
+    protected void writeCollectionNode( CollectionNode collectionNode ) throws Exception
+    {
+        if ( collectionNode instanceof StreamingNode && ((StreamingNode) collectionNode).isStreamable( config ) )
+        {
+            startWriteCollectionNode( collectionNode );
+
+            Iterator<Node> children = ((StreamingNode) collectionNode).getStreamingChildren();
+            boolean nested = streaming;
+            streaming = true;
+
+            try
+            {
+                while ( children.hasNext() )
+                {
+                    dispatcher( children.next() );
+                }
+            }
+            finally
+            {
+                streaming = nested;
+            }
+
+            endWriteCollectionNode( collectionNode );
+            return;
+        }
+
+        super.writeCollectionNode( collectionNode );
+    }
+
     @Override
     protected void startWriteCollectionNode( CollectionNode collectionNode ) throws Exception
     {
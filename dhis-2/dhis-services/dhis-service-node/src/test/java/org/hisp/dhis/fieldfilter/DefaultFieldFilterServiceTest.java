@@ -28,37 +28,54 @@ package org.hisp.dhis.fieldfilter;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Matchers;
 import org.hibernate.SessionFactory;
+import org.hisp.dhis.attribute.Attribute;
 import org.hisp.dhis.attribute.AttributeService;
+import org.hisp.dhis.attribute.AttributeValue;
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryOption;
+import org.hisp.dhis.common.DataDimensionType;
+import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.node.Node;
 import org.hisp.dhis.node.NodeTransformer;
+import org.hisp.dhis.node.NodeUtils;
+import org.hisp.dhis.node.StreamingNode;
+import org.hisp.dhis.node.config.InclusionStrategy;
+import org.hisp.dhis.node.serializers.Jackson2JsonNodeSerializer;
 import org.hisp.dhis.node.transformers.PluckNodeTransformer;
 import org.hisp.dhis.node.types.CollectionNode;
 import org.hisp.dhis.node.types.ComplexNode;
+import org.hisp.dhis.node.types.RootNode;
 import org.hisp.dhis.node.types.SimpleNode;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.schema.DefaultSchemaService;
 import org.hisp.dhis.schema.Jackson2PropertyIntrospectorService;
 import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.security.acl.Access;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -309,6 +326,255 @@ public class DefaultFieldFilterServiceTest
         assertThat( ouNames, Matchers.containsInAnyOrder( "Test 1", "Test 2" ) );
     }
 
+    @Test
+    public void streamingCollectionMatchesNodeTree() throws Exception
+    {
+        final OrganisationUnit ou1 = new OrganisationUnit();
+        ou1.setUid( "abc1" );
+        ou1.setName( "Test 1" );
+
+        final OrganisationUnit ou2 = new OrganisationUnit();
+        ou2.setUid( "abc2" );
+        ou2.setName( "Test 2" );
+
+        final CategoryOption option = new CategoryOption();
+        option.setUid( "def1" );
+        option.setName( "Option 1" );
+        option.getOrganisationUnits().add( ou1 );
+        option.getOrganisationUnits().add( ou2 );
+
+        final List<String> fields = Arrays.asList( "id", "name", "organisationUnits[id,name]", "categories" );
+
+        final String tree = serialize( service.toCollectionNode( CategoryOption.class,
+            new FieldFilterParams( Collections.singletonList( option ), fields ) ) );
+        final String streamed = serialize( service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( Collections.singletonList( option ), fields ) ) );
+
+        Assert.assertEquals( tree, streamed );
+        Assert.assertTrue( streamed.contains( "\"organisationUnits\":[{" ) );
+    }
+
+    @Test
+    public void streamingCollectionWithTransformer() throws Exception
+    {
+        final List<CategoryOption> options = Collections.singletonList( createCategoryOption( "def1" ) );
+
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "id", "organisationUnits~pluck(name)" ),
+            InclusionStrategy.Include.NON_NULL );
+    }
+
+    @Test
+    public void streamingCollectionWithNonEmptyInclusion()
+    {
+        final RootNode rootNode = NodeUtils.createMetadata();
+        rootNode.getConfig().setInclusionStrategy( InclusionStrategy.Include.NON_EMPTY );
+
+        final StreamingNode node = (StreamingNode) service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( Collections.singletonList( new CategoryOption() ), Collections.singletonList( "id" ) ) );
+
+        Assert.assertFalse( node.isStreamable( rootNode.getConfig() ) );
+
+        rootNode.getConfig().setInclusionStrategy( InclusionStrategy.Include.NON_NULL );
+
+        Assert.assertTrue( node.isStreamable( rootNode.getConfig() ) );
+    }
+
+    @Test
+    public void streamingCollectionFailureLeavesOutputIncomplete()
+    {
+        Mockito.when( aclService.getAccess( Mockito.any(), Mockito.any() ) ).thenThrow( new IllegalStateException() );
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final RootNode rootNode = NodeUtils.createMetadata( service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( Collections.singletonList( createCategoryOption( "def1" ) ), Arrays.asList( "id", "access" ) ) ) );
+
+        try
+        {
+            new Jackson2JsonNodeSerializer( new ObjectMapper() ).serialize( rootNode, outputStream );
+            Assert.fail( "Expected serialization to fail" );
+        }
+        catch ( Exception ex )
+        {
+            Assert.assertFalse( new String( outputStream.toByteArray(), StandardCharsets.UTF_8 ).endsWith( "]}" ) );
+        }
+    }
+
+    @Test
+    public void streamingCollectionWithPresets() throws Exception
+    {
+        final List<CategoryOption> options = Arrays.asList( createCategoryOption( "def1" ), createCategoryOption( "def2" ) );
+
+        assertStreamingMatchesNodeTree( options, Collections.singletonList( "*" ), InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, Collections.singletonList( ":owner" ), InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, Collections.singletonList( ":all" ), InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, Arrays.asList( ":identifiable", "!code" ), InclusionStrategy.Include.NON_NULL );
+    }
+
+    @Test
+    public void streamingCollectionWithNestedFields() throws Exception
+    {
+        final List<CategoryOption> options = Collections.singletonList( createCategoryOption( "def1" ) );
+
+        assertStreamingMatchesNodeTree( options,
+            Arrays.asList( "id", "organisationUnits[id,name,parent[id,name,parent]]" ), InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options,
+            Arrays.asList( "id", "organisationUnits[*]" ), InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options,
+            Arrays.asList( "id", "organisationUnits[:all,!children]" ), InclusionStrategy.Include.NON_NULL );
+    }
+
+    @Test
+    public void streamingCollectionWithAccessAndAttributes() throws Exception
+    {
+        final Attribute attribute = new Attribute( "Attribute", ValueType.TEXT );
+        attribute.setUid( "attr1" );
+
+        Mockito.when( aclService.getAccess( Mockito.any(), Mockito.any() ) ).thenReturn( new Access( true ) );
+        Mockito.when( attributeService.getAttribute( "attr1" ) ).thenReturn( attribute );
+
+        final Attribute attributeReference = new Attribute();
+        attributeReference.setUid( "attr1" );
+
+        final CategoryOption option = createCategoryOption( "def1" );
+        option.getAttributeValues().add( new AttributeValue( "Value", attributeReference ) );
+
+        final List<CategoryOption> options = Collections.singletonList( option );
+
+        assertStreamingMatchesNodeTree( options,
+            Arrays.asList( "id", "access", "attributeValues[value,attribute[id,name,valueType]]" ),
+            InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options,
+            Arrays.asList( "id", "access", "attributeValues" ), InclusionStrategy.Include.NON_NULL );
+
+        final String streamed = serialize( service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( options, Arrays.asList( "access", "attributeValues[attribute[name]]" ) ) ),
+            InclusionStrategy.Include.NON_NULL );
+
+        Assert.assertTrue( streamed.contains( "\"manage\":true" ) );
+        Assert.assertTrue( streamed.contains( "\"name\":\"Attribute\"" ) );
+    }
+
+    @Test
+    public void streamingCollectionWithPropertyTransformer() throws Exception
+    {
+        final UserCredentials userCredentials = new UserCredentials();
+        userCredentials.setUsername( "admin" );
+
+        final User user = new User();
+        user.setUid( "usr1" );
+        user.setCode( "USR1" );
+        user.setUserCredentials( userCredentials );
+
+        final CategoryOption option = createCategoryOption( "def1" );
+        option.setUser( user );
+        option.setLastUpdatedBy( user );
+
+        final List<CategoryOption> options = Collections.singletonList( option );
+
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "id", "user", "lastUpdatedBy" ),
+            InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "id", "user[id,username]", "lastUpdatedBy[*]" ),
+            InclusionStrategy.Include.NON_NULL );
+    }
+
+    @Test
+    public void streamingCollectionWithInclusionStrategy() throws Exception
+    {
+        final CategoryOption option = createCategoryOption( "def1" );
+        option.setCode( null );
+        option.setShortName( null );
+
+        final List<CategoryOption> options = Collections.singletonList( option );
+        final List<String> fields = Arrays.asList( "id", "code", "shortName", "name", "organisationUnits[id,code]" );
+
+        assertStreamingMatchesNodeTree( options, fields, InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, fields, InclusionStrategy.Include.ALWAYS );
+
+        final String streamed = serialize( service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( options, fields ) ), InclusionStrategy.Include.NON_NULL );
+
+        Assert.assertFalse( streamed.contains( "\"code\"" ) );
+    }
+
+    @Test
+    public void streamingCollectionWithIdentifiableCollections() throws Exception
+    {
+        final Category category = new Category( "Category", DataDimensionType.DISAGGREGATION );
+        category.setUid( "cat1" );
+
+        final CategoryOption option = createCategoryOption( "def1" );
+        option.getCategories().add( category );
+
+        final List<CategoryOption> options = Arrays.asList( option, createCategoryOption( "def2" ) );
+
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "id", "organisationUnits", "categories" ),
+            InclusionStrategy.Include.NON_NULL );
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "id", "organisationUnits", "categories" ),
+            InclusionStrategy.Include.ALWAYS );
+        assertStreamingMatchesNodeTree( options, Arrays.asList( "organisationUnits[id]", "categories[id,name]" ),
+            InclusionStrategy.Include.NON_NULL );
+    }
+
+    /**
+     * Asserts that the objects are written directly to JSON with the given
+     * fields and that the JSON equals the JSON of the node tree.
+     */
+    private void assertStreamingMatchesNodeTree( List<?> objects, List<String> fields, InclusionStrategy inclusionStrategy )
+        throws Exception
+    {
+        final String tree = serialize( service.toCollectionNode( CategoryOption.class,
+            new FieldFilterParams( objects, fields ) ), inclusionStrategy );
+        final String streamed = serialize( service.toStreamingCollectionNode( CategoryOption.class,
+            new FieldFilterParams( objects, fields ) ), inclusionStrategy );
+
+        Assert.assertEquals( tree, streamed );
+    }
+
+    private CategoryOption createCategoryOption( String uid )
+    {
+        final OrganisationUnit parent = new OrganisationUnit();
+        parent.setUid( uid + "p" );
+        parent.setName( "Parent " + uid );
+
+        final OrganisationUnit ou1 = new OrganisationUnit();
+        ou1.setUid( uid + "o1" );
+        ou1.setName( "Test 1" );
+        ou1.setCode( "T1" );
+        ou1.setParent( parent );
+
+        final OrganisationUnit ou2 = new OrganisationUnit();
+        ou2.setUid( uid + "o2" );
+        ou2.setName( "Test 2" );
+        ou2.setParent( parent );
+
+        final CategoryOption option = new CategoryOption();
+        option.setUid( uid );
+        option.setCode( "CODE_" + uid );
+        option.setName( "Option " + uid );
+        option.setShortName( "Short " + uid );
+        option.setCreated( new Date( 1577836800000L ) );
+        option.getOrganisationUnits().add( ou1 );
+        option.getOrganisationUnits().add( ou2 );
+
+        return option;
+    }
+
+    private String serialize( CollectionNode collectionNode ) throws Exception
+    {
+        return serialize( collectionNode, InclusionStrategy.Include.NON_NULL );
+    }
+
+    private String serialize( CollectionNode collectionNode, InclusionStrategy inclusionStrategy ) throws Exception
+    {
+        final RootNode rootNode = NodeUtils.createMetadata( collectionNode );
+        rootNode.getConfig().setInclusionStrategy( inclusionStrategy );
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Jackson2JsonNodeSerializer( new ObjectMapper() ).serialize( rootNode, outputStream );
+
+        return outputStream.toString( StandardCharsets.UTF_8.name() );
+    }
+
     private Node getNamedNode( @Nonnull Collection<? extends Node> nodes, @Nonnull String name )
     {
         return nodes.stream().filter( n -> name.equals( n.getName() ) ).findFirst().orElse( null );
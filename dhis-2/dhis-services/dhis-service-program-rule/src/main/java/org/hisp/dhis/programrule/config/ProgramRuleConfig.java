@@ -58,6 +58,9 @@ public class ProgramRuleConfig
     @Autowired
     private ConstantService constantService;
 
+    @Autowired
+    private RuleEngineContextCache ruleEngineContextCache;
+
     /**
      * This bean is used in the system when an event is intercepted by
      * {@link ProgramRuleEngineListener}. Only the notification rule actions are
@@ -68,7 +71,7 @@ public class ProgramRuleConfig
     {
         return new ProgramRuleEngine( programRuleEntityMapperService, programRuleVariableService,
             organisationUnitGroupService, currentUserService, constantService,
-            oldImplementableRuleService );
+            oldImplementableRuleService, ruleEngineContextCache );
     }
 
     /**
@@ -80,6 +83,6 @@ public class ProgramRuleConfig
     {
         return new ProgramRuleEngine( programRuleEntityMapperService, programRuleVariableService,
             organisationUnitGroupService, currentUserService, constantService,
-            newImplementableRuleService );
+            newImplementableRuleService, ruleEngineContextCache );
     }
 }
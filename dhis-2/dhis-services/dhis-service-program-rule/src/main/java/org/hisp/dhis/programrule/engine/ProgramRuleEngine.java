@@ -31,6 +31,7 @@ package org.hisp.dhis.programrule.engine;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -78,12 +79,15 @@ public class ProgramRuleEngine
 
     private final ImplementableRuleService implementableRuleService;
 
+    private final RuleEngineContextCache ruleEngineContextCache;
+
     public ProgramRuleEngine( ProgramRuleEntityMapperService programRuleEntityMapperService,
         ProgramRuleVariableService programRuleVariableService,
         OrganisationUnitGroupService organisationUnitGroupService,
         CurrentUserService currentUserService,
         ConstantService constantService,
-        ImplementableRuleService implementableRuleService )
+        ImplementableRuleService implementableRuleService,
+        RuleEngineContextCache ruleEngineContextCache )
     {
         checkNotNull( programRuleEntityMapperService );
         checkNotNull( programRuleVariableService );
@@ -91,6 +95,7 @@ public class ProgramRuleEngine
         checkNotNull( currentUserService );
         checkNotNull( constantService );
         checkNotNull( implementableRuleService );
+        checkNotNull( ruleEngineContextCache );
 
         this.programRuleEntityMapperService = programRuleEntityMapperService;
         this.programRuleVariableService = programRuleVariableService;
@@ -98,6 +103,7 @@ public class ProgramRuleEngine
         this.currentUserService = currentUserService;
         this.constantService = constantService;
         this.implementableRuleService = implementableRuleService;
+        this.ruleEngineContextCache = ruleEngineContextCache;
     }
 
     public List<RuleEffect> evaluate( ProgramInstance enrollment, Set<ProgramStageInstance> events )
@@ -174,7 +180,33 @@ public class ProgramRuleEngine
         return ruleEngine.evaluate( condition );
     }
 
+    /**
+     * Returns a {@link RuleEngineContext} for the given program. The parts which
+     * are shared between users are cached per rule engine and program, while the
+     * user specific supplementary data is added for each evaluation.
+     *
+     * @param program the {@link Program}.
+     * @return a {@link RuleEngineContext}.
+     */
     private RuleEngineContext getRuleEngineContext( Program program )
+    {
+        String key = implementableRuleService.getClass().getSimpleName() + "-" + program.getUid();
+
+        SharedRuleEngineContext sharedContext = ruleEngineContextCache.get( key,
+            () -> getSharedRuleEngineContext( program ) );
+
+        Map<String, List<String>> userData = new HashMap<>();
+
+        if ( currentUserService.getCurrentUser() != null )
+        {
+            userData.put( USER, currentUserService.getCurrentUser().getUserCredentials()
+                .getUserAuthorityGroups().stream().map( UserAuthorityGroup::getUid ).collect( Collectors.toList() ) );
+        }
+
+        return sharedContext.toRuleEngineContext( userData );
+    }
+
+    private SharedRuleEngineContext getSharedRuleEngineContext( Program program )
     {
         List<ProgramRuleVariable> programRuleVariables = programRuleVariableService
             .getProgramRuleVariable( program );
@@ -190,18 +222,10 @@ public class ProgramRuleEngine
             .collect( Collectors.toMap( BaseIdentifiableObject::getUid,
                 g -> g.getMembers().stream().map( OrganisationUnit::getUid ).collect( Collectors.toList() ) ) );
 
-        if ( currentUserService.getCurrentUser() != null )
-        {
-            supplementaryData.put( USER, currentUserService.getCurrentUser().getUserCredentials()
-                .getUserAuthorityGroups().stream().map( UserAuthorityGroup::getUid ).collect( Collectors.toList() ) );
-        }
-
-        return RuleEngineContext.builder()
-            .supplementaryData( supplementaryData )
-            .rules( programRuleEntityMapperService.toMappedProgramRules( programRules ) )
-            .ruleVariables( programRuleEntityMapperService.toMappedProgramRuleVariables( programRuleVariables ) )
-            .constantsValue( constantMap )
-            .build();
+        return new SharedRuleEngineContext(
+            programRuleEntityMapperService.toMappedProgramRules( programRules ),
+            programRuleEntityMapperService.toMappedProgramRuleVariables( programRuleVariables ),
+            constantMap, supplementaryData );
     }
 
     private RuleEngine.Builder ruleEngineBuilder( List<ProgramRule> programRules,
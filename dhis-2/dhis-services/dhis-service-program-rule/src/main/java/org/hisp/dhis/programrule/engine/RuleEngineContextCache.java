@@ -0,0 +1,224 @@
+package org.hisp.dhis.programrule.engine;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.constant.Constant;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.programrule.ProgramRule;
+import org.hisp.dhis.programrule.ProgramRuleAction;
+import org.hisp.dhis.programrule.ProgramRuleVariable;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Cache of {@link SharedRuleEngineContext} per program rule engine and program.
+ * All entries are invalidated when program rules, program rule actions,
+ * program rule variables, constants or organisation unit groups, including
+ * group membership, are changed through Hibernate. Entries also expire after
+ * a fixed time, which bounds staleness for changes made outside of Hibernate
+ * or on other instances.
+ */
+@Slf4j
+@Component( "org.hisp.dhis.programrule.engine.RuleEngineContextCache" )
+public class RuleEngineContextCache
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener,
+    PostCollectionUpdateEventListener, PostCollectionRecreateEventListener, PostCollectionRemoveEventListener
+{
+    private static final Set<Class<?>> CONTEXT_CLASSES = ImmutableSet.of( ProgramRule.class,
+        ProgramRuleAction.class, ProgramRuleVariable.class, Constant.class, OrganisationUnitGroup.class );
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    private final CacheProvider cacheProvider;
+
+    private final Environment env;
+
+    private Cache<SharedRuleEngineContext> contextCache;
+
+    public RuleEngineContextCache( CacheProvider cacheProvider, Environment env )
+    {
+        checkNotNull( cacheProvider );
+        checkNotNull( env );
+
+        this.cacheProvider = cacheProvider;
+        this.env = env;
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        contextCache = cacheProvider.newCacheBuilder( SharedRuleEngineContext.class )
+            .forRegion( "ruleEngineContext" ).expireAfterWrite( 1, TimeUnit.HOURS ).withInitialCapacity( 100 )
+            .forceInMemory().withMaximumSize( SystemUtils.isTestRun( env.getActiveProfiles() ) ? 0 : 1000 ).build();
+
+        EventListenerRegistry registry = emf.unwrap( SessionFactoryImpl.class )
+            .getServiceRegistry().getService( EventListenerRegistry.class );
+
+        registry.getEventListenerGroup( EventType.POST_COMMIT_INSERT ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COMMIT_UPDATE ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COMMIT_DELETE ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COLLECTION_UPDATE ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COLLECTION_RECREATE ).appendListener( this );
+        registry.getEventListenerGroup( EventType.POST_COLLECTION_REMOVE ).appendListener( this );
+    }
+
+    /**
+     * Returns the shared context for the given key. If not present, the context
+     * is created with the given supplier and cached.
+     *
+     * @param key the key, unique for the rule engine and program.
+     * @param supplier the supplier of the shared context.
+     * @return the {@link SharedRuleEngineContext}.
+     */
+    public SharedRuleEngineContext get( String key, Supplier<SharedRuleEngineContext> supplier )
+    {
+        return contextCache.get( key, k -> supplier.get() ).orElseGet( supplier );
+    }
+
+    /**
+     * Invalidates all cached contexts.
+     */
+    public void invalidateAll()
+    {
+        contextCache.invalidateAll();
+
+        log.debug( "Rule engine context cache cleared" );
+    }
+
+    @EventListener
+    public void handleApplicationCachesCleared( ApplicationCacheClearedEvent event )
+    {
+        invalidateAll();
+    }
+
+    // -------------------------------------------------------------------------
+    // Hibernate event listeners
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void onPostInsert( PostInsertEvent event )
+    {
+        invalidate( event.getEntity() );
+    }
+
+    @Override
+    public void onPostInsertCommitFailed( PostInsertEvent event )
+    {
+    }
+
+    @Override
+    public void onPostUpdate( PostUpdateEvent event )
+    {
+        invalidate( event.getEntity() );
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed( PostUpdateEvent event )
+    {
+    }
+
+    @Override
+    public void onPostDelete( PostDeleteEvent event )
+    {
+        invalidate( event.getEntity() );
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed( PostDeleteEvent event )
+    {
+    }
+
+    @Override
+    public void onPostUpdateCollection( PostCollectionUpdateEvent event )
+    {
+        invalidate( event.getAffectedOwnerOrNull() );
+    }
+
+    @Override
+    public void onPostRecreateCollection( PostCollectionRecreateEvent event )
+    {
+        invalidate( event.getAffectedOwnerOrNull() );
+    }
+
+    @Override
+    public void onPostRemoveCollection( PostCollectionRemoveEvent event )
+    {
+        invalidate( event.getAffectedOwnerOrNull() );
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding( EntityPersister persister )
+    {
+        return CONTEXT_CLASSES.contains( persister.getMappedClass() );
+    }
+
+    private void invalidate( Object entity )
+    {
+        if ( entity != null && CONTEXT_CLASSES.stream().anyMatch( c -> c.isInstance( entity ) ) )
+        {
+            invalidateAll();
+        }
+    }
+}
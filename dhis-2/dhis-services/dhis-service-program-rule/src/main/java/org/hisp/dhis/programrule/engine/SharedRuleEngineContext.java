@@ -0,0 +1,112 @@
+package org.hisp.dhis.programrule.engine;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.rules.RuleEngineContext;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleVariable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The parts of a {@link RuleEngineContext} which are shared between all
+ * evaluations of the rules of a program, i.e. the mapped program rules and
+ * variables, constants and organisation unit group members. Instances are
+ * immutable and do not hold any user specific data, so that they can be
+ * cached and reused across users and threads.
+ */
+public final class SharedRuleEngineContext
+{
+    private final List<Rule> rules;
+
+    private final List<RuleVariable> ruleVariables;
+
+    private final Map<String, String> constantsValue;
+
+    private final Map<String, List<String>> supplementaryData;
+
+    public SharedRuleEngineContext( List<Rule> rules, List<RuleVariable> ruleVariables,
+        Map<String, String> constantsValue, Map<String, List<String>> supplementaryData )
+    {
+        this.rules = ImmutableList.copyOf( rules );
+        this.ruleVariables = ImmutableList.copyOf( ruleVariables );
+        this.constantsValue = ImmutableMap.copyOf( constantsValue );
+        this.supplementaryData = ImmutableMap.copyOf( supplementaryData );
+    }
+
+    /**
+     * Creates a {@link RuleEngineContext} from this shared context with the
+     * given user specific supplementary data added.
+     *
+     * @param userData the user specific supplementary data.
+     * @return a {@link RuleEngineContext}.
+     */
+    public RuleEngineContext toRuleEngineContext( Map<String, List<String>> userData )
+    {
+        Map<String, List<String>> data = supplementaryData;
+
+        if ( !userData.isEmpty() )
+        {
+            data = new HashMap<>( supplementaryData );
+            data.putAll( userData );
+        }
+
+        return RuleEngineContext.builder()
+            .supplementaryData( data )
+            .rules( rules )
+            .ruleVariables( ruleVariables )
+            .constantsValue( constantsValue )
+            .build();
+    }
+
+    public List<Rule> getRules()
+    {
+        return rules;
+    }
+
+    public List<RuleVariable> getRuleVariables()
+    {
+        return ruleVariables;
+    }
+
+    public Map<String, String> getConstantsValue()
+    {
+        return constantsValue;
+    }
+
+    public Map<String, List<String>> getSupplementaryData()
+    {
+        return supplementaryData;
+    }
+}
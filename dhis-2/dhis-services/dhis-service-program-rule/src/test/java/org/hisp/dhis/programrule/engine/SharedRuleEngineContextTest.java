@@ -0,0 +1,71 @@
+package org.hisp.dhis.programrule.engine;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleVariable;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class SharedRuleEngineContextTest
+{
+    @Test
+    public void testUserDataNotShared()
+    {
+        Map<String, List<String>> groups = ImmutableMap.of( "groupA", Lists.newArrayList( "ouA", "ouB" ) );
+
+        SharedRuleEngineContext sharedContext = new SharedRuleEngineContext( Lists.<Rule> newArrayList(),
+            Lists.<RuleVariable> newArrayList(), ImmutableMap.of( "constantA", "1.0" ), groups );
+
+        assertNotNull( sharedContext.toRuleEngineContext( ImmutableMap.of( "USER", Lists.newArrayList( "roleA" ) ) ) );
+
+        assertEquals( 1, sharedContext.getSupplementaryData().size() );
+        assertFalse( sharedContext.getSupplementaryData().containsKey( "USER" ) );
+    }
+
+    @Test
+    public void testImmutable()
+    {
+        SharedRuleEngineContext sharedContext = new SharedRuleEngineContext( Lists.<Rule> newArrayList(),
+            Lists.<RuleVariable> newArrayList(), ImmutableMap.of(), ImmutableMap.of() );
+
+        assertThrows( UnsupportedOperationException.class,
+            () -> sharedContext.getSupplementaryData().put( "USER", Lists.newArrayList() ) );
+    }
+}
@@ -39,6 +39,13 @@ import static org.hisp.dhis.system.notification.NotificationLevel.ERROR;
 import static org.hisp.dhis.system.util.ValidationUtils.dataValueIsZeroAndInsignificant;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -50,6 +57,7 @@ import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.*;
 import org.hisp.dhis.commons.collection.CachingMap;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.constant.Constant;
 import org.hisp.dhis.constant.ConstantService;
 import org.hisp.dhis.dataelement.DataElement;
@@ -84,6 +92,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -170,6 +179,14 @@ public class DefaultPredictionService
         this.currentUserService = currentUserService;
     }
 
+    /**
+     * Used only for testing.
+     */
+    public void setOrgUnitsPerShard( int orgUnitsPerShard )
+    {
+        this.orgUnitsPerShard = orgUnitsPerShard;
+    }
+
     // -------------------------------------------------------------------------
     // Prediction business logic
     // -------------------------------------------------------------------------
@@ -181,6 +198,35 @@ public class DefaultPredictionService
      */
     private final static String NON_AOC = "x";
 
+    /**
+     * Default number of organisation units for which data is fetched and
+     * predictions are evaluated together. This bounds the memory used by each
+     * shard.
+     */
+    final static int ORG_UNITS_PER_SHARD = 500;
+
+    private int orgUnitsPerShard = ORG_UNITS_PER_SHARD;
+
+    /**
+     * Number of threads evaluating predictions, leaving one core for fetching
+     * data and writing predictions when more than two cores are present.
+     */
+    private final int evaluationThreads = getEvaluationThreads();
+
+    /**
+     * Bounded pool, shared by all predictions, on which predictions are
+     * evaluated. Only pure expression evaluation runs on this pool, data is
+     * fetched and written on the calling thread.
+     */
+    private final ExecutorService evaluationExecutor = Executors.newFixedThreadPool( evaluationThreads,
+        new ThreadFactoryBuilder().setNameFormat( "prediction-%d" ).setDaemon( true ).build() );
+
+    @PreDestroy
+    public void shutdown()
+    {
+        evaluationExecutor.shutdown();
+    }
+
     @Override
     public PredictionSummary predictJob( PredictorJobParameters params, JobConfiguration jobId )
     {
@@ -279,12 +325,12 @@ public class DefaultPredictionService
             expressionService.getExpressionDimensionalItemObjects( skipTest.getExpression(), PREDICTOR_SKIP_TEST, sampleItems, new HashSet<>() );
         }
         Map<String, Constant> constantMap = constantService.getConstantMap();
-        List<Period> outputPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
-        Set<Period> existingOutputPeriods = getExistingPeriods( outputPeriods );
-        ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( outputPeriods, predictor );
+        List<Period> predictionPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
+        Set<Period> existingOutputPeriods = getExistingPeriods( predictionPeriods );
+        ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( predictionPeriods, predictor );
         Set<Period> allSamplePeriods = samplePeriodsMap.uniqueValues();
         Set<Period> existingSamplePeriods = getExistingPeriods( new ArrayList<>( allSamplePeriods ) );
-        outputPeriods = periodService.reloadPeriods( outputPeriods );
+        List<Period> outputPeriods = periodService.reloadPeriods( predictionPeriods );
         Set<Period> outputPeriodSet = new HashSet<>( outputPeriods );
         CategoryOptionCombo defaultCategoryOptionCombo = categoryService.getDefaultCategoryOptionCombo();
         Set<String> defaultOptionComboAsSet = Sets.newHashSet( defaultCategoryOptionCombo.getUid() );
@@ -294,15 +340,9 @@ public class DefaultPredictionService
         boolean requireData = generator.getMissingValueStrategy() != NEVER_SKIP && ( !items.isEmpty() || !sampleItems.isEmpty() );
         DimensionalItemObject predictionReference = getPredictionReference( outputDataElement, outputOptionCombo, sampleItems );
 
-        Set<OrganisationUnit> currentUserOrgUnits = new HashSet<>();
-        String storedBy = "system-process";
         User currentUser = currentUserService.getCurrentUser();
-
-        if ( currentUser != null )
-        {
-            currentUserOrgUnits = currentUser.getOrganisationUnits();
-            storedBy = currentUser.getUsername();
-        }
+        Set<OrganisationUnit> currentUserOrgUnits = currentUser != null ? currentUser.getOrganisationUnits() : new HashSet<>();
+        String storedBy = currentUser != null ? currentUser.getUsername() : "system-process";
 
         predictionSummary.incrementPredictors();
 
@@ -313,19 +353,22 @@ public class DefaultPredictionService
 
         for ( OrganisationUnitLevel orgUnitLevel : predictor.getOrganisationUnitLevels() )
         {
-            List<OrganisationUnit> orgUnitsAtLevel = organisationUnitService.getOrganisationUnitsAtOrgUnitLevels(
-                    Lists.newArrayList( orgUnitLevel ), currentUserOrgUnits );
+            List<OrganisationUnit> orgUnitsAtLevel = new ArrayList<>( organisationUnitService.getOrganisationUnitsAtOrgUnitLevels(
+                    Lists.newArrayList( orgUnitLevel ), currentUserOrgUnits ) );
 
             if ( orgUnitsAtLevel.size() == 0 )
             {
                 continue;
             }
 
-            // For performance, fetch the data from a bunch of orgUnits at once.
+            // Shard the org units by subtree, so that each shard fetches the
+            // data for a contiguous part of the hierarchy. The data of a shard
+            // is fetched and its predictions are written on this thread, only
+            // the evaluation of its org units runs in parallel.
 
-            List<List<OrganisationUnit>> orgUnitLists = Lists.partition( orgUnitsAtLevel, 500 );
+            orgUnitsAtLevel.sort( Comparator.comparing( OrganisationUnit::getPath ) );
 
-            for ( List<OrganisationUnit> orgUnits : orgUnitLists )
+            for ( List<OrganisationUnit> orgUnits : Lists.partition( orgUnitsAtLevel, orgUnitsPerShard ) )
             {
                 Map4<OrganisationUnit, String, Period, DimensionalItemObject, Double> sampleMap4 = sampleItems.isEmpty() ?
                     new Map4<>() : getDataValues( sampleItems, allSamplePeriods, existingSamplePeriods, orgUnits );
@@ -333,8 +376,6 @@ public class DefaultPredictionService
                 Map4<OrganisationUnit, String, Period, DimensionalItemObject, Double> valueMap4 = items.isEmpty() ?
                         new Map4<>() : getDataValues( items, outputPeriodSet, existingOutputPeriods, orgUnits );
 
-                List<DataValue> predictions = new ArrayList<>();
-
                 // For each org unit, find its sample data and its non-sample
                 // data values.
                 //
@@ -342,8 +383,9 @@ public class DefaultPredictionService
                 // option combination, but some analytics data that is not
                 // stored by AOC must be evaluated with every AOC found.
 
-                for ( OrganisationUnit orgUnit : orgUnits )
-                {
+                List<Prediction> predictions = evaluateInParallel( orgUnits, orgUnit -> {
+                    List<Prediction> orgUnitPredictions = new ArrayList<>();
+
                     MapMapMap<String, Period, DimensionalItemObject, Double> sampleMap3 = firstNonNull( sampleMap4.get( orgUnit ), new MapMapMap<>() );
                     MapMapMap<String, Period, DimensionalItemObject, Double> valueMap3 = firstNonNull( valueMap4.get( orgUnit ), new MapMapMap<>() );
 
@@ -390,16 +432,22 @@ public class DefaultPredictionService
                                     Long.toString( Math.round( value ) ) :
                                     Double.toString( MathUtils.roundFraction( value, 4 ) );
 
-                                predictions.add( new DataValue( outputDataElement,
-                                    outputPeriod, orgUnit, outputOptionCombo,
-                                    cocMap.get( aoc, () -> categoryService.getCategoryOptionCombo( aoc ) ),
-                                    valueString, storedBy, now, null ) );
+                                orgUnitPredictions.add( new Prediction( orgUnit, outputPeriod, aoc, valueString ) );
                             }
                         }
                     }
-                }
 
-                writePredictions( predictions, outputDataElement, outputOptionCombo,
+                    return orgUnitPredictions;
+                } );
+
+                List<DataValue> dataValues = predictions.stream()
+                    .map( p -> new DataValue( outputDataElement,
+                        p.period, p.orgUnit, outputOptionCombo,
+                        cocMap.get( p.aoc, () -> categoryService.getCategoryOptionCombo( p.aoc ) ),
+                        p.value, storedBy, now, null ) )
+                    .collect( Collectors.toList() );
+
+                writePredictions( dataValues, outputDataElement, outputOptionCombo,
                     outputPeriodSet, existingOutputPeriods, orgUnits, storedBy, predictionSummary );
             }
         }
@@ -409,6 +457,63 @@ public class DefaultPredictionService
     // Supportive Methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Evaluates the predictions for the given organisation units on the
+     * evaluation pool. The organisation units are split in one part per
+     * evaluation thread. The evaluator must not access the database or the
+     * Hibernate session, as it runs on pool threads.
+     *
+     * @param orgUnits the organisation units.
+     * @param evaluator evaluates the predictions for an organisation unit.
+     * @return the predictions, in the order of the organisation units.
+     */
+    private List<Prediction> evaluateInParallel( List<OrganisationUnit> orgUnits,
+        Function<OrganisationUnit, List<Prediction>> evaluator )
+    {
+        int partSize = ( orgUnits.size() + evaluationThreads - 1 ) / evaluationThreads;
+
+        List<CompletableFuture<List<Prediction>>> futures = Lists.partition( orgUnits, Math.max( 1, partSize ) ).stream()
+            .map( part -> CompletableFuture.supplyAsync( () -> part.stream()
+                .flatMap( orgUnit -> evaluator.apply( orgUnit ).stream() )
+                .collect( Collectors.toList() ), evaluationExecutor ) )
+            .collect( Collectors.toList() );
+
+        List<Prediction> predictions = new ArrayList<>();
+
+        try
+        {
+            for ( CompletableFuture<List<Prediction>> future : futures )
+            {
+                predictions.addAll( future.join() );
+            }
+        }
+        catch ( CompletionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new RuntimeException( "Prediction failed", ex.getCause() );
+        }
+
+        return predictions;
+    }
+
+    /**
+     * Determines how many threads to use for evaluating predictions, leaving
+     * one core for fetching data and writing predictions when more than two
+     * cores are present.
+     *
+     * @return the number of threads to use.
+     */
+    private static int getEvaluationThreads()
+    {
+        int threads = SystemUtils.getCpuCores();
+
+        return threads > 2 ? threads - 1 : threads;
+    }
+
     /**
      * For a predictor and orgUnit, determines the set of attribute option
      * combos for which predictions will be generated.
@@ -990,4 +1095,27 @@ public class DefaultPredictionService
 
         dataValueBatchHandler.flush();
     }
+
+    /**
+     * A predicted value for an organisation unit, period and attribute option
+     * combo UID, evaluated for a shard of organisation units.
+     */
+    private static class Prediction
+    {
+        private final OrganisationUnit orgUnit;
+
+        private final Period period;
+
+        private final String aoc;
+
+        private final String value;
+
+        Prediction( OrganisationUnit orgUnit, Period period, String aoc, String value )
+        {
+            this.orgUnit = orgUnit;
+            this.period = period;
+            this.aoc = aoc;
+            this.value = value;
+        }
+    }
 }
@@ -64,13 +64,16 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.collect.Sets.newHashSet;
 import static org.hisp.dhis.expression.ExpressionService.SYMBOL_DAYS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Lars Helge Overland
@@ -277,6 +280,7 @@ public class PredictionServiceTest
     public void tearDownTest()
     {
         setDependency( predictionService, "currentUserService", currentUserService, CurrentUserService.class );
+        setDependency( predictionService, "orgUnitsPerShard", DefaultPredictionService.ORG_UNITS_PER_SHARD, int.class );
     }
 
     // -------------------------------------------------------------------------
@@ -338,6 +342,29 @@ public class PredictionServiceTest
         return null;
     }
 
+    private Map<String, String> getPredictions( List<OrganisationUnit> orgUnits, int year, int startMonth, int endMonth )
+    {
+        Map<String, String> predictions = new HashMap<>();
+
+        for ( OrganisationUnit orgUnit : orgUnits )
+        {
+            for ( int month = startMonth; month <= endMonth; month++ )
+            {
+                for ( CategoryOptionCombo aoc : Lists.newArrayList( defaultCombo, altCombo ) )
+                {
+                    String value = getDataValue( dataElementX, defaultCombo, aoc, orgUnit, makeMonth( year, month ) );
+
+                    if ( value != null )
+                    {
+                        predictions.put( orgUnit.getUid() + "-" + year + month + "-" + aoc.getUid(), value );
+                    }
+                }
+            }
+        }
+
+        return predictions;
+    }
+
     private String shortSummary( PredictionSummary summary )
     {
         return "Pred " + summary.getPredictors()
@@ -648,6 +675,33 @@ public class PredictionServiceTest
         assertEquals( "Pred 1 Ins 0 Upd 0 Del 0 Unch 8", shortSummary( summary ) );
     }
 
+    @Test
+    public void testPredictShardedMatchesUnsharded()
+    {
+        setupTestData();
+
+        List<OrganisationUnit> orgUnits = Lists.newArrayList( sourceA, sourceB, sourceC, sourceD, sourceE, sourceF, sourceG );
+        Set<OrganisationUnitLevel> orgUnitLevels = Sets.newHashSet( orgUnitLevel1, orgUnitLevel2, orgUnitLevel3 );
+
+        Predictor p = createPredictor( dataElementX, defaultCombo, "PredictSharded",
+            expressionA, null, periodTypeMonthly, orgUnitLevels, 3, 1, 0 );
+
+        predictionService.predict( p, monthStart( 2001, 7 ), monthStart( 2001, 12 ), summary );
+
+        Map<String, String> unshardedPredictions = getPredictions( orgUnits, 2001, 7, 11 );
+
+        assertTrue( summary.getInserted() > 0 );
+
+        setDependency( predictionService, "orgUnitsPerShard", 1, int.class );
+
+        PredictionSummary shardedSummary = new PredictionSummary();
+
+        predictionService.predict( p, monthStart( 2001, 7 ), monthStart( 2001, 12 ), shardedSummary );
+
+        assertEquals( "Pred 1 Ins 0 Upd 0 Del 0 Unch " + summary.getInserted(), shortSummary( shardedSummary ) );
+        assertEquals( unshardedPredictions, getPredictions( orgUnits, 2001, 7, 11 ) );
+    }
+
     @Test
     public void testPredictConstant()
     {
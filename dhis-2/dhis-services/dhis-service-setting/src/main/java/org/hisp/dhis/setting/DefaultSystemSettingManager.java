@@ -114,6 +114,7 @@ public class DefaultSystemSettingManager
         settingCache = cacheProvider.newCacheBuilder( SerializableOptional.class )
             .forRegion( "systemSetting" )
             .expireAfterWrite( 12, TimeUnit.HOURS )
+            .withNearCache()
             .withMaximumSize( SystemUtils.isTestRun( environment.getActiveProfiles() ) ? 0 : 400 ).build();
     }
 
@@ -101,6 +101,13 @@ public class TrackerImportParams
     @Builder.Default
     private FlushMode flushMode = FlushMode.AUTO;
 
+    /**
+     * Persist every object through the session or write objects in batches.
+     */
+    @JsonProperty
+    @Builder.Default
+    private PersistMode persistMode = PersistMode.OBJECT;
+
     /**
      * Validation mode to use, defaults to fully validated objects.
      */
@@ -106,6 +106,12 @@ public class TrackerBundle
     @Builder.Default
     private FlushMode flushMode = FlushMode.AUTO;
 
+    /**
+     * Persist every object through the session or write objects in batches.
+     */
+    @Builder.Default
+    private PersistMode persistMode = PersistMode.OBJECT;
+
     /**
      * Validation mode to use, defaults to fully validated objects.
      */
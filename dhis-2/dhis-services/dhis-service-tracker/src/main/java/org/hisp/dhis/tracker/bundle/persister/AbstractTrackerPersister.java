@@ -31,8 +31,11 @@ package org.hisp.dhis.tracker.bundle.persister;
 import static com.google.api.client.util.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -46,6 +49,7 @@ import org.hisp.dhis.trackedentity.TrackedEntityInstance;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.hisp.dhis.tracker.AtomicMode;
 import org.hisp.dhis.tracker.FlushMode;
+import org.hisp.dhis.tracker.PersistMode;
 import org.hisp.dhis.tracker.TrackerType;
 import org.hisp.dhis.tracker.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.bundle.TrackerBundleHook;
@@ -68,6 +72,11 @@ public abstract class AbstractTrackerPersister<T extends TrackerDto, V extends B
 {
     protected List<TrackerBundleHook> bundleHooks;
 
+    /**
+     * Number of entities written per batch with {@link PersistMode#BATCH}.
+     */
+    protected static final int BATCH_SIZE = 500;
+
     protected final ReservedValueService reservedValueService;
 
     public AbstractTrackerPersister( List<TrackerBundleHook> bundleHooks, ReservedValueService reservedValueService )
@@ -105,6 +114,33 @@ public abstract class AbstractTrackerPersister<T extends TrackerDto, V extends B
         //
         List<T> dtos = getByType( getType(), bundle );
 
+        if ( PersistMode.BATCH == bundle.getPersistMode() )
+        {
+            persistInBatches( session, bundle, dtos, typeReport, sideEffectDataBundles );
+        }
+        else
+        {
+            persistObjects( session, bundle, dtos, typeReport, sideEffectDataBundles );
+        }
+
+        session.flush();
+
+        //
+        // Execute post-create hooks - if any
+        //
+        runPostCreateHooks( bundle );
+
+        typeReport.getSideEffectDataBundles().addAll( sideEffectDataBundles );
+
+        return typeReport;
+    }
+
+    /**
+     * Persists the entities one at a time through the Hibernate session.
+     */
+    private void persistObjects( Session session, TrackerBundle bundle, List<T> dtos, TrackerTypeReport typeReport,
+        List<TrackerSideEffectDataBundle> sideEffectDataBundles )
+    {
         for ( int idx = 0; idx < dtos.size(); idx++ )
         {
             //
@@ -162,34 +198,159 @@ public abstract class AbstractTrackerPersister<T extends TrackerDto, V extends B
             }
             catch ( Exception e )
             {
-                final String msg = "A Tracker Entity of type '" + getType().getName() + "' (" + trackerDto.getUid()
-                    + ") failed to persist.";
-                
-                if ( bundle.getAtomicMode().equals( AtomicMode.ALL ) )
+                handleFailure( bundle, typeReport, trackerDto, e );
+            }
+        }
+    }
+
+    /**
+     * Persists the entities in batches of {@link #BATCH_SIZE}. The entities of
+     * a batch are saved before their attribute values, so that the session
+     * sends statements of the same kind to the database in JDBC batches when
+     * the batch is flushed. All entities are written through the session, so
+     * that the audits published by the Hibernate listeners are kept.
+     */
+    private void persistInBatches( Session session, TrackerBundle bundle, List<T> dtos,
+        TrackerTypeReport typeReport, List<TrackerSideEffectDataBundle> sideEffectDataBundles )
+    {
+        final Integer jdbcBatchSize = session.getJdbcBatchSize();
+
+        session.setJdbcBatchSize( BATCH_SIZE );
+
+        try
+        {
+            for ( int offset = 0; offset < dtos.size(); offset += BATCH_SIZE )
+            {
+                List<T> batch = dtos.subList( offset, Math.min( offset + BATCH_SIZE, dtos.size() ) );
+
+                persistBatch( session, bundle, batch, offset, typeReport, sideEffectDataBundles );
+
+                session.flush();
+            }
+        }
+        finally
+        {
+            session.setJdbcBatchSize( jdbcBatchSize );
+        }
+    }
+
+    private void persistBatch( Session session, TrackerBundle bundle, List<T> batch, int offset,
+        TrackerTypeReport typeReport, List<TrackerSideEffectDataBundle> sideEffectDataBundles )
+    {
+        final TrackerPreheat preheat = bundle.getPreheat();
+        final Map<V, T> dtoMap = new IdentityHashMap<>();
+        final List<V> entities = new ArrayList<>();
+        final Set<V> newEntities = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+        //
+        // Convert the TrackerDtos of the batch
+        //
+        for ( int idx = 0; idx < batch.size(); idx++ )
+        {
+            final T trackerDto = batch.get( idx );
+
+            typeReport.addObjectReport( new TrackerObjectReport( getType(), trackerDto.getUid(), offset + idx ) );
+
+            try
+            {
+                V convertedDto = convert( bundle, trackerDto );
+
+                updateDataValues( session, preheat, trackerDto, convertedDto );
+
+                if ( isNew( preheat, trackerDto.getUid() ) )
                 {
-                    throw new PersistenceException( msg , e );
+                    newEntities.add( convertedDto );
                 }
-                else
+
+                entities.add( convertedDto );
+                dtoMap.put( convertedDto, trackerDto );
+            }
+            catch ( Exception e )
+            {
+                handleFailure( bundle, typeReport, trackerDto, e );
+            }
+        }
+
+        //
+        // Save or update the entities of the batch
+        //
+        final List<V> persisted = persistSessionBatch( session, bundle, entities, newEntities, dtoMap, typeReport );
+
+        //
+        // Save the attribute values of the batch and add the entities to the Preheat
+        //
+        for ( V entity : persisted )
+        {
+            final T trackerDto = dtoMap.get( entity );
+
+            try
+            {
+                updateAttributes( session, preheat, trackerDto, entity );
+
+                updatePreheat( preheat, entity );
+
+                if ( !bundle.isSkipSideEffects() )
                 {
-                    // TODO currently we do not keep track of the failed entity in the TrackerObjectReport
+                    sideEffectDataBundles.add( handleSideEffects( bundle, entity ) );
+                }
+            }
+            catch ( Exception e )
+            {
+                handleFailure( bundle, typeReport, trackerDto, e );
+            }
+        }
+    }
+
+    private List<V> persistSessionBatch( Session session, TrackerBundle bundle, List<V> entities, Set<V> newEntities,
+        Map<V, T> dtoMap, TrackerTypeReport typeReport )
+    {
+        final List<V> persisted = new ArrayList<>();
 
-                    log.warn( msg + "\nThe Import process will process remaining entities.", e );
+        for ( V entity : entities )
+        {
+            try
+            {
+                persistComments( entity );
 
-                    typeReport.getStats().incIgnored();
+                if ( newEntities.contains( entity ) )
+                {
+                    session.persist( entity );
+                    typeReport.getStats().incCreated();
+                }
+                else
+                {
+                    session.merge( entity );
+                    typeReport.getStats().incUpdated();
                 }
+
+                persisted.add( entity );
+            }
+            catch ( Exception e )
+            {
+                handleFailure( bundle, typeReport, dtoMap.get( entity ), e );
             }
         }
 
-        session.flush();
+        return persisted;
+    }
 
-        //
-        // Execute post-create hooks - if any
-        //
-        runPostCreateHooks( bundle );
+    private void handleFailure( TrackerBundle bundle, TrackerTypeReport typeReport, T trackerDto, Exception e )
+    {
+        final String msg = "A Tracker Entity of type '" + getType().getName() + "' (" + trackerDto.getUid()
+            + ") failed to persist.";
 
-        typeReport.getSideEffectDataBundles().addAll( sideEffectDataBundles );
+        if ( bundle.getAtomicMode().equals( AtomicMode.ALL ) )
+        {
+            throw new PersistenceException( msg, e );
+        }
+        else
+        {
+            // TODO currently we do not keep track of the failed entity in the TrackerObjectReport
 
-        return typeReport;
+            log.warn( msg + "\nThe Import process will process remaining entities.", e );
+
+            typeReport.getStats().incIgnored();
+        }
     }
 
     // // // // // // // //
@@ -0,0 +1,192 @@
+package org.hisp.dhis.tracker.bundle;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleMode;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleParams;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleService;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleValidationService;
+import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
+import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.render.RenderFormat;
+import org.hisp.dhis.render.RenderService;
+import org.hisp.dhis.tracker.PersistMode;
+import org.hisp.dhis.tracker.TrackerImportParams;
+import org.hisp.dhis.tracker.TrackerImportService;
+import org.hisp.dhis.tracker.TrackerImportStrategy;
+import org.hisp.dhis.tracker.domain.Event;
+import org.hisp.dhis.tracker.domain.Note;
+import org.hisp.dhis.tracker.report.TrackerImportReport;
+import org.hisp.dhis.tracker.report.TrackerStatus;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class TrackerEventBatchPersistIntegrationTest
+    extends IntegrationTestBase
+{
+    @Override
+    public boolean emptyDatabaseAfterTest()
+    {
+        return true;
+    }
+
+    @Autowired
+    private TrackerImportService trackerImportService;
+
+    @Autowired
+    private RenderService _renderService;
+
+    @Autowired
+    private UserService _userService;
+
+    @Autowired
+    private ObjectBundleService objectBundleService;
+
+    @Autowired
+    private ObjectBundleValidationService objectBundleValidationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User userA;
+
+    @Override
+    public void setUpTest()
+        throws Exception
+    {
+        renderService = _renderService;
+        userService = _userService;
+
+        Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> metadata = renderService
+            .fromMetadata( new ClassPathResource( "tracker/simple_metadata.json" ).getInputStream(),
+                RenderFormat.JSON );
+
+        ObjectBundleParams params = new ObjectBundleParams();
+        params.setObjectBundleMode( ObjectBundleMode.COMMIT );
+        params.setImportStrategy( ImportStrategy.CREATE );
+        params.setObjects( metadata );
+
+        ObjectBundle bundle = objectBundleService.create( params );
+        ObjectBundleValidationReport validationReport = objectBundleValidationService.validate( bundle );
+        assertTrue( validationReport.getErrorReports().isEmpty() );
+
+        objectBundleService.commit( bundle );
+
+        userA = userService.getUser( "M5zQapPyTZI" );
+    }
+
+    @Test
+    public void testBatchPersistNewAndUpdatedEventsWithNotes()
+        throws IOException
+    {
+        importTracker( "tracker/single_tei.json" );
+        importTracker( "tracker/single_enrollment.json" );
+
+        TrackerImportParams params = fromJson( "tracker/single_event.json" );
+        params.setPersistMode( PersistMode.BATCH );
+        addNote( params.getEvents().get( 0 ) );
+
+        TrackerImportReport report = trackerImportService.importTracker( params );
+
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+        assertEquals( 1, report.getStats().getCreated() );
+        assertEquals( 1, countNotes( "D9PbzJY8bJO" ) );
+
+        params = fromJson( "tracker/one_update_event_and_one_new_event.json" );
+        params.setImportStrategy( TrackerImportStrategy.CREATE_AND_UPDATE );
+        params.setPersistMode( PersistMode.BATCH );
+        params.getEvents().forEach( this::addNote );
+
+        report = trackerImportService.importTracker( params );
+
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+        assertTrue( report.getValidationReport().getErrorReports().isEmpty() );
+        assertEquals( 1, report.getStats().getCreated() );
+        assertEquals( 1, report.getStats().getUpdated() );
+        assertEquals( 0, report.getStats().getIgnored() );
+        assertEquals( 2, countEvents() );
+        assertEquals( 2, countNotes( "D9PbzJY8bJO" ) );
+        assertEquals( 1, countNotes( "NEWEVENT001" ) );
+    }
+
+    private void importTracker( String path )
+        throws IOException
+    {
+        TrackerImportReport report = trackerImportService.importTracker( fromJson( path ) );
+
+        assertEquals( TrackerStatus.OK, report.getStatus() );
+    }
+
+    private TrackerImportParams fromJson( String path )
+        throws IOException
+    {
+        InputStream inputStream = new ClassPathResource( path ).getInputStream();
+
+        TrackerImportParams params = renderService.fromJson( inputStream, TrackerImportParams.class );
+        params.setUserId( userA.getUid() );
+
+        return params;
+    }
+
+    private void addNote( Event event )
+    {
+        event.getNotes().add( Note.builder()
+            .note( CodeGenerator.generateUid() )
+            .value( "Note on " + event.getEvent() )
+            .build() );
+    }
+
+    private int countEvents()
+    {
+        return jdbcTemplate.queryForObject( "select count(*) from programstageinstance", Integer.class );
+    }
+
+    private int countNotes( String eventUid )
+    {
+        return jdbcTemplate.queryForObject( "select count(*) from programstageinstancecomments c " +
+            "join programstageinstance psi on psi.programstageinstanceid = c.programstageinstanceid " +
+            "where psi.uid = ?", Integer.class, eventUid );
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import org.hisp.dhis.render.RenderService;
 import org.hisp.dhis.tracker.AtomicMode;
 import org.hisp.dhis.tracker.FlushMode;
+import org.hisp.dhis.tracker.PersistMode;
 import org.hisp.dhis.tracker.TrackerIdScheme;
 import org.hisp.dhis.tracker.TrackerIdentifier;
 import org.hisp.dhis.tracker.TrackerIdentifierParams;
@@ -51,6 +52,7 @@ public class TrackerImportParamsSerdeTest extends TrackerTest
             .identifiers( identifierParams )
             .atomicMode( AtomicMode.OBJECT )
             .flushMode( FlushMode.OBJECT )
+            .persistMode( PersistMode.BATCH )
             .skipRuleEngine( true )
             .importStrategy( TrackerImportStrategy.DELETE )
             .validationMode( ValidationMode.SKIP )
@@ -69,6 +71,7 @@ public class TrackerImportParamsSerdeTest extends TrackerTest
             "\"importStrategy\":\"DELETE\"," +
             "\"atomicMode\":\"OBJECT\"," +
             "\"flushMode\":\"OBJECT\"," +
+            "\"persistMode\":\"BATCH\"," +
             "\"validationMode\":\"SKIP\"," +
             "\"skipPatternValidation\":false," +
             "\"skipSideEffects\":false," +
@@ -97,6 +100,7 @@ public class TrackerImportParamsSerdeTest extends TrackerTest
             "\"importStrategy\":\"DELETE\"," +
             "\"atomicMode\":\"OBJECT\"," +
             "\"flushMode\":\"OBJECT\"," +
+            "\"persistMode\":\"BATCH\"," +
             "\"validationMode\":\"SKIP\"," +
             "\"skipPatternValidation\":true," +
             "\"skipSideEffects\":true," +
@@ -113,6 +117,7 @@ public class TrackerImportParamsSerdeTest extends TrackerTest
         assertThat( trackerImportParams.getImportStrategy(), is( TrackerImportStrategy.DELETE ) );
         assertThat( trackerImportParams.getAtomicMode(), is( AtomicMode.OBJECT ) );
         assertThat( trackerImportParams.getFlushMode(), is( FlushMode.OBJECT ) );
+        assertThat( trackerImportParams.getPersistMode(), is( PersistMode.BATCH ) );
         assertThat( trackerImportParams.getValidationMode(), is( ValidationMode.SKIP ) );
         assertThat( trackerImportParams.isSkipPatternValidation(), is( true ) );
         assertThat( trackerImportParams.isSkipSideEffects(), is( true ) );
@@ -34,6 +34,9 @@ import org.hisp.dhis.render.RenderService;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
 
+import javax.jms.TextMessage;
+import java.util.List;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -56,6 +59,35 @@ public class MessageManager
         jmsTopicTemplate.send( destinationName, session -> session.createTextMessage( renderService.toJsonAsString( message ) ) );
     }
 
+    /**
+     * Sends the given messages to the given destination, reusing a single
+     * session and producer for all messages.
+     *
+     * @param destinationName the destination name.
+     * @param messages the messages to send.
+     */
+    public void send( String destinationName, List<? extends Message> messages )
+    {
+        jmsTopicTemplate.execute( destinationName, ( session, producer ) -> {
+            for ( Message message : messages )
+            {
+                TextMessage textMessage = session.createTextMessage( renderService.toJsonAsString( message ) );
+
+                if ( jmsTopicTemplate.isExplicitQosEnabled() )
+                {
+                    producer.send( textMessage, jmsTopicTemplate.getDeliveryMode(), jmsTopicTemplate.getPriority(),
+                        jmsTopicTemplate.getTimeToLive() );
+                }
+                else
+                {
+                    producer.send( textMessage );
+                }
+            }
+
+            return null;
+        } );
+    }
+
     public void sendTopic( String destinationName, Message message )
     {
         jmsTopicTemplate.send( new JmsTopic( destinationName ), session -> session.createTextMessage( renderService.toJsonAsString( message ) ) );
@@ -28,6 +28,9 @@ package org.hisp.dhis.artemis.audit;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.hisp.dhis.artemis.MessageManager;
@@ -75,6 +78,38 @@ public class AuditProducerSupplier
         }
     }
 
+    /**
+     * Publishes the given audits, sending the audits of each topic as one
+     * batch.
+     *
+     * @param audits the audits to publish.
+     */
+    public void publish( List<Audit> audits )
+    {
+        Map<String, List<Audit>> topicAudits = new HashMap<>();
+
+        for ( Audit audit : audits )
+        {
+            String topic = getTopicName( audit );
+
+            if ( !Strings.isNullOrEmpty( topic ) )
+            {
+                topicAudits.computeIfAbsent( topic, t -> new ArrayList<>() ).add( audit );
+            }
+            else
+            {
+                log.error( String.format( "Unable to map AuditScope [%s] to a topic name. Sending aborted",
+                    audit.getAuditScope() ) );
+            }
+        }
+
+        topicAudits.forEach( ( topic, batch ) -> {
+            log.debug( String.format( "sending %d auditing messages to topic: [%s]", batch.size(), topic ) );
+
+            this.messageManager.send( topic, batch );
+        } );
+    }
+
     private String getTopicName( Audit audit )
     {
         return auditScopeDestinationMap.get( audit.getAuditScope() );
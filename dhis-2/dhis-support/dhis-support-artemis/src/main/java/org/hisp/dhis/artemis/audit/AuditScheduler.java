@@ -29,10 +29,15 @@ package org.hisp.dhis.artemis.audit;
  */
 
 
+import static java.util.stream.Collectors.toList;
+
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.DelayQueue;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -40,21 +45,33 @@ import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * Delays audits before publishing them. Audits of the same type for the same
+ * object which are added while an audit is delayed are coalesced into the
+ * most recent audit, which is published when the first audit expires.
+ *
  * @author Luciano Fiandesio
  */
 @Slf4j
 @Component
 public class AuditScheduler
 {
-    private final long delay = 20_000; // 20 seconds
+    private static final long DELAY = 20_000; // 20 seconds
+
+    private final long delay;
 
     private final AuditProducerSupplier auditProducerSupplier;
 
-    private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
+    private final Map<Object, QueuedAudit> delayed = new ConcurrentHashMap<>();
 
     public AuditScheduler( AuditProducerSupplier auditProducerSupplier )
+    {
+        this( auditProducerSupplier, DELAY );
+    }
+
+    AuditScheduler( AuditProducerSupplier auditProducerSupplier, long delay )
     {
         this.auditProducerSupplier = auditProducerSupplier;
+        this.delay = delay;
     }
 
     public void addAuditItem( final Audit auditItem )
@@ -63,21 +80,43 @@ public class AuditScheduler
         {
             log.debug( String.format( "add Audit object with content %s to delayed queue", auditItem.toLog() ) );
         }
-        final QueuedAudit postponed = new QueuedAudit( auditItem, delay );
 
-        if ( !delayed.contains( postponed ) )
-        {
-            delayed.offer( postponed );
-        }
+        delayed.compute( getKey( auditItem ), ( key, postponed ) -> postponed == null
+            ? new QueuedAudit( auditItem, delay )
+            : postponed.coalesce( auditItem ) );
     }
 
     @Scheduled( fixedDelay = 30_000 ) // TODO this value should come from configuration
     public void process()
     {
-        final Collection<QueuedAudit> expired = new ArrayList<>();
+        final List<QueuedAudit> expired = new ArrayList<>();
+
+        delayed.forEach( ( key, postponed ) -> {
+            if ( postponed.getDelay( TimeUnit.MILLISECONDS ) <= 0 && delayed.remove( key, postponed ) )
+            {
+                expired.add( postponed );
+            }
+        } );
 
-        delayed.drainTo( expired );
+        if ( !expired.isEmpty() )
+        {
+            expired.sort( Comparator.comparingLong( QueuedAudit::getOrigin ) );
+
+            auditProducerSupplier.publish( expired.stream().map( QueuedAudit::getAuditItem ).collect( toList() ) );
+        }
+    }
+
+    /**
+     * Returns the key on which audits are coalesced. Audits of objects without
+     * a UID are only coalesced with equal audits.
+     */
+    private static Object getKey( Audit audit )
+    {
+        if ( audit.getUid() == null )
+        {
+            return audit;
+        }
 
-        expired.stream().map( QueuedAudit::getAuditItem ).forEach( auditProducerSupplier::publish );
+        return Arrays.asList( audit.getAuditScope(), audit.getAuditType(), audit.getKlass(), audit.getUid() );
     }
 }
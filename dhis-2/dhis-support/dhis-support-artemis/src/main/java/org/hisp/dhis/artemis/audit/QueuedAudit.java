@@ -45,10 +45,15 @@ public class QueuedAudit implements Delayed
     private final Audit audit;
 
     public QueuedAudit( Audit audit, long delay )
+    {
+        this( audit, System.currentTimeMillis(), delay );
+    }
+
+    private QueuedAudit( Audit audit, long origin, long delay )
     {
         checkNotNull( audit );
 
-        this.origin = System.currentTimeMillis();
+        this.origin = origin;
         this.audit = audit;
         this.delay = delay;
     }
@@ -58,6 +63,23 @@ public class QueuedAudit implements Delayed
         return audit;
     }
 
+    public long getOrigin()
+    {
+        return origin;
+    }
+
+    /**
+     * Returns a queued audit replacing the audit of this queued audit with the
+     * given, more recent audit, keeping the time this audit was queued.
+     *
+     * @param audit the more recent audit.
+     * @return the coalesced queued audit.
+     */
+    public QueuedAudit coalesce( Audit audit )
+    {
+        return new QueuedAudit( audit, origin, delay );
+    }
+
     @Override
     public long getDelay( TimeUnit unit )
     {
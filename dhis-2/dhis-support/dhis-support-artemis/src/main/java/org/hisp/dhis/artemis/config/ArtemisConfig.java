@@ -37,6 +37,7 @@ import org.apache.activemq.artemis.core.server.JournalType;
 import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
 import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
 import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsSession;
 import org.hisp.dhis.artemis.AuditProducerConfiguration;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AuditScope;
@@ -130,6 +131,24 @@ public class ArtemisConfig
         return factory;
     }
 
+    /**
+     * Configured for audit topics. Messages are acknowledged individually by
+     * the audit consumers once the audits are persisted, which may be after
+     * the listener returned, as audits are persisted in batches.
+     */
+    @Bean
+    public DefaultJmsListenerContainerFactory jmsAuditListenerContainerFactory( ConnectionFactory connectionFactory, NameDestinationResolver nameDestinationResolver )
+    {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory( connectionFactory );
+        factory.setDestinationResolver( nameDestinationResolver );
+        factory.setPubSubDomain( true );
+        factory.setConcurrency( "1" );
+        factory.setSessionAcknowledgeMode( JmsSession.INDIVIDUAL_ACKNOWLEDGE );
+
+        return factory;
+    }
+
     @Bean // configured for queues
     public DefaultJmsListenerContainerFactory jmsQueueListenerContainerFactory( ConnectionFactory connectionFactory, NameDestinationResolver nameDestinationResolver )
     {
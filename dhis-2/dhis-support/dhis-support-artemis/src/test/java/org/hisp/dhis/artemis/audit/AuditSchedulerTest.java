@@ -0,0 +1,184 @@
+package org.hisp.dhis.artemis.audit;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class AuditSchedulerTest
+{
+    private static final long DELAY = 100;
+
+    @Mock
+    private AuditProducerSupplier auditProducerSupplier;
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    private AuditScheduler auditScheduler;
+
+    @Before
+    public void setUp()
+    {
+        auditScheduler = new AuditScheduler( auditProducerSupplier, DELAY );
+    }
+
+    @Test
+    public void testCoalesceAuditsOfSameObject()
+        throws InterruptedException
+    {
+        Audit first = createAudit( "DataElemUID", "first" );
+        Audit latest = createAudit( "DataElemUID", "latest" );
+
+        auditScheduler.addAuditItem( first );
+        auditScheduler.addAuditItem( latest );
+
+        assertEquals( Collections.singletonList( latest ), processExpired() );
+    }
+
+    @Test
+    public void testKeepFirstQueueTime()
+        throws InterruptedException
+    {
+        auditScheduler.addAuditItem( createAudit( "DataElemUID", "first" ) );
+
+        Thread.sleep( DELAY / 2 );
+
+        Audit latest = createAudit( "DataElemUID", "latest" );
+        auditScheduler.addAuditItem( latest );
+
+        Thread.sleep( DELAY / 2 + 10 );
+
+        // The window started with the first audit, so the latest audit is due
+        // although it was added less than the delay ago
+
+        auditScheduler.process();
+
+        assertEquals( Collections.singletonList( latest ), getPublished() );
+    }
+
+    @Test
+    public void testDoNotPublishBeforeDelay()
+    {
+        auditScheduler.addAuditItem( createAudit( "DataElemUID", "first" ) );
+
+        auditScheduler.process();
+
+        verify( auditProducerSupplier, never() ).publish( anyList() );
+    }
+
+    @Test
+    public void testCoalesceAuditsWithoutUidOnlyWhenEqual()
+        throws InterruptedException
+    {
+        Audit audit = createAudit( null, "value" );
+        Audit equalAudit = createAudit( null, "value" );
+        Audit otherAudit = createAudit( null, "other value" );
+
+        auditScheduler.addAuditItem( audit );
+        auditScheduler.addAuditItem( equalAudit );
+        auditScheduler.addAuditItem( otherAudit );
+
+        List<Audit> published = processExpired();
+
+        assertEquals( 2, published.size() );
+        assertEquals( 1, published.stream().filter( audit::equals ).count() );
+        assertEquals( 1, published.stream().filter( otherAudit::equals ).count() );
+    }
+
+    @Test
+    public void testPublishInQueueOrder()
+        throws InterruptedException
+    {
+        Audit auditA = createAudit( "DataElemUIA", "a" );
+        Audit auditB = createAudit( "DataElemUIB", "b" );
+        Audit auditC = createAudit( "DataElemUIC", "c" );
+        Audit latestA = createAudit( "DataElemUIA", "latest a" );
+
+        auditScheduler.addAuditItem( auditA );
+        Thread.sleep( 5 );
+        auditScheduler.addAuditItem( auditB );
+        Thread.sleep( 5 );
+        auditScheduler.addAuditItem( auditC );
+        Thread.sleep( 5 );
+        auditScheduler.addAuditItem( latestA );
+
+        assertEquals( Arrays.asList( latestA, auditB, auditC ), processExpired() );
+    }
+
+    /**
+     * Waits until all added audits are due and returns the published audits.
+     */
+    private List<Audit> processExpired()
+        throws InterruptedException
+    {
+        Thread.sleep( DELAY + 10 );
+
+        auditScheduler.process();
+
+        return getPublished();
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private List<Audit> getPublished()
+    {
+        ArgumentCaptor<List<Audit>> published = ArgumentCaptor.forClass( List.class );
+        verify( auditProducerSupplier ).publish( published.capture() );
+
+        return published.getValue();
+    }
+
+    private Audit createAudit( String uid, String data )
+    {
+        return Audit.builder()
+            .auditType( AuditType.UPDATE )
+            .auditScope( AuditScope.METADATA )
+            .klass( DataElement.class.getName() )
+            .uid( uid )
+            .data( data )
+            .build();
+    }
+}
@@ -29,6 +29,7 @@ package org.hisp.dhis.audit;
  */
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -51,6 +52,13 @@ public class DefaultAuditService implements AuditService
         return auditRepository.save( audit );
     }
 
+    @Override
+    @Transactional
+    public void addAudits( List<Audit> audits )
+    {
+        auditRepository.save( audits );
+    }
+
     @Override
     public int countAudits( AuditQuery query )
     {
@@ -32,6 +32,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
 import org.hisp.dhis.commons.util.SqlHelper;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -39,15 +40,20 @@ import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.PreDestroy;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -62,6 +68,14 @@ public class JdbcAuditRepository implements AuditRepository
     private final SimpleJdbcInsert auditInsert;
     private ObjectMapper jsonMapper;
 
+    /**
+     * Bounded pool for compressing the data of audit batches, which dominates
+     * building the insert parameters.
+     */
+    private final ExecutorService compressionExecutor = Executors.newFixedThreadPool(
+        Math.max( 1, SystemUtils.getCpuCores() - 1 ),
+        new ThreadFactoryBuilder().setNameFormat( "audit-compression-%d" ).setDaemon( true ).build() );
+
     public JdbcAuditRepository(
         JdbcTemplate jdbcTemplate,
         ObjectMapper jsonMapper )
@@ -84,9 +98,21 @@ public class JdbcAuditRepository implements AuditRepository
     @Override
     public void save( List<Audit> audits )
     {
-        List<MapSqlParameterSource> parameterSources = new ArrayList<>();
-        audits.forEach( audit -> parameterSources.add( buildParameterSource( audit ) ) );
-        auditInsert.executeBatch( parameterSources.toArray( new MapSqlParameterSource[0] ) );
+        List<CompletableFuture<MapSqlParameterSource>> futures = audits.stream()
+            .map( audit -> CompletableFuture.supplyAsync( () -> buildParameterSource( audit ), compressionExecutor ) )
+            .collect( Collectors.toList() );
+
+        MapSqlParameterSource[] parameterSources = futures.stream()
+            .map( CompletableFuture::join )
+            .toArray( MapSqlParameterSource[]::new );
+
+        auditInsert.executeBatch( parameterSources );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        compressionExecutor.shutdown();
     }
 
     @Override
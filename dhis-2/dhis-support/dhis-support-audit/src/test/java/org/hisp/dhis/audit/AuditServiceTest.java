@@ -0,0 +1,94 @@
+package org.hisp.dhis.audit;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AuditServiceTest
+    extends IntegrationTestBase
+{
+    @Autowired
+    private AuditService auditService;
+
+    @Test
+    public void testAddAudits()
+    {
+        auditService.addAudits( Arrays.asList( createAudit( "test-user" ), createAudit( "test-user" ) ) );
+
+        assertEquals( 2, auditService.countAudits( AuditQuery.builder().build() ) );
+    }
+
+    @Test
+    public void testAddAuditsIsAtomic()
+    {
+        try
+        {
+            auditService.addAudits( Arrays.asList( createAudit( "test-user" ), createAudit( null ),
+                createAudit( "test-user" ) ) );
+
+            fail( "Audit without creator must not be persisted" );
+        }
+        catch ( RuntimeException ex )
+        {
+            // expected
+        }
+
+        assertEquals( 0, auditService.countAudits( AuditQuery.builder().build() ) );
+    }
+
+    private Audit createAudit( String createdBy )
+    {
+        return Audit.builder()
+            .auditType( AuditType.CREATE )
+            .auditScope( AuditScope.AGGREGATE )
+            .createdAt( LocalDateTime.of( 2019, 1, 1, 0, 0 ) )
+            .createdBy( createdBy )
+            .klass( DataElement.class.getName() )
+            .uid( CodeGenerator.generateUid() )
+            .code( CodeGenerator.generateUid() )
+            .data( "{}" )
+            .build();
+    }
+
+    @Override
+    public boolean emptyDatabaseAfterTest()
+    {
+        return true;
+    }
+}
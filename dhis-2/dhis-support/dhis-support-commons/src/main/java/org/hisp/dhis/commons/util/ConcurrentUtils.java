@@ -69,6 +69,37 @@ public class ConcurrentUtils
         }
     }
 
+    /**
+     * Blocks and waits for the given Future to complete and returns its result.
+     * Runtime exceptions thrown by the task are rethrown as is, other exceptions
+     * are wrapped in an {@link IllegalStateException}.
+     *
+     * @param future the Future.
+     * @return the result of the Future.
+     */
+    public static <T> T getResult( Future<T> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( ExecutionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException( "Exception during execution", ex.getCause() );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Thread interrupted", ex );
+        }
+    }
+
     /**
      * Returns a {@link Future} which is immediately completed and has its
      * value set to an empty string.
@@ -0,0 +1,5 @@
+create table if not exists resourcetablefingerprint (
+    tabletype character varying(100) not null,
+    fingerprint text not null,
+    constraint resourcetablefingerprint_pkey primary key (tabletype)
+);
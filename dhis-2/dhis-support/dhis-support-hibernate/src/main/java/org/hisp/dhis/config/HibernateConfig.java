@@ -143,7 +143,10 @@ public class HibernateConfig
         return new DefaultDataSourceManager( dhisConfigurationProvider, dataSource() );
     }
 
-    @Bean
+    /**
+     * The read only data source is closed by the {@link DataSourceManager}.
+     */
+    @Bean( destroyMethod = "" )
     public DataSource readOnlyDataSource() throws PropertyVetoException
     {
         return dataSourceManager().getReadOnlyDataSource();
@@ -31,6 +31,8 @@ package org.hisp.dhis.datasource;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_DRIVER_CLASS;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_PASSWORD;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_POOL_MAX_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_READ_REPLICA_MAX_LAG;
+import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_READ_REPLICA_PROBE_INTERVAL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_URL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_USERNAME;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -51,6 +53,7 @@ import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
@@ -60,7 +63,7 @@ import com.mchange.v2.c3p0.ComboPooledDataSource;
  */
 @Slf4j
 public class DefaultDataSourceManager
-    implements DataSourceManager, InitializingBean
+    implements DataSourceManager, InitializingBean, DisposableBean
 {
     private static final String FORMAT_READ_PREFIX = "read%d.";
     private static final String FORMAT_CONNECTION_URL = FORMAT_READ_PREFIX + CONNECTION_URL.getKey();
@@ -100,7 +103,28 @@ public class DefaultDataSourceManager
         List<DataSource> ds = getReadOnlyDataSources();
 
         this.internalReadOnlyInstanceList = ds;
-        this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource( ds ) : mainDataSource;
+        this.internalReadOnlyDataSource = !ds.isEmpty() ? new ReadReplicaRoutingDataSource( ds, mainDataSource,
+            Long.parseLong( config.getProperty( CONNECTION_READ_REPLICA_MAX_LAG ) ),
+            Long.parseLong( config.getProperty( CONNECTION_READ_REPLICA_PROBE_INTERVAL ) ) ) : mainDataSource;
+    }
+
+    /**
+     * Stops probing the read replicas and closes their connection pools.
+     */
+    @Override
+    public void destroy()
+    {
+        if ( internalReadOnlyDataSource instanceof ReadReplicaRoutingDataSource )
+        {
+            ((ReadReplicaRoutingDataSource) internalReadOnlyDataSource).close();
+        }
+
+        if ( internalReadOnlyInstanceList != null )
+        {
+            internalReadOnlyInstanceList.stream()
+                .filter( ComboPooledDataSource.class::isInstance )
+                .forEach( ds -> ((ComboPooledDataSource) ds).close() );
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -0,0 +1,356 @@
+package org.hisp.dhis.datasource;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Data source implementation which routes to the healthy read replica with the
+ * fewest connections in use. Replicas are probed periodically for replication
+ * lag, and a replica which can not be reached or which lags behind the primary
+ * by more than the max lag is skipped until it has caught up. If no replica is
+ * healthy, connections are obtained from the fallback data source.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource
+    extends AbstractDataSource
+{
+    /**
+     * Replication lag in seconds, which is 0 if the instance is not a replica
+     * or has replayed all received changes.
+     */
+    private static final String LAG_QUERY =
+        "select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+        "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    private final List<ReadReplica> replicas;
+
+    private final DataSource fallbackDataSource;
+
+    private final long maxLag;
+
+    private final AtomicInteger offset = new AtomicInteger();
+
+    private final ScheduledExecutorService probeExecutor;
+
+    /**
+     * @param targetDataSources the read replica data sources.
+     * @param fallbackDataSource the data source to use if no replica is healthy.
+     * @param maxLag the max replication lag in seconds of a healthy replica.
+     * @param probeInterval the interval in seconds between probes of the
+     *        replicas, 0 to disable probing.
+     */
+    public ReadReplicaRoutingDataSource( List<DataSource> targetDataSources, DataSource fallbackDataSource,
+        long maxLag, long probeInterval )
+    {
+        checkNotNull( targetDataSources );
+        checkNotNull( fallbackDataSource );
+
+        List<ReadReplica> list = new ArrayList<>();
+
+        for ( int i = 0; i < targetDataSources.size(); i++ )
+        {
+            list.add( new ReadReplica( "read" + (i + 1), targetDataSources.get( i ) ) );
+        }
+
+        this.replicas = Collections.unmodifiableList( list );
+        this.fallbackDataSource = fallbackDataSource;
+        this.maxLag = maxLag;
+
+        if ( probeInterval > 0 && !replicas.isEmpty() )
+        {
+            this.probeExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat( "read-replica-probe-%d" ).setDaemon( true ).build() );
+            this.probeExecutor.scheduleWithFixedDelay( this::probe, probeInterval, probeInterval, TimeUnit.SECONDS );
+        }
+        else
+        {
+            this.probeExecutor = null;
+        }
+    }
+
+    public List<ReadReplica> getReplicas()
+    {
+        return replicas;
+    }
+
+    /**
+     * Stops probing the replicas.
+     */
+    public void close()
+    {
+        if ( probeExecutor != null )
+        {
+            probeExecutor.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // AbstractDataSource implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Connection getConnection()
+        throws SQLException
+    {
+        return getConnection( DataSource::getConnection );
+    }
+
+    @Override
+    public Connection getConnection( String username, String password )
+        throws SQLException
+    {
+        return getConnection( dataSource -> dataSource.getConnection( username, password ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Probing
+    // -------------------------------------------------------------------------
+
+    /**
+     * Updates the replication lag and health of each replica.
+     */
+    void probe()
+    {
+        for ( ReadReplica replica : replicas )
+        {
+            try ( Connection connection = replica.getDataSource().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery( LAG_QUERY ) )
+            {
+                replica.lag = resultSet.next() ? resultSet.getDouble( 1 ) : 0d;
+
+                setHealthy( replica, replica.lag <= maxLag );
+            }
+            catch ( SQLException ex )
+            {
+                log.debug( String.format( "Probe of read replica '%s' failed", replica.getName() ), ex );
+
+                setHealthy( replica, false );
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private Connection getConnection( ConnectionSupplier supplier )
+        throws SQLException
+    {
+        ReadReplica replica = getReplica();
+
+        if ( replica == null )
+        {
+            return supplier.get( fallbackDataSource );
+        }
+
+        replica.activeConnections.incrementAndGet();
+
+        try
+        {
+            return getTrackedConnection( replica, supplier.get( replica.getDataSource() ) );
+        }
+        catch ( SQLException ex )
+        {
+            replica.activeConnections.decrementAndGet();
+
+            log.warn( String.format( "Failed to get connection from read replica '%s'", replica.getName() ), ex );
+
+            setHealthy( replica, false );
+
+            return getConnection( supplier );
+        }
+    }
+
+    /**
+     * Returns the healthy replica with the fewest active connections, or null
+     * if no replica is healthy. The search starts at a rotating offset so that
+     * equally loaded replicas are used in turn.
+     */
+    private ReadReplica getReplica()
+    {
+        int size = replicas.size();
+
+        if ( size == 0 )
+        {
+            return null;
+        }
+
+        int start = Math.floorMod( offset.getAndIncrement(), size );
+
+        ReadReplica selected = null;
+
+        for ( int i = 0; i < size; i++ )
+        {
+            ReadReplica replica = replicas.get( (start + i) % size );
+
+            if ( replica.isHealthy() &&
+                (selected == null || replica.getActiveConnections() < selected.getActiveConnections()) )
+            {
+                selected = replica;
+            }
+        }
+
+        return selected;
+    }
+
+    private void setHealthy( ReadReplica replica, boolean healthy )
+    {
+        if ( replica.healthy != healthy )
+        {
+            log.warn( String.format( "Read replica '%s' is %s, replication lag: %.1f s", replica.getName(),
+                healthy ? "healthy, adding it to routing" : "unhealthy, removing it from routing", replica.lag ) );
+        }
+
+        replica.healthy = healthy;
+    }
+
+    /**
+     * Returns a proxy of the given connection which releases the connection of
+     * the given replica when closed.
+     */
+    private static Connection getTrackedConnection( ReadReplica replica, Connection connection )
+    {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance( ConnectionProxy.class.getClassLoader(),
+            new Class<?>[] { ConnectionProxy.class }, ( proxy, method, args ) -> {
+                switch ( method.getName() )
+                {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode( proxy );
+                    case "getTargetConnection":
+                        return connection;
+                    case "close":
+                        if ( closed.compareAndSet( false, true ) )
+                        {
+                            replica.activeConnections.decrementAndGet();
+                        }
+                        break;
+                }
+
+                try
+                {
+                    return method.invoke( connection, args );
+                }
+                catch ( InvocationTargetException ex )
+                {
+                    throw ex.getTargetException();
+                }
+            } );
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier
+    {
+        Connection get( DataSource dataSource )
+            throws SQLException;
+    }
+
+    /**
+     * Routing state of a read replica.
+     */
+    public static class ReadReplica
+    {
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final AtomicInteger activeConnections = new AtomicInteger();
+
+        private volatile boolean healthy = true;
+
+        private volatile double lag;
+
+        private ReadReplica( String name, DataSource dataSource )
+        {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public DataSource getDataSource()
+        {
+            return dataSource;
+        }
+
+        /**
+         * Returns the number of connections obtained through the routing data
+         * source which are not yet closed.
+         */
+        public int getActiveConnections()
+        {
+            return activeConnections.get();
+        }
+
+        public boolean isHealthy()
+        {
+            return healthy;
+        }
+
+        /**
+         * Returns the replication lag in seconds measured by the last probe.
+         */
+        public double getLag()
+        {
+            return lag;
+        }
+    }
+}
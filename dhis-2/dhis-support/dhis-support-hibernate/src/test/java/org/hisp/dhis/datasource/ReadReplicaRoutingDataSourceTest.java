@@ -0,0 +1,232 @@
+package org.hisp.dhis.datasource;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.hisp.dhis.datasource.ReadReplicaRoutingDataSource.ReadReplica;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Unit tests for {@link ReadReplicaRoutingDataSource}.
+ */
+public class ReadReplicaRoutingDataSourceTest
+{
+    private static final long MAX_LAG = 30;
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Mock
+    private DataSource mainDataSource;
+
+    @Mock
+    private DataSource replicaDataSourceA;
+
+    @Mock
+    private DataSource replicaDataSourceB;
+
+    @Mock
+    private ResultSet lagA;
+
+    @Mock
+    private ResultSet lagB;
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    private ReadReplica replicaA;
+
+    private ReadReplica replicaB;
+
+    @Before
+    public void setUp()
+        throws SQLException
+    {
+        when( mainDataSource.getConnection() ).thenAnswer( invocation -> mock( Connection.class ) );
+        mockConnections( replicaDataSourceA, lagA );
+        mockConnections( replicaDataSourceB, lagB );
+
+        dataSource = new ReadReplicaRoutingDataSource( Arrays.asList( replicaDataSourceA, replicaDataSourceB ),
+            mainDataSource, MAX_LAG, 0 );
+
+        replicaA = dataSource.getReplicas().get( 0 );
+        replicaB = dataSource.getReplicas().get( 1 );
+    }
+
+    @Test
+    public void testGetConnectionFromLeastLoadedReplica()
+        throws SQLException
+    {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals( 1, replicaA.getActiveConnections() );
+        assertEquals( 1, replicaB.getActiveConnections() );
+
+        second.close();
+        second.close();
+
+        ReadReplica loaded = replicaA.getActiveConnections() == 1 ? replicaA : replicaB;
+        ReadReplica idle = loaded == replicaA ? replicaB : replicaA;
+
+        assertEquals( 0, idle.getActiveConnections() );
+
+        // The idle replica is selected regardless of the rotating offset
+
+        Connection third = dataSource.getConnection();
+        third.close();
+        Connection fourth = dataSource.getConnection();
+
+        assertEquals( 1, loaded.getActiveConnections() );
+        assertEquals( 1, idle.getActiveConnections() );
+
+        first.close();
+        fourth.close();
+
+        assertEquals( 0, replicaA.getActiveConnections() );
+        assertEquals( 0, replicaB.getActiveConnections() );
+        verify( mainDataSource, never() ).getConnection();
+    }
+
+    @Test
+    public void testEjectLaggingReplicaAndReturnItWhenCaughtUp()
+        throws SQLException
+    {
+        when( lagA.getDouble( 1 ) ).thenReturn( MAX_LAG + 1d );
+
+        dataSource.probe();
+
+        assertFalse( replicaA.isHealthy() );
+        assertTrue( replicaB.isHealthy() );
+        assertEquals( MAX_LAG + 1d, replicaA.getLag(), 0.001 );
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertEquals( 0, replicaA.getActiveConnections() );
+        assertEquals( 2, replicaB.getActiveConnections() );
+
+        when( lagA.getDouble( 1 ) ).thenReturn( 0d );
+
+        dataSource.probe();
+
+        assertTrue( replicaA.isHealthy() );
+
+        dataSource.getConnection();
+
+        assertEquals( 1, replicaA.getActiveConnections() );
+    }
+
+    @Test
+    public void testEjectReplicaWhenConnectionFails()
+        throws SQLException
+    {
+        when( replicaDataSourceA.getConnection() ).thenThrow( new SQLException( "Connection refused" ) );
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertFalse( replicaA.isHealthy() );
+        assertEquals( 0, replicaA.getActiveConnections() );
+        assertEquals( 2, replicaB.getActiveConnections() );
+        verify( mainDataSource, never() ).getConnection();
+    }
+
+    @Test
+    public void testFallbackToMainWhenNoReplicaIsHealthy()
+        throws SQLException
+    {
+        when( replicaDataSourceA.getConnection() ).thenThrow( new SQLException( "Connection refused" ) );
+        when( replicaDataSourceB.getConnection() ).thenThrow( new SQLException( "Connection refused" ) );
+
+        dataSource.probe();
+
+        assertFalse( replicaA.isHealthy() );
+        assertFalse( replicaB.isHealthy() );
+
+        dataSource.getConnection();
+
+        verify( mainDataSource, times( 1 ) ).getConnection();
+        verify( replicaDataSourceA, times( 1 ) ).getConnection();
+        verify( replicaDataSourceB, times( 1 ) ).getConnection();
+    }
+
+    @Test
+    public void testFallbackToMainWithoutReplicas()
+        throws SQLException
+    {
+        dataSource = new ReadReplicaRoutingDataSource( Collections.emptyList(), mainDataSource, MAX_LAG, 0 );
+
+        dataSource.getConnection();
+
+        verify( mainDataSource ).getConnection();
+    }
+
+    /**
+     * Returns a new connection for each request, on which the probe query
+     * returns the given result set.
+     */
+    private void mockConnections( DataSource replicaDataSource, ResultSet lag )
+        throws SQLException
+    {
+        when( lag.next() ).thenReturn( true );
+
+        when( replicaDataSource.getConnection() ).thenAnswer( invocation -> {
+            Statement statement = mock( Statement.class );
+            when( statement.executeQuery( anyString() ) ).thenReturn( lag );
+
+            Connection connection = mock( Connection.class );
+            when( connection.createStatement() ).thenReturn( statement );
+
+            return connection;
+        } );
+    }
+}
@@ -270,6 +270,16 @@ public interface StatementBuilder
      * @return true if partial indexes aer supported.
      */
     boolean supportsPartialIndexes();
+
+    /**
+     * Returns a query which selects a single text value which changes whenever
+     * rows of the given table are inserted, updated or deleted. Returns null if
+     * such query is not supported.
+     *
+     * @param table the table to fingerprint.
+     * @return a query for the content fingerprint of the table.
+     */
+    String getTableFingerprint( String table );
    
     /**
      * Get SQL where-condition for all analyticsPeriodBoundaries in a program indicator.
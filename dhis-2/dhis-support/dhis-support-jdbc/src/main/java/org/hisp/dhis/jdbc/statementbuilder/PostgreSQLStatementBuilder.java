@@ -261,4 +261,14 @@ public class PostgreSQLStatementBuilder
     {
         return true;
     }
+
+    /**
+     * The transaction identifier of each row version (xmin) changes on insert
+     * and update, the count changes on delete.
+     */
+    @Override
+    public String getTableFingerprint( String table )
+    {
+        return "select count(*) || ':' || coalesce(sum(xmin::text::bigint), 0) from " + table;
+    }
 }
@@ -27,9 +27,12 @@ package org.hisp.dhis.cache;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -47,16 +50,22 @@ public class DefaultCacheProvider implements CacheProvider
 
     private RedisTemplate<String, ?> redisTemplate;
 
+    private RedisMessageListenerContainer listenerContainer;
+
+    private MeterRegistry meterRegistry;
+
     @Override
     public <V> ExtendedCacheBuilder<V> newCacheBuilder( Class<V> valueType )
     {
-        return new ExtendedCacheBuilder<V>( redisTemplate, configurationProvider );
+        return new ExtendedCacheBuilder<V>( redisTemplate, listenerContainer, getMeterRegistry(),
+            configurationProvider );
     }
 
     @Override
     public  <K,V> ExtendedCacheBuilder<Map<K,V>> newCacheBuilder( Class<K> keyType, Class<V> valueType )
     {
-        return new ExtendedCacheBuilder<Map<K,V>>( redisTemplate, configurationProvider );
+        return new ExtendedCacheBuilder<Map<K,V>>( redisTemplate, listenerContainer, getMeterRegistry(),
+            configurationProvider );
     }
 
     @Autowired
@@ -71,4 +80,22 @@ public class DefaultCacheProvider implements CacheProvider
         this.redisTemplate = redisTemplate;
     }
 
+    @Autowired( required = false )
+    public void setListenerContainer( RedisMessageListenerContainer listenerContainer )
+    {
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Autowired( required = false )
+    public void setMeterRegistry( MeterRegistry meterRegistry )
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    private MeterRegistry getMeterRegistry()
+    {
+        return meterRegistry != null && configurationProvider.isEnabled( ConfigurationKey.MONITORING_CACHE_ENABLED )
+            ? meterRegistry : null;
+    }
+
 }
\ No newline at end of file
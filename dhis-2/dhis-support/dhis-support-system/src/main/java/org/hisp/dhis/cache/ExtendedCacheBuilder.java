@@ -28,10 +28,12 @@ package org.hisp.dhis.cache;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * A Builder class that helps in building Cache instances. Sensible defaults are
@@ -48,14 +50,39 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V>
 
     private RedisTemplate<String, ?> redisTemplate;
 
+    private RedisMessageListenerContainer listenerContainer;
+
+    private MeterRegistry meterRegistry;
+
     private boolean forceInMemory;
+
+    private boolean nearCache;
     
     public ExtendedCacheBuilder( RedisTemplate<String, ?> redisTemplate, DhisConfigurationProvider configurationProvider )
+    {
+        this( redisTemplate, null, configurationProvider );
+    }
+
+    public ExtendedCacheBuilder( RedisTemplate<String, ?> redisTemplate, RedisMessageListenerContainer listenerContainer,
+        DhisConfigurationProvider configurationProvider )
+    {
+        this( redisTemplate, listenerContainer, null, configurationProvider );
+    }
+
+    /**
+     * @param meterRegistry the registry to bind the metrics of hybrid caches
+     *        to, or null if cache metrics are disabled.
+     */
+    public ExtendedCacheBuilder( RedisTemplate<String, ?> redisTemplate, RedisMessageListenerContainer listenerContainer,
+        MeterRegistry meterRegistry, DhisConfigurationProvider configurationProvider )
     {
         super();
         this.configurationProvider = configurationProvider;
         this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
         this.forceInMemory = false;
+        this.nearCache = false;
     }
 
 
@@ -71,6 +98,20 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V>
         this.forceInMemory = true;
         return this;
     }
+
+    /**
+     * Configure the cache instance to keep a bounded local inmemory copy of
+     * entries in front of the Redis store. Has no effect unless Redis is
+     * enabled.
+     *
+     * @return The builder instance.
+     */
+    @Override
+    public CacheBuilder<V> withNearCache()
+    {
+        this.nearCache = true;
+        return this;
+    }
     
     /**
      * Creates and returns a cacheInstance based on the system configuration and
@@ -80,14 +121,16 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V>
      * {@code maximumSize} is greater than 0 than based on {@code redis.enabled}
      * property in dhis.conf, either Redis backed implementation
      * {@link RedisCache} will be returned or a Local Caffeine backed cache
-     * implementation {@link LocalCache} will be returned. For Local cache,
+     * implementation {@link LocalCache} will be returned. If Redis is enabled and a
+     * near cache is requested, a {@link HybridCache} will be returned which
+     * keeps a local copy of entries in front of Redis. For Local cache,
      * every instance created using this method will be logically separate and
      * will not share any state. However, when using Redis Cache, every instance
      * created using this method will use the same redis store.
      * 
      * @return A cache instance based on the system configuration and input
-     *         parameters. Returns one of {@link RedisCache}, {@link LocalCache}
-     *         or {@link NoOpCache}
+     *         parameters. Returns one of {@link RedisCache}, {@link HybridCache},
+     *         {@link LocalCache} or {@link NoOpCache}
      */
     @Override
     public Cache<V> build()
@@ -102,6 +145,19 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V>
             log.info( String.format( "Local Cache (forced) instance created for region:'%s'", getRegion() ) );
             return new LocalCache<V>( this );
         }
+        else if ( configurationProvider.getProperty( ConfigurationKey.REDIS_ENABLED ).equalsIgnoreCase( "true" )
+            && nearCache && listenerContainer != null )
+        {
+            log.info( String.format( "Hybrid Cache instance created for region:'%s'", getRegion() ) );
+            HybridCache<V> cache = new HybridCache<V>( this );
+
+            if ( meterRegistry != null )
+            {
+                cache.bindTo( meterRegistry );
+            }
+
+            return cache;
+        }
         else if ( configurationProvider.getProperty( ConfigurationKey.REDIS_ENABLED ).equalsIgnoreCase( "true" ) )
         {
             log.info( String.format( "Redis Cache instance created for region:'%s'", getRegion() ) );
@@ -118,4 +174,9 @@ public class ExtendedCacheBuilder<V> extends SimpleCacheBuilder<V>
     {
         return redisTemplate;
     }
+
+    public RedisMessageListenerContainer getListenerContainer()
+    {
+        return listenerContainer;
+    }
 }
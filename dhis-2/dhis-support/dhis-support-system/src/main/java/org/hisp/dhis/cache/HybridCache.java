@@ -0,0 +1,357 @@
+package org.hisp.dhis.cache;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A two tier implementation of {@link Cache}. Entries are kept in a bounded
+ * local {@link LocalCache} in front of a shared {@link RedisCache}. Lookups
+ * which hit the local tier avoid the network round trip and deserialization
+ * of the Redis tier. Changes are written through to Redis and broadcast over
+ * Redis pub/sub so that other instances drop their local copy of the entry.
+ * <p>
+ * Local entries expire after at most {@link #NEAR_CACHE_MAX_EXPIRY_SECONDS},
+ * which bounds staleness if an invalidation message is lost. A value read
+ * from Redis is not kept locally if an invalidation was received while it was
+ * being read, as the value may already be outdated. Values loaded on a miss
+ * are stored in both tiers without a broadcast, as they do not change an
+ * existing entry.
+ */
+@Slf4j
+public class HybridCache<V> implements Cache<V>, MeterBinder
+{
+    private static final long DEFAULT_NEAR_CACHE_MAX_SIZE = 10000;
+
+    static final long NEAR_CACHE_MAX_EXPIRY_SECONDS = 10;
+
+    private static final String CHANNEL_PREFIX = "dhis2:cache:invalidate:";
+
+    private static final String MESSAGE_SEP = ":";
+
+    private final LocalCache<V> localCache;
+
+    private final RedisCache<V> redisCache;
+
+    private final RedisTemplate<String, ?> redisTemplate;
+
+    private final byte[] channel;
+
+    private final String instanceId;
+
+    private final V defaultValue;
+
+    private final String region;
+
+    /**
+     * Incremented before local entries are dropped due to an invalidation.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for instantiating HybridCache.
+     *
+     * @param cacheBuilder The cache builder instance
+     */
+    public HybridCache( ExtendedCacheBuilder<V> cacheBuilder )
+    {
+        this.localCache = new LocalCache<>( getNearCacheBuilder( cacheBuilder ) );
+        this.redisCache = new RedisCache<>( cacheBuilder );
+        this.redisTemplate = cacheBuilder.getRedisTemplate();
+        this.instanceId = UUID.randomUUID().toString();
+        this.defaultValue = cacheBuilder.getDefaultValue();
+        this.region = cacheBuilder.getRegion();
+
+        String channelName = CHANNEL_PREFIX.concat( region );
+
+        this.channel = channelName.getBytes( StandardCharsets.UTF_8 );
+
+        cacheBuilder.getListenerContainer().addMessageListener(
+            ( message, pattern ) -> onInvalidation( message ), new ChannelTopic( channelName ) );
+    }
+
+    @Override
+    public Optional<V> getIfPresent( String key )
+    {
+        Optional<V> value = localCache.getIfPresent( key );
+
+        if ( value.isPresent() )
+        {
+            localHits.increment();
+            return value;
+        }
+
+        long invalidation = invalidations.get();
+
+        value = redisCache.getIfPresent( key );
+
+        if ( value.isPresent() )
+        {
+            remoteHits.increment();
+            putLocal( key, value.get(), invalidation );
+        }
+        else
+        {
+            misses.increment();
+        }
+
+        return value;
+    }
+
+    @Override
+    public Optional<V> get( String key )
+    {
+        return Optional.ofNullable( getIfPresent( key ).orElse( defaultValue ) );
+    }
+
+    @Override
+    public Optional<V> get( String key, Function<String, V> mappingFunction )
+    {
+        if ( null == mappingFunction )
+        {
+            throw new IllegalArgumentException( "MappingFunction cannot be null" );
+        }
+
+        long invalidation = invalidations.get();
+
+        V value = getIfPresent( key ).orElse( null );
+
+        if ( null == value )
+        {
+            value = mappingFunction.apply( key );
+
+            if ( null != value )
+            {
+                redisCache.put( key, value );
+                putLocal( key, value, invalidation );
+            }
+        }
+
+        return Optional.ofNullable( Optional.ofNullable( value ).orElse( defaultValue ) );
+    }
+
+    @Override
+    public Collection<V> getAll()
+    {
+        return redisCache.getAll();
+    }
+
+    @Override
+    public void put( String key, V value )
+    {
+        redisCache.put( key, value );
+        localCache.put( key, value );
+        publishInvalidation( key );
+    }
+
+    @Override
+    public void put( String key, V value, long ttlInSeconds )
+    {
+        redisCache.put( key, value, ttlInSeconds );
+        localCache.put( key, value, Math.min( ttlInSeconds, NEAR_CACHE_MAX_EXPIRY_SECONDS ) );
+        publishInvalidation( key );
+    }
+
+    @Override
+    public void invalidate( String key )
+    {
+        redisCache.invalidate( key );
+        localCache.invalidate( key );
+        publishInvalidation( key );
+    }
+
+    @Override
+    public void invalidateAll()
+    {
+        redisCache.invalidateAll();
+        localCache.invalidateAll();
+        publishInvalidation( "" );
+    }
+
+    @Override
+    public CacheType getCacheType()
+    {
+        return CacheType.HYBRID;
+    }
+
+    /**
+     * Binds the lookup counters of this cache, tagged with the cache region
+     * and the tier which served the lookup.
+     */
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        bindCounter( registry, "local_hit", HybridCache::getLocalHitCount );
+        bindCounter( registry, "remote_hit", HybridCache::getRemoteHitCount );
+        bindCounter( registry, "miss", HybridCache::getMissCount );
+    }
+
+    /**
+     * Returns the number of lookups served by the local tier.
+     */
+    public long getLocalHitCount()
+    {
+        return localHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups which missed the local tier and were
+     * served by the Redis tier.
+     */
+    public long getRemoteHitCount()
+    {
+        return remoteHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups which missed both tiers.
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Stores a value read from Redis in the local tier. If an invalidation was
+     * received since the read started, the local entry is dropped again, as
+     * the value may have been read before the change it invalidates. An
+     * invalidation received after the check drops the entry itself.
+     *
+     * @param key the key.
+     * @param value the value read from Redis.
+     * @param invalidation the invalidation count when the read started.
+     */
+    private void putLocal( String key, V value, long invalidation )
+    {
+        localCache.put( key, value );
+
+        if ( invalidations.get() != invalidation )
+        {
+            localCache.invalidate( key );
+        }
+    }
+
+    /**
+     * Publishes an invalidation message for the given key. An empty key
+     * indicates that all entries should be invalidated. The message is prefixed
+     * with the identifier of this instance so that it can be ignored when
+     * received by this instance.
+     */
+    private void publishInvalidation( String key )
+    {
+        byte[] message = instanceId.concat( MESSAGE_SEP ).concat( key ).getBytes( StandardCharsets.UTF_8 );
+
+        redisTemplate.execute( (RedisCallback<Long>) connection -> connection.publish( channel, message ) );
+    }
+
+    /**
+     * Drops local entries based on an invalidation message received from
+     * another instance.
+     */
+    private void onInvalidation( Message message )
+    {
+        String body = new String( message.getBody(), StandardCharsets.UTF_8 );
+
+        int sepIndex = body.indexOf( MESSAGE_SEP );
+
+        if ( sepIndex == -1 || instanceId.equals( body.substring( 0, sepIndex ) ) )
+        {
+            return;
+        }
+
+        String key = body.substring( sepIndex + 1 );
+
+        invalidations.incrementAndGet();
+
+        if ( key.isEmpty() )
+        {
+            localCache.invalidateAll();
+        }
+        else
+        {
+            localCache.invalidate( key );
+        }
+
+        log.debug( String.format( "Invalidated local cache entry: '%s'", key ) );
+    }
+
+    private void bindCounter( MeterRegistry registry, String result, ToDoubleFunction<HybridCache<V>> count )
+    {
+        FunctionCounter.builder( "cache.hybrid.gets", this, count )
+            .tags( Tags.of( "cache", region, "result", result ) )
+            .description( "Lookups of the hybrid cache by the tier which served the lookup" )
+            .register( registry );
+    }
+
+    private static <V> CacheBuilder<V> getNearCacheBuilder( CacheBuilder<V> cacheBuilder )
+    {
+        long maximumSize = cacheBuilder.getMaximumSize() > 0
+            ? Math.min( cacheBuilder.getMaximumSize(), DEFAULT_NEAR_CACHE_MAX_SIZE )
+            : DEFAULT_NEAR_CACHE_MAX_SIZE;
+
+        long expiryInSeconds = cacheBuilder.isExpiryEnabled()
+            ? Math.min( cacheBuilder.getExpiryInSeconds(), NEAR_CACHE_MAX_EXPIRY_SECONDS )
+            : NEAR_CACHE_MAX_EXPIRY_SECONDS;
+
+        return new SimpleCacheBuilder<V>()
+            .forRegion( cacheBuilder.getRegion() )
+            .withMaximumSize( maximumSize )
+            .expireAfterWrite( expiryInSeconds, SECONDS );
+    }
+}
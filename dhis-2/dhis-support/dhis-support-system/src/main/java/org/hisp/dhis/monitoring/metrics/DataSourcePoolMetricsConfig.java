@@ -36,10 +36,13 @@ import java.util.Map;
 
 import javax.sql.DataSource;
 
+import org.hisp.dhis.datasource.DataSourceManager;
+import org.hisp.dhis.datasource.ReadReplicaRoutingDataSource;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.monitoring.metrics.jdbc.C3p0MetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.DataSourcePoolMetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.DataSourcePoolMetrics;
+import org.hisp.dhis.monitoring.metrics.jdbc.ReadReplicaMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
@@ -81,6 +84,18 @@ public class DataSourcePoolMetricsConfig
             dataSources.forEach( this::bindDataSourceToRegistry );
         }
 
+        @Autowired
+        public void bindReadReplicasToRegistry( DataSourceManager dataSourceManager )
+        {
+            DataSource dataSource = dataSourceManager.getReadOnlyDataSource();
+
+            if ( dataSource instanceof ReadReplicaRoutingDataSource )
+            {
+                new ReadReplicaMetrics( (ReadReplicaRoutingDataSource) dataSource, this.metadataProviders )
+                    .bindTo( this.registry );
+            }
+        }
+
         private void bindDataSourceToRegistry( String beanName, DataSource dataSource )
         {
             String dataSourceName = getDataSourceName( beanName );
@@ -108,8 +123,8 @@ public class DataSourcePoolMetricsConfig
     @Bean
     public Collection<DataSourcePoolMetadataProvider> dataSourceMetadataProvider()
     {
-        DataSourcePoolMetadataProvider provider = dataSource -> new C3p0MetadataProvider(
-            (ComboPooledDataSource) dataSource );
+        DataSourcePoolMetadataProvider provider = dataSource -> dataSource instanceof ComboPooledDataSource
+            ? new C3p0MetadataProvider( (ComboPooledDataSource) dataSource ) : null;
 
         return Lists.newArrayList( provider );
     }
@@ -0,0 +1,87 @@
+package org.hisp.dhis.monitoring.metrics.jdbc;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.hisp.dhis.datasource.ReadReplicaRoutingDataSource;
+import org.hisp.dhis.datasource.ReadReplicaRoutingDataSource.ReadReplica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binds the routing state and connection pool of each read replica of a
+ * {@link ReadReplicaRoutingDataSource}.
+ */
+public class ReadReplicaMetrics
+    implements
+    MeterBinder
+{
+    private final ReadReplicaRoutingDataSource dataSource;
+
+    private final Collection<DataSourcePoolMetadataProvider> metadataProviders;
+
+    public ReadReplicaMetrics( ReadReplicaRoutingDataSource dataSource,
+        Collection<DataSourcePoolMetadataProvider> metadataProviders )
+    {
+        this.dataSource = dataSource;
+        this.metadataProviders = metadataProviders;
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        for ( ReadReplica replica : dataSource.getReplicas() )
+        {
+            Tags tags = Tags.of( "name", replica.getName() );
+
+            Gauge.builder( "jdbc.replica.connections.routed", replica, ReadReplica::getActiveConnections )
+                .tags( tags )
+                .description( "Connections routed to the read replica which are not yet closed" )
+                .register( registry );
+
+            Gauge.builder( "jdbc.replica.lag", replica, ReadReplica::getLag )
+                .tags( tags )
+                .description( "Replication lag in seconds of the read replica" )
+                .register( registry );
+
+            Gauge.builder( "jdbc.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0 )
+                .tags( tags )
+                .description( "Whether the read replica is used for routing" )
+                .register( registry );
+
+            new DataSourcePoolMetrics( replica.getDataSource(), metadataProviders, replica.getName(),
+                Collections.emptyList() ).bindTo( registry );
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.hisp.dhis.cache;
+
+/*
+ * Copyright (c) 2004-2020, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.BoundValueOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+/**
+ * Runs two {@link HybridCache} instances against an in-memory stand-in for
+ * the Redis store and pub/sub channel.
+ */
+public class HybridCacheTest
+{
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private DhisConfigurationProvider config;
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+
+    private final List<MessageListener> listeners = new ArrayList<>();
+
+    private Runnable onRedisRead = () -> {};
+
+    private HybridCache<String> cacheA;
+
+    private HybridCache<String> cacheB;
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setUp()
+    {
+        when( redisTemplate.boundValueOps( anyString() ) ).thenAnswer( inv -> boundValueOps( inv.getArgument( 0 ) ) );
+        when( redisTemplate.delete( anyString() ) ).thenAnswer( inv -> store.remove( inv.getArgument( 0 ) ) != null );
+        when( redisTemplate.delete( anyCollection() ) ).thenAnswer( inv -> {
+            Collection<String> keys = inv.getArgument( 0 );
+            keys.forEach( store::remove );
+            return (long) keys.size();
+        } );
+        when( redisTemplate.keys( anyString() ) ).thenAnswer( inv -> getKeys( inv.getArgument( 0 ) ) );
+        when( redisTemplate.execute( any( RedisCallback.class ) ) )
+            .thenAnswer( inv -> ((RedisCallback<?>) inv.getArgument( 0 )).doInRedis( connection ) );
+        when( connection.publish( any( byte[].class ), any( byte[].class ) ) ).thenAnswer( inv -> {
+            Message message = new DefaultMessage( inv.getArgument( 0 ), inv.getArgument( 1 ) );
+            listeners.forEach( listener -> listener.onMessage( message, null ) );
+            return (long) listeners.size();
+        } );
+        doAnswer( inv -> listeners.add( inv.getArgument( 0 ) ) ).when( listenerContainer )
+            .addMessageListener( any( MessageListener.class ), any( Topic.class ) );
+
+        cacheA = createCache();
+        cacheB = createCache();
+    }
+
+    @Test
+    public void testReadThrough()
+    {
+        store.put( "test:a", "1" );
+
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+
+        assertEquals( 1, cacheA.getRemoteHitCount() );
+        assertEquals( 1, cacheA.getLocalHitCount() );
+        assertEquals( 0, cacheA.getMissCount() );
+    }
+
+    @Test
+    public void testMiss()
+    {
+        assertFalse( cacheA.getIfPresent( "a" ).isPresent() );
+
+        assertEquals( 1, cacheA.getMissCount() );
+    }
+
+    @Test
+    public void testLocalHitAfterPut()
+    {
+        cacheA.put( "a", "1" );
+
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+        assertEquals( "1", store.get( "test:a" ) );
+
+        assertEquals( 1, cacheA.getLocalHitCount() );
+        assertEquals( 0, cacheA.getRemoteHitCount() );
+    }
+
+    @Test
+    public void testLoadIsNotBroadcast()
+    {
+        assertEquals( Optional.of( "1" ), cacheA.get( "a", key -> "1" ) );
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+        assertEquals( "1", store.get( "test:a" ) );
+
+        assertEquals( 1, cacheA.getLocalHitCount() );
+        verify( connection, never() ).publish( any( byte[].class ), any( byte[].class ) );
+    }
+
+    @Test
+    public void testBindTo()
+    {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        cacheA.bindTo( registry );
+
+        store.put( "test:a", "1" );
+
+        cacheA.getIfPresent( "a" );
+        cacheA.getIfPresent( "a" );
+        cacheA.getIfPresent( "b" );
+
+        assertEquals( 1, getCount( registry, "local_hit" ), 0 );
+        assertEquals( 1, getCount( registry, "remote_hit" ), 0 );
+        assertEquals( 1, getCount( registry, "miss" ), 0 );
+    }
+
+    @Test
+    public void testPutInvalidatesPeer()
+    {
+        cacheB.put( "a", "1" );
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+
+        cacheB.put( "a", "2" );
+
+        assertEquals( Optional.of( "2" ), cacheA.getIfPresent( "a" ) );
+        assertEquals( 2, cacheA.getRemoteHitCount() );
+    }
+
+    @Test
+    public void testInvalidateInvalidatesPeer()
+    {
+        cacheB.put( "a", "1" );
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+
+        cacheB.invalidate( "a" );
+
+        assertFalse( cacheA.getIfPresent( "a" ).isPresent() );
+        assertFalse( cacheB.getIfPresent( "a" ).isPresent() );
+    }
+
+    @Test
+    public void testInvalidateAllInvalidatesPeer()
+    {
+        cacheB.put( "a", "1" );
+        cacheB.put( "b", "2" );
+        cacheA.getIfPresent( "a" );
+        cacheA.getIfPresent( "b" );
+
+        cacheB.invalidateAll();
+
+        assertFalse( cacheA.getIfPresent( "a" ).isPresent() );
+        assertFalse( cacheA.getIfPresent( "b" ).isPresent() );
+        assertEquals( 0, store.size() );
+    }
+
+    @Test
+    public void testValueReadDuringInvalidationIsNotKeptLocally()
+    {
+        store.put( "test:a", "1" );
+
+        onRedisRead = () -> {
+            onRedisRead = () -> {};
+            cacheB.put( "a", "2" );
+        };
+
+        assertEquals( Optional.of( "1" ), cacheA.getIfPresent( "a" ) );
+        assertEquals( Optional.of( "2" ), cacheA.getIfPresent( "a" ) );
+
+        assertEquals( 2, cacheA.getRemoteHitCount() );
+        assertEquals( 0, cacheA.getLocalHitCount() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private double getCount( MeterRegistry registry, String result )
+    {
+        return registry.get( "cache.hybrid.gets" ).tags( "cache", "test", "result", result ).functionCounter().count();
+    }
+
+    private HybridCache<String> createCache()
+    {
+        ExtendedCacheBuilder<String> builder = new ExtendedCacheBuilder<>( redisTemplate, listenerContainer, config );
+        builder.forRegion( "test" );
+        builder.withMaximumSize( 100 );
+        builder.expireAfterWrite( 12, HOURS );
+
+        return new HybridCache<>( builder );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private BoundValueOperations<String, String> boundValueOps( String key )
+    {
+        return mock( BoundValueOperations.class, inv -> {
+            switch ( inv.getMethod().getName() )
+            {
+            case "get":
+                String value = store.get( key );
+                onRedisRead.run();
+                return value;
+            case "set":
+                store.put( key, inv.getArgument( 0 ) );
+                return null;
+            default:
+                return null;
+            }
+        } );
+    }
+
+    private Set<String> getKeys( String pattern )
+    {
+        String prefix = pattern.replace( "*", "" );
+
+        return store.keySet().stream()
+            .filter( key -> key.startsWith( prefix ) )
+            .collect( Collectors.toSet() );
+    }
+}
@@ -45,6 +45,7 @@ import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjects;
 import org.hisp.dhis.common.OrganisationUnitAssignable;
+import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.common.Pager;
 import org.hisp.dhis.common.SubscribableObject;
 import org.hisp.dhis.common.UserContext;
@@ -85,6 +86,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.patch.Patch;
 import org.hisp.dhis.patch.PatchParams;
 import org.hisp.dhis.patch.PatchService;
+import org.hisp.dhis.query.Keyset;
 import org.hisp.dhis.query.Order;
 import org.hisp.dhis.query.Pagination;
 import org.hisp.dhis.query.Query;
@@ -246,24 +248,39 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
             throw new ReadAccessDeniedException( "You don't have the proper permissions to read objects of this type." );
         }
 
+        List<Order> keysetOrders = options.hasPaging() ? Keyset.getOrders( getSchema(), orders ) : null;
+
+        if ( keysetOrders != null )
+        {
+            orders = keysetOrders;
+        }
+        else if ( options.hasPaging() && options.getPageToken() != null )
+        {
+            throw new IllegalQueryException( "Page token requires ordering by a single required text property" );
+        }
+
         List<T> entities = getEntityList( metadata, options, filters, orders );
 
         Pager pager = metadata.getPager();
 
         if ( options.hasPaging() && pager == null )
         {
-            long count;
             if ( options.getOptions().containsKey( "query" ) )
             {
-                count = entities.size();
+                long count = entities.size();
                 entities = entities.stream().skip( (options.getPage() - 1) * options.getPageSize() ).limit( options.getPageSize() ).collect( Collectors.toList() );
+                pager = new Pager( options.getPage(), count, options.getPageSize() );
             }
             else
             {
-                count = paginationCountCache.computeIfAbsent( calculatePaginationCountKey(currentUser, filters, options), () -> count( options, filters, orders ) );
-            }
+                pager = getPager( currentUser, options, filters, orders, entities );
 
-            pager = new Pager( options.getPage(), count, options.getPageSize() );
+                if ( keysetOrders != null && entities.size() == options.getPageSize() )
+                {
+                    Keyset keyset = Keyset.of( keysetOrders, entities.get( entities.size() - 1 ) );
+                    pager.setNextPageToken( keyset != null ? keyset.toToken() : null );
+                }
+            }
         }
 
         restrictToCaptureScope( entities, options, rpParameters );
@@ -284,7 +301,7 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
             rootNode.addChild( NodeUtils.createPager( pager ) );
         }
 
-        rootNode.addChild( fieldFilterService.toCollectionNode( getEntityClass(),
+        rootNode.addChild( fieldFilterService.toStreamingCollectionNode( getEntityClass(),
             new FieldFilterParams( entities, fields, Defaults.valueOf( options.get( "defaults", DEFAULTS ) ) ) ) );
 
         response.setHeader( ContextUtils.HEADER_CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue() );
@@ -1230,6 +1247,30 @@ public abstract class AbstractCrudController<T extends IdentifiableObject>
         return entityList;
     }
 
+    /**
+     * Creates the pager for a page of entities. Counts the total unless the
+     * request skips the count or pages with a token, in which case there is
+     * assumed to be a next page if the page is full.
+     */
+    private Pager getPager( User currentUser, WebOptions options, List<String> filters, List<Order> orders, List<T> entities )
+    {
+        if ( options.isTotalPages() && options.getPageToken() == null )
+        {
+            long count = paginationCountCache.computeIfAbsent( calculatePaginationCountKey( currentUser, filters, options ), () -> count( options, filters, orders ) );
+
+            return new Pager( options.getPage(), count, options.getPageSize() );
+        }
+
+        int page = options.getPageToken() == null ? options.getPage() : 1;
+        boolean hasNextPage = entities.size() == options.getPageSize();
+        long total = (long) (page - 1) * options.getPageSize() + entities.size() + (hasNextPage ? 1 : 0);
+
+        Pager pager = new Pager( page, total, options.getPageSize() );
+        pager.setTotalCounted( false );
+
+        return pager;
+    }
+
     private int count( WebOptions options, List<String> filters, List<Order> orders )
     {
         Query query = queryService.getQueryFromUrl( getEntityClass(), filters, orders, new Pagination(),
@@ -96,6 +96,8 @@ import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -153,13 +155,15 @@ public class EventController
 
     private final ContextUtils contextUtils;
 
+    private final ObjectMapper jsonMapper;
+
     public EventController( CurrentUserService currentUserService, SchedulingManager schedulingManager,
         EventService eventService, CsvEventService csvEventService, EventRowService eventRowService,
         DataElementService dataElementService, WebMessageService webMessageService, InputUtils inputUtils,
         RenderService renderService, ProgramStageInstanceService programStageInstanceService,
         FileResourceService fileResourceService, FieldFilterService fieldFilterService, ContextService contextService,
         SchemaService schemaService, TrackedEntityInstanceService entityInstanceService, ContextUtils contextUtils,
-        RequestToSearchParamsMapper requestToSearchParamsMapper )
+        RequestToSearchParamsMapper requestToSearchParamsMapper, ObjectMapper jsonMapper )
     {
         this.currentUserService = currentUserService;
         this.schedulingManager = schedulingManager;
@@ -178,6 +182,7 @@ public class EventController
         this.entityInstanceService = entityInstanceService;
         this.contextUtils = contextUtils;
         this.requestToSearchParamsMapper = requestToSearchParamsMapper;
+        this.jsonMapper = jsonMapper;
     }
 
     private Schema schema;
@@ -764,6 +769,171 @@ public class EventController
         csvEventService.writeEvents( outputStream, events, !skipHeader );
     }
 
+    /**
+     * Streams events as JSON while they are read from the database. Reads a
+     * single page by keyset when a page size or page cursor is given, where the
+     * cursor of the next page is returned in the pager if the page is full.
+     * Events are then ordered by last updated, and an order can not be given.
+     * <p>
+     * The document is closed only when all events have been written, so that a
+     * failure while streaming results in an incomplete document.
+     */
+    @RequestMapping( value = "/stream", method = RequestMethod.GET )
+    public void streamJsonEvents(
+            @RequestParam( required = false ) String program,
+            @RequestParam( required = false ) String programStage,
+            @RequestParam( required = false ) ProgramStatus programStatus,
+            @RequestParam( required = false ) Boolean followUp,
+            @RequestParam( required = false ) String trackedEntityInstance,
+            @RequestParam( required = false ) String orgUnit,
+            @RequestParam( required = false ) OrganisationUnitSelectionMode ouMode,
+            @RequestParam( required = false ) AssignedUserSelectionMode assignedUserMode,
+            @RequestParam( required = false ) String assignedUser,
+            @RequestParam( required = false ) Date startDate,
+            @RequestParam( required = false ) Date endDate,
+            @RequestParam( required = false ) Date dueDateStart,
+            @RequestParam( required = false ) Date dueDateEnd,
+            @RequestParam( required = false ) Date lastUpdated,
+            @RequestParam( required = false ) Date lastUpdatedStartDate,
+            @RequestParam( required = false ) Date lastUpdatedEndDate,
+            @RequestParam( required = false ) String lastUpdatedDuration,
+            @RequestParam( required = false ) EventStatus status,
+            @RequestParam( required = false ) String attributeCc,
+            @RequestParam( required = false ) String attributeCos,
+            @RequestParam( required = false ) Integer pageSize,
+            @RequestParam( required = false ) String pageCursor,
+            @RequestParam( required = false ) String order,
+            @RequestParam( required = false ) String event,
+            @RequestParam( required = false ) Boolean skipEventId,
+            @RequestParam( required = false ) Set<String> filter,
+            @RequestParam( required = false, defaultValue = "false" ) boolean includeDeleted,
+            IdSchemes idSchemes, HttpServletResponse response ) throws IOException, WebMessageException
+    {
+        CategoryOptionCombo attributeOptionCombo = inputUtils.getAttributeOptionCombo( attributeCc, attributeCos, true );
+
+        Set<String> eventIds = TextUtils.splitToArray( event, TextUtils.SEMICOLON );
+
+        Set<String> assignedUserIds = TextUtils.splitToArray( assignedUser, TextUtils.SEMICOLON );
+
+        Map<String, String> dataElementOrders = getDataElementsFromOrder( order );
+
+        lastUpdatedStartDate = lastUpdatedStartDate != null ? lastUpdatedStartDate : lastUpdated;
+
+        EventSearchParams params = requestToSearchParamsMapper.map( program, programStage, programStatus, followUp,
+                orgUnit, ouMode, trackedEntityInstance, startDate, endDate, dueDateStart, dueDateEnd, lastUpdatedStartDate,
+                lastUpdatedEndDate, lastUpdatedDuration, status, attributeOptionCombo, idSchemes, null, pageSize,
+                false, pageSize == null, getOrderParams( order ), getGridOrderParams( order, dataElementOrders ), false,
+                eventIds, skipEventId, assignedUserMode, assignedUserIds, filter, dataElementOrders.keySet(), false,
+                includeDeleted );
+
+        params.setKeysetPaging( pageSize != null || pageCursor != null )
+            .setPageCursor( pageCursor != null ? EventPageCursor.decode( pageCursor ) : null );
+
+        response.setContentType( ContextUtils.CONTENT_TYPE_JSON );
+
+        JsonGenerator generator = jsonMapper.getFactory()
+            .createGenerator( response.getOutputStream() )
+            .disable( JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT );
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart( "events" );
+
+        EventPageCursor nextPageCursor = eventService.streamEvents( params, e -> safeWriteEvent( generator, e ) );
+
+        generator.writeEndArray();
+
+        if ( params.isKeysetPaging() )
+        {
+            generator.writeObjectFieldStart( "pager" );
+            generator.writeNumberField( "pageSize", params.getPageSizeWithDefault() );
+
+            if ( nextPageCursor != null )
+            {
+                generator.writeStringField( "nextPageCursor", nextPageCursor.encode() );
+            }
+
+            generator.writeEndObject();
+        }
+
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    @SneakyThrows
+    private void safeWriteEvent( JsonGenerator generator, Event event )
+    {
+        generator.writeObject( event );
+    }
+
+    /**
+     * Streams events as CSV while they are read from the database.
+     */
+    @RequestMapping( value = "/stream", method = RequestMethod.GET, produces = { "application/csv", "application/csv+gzip", "text/csv" } )
+    public void streamCsvEvents(
+            @RequestParam( required = false ) String program,
+            @RequestParam( required = false ) String programStage,
+            @RequestParam( required = false ) ProgramStatus programStatus,
+            @RequestParam( required = false ) Boolean followUp,
+            @RequestParam( required = false ) String trackedEntityInstance,
+            @RequestParam( required = false ) String orgUnit,
+            @RequestParam( required = false ) OrganisationUnitSelectionMode ouMode,
+            @RequestParam( required = false ) AssignedUserSelectionMode assignedUserMode,
+            @RequestParam( required = false ) String assignedUser,
+            @RequestParam( required = false ) Date startDate,
+            @RequestParam( required = false ) Date endDate,
+            @RequestParam( required = false ) Date dueDateStart,
+            @RequestParam( required = false ) Date dueDateEnd,
+            @RequestParam( required = false ) Date lastUpdated,
+            @RequestParam( required = false ) Date lastUpdatedStartDate,
+            @RequestParam( required = false ) Date lastUpdatedEndDate,
+            @RequestParam( required = false ) String lastUpdatedDuration,
+            @RequestParam( required = false ) EventStatus status,
+            @RequestParam( required = false ) String attributeCc,
+            @RequestParam( required = false ) String attributeCos,
+            @RequestParam( required = false ) String order,
+            @RequestParam( required = false ) String event,
+            @RequestParam( required = false ) Boolean skipEventId,
+            @RequestParam( required = false ) Set<String> filter,
+            @RequestParam( required = false ) String attachment,
+            @RequestParam( required = false, defaultValue = "false" ) boolean includeDeleted,
+            @RequestParam( required = false, defaultValue = "false" ) boolean skipHeader,
+            IdSchemes idSchemes, HttpServletResponse response, HttpServletRequest request ) throws IOException, WebMessageException
+    {
+        CategoryOptionCombo attributeOptionCombo = inputUtils.getAttributeOptionCombo( attributeCc, attributeCos, true );
+
+        Set<String> eventIds = TextUtils.splitToArray( event, TextUtils.SEMICOLON );
+
+        Set<String> assignedUserIds = TextUtils.splitToArray( assignedUser, TextUtils.SEMICOLON );
+
+        Map<String, String> dataElementOrders = getDataElementsFromOrder( order );
+
+        lastUpdatedStartDate = lastUpdatedStartDate != null ? lastUpdatedStartDate : lastUpdated;
+
+        EventSearchParams params = requestToSearchParamsMapper.map( program, programStage, programStatus, followUp,
+                orgUnit, ouMode, trackedEntityInstance, startDate, endDate, dueDateStart, dueDateEnd, lastUpdatedStartDate,
+                lastUpdatedEndDate, lastUpdatedDuration, status, attributeOptionCombo, idSchemes, null, null,
+                false, true, getOrderParams( order ), getGridOrderParams( order, dataElementOrders ), false,
+                eventIds, skipEventId, assignedUserMode, assignedUserIds, filter, dataElementOrders.keySet(), false,
+                includeDeleted );
+
+        OutputStream outputStream = response.getOutputStream();
+        response.setContentType( "application/csv" );
+
+        if ( ContextUtils.isAcceptCsvGzip( request ) )
+        {
+            response.addHeader( ContextUtils.HEADER_CONTENT_TRANSFER_ENCODING, "binary" );
+            outputStream = new GZIPOutputStream( outputStream );
+            response.setContentType( "application/csv+gzip" );
+        }
+
+        if ( !StringUtils.isEmpty( attachment ) )
+        {
+            response.addHeader( "Content-Disposition", "attachment; filename=" + attachment );
+        }
+
+        csvEventService.writeEvents( outputStream, !skipHeader, consumer -> eventService.streamEvents( params, consumer ) );
+    }
+
     // -------------------------------------------------------------------------
     // Rows Read
     // -------------------------------------------------------------------------
@@ -7,6 +7,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.tracker.AtomicMode;
 import org.hisp.dhis.tracker.FlushMode;
+import org.hisp.dhis.tracker.PersistMode;
 import org.hisp.dhis.tracker.TrackerIdScheme;
 import org.hisp.dhis.tracker.TrackerIdentifier;
 import org.hisp.dhis.tracker.TrackerIdentifierParams;
@@ -32,6 +33,8 @@ public class TrackerImportParamsBuilder
 
     public static String FLUSH_MODE_KEY = "flushMode";
 
+    public static String PERSIST_MODE_KEY = "persistMode";
+
     public static TrackerImportParams build( Map<String, List<String>> parameters )
     {
         TrackerImportParams params = new TrackerImportParams();
@@ -45,6 +48,7 @@ public class TrackerImportParamsBuilder
             TrackerImportStrategy.CREATE_AND_UPDATE ) );
         params.setAtomicMode( getEnumWithDefault( AtomicMode.class, parameters, ATOMIC_MODE_KEY, AtomicMode.ALL ) );
         params.setFlushMode( getEnumWithDefault( FlushMode.class, parameters, FLUSH_MODE_KEY, FlushMode.AUTO ) );
+        params.setPersistMode( getEnumWithDefault( PersistMode.class, parameters, PERSIST_MODE_KEY, PersistMode.OBJECT ) );
 
         return params;
 
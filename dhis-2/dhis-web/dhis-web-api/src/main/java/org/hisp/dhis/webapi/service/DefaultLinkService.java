@@ -113,7 +113,9 @@ public class DefaultLinkService implements LinkService
 
         if ( pager.getPage() < pager.getPageCount() )
         {
-            String nextPath = endpoint + "?page=" + (pager.getPage() + 1);
+            String nextPath = pager.isTotalCounted() || pager.getNextPageToken() == null
+                ? endpoint + "?page=" + (pager.getPage() + 1)
+                : endpoint + "?pageToken=" + pager.getNextPageToken();
             nextPath += pager.pageSizeIsDefault() ? "" : "&pageSize=" + pager.getPageSize();
 
             if ( !parameters.isEmpty() )
@@ -245,7 +247,7 @@ public class DefaultLinkService implements LinkService
         final StringBuilder result = new StringBuilder();
 
         parameters.forEach( ( name, values ) -> {
-            if ( !"page".equals( name ) && !"pageSize".equals( name ) )
+            if ( !"page".equals( name ) && !"pageSize".equals( name ) && !"pageToken".equals( name ) )
             {
                 values.forEach( value -> {
                     if ( result.length() > 0 )
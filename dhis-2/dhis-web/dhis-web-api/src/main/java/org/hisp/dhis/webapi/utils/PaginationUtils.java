@@ -28,6 +28,7 @@
 
 package org.hisp.dhis.webapi.utils;
 
+import org.hisp.dhis.query.Keyset;
 import org.hisp.dhis.query.Pagination;
 import org.hisp.dhis.webapi.webdomain.WebOptions;
 
@@ -42,7 +43,9 @@ public class PaginationUtils
      * Calculates the paging first result based on pagination data from
      * {@see WebOptions} if the WebOptions have pagination information
      * 
-     * The first result is simply calculated by multiplying page -1 * page size
+     * The first result is simply calculated by multiplying page -1 * page size,
+     * unless a page token is given, in which case the page starts after the
+     * keyset of the token
      * 
      * @param options a {@see WebOptions} object
      * @return a {@see PaginationData} object either empty or containing pagination
@@ -50,6 +53,11 @@ public class PaginationUtils
      */
     public static Pagination getPaginationData( WebOptions options )
     {
+        if ( options.hasPaging() && options.getPageToken() != null )
+        {
+            return new Pagination( Keyset.fromToken( options.getPageToken() ), options.getPageSize() );
+        }
+
         if ( options.hasPaging() )
         {
             // ignore if page < 0
@@ -43,6 +43,8 @@ public class WebOptions
     public final static String PAGING = "paging";
     public final static String PAGE = "page";
     public final static String PAGE_SIZE = "pageSize";
+    public final static String PAGE_TOKEN = "pageToken";
+    public final static String TOTAL_PAGES = "totalPages";
     public final static String ROOT_JUNCTION = "rootJunction";
     public final static String VIEW_CLASS = "viewClass";
     public final static String MANAGE = "manage";
@@ -94,6 +96,24 @@ public class WebOptions
         return stringAsInt( options.get( PAGE_SIZE ), Pager.DEFAULT_PAGE_SIZE );
     }
 
+    /**
+     * Token of the keyset to page from, as returned in the pager of the
+     * previous page.
+     */
+    public String getPageToken()
+    {
+        return stringAsString( options.get( PAGE_TOKEN ), null );
+    }
+
+    /**
+     * Whether to count the total number of objects and pages. Skipping the
+     * count saves a query per page.
+     */
+    public boolean isTotalPages()
+    {
+        return stringAsBoolean( options.get( TOTAL_PAGES ), true );
+    }
+
     public boolean isManage()
     {
         return stringAsBoolean( options.get( MANAGE ), false );
@@ -6,6 +6,7 @@ import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder
 import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder.FLUSH_MODE_KEY;
 import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder.IMPORT_MODE_KEY;
 import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder.IMPORT_STRATEGY_KEY;
+import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder.PERSIST_MODE_KEY;
 import static org.hisp.dhis.webapi.controller.tracker.TrackerImportParamsBuilder.VALIDATION_MODE_KEY;
 
 import java.util.Arrays;
@@ -16,6 +17,7 @@ import java.util.Map;
 
 import org.hisp.dhis.tracker.AtomicMode;
 import org.hisp.dhis.tracker.FlushMode;
+import org.hisp.dhis.tracker.PersistMode;
 import org.hisp.dhis.tracker.TrackerIdScheme;
 import org.hisp.dhis.tracker.TrackerIdentifier;
 import org.hisp.dhis.tracker.TrackerIdentifierParams;
@@ -79,6 +81,16 @@ public class TrackerImportParamsBuilderTest
         } );
     }
 
+    @Test
+    public void testPersistMode()
+    {
+        Arrays.stream( PersistMode.values() ).forEach( e -> {
+            paramMap.put( PERSIST_MODE_KEY, Collections.singletonList( e.name() ) );
+            TrackerImportParams params = TrackerImportParamsBuilder.build( paramMap );
+            assertThat( params.getPersistMode(), is( e ) );
+        } );
+    }
+
     @Test
     public void testImportStrategy()
     {
@@ -136,6 +148,7 @@ public class TrackerImportParamsBuilderTest
         assertThat( params.getImportStrategy(), is( TrackerImportStrategy.CREATE_AND_UPDATE ) );
         assertThat( params.getAtomicMode(), is( AtomicMode.ALL ) );
         assertThat( params.getFlushMode(), is( FlushMode.AUTO ) );
+        assertThat( params.getPersistMode(), is( PersistMode.OBJECT ) );
 
         TrackerIdentifierParams identifiers = params.getIdentifiers();
         assertThat( identifiers.getOrgUnitIdScheme(), is( TrackerIdentifier.UID ) );